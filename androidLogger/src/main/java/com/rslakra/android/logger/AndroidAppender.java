@@ -98,54 +98,43 @@ public final class AndroidAppender extends AppenderSkeleton {
      ********************************************************************************************/
     
     /**
-     * Appends the logs to the configured logger.
+     * Appends the logs to the configured logger. The stack trace of the event is rendered by the
+     * <code>ThrowableRenderer</code> of the repository (once per event), so the repeated traces
+     * are only referenced in the logcat too.
      *
      * @param logEvent
      */
     @Override
     protected final void append(final LoggingEvent logEvent) {
+        final String logTag = getTagLayout().format(logEvent);
+        String logMessage = getLayout().format(logEvent);
+        final String[] throwableStrRep = (getLayout().ignoresThrowable() ? logEvent.getThrowableStrRep() : null);
+        if(throwableStrRep != null) {
+            final StringBuilder messageBuilder = new StringBuilder(logMessage);
+            for(String line : throwableStrRep) {
+                messageBuilder.append('\n').append(line);
+            }
+            logMessage = messageBuilder.toString();
+        }
+        
         switch(logEvent.getLevel().toInt()) {
             case Level.TRACE_INT:
-                if(logEvent.getThrowableInformation() != null) {
-                    Log.v(getTagLayout().format(logEvent), getLayout().format(logEvent), logEvent.getThrowableInformation().getThrowable());
-                } else {
-                    Log.v(getTagLayout().format(logEvent), getLayout().format(logEvent));
-                }
+                Log.v(logTag, logMessage);
                 break;
             case Level.DEBUG_INT:
-                if(logEvent.getThrowableInformation() != null) {
-                    Log.d(getTagLayout().format(logEvent), getLayout().format(logEvent), logEvent.getThrowableInformation().getThrowable());
-                } else {
-                    Log.d(getTagLayout().format(logEvent), getLayout().format(logEvent));
-                }
+                Log.d(logTag, logMessage);
                 break;
             case Level.INFO_INT:
-                if(logEvent.getThrowableInformation() != null) {
-                    Log.i(getTagLayout().format(logEvent), getLayout().format(logEvent), logEvent.getThrowableInformation().getThrowable());
-                } else {
-                    Log.i(getTagLayout().format(logEvent), getLayout().format(logEvent));
-                }
+                Log.i(logTag, logMessage);
                 break;
             case Level.WARN_INT:
-                if(logEvent.getThrowableInformation() != null) {
-                    Log.w(getTagLayout().format(logEvent), getLayout().format(logEvent), logEvent.getThrowableInformation().getThrowable());
-                } else {
-                    Log.w(getTagLayout().format(logEvent), getLayout().format(logEvent));
-                }
+                Log.w(logTag, logMessage);
                 break;
             case Level.ERROR_INT:
-                if(logEvent.getThrowableInformation() != null) {
-                    Log.e(getTagLayout().format(logEvent), getLayout().format(logEvent), logEvent.getThrowableInformation().getThrowable());
-                } else {
-                    Log.e(getTagLayout().format(logEvent), getLayout().format(logEvent));
-                }
+                Log.e(logTag, logMessage);
                 break;
             case Level.FATAL_INT:
-                if(logEvent.getThrowableInformation() != null) {
-                    Log.wtf(getTagLayout().format(logEvent), getLayout().format(logEvent), logEvent.getThrowableInformation().getThrowable());
-                } else {
-                    Log.wtf(getTagLayout().format(logEvent), getLayout().format(logEvent));
-                }
+                Log.wtf(logTag, logMessage);
                 break;
         }
     }
@@ -0,0 +1,279 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes the log events into a file synchronously, without a background thread, combining the
+ * events of the concurrent threads into one write.
+ * <p>
+ * Every thread encodes its event into its own slot and publishes it. Then, whichever thread gets
+ * the combiner lock writes the published events of all the threads with a single gathering
+ * <code>FileChannel.write(ByteBuffer[])</code>, while the other threads spin until their events
+ * are written. So, the threads don't queue on the lock one by one like they do in the
+ * <code>AppenderSkeleton.doAppend</code>, and an event is in the file (not in any buffer of the
+ * process) when the <code>append</code> returns.
+ * <p>
+ * The file is rolled over like the log4j <code>RollingFileAppender</code> does.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 09:26:15 PM
+ * @since 1.0.0
+ */
+public final class CombiningFileWriter implements LogFileWriter {
+    
+    /** LOG_TAG */
+    private static final String LOG_TAG = "CombiningFileWriter";
+    
+    /** APPENDER_NAME - the name of the metrics of this writer. */
+    public static final String APPENDER_NAME = "combining";
+    
+    /** SLOT_SIZE - the bytes of a slot, the larger events get a buffer of their own. */
+    public static final int SLOT_SIZE = 4 * 1024;
+    
+    /** MAX_SPINS - the busy spins of a waiting thread, before it starts yielding. */
+    private static final int MAX_SPINS = 64;
+    
+    /** mFileChannel - used by the combiner only. */
+    private final RollingFileChannel mFileChannel;
+    
+    /** mAppenderMetrics */
+    private final LogMetrics.AppenderMetrics mAppenderMetrics;
+    
+    /** mCombinerLock */
+    private final ReentrantLock mCombinerLock = new ReentrantLock();
+    
+    /** mSlots */
+    private final CopyOnWriteArrayList<Slot> mSlots = new CopyOnWriteArrayList<Slot>();
+    
+    /** mSlot */
+    private final ThreadLocal<Slot> mSlot = new ThreadLocal<Slot>() {
+        @Override
+        protected Slot initialValue() {
+            final Slot slot = new Slot(Thread.currentThread());
+            mSlots.add(slot);
+            return slot;
+        }
+    };
+    
+    /** mBuffers - the reusable buffers of a gathering write, used by the combiner only. */
+    private ByteBuffer[] mBuffers = new ByteBuffer[16];
+    
+    /** mCombined - the slots combined into the current write, used by the combiner only. */
+    private Slot[] mCombined = new Slot[16];
+    
+    /** mClosed */
+    private volatile boolean mClosed;
+    
+    /**
+     * @param logFile
+     * @param maxFileSize
+     * @param maxBackupFiles
+     * @param logMetrics
+     * @throws IOException
+     */
+    public CombiningFileWriter(final File logFile, final long maxFileSize, final int maxBackupFiles, final LogMetrics logMetrics) throws IOException {
+        mFileChannel = new RollingFileChannel(logFile, maxFileSize, maxBackupFiles);
+        mAppenderMetrics = (LogHelper.isNull(logMetrics) ? null : logMetrics.getAppenderMetrics(APPENDER_NAME));
+    }
+    
+    /**
+     * Returns the log file.
+     *
+     * @return
+     */
+    @Override
+    public final File getLogFile() {
+        return mFileChannel.getLogFile();
+    }
+    
+    /**
+     * Encodes the event into the slot of the current thread and returns, once the event is
+     * written into the file, either by this thread or by the thread holding the combiner lock.
+     *
+     * @param logType
+     * @param logTag
+     * @param logMessage
+     * @param throwable
+     */
+    @Override
+    public final void append(final LogType logType, final String logTag, final String logMessage, final Throwable throwable) {
+        if(mClosed) {
+            return;
+        }
+        
+        final Slot slot = mSlot.get();
+        final long timeMillis = System.currentTimeMillis();
+        slot.mBuffer.clear();
+        ByteBuffer buffer = slot.mBuffer;
+        if(!slot.mEncoder.encode(buffer, timeMillis, logType, slot.mThreadName, logTag, logMessage, throwable)) {
+            /* the event is larger than a slot, it gets a buffer of its own. */
+            buffer = ByteBuffer.allocate(LogEventEncoder.maxEncodedSize(slot.mThreadName, logTag, logMessage, throwable));
+            slot.mEncoder.encode(buffer, timeMillis, logType, slot.mThreadName, logTag, logMessage, throwable);
+        }
+        buffer.flip();
+        slot.mEvent = buffer;
+        slot.mPending = true;
+        
+        int spins = 0;
+        while(slot.mPending) {
+            if(mCombinerLock.tryLock()) {
+                try {
+                    combine();
+                } finally {
+                    mCombinerLock.unlock();
+                }
+            } else if(spins < MAX_SPINS) {
+                spins++;
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+    
+    /**
+     * Writes the published events of all the threads. Must be called holding the combiner lock.
+     */
+    private void combine() {
+        int length = 0;
+        for(Slot slot : mSlots) {
+            if(slot.mPending) {
+                if(length == mBuffers.length) {
+                    final ByteBuffer[] buffers = new ByteBuffer[length * 2];
+                    System.arraycopy(mBuffers, 0, buffers, 0, length);
+                    mBuffers = buffers;
+                    final Slot[] combined = new Slot[length * 2];
+                    System.arraycopy(mCombined, 0, combined, 0, length);
+                    mCombined = combined;
+                }
+                mBuffers[length] = slot.mEvent;
+                mCombined[length] = slot;
+                length++;
+            } else if(!slot.mThread.isAlive()) {
+                mSlots.remove(slot);
+            }
+        }
+        if(length == 0) {
+            return;
+        }
+        
+        try {
+            if(!mClosed) {
+                final long startTime = System.nanoTime();
+                final long bytes = mFileChannel.write(mBuffers, length);
+                if(LogHelper.isNotNull(mAppenderMetrics)) {
+                    mAppenderMetrics.recordAppend(System.nanoTime() - startTime);
+                    mAppenderMetrics.recordBytes(bytes);
+                }
+            }
+        } catch(IOException ex) {
+            Log.e(LOG_TAG, "Error while writing the logs into:" + getLogFile(), ex);
+            mClosed = true;
+            mFileChannel.close();
+        } finally {
+            /* release the waiting threads, even if their events could not be written. */
+            for(int i = 0; i < length; i++) {
+                mBuffers[i] = null;
+                mCombined[i].mEvent = null;
+                mCombined[i].mPending = false;
+                mCombined[i] = null;
+            }
+        }
+    }
+    
+    /**
+     * The events are written, when the <code>append</code> returns, so there is nothing to wait
+     * for.
+     *
+     * @param timeoutMillis
+     * @return true, if the writer is not closed because of an error.
+     */
+    @Override
+    public final boolean flush(final long timeoutMillis) {
+        return !mClosed;
+    }
+    
+    /**
+     * Closes the file, after the current write completes. The events appended afterwards are
+     * dropped.
+     */
+    @Override
+    public final void close() {
+        mCombinerLock.lock();
+        try {
+            if(!mClosed) {
+                mClosed = true;
+                mFileChannel.close();
+            }
+        } finally {
+            mCombinerLock.unlock();
+        }
+    }
+    
+    /**
+     * The slot, a thread publishes its event into.
+     */
+    private static final class Slot {
+        
+        /** mThread */
+        private final Thread mThread;
+        
+        /** mThreadName */
+        private final String mThreadName;
+        
+        /** mEncoder */
+        private final LogEventEncoder mEncoder = new LogEventEncoder();
+        
+        /** mBuffer */
+        private final ByteBuffer mBuffer = ByteBuffer.allocate(SLOT_SIZE);
+        
+        /** mEvent - the encoded event to be written, published by the <code>mPending</code>. */
+        private ByteBuffer mEvent;
+        
+        /** mPending - true, while the event waits to be written. */
+        private volatile boolean mPending;
+        
+        /**
+         * @param thread
+         */
+        private Slot(final Thread thread) {
+            mThread = thread;
+            mThreadName = thread.getName();
+        }
+    }
+}
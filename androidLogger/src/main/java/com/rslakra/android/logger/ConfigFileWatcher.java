@@ -0,0 +1,161 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import java.io.File;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * Polls a configuration file for the changes on a daemon timer thread and notifies the
+ * <code>Listener</code>, when the file is created or its modified time or length changes.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 05:20:38 PM
+ * @since 1.0.0
+ */
+final class ConfigFileWatcher {
+    
+    /** LOG_TAG */
+    private static final String LOG_TAG = "ConfigFileWatcher";
+    
+    /** mConfigFile */
+    private final File mConfigFile;
+    
+    /** mListener */
+    private final Listener mListener;
+    
+    /** mLastModified */
+    private long mLastModified;
+    
+    /** mLength */
+    private long mLength;
+    
+    /** mWatchTimer */
+    private Timer mWatchTimer;
+    
+    /**
+     * @param configFile
+     * @param listener
+     */
+    ConfigFileWatcher(final File configFile, final Listener listener) {
+        if(LogHelper.isNull(configFile)) {
+            throw new NullPointerException("The configFile should not be NULL!");
+        }
+        if(LogHelper.isNull(listener)) {
+            throw new NullPointerException("The listener should not be NULL!");
+        }
+        
+        mConfigFile = configFile;
+        mListener = listener;
+        mLastModified = configFile.lastModified();
+        mLength = configFile.length();
+    }
+    
+    /**
+     * Returns the <code>mConfigFile</code> value.
+     *
+     * @return
+     */
+    final File getConfigFile() {
+        return mConfigFile;
+    }
+    
+    /**
+     * Starts polling the file every <code>periodSeconds</code>. The changes made before the
+     * watcher was created are not reported.
+     *
+     * @param periodSeconds
+     */
+    final synchronized void start(final long periodSeconds) {
+        if(periodSeconds <= 0) {
+            throw new IllegalArgumentException("Invalid Value! periodSeconds:" + periodSeconds);
+        }
+        
+        stop();
+        mWatchTimer = new Timer(LOG_TAG, true);
+        mWatchTimer.schedule(new TimerTask() {
+            @Override
+            public void run() {
+                checkChanged();
+            }
+        }, periodSeconds * 1000L, periodSeconds * 1000L);
+    }
+    
+    /**
+     * Stops polling the file.
+     */
+    final synchronized void stop() {
+        if(LogHelper.isNotNull(mWatchTimer)) {
+            mWatchTimer.cancel();
+            mWatchTimer = null;
+        }
+    }
+    
+    /**
+     * Checks the file and notifies the listener, if it's changed since the last check. A deleted
+     * file is not reported.
+     *
+     * @return
+     */
+    final synchronized boolean checkChanged() {
+        final long lastModified = mConfigFile.lastModified();
+        final long length = mConfigFile.length();
+        if(lastModified == mLastModified && length == mLength) {
+            return false;
+        }
+        
+        mLastModified = lastModified;
+        mLength = length;
+        if(lastModified == 0) {
+            return false;
+        }
+        
+        try {
+            mListener.onChanged(mConfigFile);
+        } catch(RuntimeException ex) {
+            LogHelper.e(LOG_TAG, "Error while applying the changed configuration:" + mConfigFile, ex);
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Notified, when the watched file is changed.
+     */
+    interface Listener {
+        
+        /**
+         * @param configFile
+         */
+        void onChanged(File configFile);
+    }
+}
@@ -0,0 +1,101 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The table based CRC-32C (Castagnoli) checksum, since the <code>java.util.zip.CRC32C</code> is
+ * not available on the supported API levels.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-20 01:12:07 AM
+ * @since 1.0.0
+ */
+final class Crc32c {
+    
+    /** POLYNOMIAL - the reversed Castagnoli polynomial. */
+    private static final int POLYNOMIAL = 0x82F63B78;
+    
+    /** TABLE */
+    private static final int[] TABLE = new int[256];
+    
+    static {
+        for(int i = 0; i < TABLE.length; i++) {
+            int crc = i;
+            for(int bit = 0; bit < 8; bit++) {
+                crc = ((crc & 1) != 0 ? (crc >>> 1) ^ POLYNOMIAL : crc >>> 1);
+            }
+            TABLE[i] = crc;
+        }
+    }
+    
+    /**
+     * Not allowed.
+     */
+    private Crc32c() {
+    }
+    
+    /**
+     * Returns the checksum of the given range of the <code>bytes</code>.
+     *
+     * @param bytes
+     * @param offset
+     * @param length
+     * @return
+     */
+    static int checksum(final byte[] bytes, final int offset, final int length) {
+        int crc = 0xFFFFFFFF;
+        for(int i = offset; i < offset + length; i++) {
+            crc = (crc >>> 8) ^ TABLE[(crc ^ bytes[i]) & 0xFF];
+        }
+        
+        return ~crc;
+    }
+    
+    /**
+     * Returns the checksum of the given range of the <code>buffer</code>. The position of the
+     * buffer is not changed.
+     *
+     * @param buffer
+     * @param offset
+     * @param length
+     * @return
+     */
+    static int checksum(final ByteBuffer buffer, final int offset, final int length) {
+        int crc = 0xFFFFFFFF;
+        for(int i = offset; i < offset + length; i++) {
+            crc = (crc >>> 8) ^ TABLE[(crc ^ buffer.get(i)) & 0xFF];
+        }
+        
+        return ~crc;
+    }
+}
@@ -0,0 +1,169 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class buffers the events logged while the logger is being configured on a background
+ * thread and replays them in the same order, once the configuration is done.
+ * <p>
+ * The buffer is bounded. The events offered after the buffer is full are dropped and counted in
+ * the <code>LogMetrics</code> queue of the <code>QUEUE_NAME</code>. The buffered events are
+ * taken from the <code>LogEventPool</code> and released back, once they are replayed.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 03:40:16 PM
+ * @since 1.0.0
+ */
+final class DeferredLog {
+    
+    /** QUEUE_NAME */
+    public static final String QUEUE_NAME = "deferred";
+    
+    /** DEFAULT_CAPACITY */
+    public static final int DEFAULT_CAPACITY = 1024;
+    
+    /** mCapacity */
+    private final int mCapacity;
+    
+    /** mQueueMetrics */
+    private final LogMetrics.QueueMetrics mQueueMetrics;
+    
+    /** mLogEventPool */
+    private final LogEventPool mLogEventPool;
+    
+    /** mPendingEvents */
+    private List<LogEvent> mPendingEvents = new ArrayList<LogEvent>();
+    
+    /** mReplayed - true, once all the buffered events are replayed. */
+    private boolean mReplayed;
+    
+    /** mReplayedLatch */
+    private final CountDownLatch mReplayedLatch = new CountDownLatch(1);
+    
+    /**
+     * @param capacity
+     * @param queueMetrics
+     * @param logEventPool
+     */
+    DeferredLog(final int capacity, final LogMetrics.QueueMetrics queueMetrics, final LogEventPool logEventPool) {
+        mCapacity = capacity;
+        mQueueMetrics = queueMetrics;
+        mLogEventPool = logEventPool;
+    }
+    
+    /**
+     * Buffers the event, if the buffered events are not replayed yet. The message is formatted
+     * with the given <code>arguments</code> only, when it's replayed.
+     *
+     * @param logType
+     * @param logTag
+     * @param template
+     * @param arguments
+     * @param throwable
+     * @return true if the event is taken (buffered or dropped) otherwise false, if the caller
+     * should log it directly.
+     */
+    final synchronized boolean offer(final LogType logType, final String logTag, final String template, final Object[] arguments, final Throwable throwable) {
+        if(mReplayed) {
+            return false;
+        }
+        
+        if(mPendingEvents.size() < mCapacity) {
+            mPendingEvents.add(mLogEventPool.acquire().set(logType, logTag, template, arguments, throwable));
+            mQueueMetrics.setDepth(mPendingEvents.size());
+        } else {
+            mQueueMetrics.recordDropped();
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Replays all the buffered events in the order they were offered, including the ones offered
+     * while replaying. Once nothing is left, the subsequent events are not buffered anymore.
+     *
+     * @param replayer
+     */
+    final void replay(final Replayer replayer) {
+        try {
+            while(true) {
+                final List<LogEvent> pendingEvents;
+                synchronized(this) {
+                    if(mPendingEvents.isEmpty()) {
+                        mReplayed = true;
+                        mQueueMetrics.setDepth(0);
+                        return;
+                    }
+                    pendingEvents = mPendingEvents;
+                    mPendingEvents = new ArrayList<LogEvent>();
+                }
+                
+                for(LogEvent pendingEvent : pendingEvents) {
+                    try {
+                        replayer.replay(pendingEvent);
+                    } finally {
+                        mLogEventPool.release(pendingEvent);
+                    }
+                }
+            }
+        } finally {
+            mReplayedLatch.countDown();
+        }
+    }
+    
+    /**
+     * Waits until the buffered events are replayed.
+     *
+     * @param timeoutMillis
+     * @return true, if the events are replayed within the given time otherwise false.
+     * @throws InterruptedException
+     */
+    final boolean await(final long timeoutMillis) throws InterruptedException {
+        return mReplayedLatch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Replays one buffered event. The event is released to the pool afterwards, so it must not be
+     * kept.
+     */
+    interface Replayer {
+        
+        /**
+         * @param pendingEvent
+         */
+        void replay(LogEvent pendingEvent);
+    }
+}
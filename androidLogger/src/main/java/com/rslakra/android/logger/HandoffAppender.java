@@ -0,0 +1,344 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import org.apache.log4j.Appender;
+import org.apache.log4j.Layout;
+import org.apache.log4j.helpers.OnlyOnceErrorHandler;
+import org.apache.log4j.spi.ErrorCode;
+import org.apache.log4j.spi.ErrorHandler;
+import org.apache.log4j.spi.Filter;
+import org.apache.log4j.spi.LoggingEvent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A log4j appender of a new <code>LogPipeline</code>, which opens its file only once the replaced
+ * pipeline is closed, so that the file is never written or rolled by two appenders. The new
+ * pipeline is built and published without waiting for the old one, the events appended meanwhile
+ * are held (up to the <code>MAX_HELD_EVENTS</code>) and appended first, once the file is opened
+ * by the thread closing the replaced pipeline.
+ * <p>
+ * If the held events are full, the appending thread waits for the replaced pipeline up to the
+ * <code>HANDOFF_TIMEOUT_MILLIS</code>, then the event is dropped.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-20 09:12:37 AM
+ * @since 1.0.0
+ */
+final class HandoffAppender implements Appender {
+    
+    /** MAX_HELD_EVENTS */
+    static final int MAX_HELD_EVENTS = 1024;
+    
+    /** HANDOFF_TIMEOUT_MILLIS */
+    static final long HANDOFF_TIMEOUT_MILLIS = 1000L;
+    
+    /**
+     * Opens the appender of the file, once it's handed off.
+     */
+    interface Opener {
+        
+        /**
+         * Returns the opened appender with the given <code>layout</code>.
+         *
+         * @param layout
+         * @return
+         * @throws IOException
+         */
+        Appender open(Layout layout) throws IOException;
+    }
+    
+    /** mPredecessor - the replaced pipeline, which owns the file until it's closed. */
+    private final LogPipeline mPredecessor;
+    
+    /** mOpener */
+    private final Opener mOpener;
+    
+    /** mLocationInfo - the held events take the location information of their threads. */
+    private final boolean mLocationInfo;
+    
+    /** mHeldEvents - the events appended, before the file is opened. */
+    private final List<LoggingEvent> mHeldEvents = new ArrayList<LoggingEvent>();
+    
+    /** mAppender - null, until the file is opened. */
+    private volatile Appender mAppender;
+    
+    /** mLayout */
+    private volatile Layout mLayout;
+    
+    /** mName */
+    private volatile String mName;
+    
+    /** mErrorHandler */
+    private volatile ErrorHandler mErrorHandler = new OnlyOnceErrorHandler();
+    
+    /** mClosed - the appender is closed or its file can't be opened. */
+    private boolean mClosed;
+    
+    /**
+     * @param predecessor
+     * @param layout
+     * @param locationInfo
+     * @param opener
+     */
+    HandoffAppender(final LogPipeline predecessor, final Layout layout, final boolean locationInfo, final Opener opener) {
+        if(LogHelper.isNull(predecessor)) {
+            throw new NullPointerException("The predecessor should not be NULL!");
+        }
+        if(LogHelper.isNull(opener)) {
+            throw new NullPointerException("The opener should not be NULL!");
+        }
+        
+        mPredecessor = predecessor;
+        mLayout = layout;
+        mLocationInfo = locationInfo;
+        mOpener = opener;
+        predecessor.addHandoffAppender(this);
+    }
+    
+    /**
+     * Returns true, if the file is opened otherwise false.
+     *
+     * @return
+     */
+    final boolean isOpened() {
+        return LogHelper.isNotNull(mAppender);
+    }
+    
+    /**
+     * Opens the file, once the replaced pipeline is closed, and appends the held events to it.
+     */
+    final synchronized void handOff() {
+        if(!mClosed && LogHelper.isNull(mAppender)) {
+            open();
+        }
+    }
+    
+    /**
+     * Appends the event to the opened appender or holds it, until the file is handed off.
+     *
+     * @param logEvent
+     */
+    @Override
+    public final void doAppend(final LoggingEvent logEvent) {
+        Appender appender = mAppender;
+        while(LogHelper.isNull(appender)) {
+            synchronized(this) {
+                appender = mAppender;
+                if(LogHelper.isNotNull(appender)) {
+                    break;
+                } else if(mClosed) {
+                    return;
+                } else if(mPredecessor.isClosed()) {
+                    appender = open();
+                    continue;
+                } else if(mHeldEvents.size() < MAX_HELD_EVENTS) {
+                    hold(logEvent);
+                    return;
+                }
+            }
+            
+            // the held events are full, waits for the replaced pipeline outside of the lock.
+            if(!mPredecessor.awaitClosed(HANDOFF_TIMEOUT_MILLIS)) {
+                mErrorHandler.error("The file of the appender:" + mName + " is not handed off, dropping the events!", null, ErrorCode.WRITE_FAILURE);
+                return;
+            }
+        }
+        
+        appender.doAppend(logEvent);
+    }
+    
+    /**
+     * Holds the given <code>logEvent</code> with the values of the current thread.
+     *
+     * @param logEvent
+     */
+    private void hold(final LoggingEvent logEvent) {
+        logEvent.getThreadName();
+        logEvent.getNDC();
+        logEvent.getMDCCopy();
+        logEvent.getRenderedMessage();
+        if(mLocationInfo) {
+            logEvent.getLocationInformation();
+        }
+        mHeldEvents.add(logEvent);
+    }
+    
+    /**
+     * Opens the appender of the file and appends the held events to it. Returns null, if the file
+     * can't be opened and the appender is closed.
+     *
+     * @return
+     */
+    private Appender open() {
+        try {
+            final Appender appender = mOpener.open(mLayout);
+            appender.setName(mName);
+            appender.setErrorHandler(mErrorHandler);
+            for(LoggingEvent logEvent : mHeldEvents) {
+                appender.doAppend(logEvent);
+            }
+            mAppender = appender;
+            return appender;
+        } catch(IOException ex) {
+            mErrorHandler.error("Unable to open the file of the appender:" + mName, ex, ErrorCode.FILE_OPEN_FAILURE);
+            mClosed = true;
+            return null;
+        } finally {
+            mHeldEvents.clear();
+        }
+    }
+    
+    /**
+     * @param newFilter
+     */
+    @Override
+    public final void addFilter(final Filter newFilter) {
+        throw new UnsupportedOperationException("The filters are not supported!");
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final Filter getFilter() {
+        return null;
+    }
+    
+    /**
+     *
+     */
+    @Override
+    public final void clearFilters() {
+    }
+    
+    /**
+     * Closes the opened appender. The held events are appended first, once the replaced pipeline
+     * is closed.
+     */
+    @Override
+    public final void close() {
+        final boolean holding;
+        synchronized(this) {
+            holding = (!mClosed && LogHelper.isNull(mAppender) && !mHeldEvents.isEmpty());
+        }
+        if(holding) {
+            mPredecessor.awaitClosed(HANDOFF_TIMEOUT_MILLIS);
+        }
+        
+        final Appender appender;
+        synchronized(this) {
+            if(LogHelper.isNull(mAppender) && !mClosed && !mHeldEvents.isEmpty() && mPredecessor.isClosed()) {
+                open();
+            }
+            mClosed = true;
+            mHeldEvents.clear();
+            appender = mAppender;
+        }
+        
+        if(LogHelper.isNotNull(appender)) {
+            appender.close();
+        }
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final String getName() {
+        return mName;
+    }
+    
+    /**
+     * @param name
+     */
+    @Override
+    public final void setName(final String name) {
+        mName = name;
+        final Appender appender = mAppender;
+        if(LogHelper.isNotNull(appender)) {
+            appender.setName(name);
+        }
+    }
+    
+    /**
+     * @param errorHandler
+     */
+    @Override
+    public final void setErrorHandler(final ErrorHandler errorHandler) {
+        if(LogHelper.isNotNull(errorHandler)) {
+            mErrorHandler = errorHandler;
+            final Appender appender = mAppender;
+            if(LogHelper.isNotNull(appender)) {
+                appender.setErrorHandler(errorHandler);
+            }
+        }
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final ErrorHandler getErrorHandler() {
+        return mErrorHandler;
+    }
+    
+    /**
+     * @param layout
+     */
+    @Override
+    public final void setLayout(final Layout layout) {
+        mLayout = layout;
+        final Appender appender = mAppender;
+        if(LogHelper.isNotNull(appender)) {
+            appender.setLayout(layout);
+        }
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final Layout getLayout() {
+        return mLayout;
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final boolean requiresLayout() {
+        return true;
+    }
+}
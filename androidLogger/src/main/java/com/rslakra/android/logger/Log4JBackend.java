@@ -0,0 +1,150 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import org.apache.log4j.Logger;
+
+/**
+ * The backend, which logs the events through the log4j loggers configured by the
+ * <code>Log4JConfigurator</code>. It's kept for the compatibility with the existing log4j
+ * configurations (appenders, layouts and the logger levels).
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 09:52:40 PM
+ * @since 1.0.0
+ */
+public final class Log4JBackend implements LogBackend {
+    
+    /** mLog4JConfigurator */
+    private final Log4JConfigurator mLog4JConfigurator;
+    
+    /**
+     * @param log4JConfigurator
+     */
+    public Log4JBackend(final Log4JConfigurator log4JConfigurator) {
+        if(LogHelper.isNull(log4JConfigurator)) {
+            throw new NullPointerException("The log4JConfigurator should not be NULL!");
+        }
+        
+        mLog4JConfigurator = log4JConfigurator;
+    }
+    
+    /**
+     * Returns the <code>mLog4JConfigurator</code> value.
+     *
+     * @return
+     */
+    public final Log4JConfigurator getLog4JConfigurator() {
+        return mLog4JConfigurator;
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final LogType getLogType() {
+        return LogType.toLogType(mLog4JConfigurator.getLogLevel());
+    }
+    
+    /**
+     * @param logType
+     */
+    @Override
+    public final void setLogType(final LogType logType) {
+        mLog4JConfigurator.setLogLevel(LogType.toLevel(logType));
+    }
+    
+    /**
+     * @param logTag
+     * @param logType
+     * @return
+     */
+    @Override
+    public final boolean isLogEnabledFor(final String logTag, final LogType logType) {
+        return mLog4JConfigurator.isLogEnabledFor(logTag, LogType.toLevel(logType));
+    }
+    
+    /**
+     * Logs the given <code>logMessage</code> to the log4j logger of the given <code>logTag</code>.
+     *
+     * @param logType
+     * @param logTag
+     * @param logMessage
+     * @param throwable
+     */
+    @Override
+    public final void log(final LogType logType, final String logTag, final String logMessage, final Throwable throwable) {
+        final Logger logger = LogHelper.getLogger(logTag);
+        switch(logType) {
+            case ERROR:
+                logger.error(logMessage, throwable);
+                break;
+            case WARN:
+                logger.warn(logMessage, throwable);
+                break;
+            case INFO:
+                logger.info(logMessage, throwable);
+                break;
+            case DEBUG:
+            case VERBOSE:
+                logger.debug(logMessage, throwable);
+                break;
+            default:
+                break;
+        }
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final String getLogFilePath() {
+        return mLog4JConfigurator.getLogFilePath();
+    }
+    
+    /**
+     * Waits until the events queued by the log4j appenders are appended.
+     *
+     * @param timeoutMillis
+     * @return
+     */
+    @Override
+    public final boolean flush(final long timeoutMillis) {
+        return mLog4JConfigurator.flush(timeoutMillis);
+    }
+    
+    /**
+     * Leaves the log4j configuration as is, so that it can be used again.
+     */
+    @Override
+    public final void close() {
+    }
+}
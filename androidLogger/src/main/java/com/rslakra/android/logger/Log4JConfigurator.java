@@ -30,7 +30,9 @@ package com.rslakra.android.logger;
 
 import android.util.Log;
 
+import org.apache.log4j.Appender;
 import org.apache.log4j.FileAppender;
+import org.apache.log4j.Layout;
 import org.apache.log4j.Level;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
@@ -38,9 +40,16 @@ import org.apache.log4j.PatternLayout;
 import org.apache.log4j.RollingFileAppender;
 import org.apache.log4j.helpers.LogLog;
 import org.apache.log4j.spi.LoggerRepository;
+import org.apache.log4j.spi.ThrowableRendererSupport;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
 
 /**
  * This class handles the log4j configuration for Android.
@@ -61,8 +70,29 @@ public final class Log4JConfigurator {
     /** LOG_TAG */
     private static final String LOG_TAG = "Log4JConfigurator";
     
+    /** CONSOLE_APPENDER */
+    public static final String CONSOLE_APPENDER = "console";
+    
+    /** FILE_APPENDER */
+    public static final String FILE_APPENDER = "file";
+    
+    /** PIPELINE_APPENDER */
+    public static final String PIPELINE_APPENDER = "pipeline";
+    
+    /** DEFAULT_INIT_OVERRIDE_KEY */
+    private static final String DEFAULT_INIT_OVERRIDE_KEY = "log4j.defaultInitOverride";
+    
+    /** SPILL_FILE_SUFFIX */
+    public static final String SPILL_FILE_SUFFIX = ".spill";
+    
+    /** WAL_FILE_SUFFIX */
+    public static final String WAL_FILE_SUFFIX = ".wal";
+    
+    /** LOCATION_INFO_PATTERN - the conversion characters, which use the location information. */
+    private static final Pattern LOCATION_INFO_PATTERN = Pattern.compile("%[-.0-9]*[CFLlM]");
+    
     /** mLoggerRepository */
-    private final LoggerRepository mLoggerRepository;
+    private LoggerRepository mLoggerRepository;
     
     /** mRootLogger */
     private Logger mRootLogger;
@@ -106,17 +136,37 @@ public final class Log4JConfigurator {
     /** mUseRollingFileAppender */
     private boolean mUseRollingFileAppender;
     
-    /** mConsoleAppender */
-    private AndroidAppender mConsoleAppender;
+    /** mUseWalAppender */
+    private boolean mUseWalAppender;
+    
+    /** mMultiProcess */
+    private boolean mMultiProcess;
+    
+    /** mPipelineAppender */
+    private final PipelineAppender mPipelineAppender = new PipelineAppender(PIPELINE_APPENDER);
+    
+    /** mLogMetrics */
+    private LogMetrics mLogMetrics;
     
-    /** mFileAppender */
-    private FileAppender mFileAppender;
+    /** mLogConfig - the appenders and the logger levels loaded from the configuration file. */
+    private LogConfig mLogConfig;
+    
+    /** mSinkQueueCapacity - the capacity of the queue of each appender, 0 if not queued. */
+    private int mSinkQueueCapacity;
+    
+    /** mSinkDropPolicies - keyed by the appender name or the appender name and the log type. */
+    private final Map<String, QueuedAppender.DropPolicy> mSinkDropPolicies = new TreeMap<String, QueuedAppender.DropPolicy>();
+    
+    /** mSinkBlockTimeoutMillis */
+    private long mSinkBlockTimeoutMillis = QueuedAppender.DEFAULT_BLOCK_TIMEOUT_MILLIS;
+    
+    /** mSinkSpillSize - the size of the spill file of each appender in bytes, 0 if not spilled. */
+    private int mSinkSpillSize;
     
     /**
      * Default Constructor.
      */
     public Log4JConfigurator() {
-        mLoggerRepository = LogManager.getLoggerRepository();
         setImmediateFlush(true);
         setInternalLogging(false);
         setResetConfiguration(true);
@@ -126,11 +176,24 @@ public final class Log4JConfigurator {
     }
     
     /**
-     * Returns the <code>mLoggerRepository</code> value.
+     * Returns the <code>mLoggerRepository</code> value. The repository is looked up lazily, so
+     * that creating this object doesn't initialize the log4j. If the configuration is reset
+     * anyway, the log4j's default search of the configuration files on the classpath is skipped.
      *
      * @return
      */
     public final LoggerRepository getLoggerRepository() {
+        if(mLoggerRepository == null) {
+            synchronized(Log4JConfigurator.class) {
+                if(mLoggerRepository == null) {
+                    if(isResetConfiguration() && System.getProperty(DEFAULT_INIT_OVERRIDE_KEY) == null) {
+                        System.setProperty(DEFAULT_INIT_OVERRIDE_KEY, Boolean.TRUE.toString());
+                    }
+                    mLoggerRepository = LogManager.getLoggerRepository();
+                }
+            }
+        }
+        
         return mLoggerRepository;
     }
     
@@ -238,6 +301,7 @@ public final class Log4JConfigurator {
         }
         
         this.mLogsFolder = logsFolder;
+        this.mLogFilePath = null;
     }
     
     /**
@@ -260,6 +324,7 @@ public final class Log4JConfigurator {
         }
         
         this.mFileName = fileName;
+        this.mLogFilePath = null;
     }
     
     /**
@@ -427,87 +492,713 @@ public final class Log4JConfigurator {
     }
     
     /**
-     * Returns true if the current logLevel is >= the given logLevel otherwise false.
+     * Returns the <code>mUseWalAppender</code> value.
+     *
+     * @return
+     */
+    public final boolean isUseWalAppender() {
+        return mUseWalAppender;
+    }
+    
+    /**
+     * The <code>mUseWalAppender</code> to be set. If it's set, the file appender writes into the
+     * crash-safe <code>WalAppender</code> segment of the log file path with the
+     * <code>WAL_FILE_SUFFIX</code> instead, using the max file size as the segment size. Its
+     * records are recovered, when the logger is configured next time.
+     *
+     * @param useWalAppender
+     */
+    public final void setUseWalAppender(final boolean useWalAppender) {
+        this.mUseWalAppender = useWalAppender;
+    }
+    
+    /**
+     * Returns the <code>mMultiProcess</code> value.
+     *
+     * @return
+     */
+    public final boolean isMultiProcess() {
+        return mMultiProcess;
+    }
+    
+    /**
+     * The <code>mMultiProcess</code> to be set. If it's set, each process logging into the same
+     * logs folder writes its own files named by the process and the pid. The rolling files are
+     * sealed and retained through the manifest shared by the processes (see the
+     * <code>MultiProcessFileAppender</code>).
+     *
+     * @param multiProcess
+     */
+    public final void setMultiProcess(final boolean multiProcess) {
+        this.mMultiProcess = multiProcess;
+    }
+    
+    /**
+     * Returns the file path of the current process for the given shared <code>logFilePath</code>,
+     * if the <code>mMultiProcess</code> is set otherwise the <code>logFilePath</code>.
+     *
+     * @param logFilePath
+     * @return
+     */
+    private String getProcessFilePath(final String logFilePath) {
+        return (isMultiProcess() ? MultiProcessFileAppender.getSegmentFilePath(logFilePath, MultiProcessFileAppender.getProcessName(), android.os.Process.myPid()) : logFilePath);
+    }
+    
+    /**
+     * Returns the <code>mLogMetrics</code> value.
+     *
+     * @return
+     */
+    public final LogMetrics getLogMetrics() {
+        return mLogMetrics;
+    }
+    
+    /**
+     * The <code>mLogMetrics</code> to be set. If it's set, the configured appenders are wrapped
+     * into the <code>MeteredAppender</code> to record the bytes and the time spent in each.
+     *
+     * @param logMetrics
+     */
+    public final void setLogMetrics(final LogMetrics logMetrics) {
+        this.mLogMetrics = logMetrics;
+    }
+    
+    /**
+     * Returns the <code>mLogConfig</code> value.
+     *
+     * @return
+     */
+    public final LogConfig getLogConfig() {
+        return mLogConfig;
+    }
+    
+    /**
+     * The <code>mLogConfig</code> to be set. If it's set, the appenders and the logger levels of
+     * the configuration are used instead of the console and the file appender settings.
+     *
+     * @param logConfig
+     */
+    public final void setLogConfig(final LogConfig logConfig) {
+        this.mLogConfig = logConfig;
+    }
+    
+    /**
+     * Returns the <code>mSinkQueueCapacity</code> value.
+     *
+     * @return
+     */
+    public final int getSinkQueueCapacity() {
+        return mSinkQueueCapacity;
+    }
+    
+    /**
+     * The <code>mSinkQueueCapacity</code> to be set. If it's greater than 0, each appender gets
+     * a <code>QueuedAppender</code> with the priority lanes of this capacity, so a slow appender
+     * doesn't stall the logging threads or the other appenders. Since the errors overtake the
+     * queued lower level events, the <code>%X{seq}</code> may be added to the log pattern to
+     * print the sequence numbers of the events. Default is 0, the events are appended
+     * synchronously.
+     *
+     * @param sinkQueueCapacity
+     */
+    public final void setSinkQueueCapacity(final int sinkQueueCapacity) {
+        if(sinkQueueCapacity < 0) {
+            throw new IllegalArgumentException("Invalid Value! sinkQueueCapacity:" + sinkQueueCapacity);
+        }
+        
+        this.mSinkQueueCapacity = sinkQueueCapacity;
+    }
+    
+    /**
+     * Returns the drop policy of the queue of the given <code>appenderName</code>. Default is the
+     * <code>DROP_NEWEST</code>.
+     *
+     * @param appenderName
+     * @return
+     */
+    public final QueuedAppender.DropPolicy getSinkDropPolicy(final String appenderName) {
+        final QueuedAppender.DropPolicy dropPolicy = mSinkDropPolicies.get(appenderName);
+        return (LogHelper.isNull(dropPolicy) ? QueuedAppender.DropPolicy.DROP_NEWEST : dropPolicy);
+    }
+    
+    /**
+     * Returns the drop policy of the given <code>logType</code> events in the queue of the given
+     * <code>appenderName</code>. Default is the drop policy of the appender.
+     *
+     * @param appenderName
+     * @param logType
+     * @return
+     */
+    public final QueuedAppender.DropPolicy getSinkDropPolicy(final String appenderName, final LogType logType) {
+        final QueuedAppender.DropPolicy dropPolicy = mSinkDropPolicies.get(appenderName + ":" + logType);
+        return (LogHelper.isNull(dropPolicy) ? getSinkDropPolicy(appenderName) : dropPolicy);
+    }
+    
+    /**
+     * The drop policy of the queue of the given <code>appenderName</code> to be set. The null
+     * <code>dropPolicy</code> resets it to the default.
+     *
+     * @param appenderName
+     * @param dropPolicy
+     */
+    public final void setSinkDropPolicy(final String appenderName, final QueuedAppender.DropPolicy dropPolicy) {
+        if(LogHelper.isNull(appenderName)) {
+            throw new NullPointerException("The appenderName should not be NULL!");
+        }
+        
+        putSinkDropPolicy(appenderName, dropPolicy);
+    }
+    
+    /**
+     * The drop policy of the given <code>logType</code> events in the queue of the given
+     * <code>appenderName</code> to be set. The null <code>dropPolicy</code> resets it to the drop
+     * policy of the appender.
+     *
+     * @param appenderName
+     * @param logType
+     * @param dropPolicy
+     */
+    public final void setSinkDropPolicy(final String appenderName, final LogType logType, final QueuedAppender.DropPolicy dropPolicy) {
+        if(LogHelper.isNull(appenderName)) {
+            throw new NullPointerException("The appenderName should not be NULL!");
+        }
+        if(LogHelper.isNull(logType)) {
+            throw new NullPointerException("The logType should not be NULL!");
+        }
+        
+        putSinkDropPolicy(appenderName + ":" + logType, dropPolicy);
+    }
+    
+    /**
+     * @param key
+     * @param dropPolicy
+     */
+    private void putSinkDropPolicy(final String key, final QueuedAppender.DropPolicy dropPolicy) {
+        if(LogHelper.isNull(dropPolicy)) {
+            mSinkDropPolicies.remove(key);
+        } else {
+            mSinkDropPolicies.put(key, dropPolicy);
+        }
+    }
+    
+    /**
+     * Returns the <code>mSinkBlockTimeoutMillis</code> value.
+     *
+     * @return
+     */
+    public final long getSinkBlockTimeoutMillis() {
+        return mSinkBlockTimeoutMillis;
+    }
+    
+    /**
+     * The <code>mSinkBlockTimeoutMillis</code> to be set, the longest time a logging thread waits
+     * for room in a queue with the <code>BLOCK</code> policy.
+     *
+     * @param sinkBlockTimeoutMillis
+     */
+    public final void setSinkBlockTimeoutMillis(final long sinkBlockTimeoutMillis) {
+        if(sinkBlockTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Invalid Value! sinkBlockTimeoutMillis:" + sinkBlockTimeoutMillis);
+        }
+        
+        this.mSinkBlockTimeoutMillis = sinkBlockTimeoutMillis;
+    }
+    
+    /**
+     * Returns the <code>mSinkSpillSize</code> value.
+     *
+     * @return
+     */
+    public final int getSinkSpillSize() {
+        return mSinkSpillSize;
+    }
+    
+    /**
+     * The <code>mSinkSpillSize</code> to be set. If it's greater than 0, each queued appender
+     * maps a spill file of this size in the logs folder for the <code>SPILL</code> policy.
+     *
+     * @param sinkSpillSize
+     */
+    public final void setSinkSpillSize(final int sinkSpillSize) {
+        if(sinkSpillSize < 0) {
+            throw new IllegalArgumentException("Invalid Value! sinkSpillSize:" + sinkSpillSize);
+        }
+        
+        this.mSinkSpillSize = sinkSpillSize;
+    }
+    
+    /**
+     * Returns the current <code>LogPipeline</code>, which may be null, if the logger is not
+     * configured yet.
+     *
+     * @return
+     */
+    public final LogPipeline getLogPipeline() {
+        return mPipelineAppender.getLogPipeline();
+    }
+    
+    /**
+     * Wraps the given <code>appender</code> into the <code>MeteredAppender</code>, if the
+     * <code>mLogMetrics</code> is set and then into the <code>QueuedAppender</code>, if the
+     * <code>mSinkQueueCapacity</code> is set.
+     *
+     * @param appender
+     * @param appenderName
+     * @return
+     */
+    private Appender newAppender(final Appender appender, final String appenderName) {
+        //the metered appender replaces the layout, so it's checked before the wrapping.
+        final boolean locationInfo = isLocationInfo(appender.getLayout());
+        final Appender sinkAppender;
+        if(LogHelper.isNull(getLogMetrics())) {
+            appender.setName(appenderName);
+            sinkAppender = appender;
+        } else {
+            sinkAppender = new MeteredAppender(appender, appenderName, getLogMetrics());
+        }
+        
+        if(getSinkQueueCapacity() > 0) {
+            return newQueuedAppender(sinkAppender, appenderName, locationInfo);
+        }
+        
+        return sinkAppender;
+    }
+    
+    /**
+     * Wraps the given <code>appender</code> into the <code>QueuedAppender</code> of the sink
+     * queue settings. The appender is queued without the spill file, if it can't be mapped.
+     *
+     * @param appender
+     * @param appenderName
+     * @param locationInfo
+     * @return
+     */
+    private QueuedAppender newQueuedAppender(final Appender appender, final String appenderName, final boolean locationInfo) {
+        final QueuedAppender queuedAppender = new QueuedAppender(appender, appenderName, getSinkQueueCapacity(), getSinkDropPolicy(appenderName), locationInfo, getLogMetrics());
+        for(LogType logType : LogType.values()) {
+            queuedAppender.setDropPolicy(logType, getSinkDropPolicy(appenderName, logType));
+        }
+        queuedAppender.setBlockTimeoutMillis(getSinkBlockTimeoutMillis());
+        if(getSinkSpillSize() > 0 && !LogHelper.isNullOrEmpty(getLogsFolder())) {
+            final File spillFile = new File(getLogsFolder(), appenderName + SPILL_FILE_SUFFIX);
+            try {
+                queuedAppender.setSpillFile(spillFile, getSinkSpillSize());
+            } catch(final IOException ex) {
+                Log.w(LOG_TAG, "Unable to map the spill file:" + spillFile.getAbsolutePath(), ex);
+            }
+        }
+        
+        return queuedAppender;
+    }
+    
+    /**
+     * Returns true, if the given <code>layout</code> may use the location information of the
+     * events.
+     *
+     * @param layout
+     * @return
+     */
+    private static boolean isLocationInfo(final Layout layout) {
+        if(layout instanceof PatternLayout) {
+            final String conversionPattern = ((PatternLayout) layout).getConversionPattern();
+            return (LogHelper.isNotNull(conversionPattern) && LOCATION_INFO_PATTERN.matcher(conversionPattern).find());
+        }
+        
+        return LogHelper.isNotNull(layout);
+    }
+    
+    /**
+     * Waits until the events queued by the appenders of the current pipeline are appended.
+     * Returns true right away, if the appenders are not queued.
+     *
+     * @param timeoutMillis
+     * @return true, if all the queued events are appended within the given time otherwise false.
+     */
+    public final boolean flush(final long timeoutMillis) {
+        final LogPipeline logPipeline = mPipelineAppender.getLogPipeline();
+        if(LogHelper.isNull(logPipeline)) {
+            return true;
+        }
+        
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        boolean flushed = true;
+        for(Appender appender : logPipeline.getAppenders()) {
+            if(appender instanceof QueuedAppender) {
+                flushed &= ((QueuedAppender) appender).flush(Math.max(0, deadline - System.currentTimeMillis()));
+            }
+        }
+        
+        return flushed;
+    }
+    
+    /**
+     * Returns true if the current logLevel is >= the given logLevel otherwise false. The level of
+     * the published pipeline is used, if there is one.
      *
      * @param logLevel
      * @return
      */
     public final boolean isLogEnabledFor(final Level logLevel) {
+        final LogPipeline logPipeline = mPipelineAppender.getLogPipeline();
+        if(LogHelper.isNotNull(logPipeline)) {
+            return logPipeline.isLogEnabledFor(logLevel);
+        }
+        
         return (logLevel != null && logLevel.toInt() >= getLogLevel().toInt());
     }
     
     /**
-     * Configures the file appender based on the <code>mUseFileAppender</code> and the
-     * <code>mUseRollingFileAppender</code> properties settings.
+     * Returns true if the given logLevel is enabled for the given <code>loggerName</code>,
+     * considering the levels of the named loggers of the published pipeline.
+     *
+     * @param loggerName
+     * @param logLevel
+     * @return
      */
-    public final void addFileAppender() {
+    public final boolean isLogEnabledFor(final String loggerName, final Level logLevel) {
+        final LogPipeline logPipeline = mPipelineAppender.getLogPipeline();
+        if(LogHelper.isNotNull(logPipeline)) {
+            return logPipeline.isLogEnabledFor(loggerName, logLevel);
+        }
+        
+        return (logLevel != null && logLevel.toInt() >= getLogLevel().toInt());
+    }
+    
+    /**
+     * Returns the key of the current appender settings. The appenders of the current pipeline are
+     * reused by the new one, if the keys are the same.
+     *
+     * @return
+     */
+    private String appendersKey() {
+        if(LogHelper.isNotNull(getLogConfig())) {
+            return getLogsFolder() + "|" + getLogConfig().getAppenders() + "|" + isMultiProcess() + "|" + LogHelper.isNotNull(getLogMetrics()) + "|" + sinkQueueKey();
+        }
+        
+        return isUseConsoleAppender() + "|" + isUseFileAppender() + "|" + isUseRollingFileAppender() + "|" + isUseWalAppender() + "|" + isMultiProcess() + "|" + getLogFilePath() + "|" + (LogHelper.isNull(getLogPattern()) ? null : getLogPattern().getConversionPattern()) + "|" + getMaxBackupFiles() + "|" + getMaxFileSize() + "|" + isImmediateFlush() + "|" + LogHelper.isNotNull(getLogMetrics()) + "|" + sinkQueueKey();
+    }
+    
+    /**
+     * Returns the key of the current sink queue settings.
+     *
+     * @return
+     */
+    private String sinkQueueKey() {
+        return getSinkQueueCapacity() + "|" + mSinkDropPolicies + "|" + getSinkBlockTimeoutMillis() + "|" + getSinkSpillSize();
+    }
+    
+    /**
+     * Creates the given <code>logFile</code> and its folders, if they don't exist.
+     *
+     * @param logFile
+     * @throws IOException
+     */
+    private static void createLogFile(final File logFile) throws IOException {
+        /** Check logs file exists or not. */
+        if(!logFile.exists()) {
+            /** Create logs folder, if it does not exist. */
+            if(!logFile.getParentFile().exists()) {
+                if(!logFile.getParentFile().mkdirs()) {
+                    Log.w(LOG_TAG, "Unable to create folder:" + logFile.getParentFile().getAbsolutePath());
+                }
+            }
+            
+            /** Create log file, if it does not exist. */
+            if(!logFile.createNewFile()) {
+                Log.w(LOG_TAG, "Unable to create logs file:" + logFile.getAbsolutePath());
+            }
+        }
+    }
+    
+    /**
+     * Creates the appender of the given <code>appenderConfig</code>. The relative file names are
+     * resolved against the logs folder.
+     *
+     * @param appenderConfig
+     * @param predecessor
+     * @return
+     */
+    private Appender newAppender(final LogConfig.AppenderConfig appenderConfig, final LogPipeline predecessor) {
+        final PatternLayout logPattern = new PatternLayout(appenderConfig.getLogPattern());
+        if(appenderConfig.getAppenderType() == LogConfig.AppenderType.CONSOLE) {
+            return newAppender(new AndroidAppender(logPattern), appenderConfig.getName());
+        }
+        
+        File sharedFile = new File(appenderConfig.getFileName());
+        if(!sharedFile.isAbsolute()) {
+            sharedFile = new File(getLogsFolder(), appenderConfig.getFileName());
+        }
+        final File sharedLogFile = sharedFile;
+        final File logFile = new File(getProcessFilePath(sharedFile.getAbsolutePath()));
+        final boolean multiProcess = isMultiProcess();
+        
+        try {
+            if(appenderConfig.getAppenderType() == LogConfig.AppenderType.WAL) {
+                return newAppender(newFileAppender(predecessor, logPattern, new HandoffAppender.Opener() {
+                    @Override
+                    public Appender open(final Layout layout) throws IOException {
+                        return newWalAppender(layout, logFile, (int) appenderConfig.getMaxFileSize(), appenderConfig.getMaxBackupFiles());
+                    }
+                }), appenderConfig.getName());
+            }
+            
+            createLogFile(logFile);
+            final Appender fileAppender = newFileAppender(predecessor, logPattern, new HandoffAppender.Opener() {
+                @Override
+                public Appender open(final Layout layout) throws IOException {
+                    final FileAppender fileAppender;
+                    switch(appenderConfig.getAppenderType()) {
+                        case ROLLING_FILE:
+                            fileAppender = (multiProcess ? new MultiProcessFileAppender(layout, sharedLogFile.getAbsolutePath()) : new Utf8RollingFileAppender(layout, logFile.getAbsolutePath(), appenderConfig.isAppend()));
+                            ((RollingFileAppender) fileAppender).setMaxBackupIndex(appenderConfig.getMaxBackupFiles());
+                            ((RollingFileAppender) fileAppender).setMaximumFileSize(appenderConfig.getMaxFileSize());
+                            break;
+                        case DAILY_ROLLING_FILE:
+                            fileAppender = new Utf8DailyRollingFileAppender(layout, logFile.getAbsolutePath(), appenderConfig.getDatePattern());
+                            break;
+                        default:
+                            fileAppender = new Utf8FileAppender(layout, logFile.getAbsolutePath(), appenderConfig.isAppend());
+                            break;
+                    }
+                    fileAppender.setImmediateFlush(appenderConfig.isImmediateFlush());
+                    return fileAppender;
+                }
+            });
+            
+            Log.i(LOG_TAG, "Logs configured at:" + logFile.getAbsolutePath());
+            return newAppender(fileAppender, appenderConfig.getName());
+        } catch(final IOException ex) {
+            Log.e(LOG_TAG, ex.getLocalizedMessage(), ex);
+            throw new RuntimeException("Error while configuring logging file appender:" + appenderConfig.getName(), ex);
+        }
+    }
+    
+    /**
+     * Opens the file appender of the given <code>opener</code> right away, if there is no
+     * <code>predecessor</code> pipeline. Otherwise, it's opened by the <code>HandoffAppender</code>,
+     * once the predecessor, which may write the same file, is closed.
+     *
+     * @param predecessor
+     * @param layout
+     * @param opener
+     * @return
+     * @throws IOException
+     */
+    private static Appender newFileAppender(final LogPipeline predecessor, final Layout layout, final HandoffAppender.Opener opener) throws IOException {
+        if(LogHelper.isNull(predecessor)) {
+            return opener.open(layout);
+        }
+        
+        return new HandoffAppender(predecessor, layout, isLocationInfo(layout), opener);
+    }
+    
+    /**
+     * Opens the <code>WalAppender</code> segment of the given <code>logFile</code> and reports the
+     * events recovered from it.
+     *
+     * @param layout
+     * @param logFile
+     * @param segmentSize
+     * @param maxBackupFiles
+     * @return
+     * @throws IOException
+     */
+    private static WalAppender newWalAppender(final Layout layout, final File logFile, final int segmentSize, final int maxBackupFiles) throws IOException {
+        if(!logFile.getParentFile().exists() && !logFile.getParentFile().mkdirs()) {
+            Log.w(LOG_TAG, "Unable to create folder:" + logFile.getParentFile().getAbsolutePath());
+        }
+        
+        final WalAppender walAppender = new WalAppender(layout, logFile.getAbsolutePath(), segmentSize, maxBackupFiles);
+        Log.i(LOG_TAG, "Recovered " + walAppender.getRecoveredEvents() + " events, truncated " + walAppender.getTruncatedBytes() + " torn bytes of:" + logFile.getAbsolutePath());
+        return walAppender;
+    }
+    
+    /**
+     * Creates the file appender based on the <code>mUseFileAppender</code> and the
+     * <code>mUseRollingFileAppender</code> properties settings. Returns null, if no file appender
+     * is configured.
+     *
+     * @param predecessor
+     * @return
+     */
+    private Appender newFileAppender(final LogPipeline predecessor) {
         if(isUseFileAppender()) {
             try {
-                final File logFile = new File(getLogFilePath());
-                /** Check logs file exists or not. */
-                if(!logFile.exists()) {
-                    /** Create logs folder, if it does not exist. */
-                    if(!logFile.getParentFile().exists()) {
-                        if(!logFile.getParentFile().mkdirs()) {
-                            Log.w(LOG_TAG, "Unable to create folder:" + logFile.getParentFile().getAbsolutePath());
+                final String sharedFilePath = getLogFilePath();
+                final String logFilePath = getProcessFilePath(sharedFilePath);
+                if(isUseWalAppender()) {
+                    final int segmentSize = (int) Math.min(getMaxFileSize(), Integer.MAX_VALUE - 1);
+                    final int maxBackupFiles = getMaxBackupFiles();
+                    return newAppender(newFileAppender(predecessor, getLogPattern(), new HandoffAppender.Opener() {
+                        @Override
+                        public Appender open(final Layout layout) throws IOException {
+                            return newWalAppender(layout, new File(logFilePath + WAL_FILE_SUFFIX), segmentSize, maxBackupFiles);
                         }
-                    }
-                    
-                    /** Create log file, if it does not exist. */
-                    if(!logFile.createNewFile()) {
-                        Log.w(LOG_TAG, "Unable to create logs file:" + logFile.getAbsolutePath());
-                    }
+                    }), FILE_APPENDER);
                 }
                 
-                if(LogHelper.isNull(mFileAppender)) {
-                    if(isUseRollingFileAppender()) {
-                        mFileAppender = new RollingFileAppender(getLogPattern(), getLogFilePath());
-                        ((RollingFileAppender) mFileAppender).setMaxBackupIndex(getMaxBackupFiles());
-                        ((RollingFileAppender) mFileAppender).setMaximumFileSize(getMaxFileSize());
-                        ((RollingFileAppender) mFileAppender).setImmediateFlush(isImmediateFlush());
-                    } else {
-                        mFileAppender = new FileAppender(getLogPattern(), getLogFilePath());
+                createLogFile(new File(logFilePath));
+                final boolean rolling = isUseRollingFileAppender();
+                final boolean multiProcess = isMultiProcess();
+                final int maxBackupFiles = getMaxBackupFiles();
+                final long maxFileSize = getMaxFileSize();
+                final boolean immediateFlush = isImmediateFlush();
+                final Appender fileAppender = newFileAppender(predecessor, getLogPattern(), new HandoffAppender.Opener() {
+                    @Override
+                    public Appender open(final Layout layout) throws IOException {
+                        if(!rolling) {
+                            return new Utf8FileAppender(layout, logFilePath);
+                        }
+                        
+                        final RollingFileAppender fileAppender = (multiProcess ? new MultiProcessFileAppender(layout, sharedFilePath) : new Utf8RollingFileAppender(layout, logFilePath));
+                        fileAppender.setMaxBackupIndex(maxBackupFiles);
+                        fileAppender.setMaximumFileSize(maxFileSize);
+                        fileAppender.setImmediateFlush(immediateFlush);
+                        return fileAppender;
                     }
-                }
+                });
                 
-                /** set file appender to root logger. */
-                getRootLogger().addAppender(mFileAppender);
-                Log.i(LOG_TAG, "Logs configured at:" + getLogFilePath());
+                Log.i(LOG_TAG, "Logs configured at:" + logFilePath);
+                return newAppender(fileAppender, FILE_APPENDER);
             } catch(final IOException ex) {
                 Log.e(LOG_TAG, ex.getLocalizedMessage(), ex);
                 throw new RuntimeException("Error while configuring logging file appender!", ex);
             }
         } else {
             Log.w(LOG_TAG, "No file appender is configured!");
+            return null;
         }
     }
     
     /**
-     * Configures the logger for file appender and android.
+     * Builds a new <code>LogPipeline</code> of the current settings off to the side, without
+     * publishing it. The appenders of the current pipeline are reused, if their settings did not
+     * change, so changing just the log level doesn't reopen the log files.
+     * <p>
+     * Otherwise, the current pipeline keeps logging, while the new appenders are created. The new
+     * file appenders are <code>HandoffAppender</code>s, which open their files only once the
+     * current pipeline is replaced and closed, so that no file is ever written by two appenders.
+     * If the new appenders can't be created, the ones already created are closed and the current
+     * pipeline is kept.
+     *
+     * @return
      */
-    protected final void configure() {
-        //reset configuration
-        if(isResetConfiguration()) {
-            getLoggerRepository().resetConfiguration();
+    public final LogPipeline newPipeline() {
+        final String appendersKey = appendersKey();
+        final Map<String, Level> loggerLevels = (LogHelper.isNull(getLogConfig()) ? Collections.<String, Level>emptyMap() : getLogConfig().getLoggerLevels());
+        final LogPipeline logPipeline = mPipelineAppender.getLogPipeline();
+        if(LogHelper.isNotNull(logPipeline) && appendersKey.equals(logPipeline.getAppendersKey())) {
+            return new LogPipeline(getLogLevel(), loggerLevels, logPipeline.getAppenders(), appendersKey);
         }
         
-        //set internal logging.
-        if(isInternalLogging()) {
-            LogLog.setInternalDebugging(isInternalLogging());
+        final List<Appender> appenders = new ArrayList<Appender>();
+        try {
+            return newPipeline(appendersKey, loggerLevels, logPipeline, appenders);
+        } catch(RuntimeException ex) {
+            for(Appender appender : appenders) {
+                appender.close();
+            }
+            throw ex;
+        }
+    }
+    
+    /**
+     * Builds a new <code>LogPipeline</code> of the new appenders of the current settings, which
+     * are added to the given <code>appenders</code>, as they are created.
+     *
+     * @param appendersKey
+     * @param loggerLevels
+     * @param predecessor
+     * @param appenders
+     * @return
+     */
+    private LogPipeline newPipeline(final String appendersKey, final Map<String, Level> loggerLevels, final LogPipeline predecessor, final List<Appender> appenders) {
+        if(LogHelper.isNotNull(getLogConfig())) {
+            for(LogConfig.AppenderConfig appenderConfig : getLogConfig().getAppenders()) {
+                appenders.add(newAppender(appenderConfig, predecessor));
+            }
+            
+            return new LogPipeline(getLogLevel(), loggerLevels, appenders, appendersKey);
         }
         
         // add android console logger
         if(isUseConsoleAppender()) {
-            if(LogHelper.isNull(mConsoleAppender)) {
-                mConsoleAppender = new AndroidAppender(getLogPattern());
-            }
-            getRootLogger().addAppender(mConsoleAppender);
+            appenders.add(newAppender(new AndroidAppender(getLogPattern()), CONSOLE_APPENDER));
         }
         
         //add file appender
-        addFileAppender();
+        final Appender fileAppender = newFileAppender(predecessor);
+        if(LogHelper.isNotNull(fileAppender)) {
+            appenders.add(fileAppender);
+        }
+        
+        return new LogPipeline(getLogLevel(), loggerLevels, appenders, appendersKey);
+    }
+    
+    /**
+     * Publishes the given <code>logPipeline</code> with a single reference swap. The events in
+     * flight finish on the old pipeline, which closes its appenders once they are done.
+     *
+     * @param logPipeline
+     */
+    public final void publish(final LogPipeline logPipeline) {
+        if(LogHelper.isNull(logPipeline)) {
+            throw new NullPointerException("The logPipeline should not be NULL!");
+        }
+        
+        final LogPipeline oldPipeline = mPipelineAppender.getLogPipeline();
+        mPipelineAppender.publish(logPipeline);
+        if(getRootLogger().getAppender(PIPELINE_APPENDER) != mPipelineAppender) {
+            getRootLogger().addAppender(mPipelineAppender);
+        }
+        
+        //set log level for the root logger and the named loggers.
+        getRootLogger().setLevel(logPipeline.getLogLevel());
+        if(LogHelper.isNotNull(oldPipeline)) {
+            for(String loggerName : oldPipeline.getLoggerLevels().keySet()) {
+                if(!logPipeline.getLoggerLevels().containsKey(loggerName)) {
+                    getLoggerRepository().getLogger(loggerName).setLevel(null);
+                }
+            }
+        }
+        for(Map.Entry<String, Level> entry : logPipeline.getLoggerLevels().entrySet()) {
+            getLoggerRepository().getLogger(entry.getKey()).setLevel(entry.getValue());
+        }
+    }
+    
+    /**
+     * Configures the file appender based on the <code>mUseFileAppender</code> and the
+     * <code>mUseRollingFileAppender</code> properties settings.
+     */
+    public final void addFileAppender() {
+        publish(newPipeline());
+    }
+    
+    /**
+     * Configures the logger for file appender and android. The first call resets the log4j
+     * configuration (if the <code>mResetConfiguration</code> is set), the later calls just
+     * replace the pipeline without dropping any event.
+     */
+    protected final void configure() {
+        //set internal logging.
+        if(isInternalLogging()) {
+            LogLog.setInternalDebugging(isInternalLogging());
+        }
+        
+        //build the new pipeline off to the side.
+        final boolean attached = (getRootLogger().getAppender(PIPELINE_APPENDER) == mPipelineAppender);
+        final LogPipeline logPipeline = newPipeline();
+        
+        //reset configuration
+        if(isResetConfiguration() && !attached) {
+            getLoggerRepository().resetConfiguration();
+        }
+        
+        //render the repeated stack traces as references, the reset drops the renderer.
+        if(getLoggerRepository() instanceof ThrowableRendererSupport) {
+            ((ThrowableRendererSupport) getLoggerRepository()).setThrowableRenderer(LogHelper.getStackTraceDeduper());
+        }
         
-        //set log level for the root logger.
-        getRootLogger().setLevel(getLogLevel());
+        publish(logPipeline);
     }
 }
\ No newline at end of file
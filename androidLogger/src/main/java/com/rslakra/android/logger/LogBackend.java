@@ -0,0 +1,100 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+/**
+ * The backend, which the <code>LogHelper</code> hands the events over to. The backend decides,
+ * which events are enabled, and captures, formats and writes them into its sinks.
+ * <p>
+ * The <code>LogHelper</code> checks the <code>isLogEnabledFor</code> before formatting an event
+ * and calls the <code>log</code> only for the enabled events, so both methods are on the hot path
+ * and should not allocate.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 09:48:22 PM
+ * @since 1.0.0
+ */
+public interface LogBackend {
+    
+    /**
+     * Returns the default log level of the backend.
+     *
+     * @return
+     */
+    LogType getLogType();
+    
+    /**
+     * The default log level of the backend to be set.
+     *
+     * @param logType
+     */
+    void setLogType(LogType logType);
+    
+    /**
+     * Returns true, if the events of the given <code>logTag</code> and <code>logType</code> are
+     * enabled otherwise false.
+     *
+     * @param logTag
+     * @param logType
+     * @return
+     */
+    boolean isLogEnabledFor(String logTag, LogType logType);
+    
+    /**
+     * Logs the given event. It's called only for the enabled events.
+     *
+     * @param logType
+     * @param logTag
+     * @param logMessage
+     * @param throwable
+     */
+    void log(LogType logType, String logTag, String logMessage, Throwable throwable);
+    
+    /**
+     * Returns the path of the log file, if any otherwise null.
+     *
+     * @return
+     */
+    String getLogFilePath();
+    
+    /**
+     * Waits, until the events logged so far are written or the given time elapses.
+     *
+     * @param timeoutMillis
+     * @return true, if all the events are written.
+     */
+    boolean flush(long timeoutMillis);
+    
+    /**
+     * Writes the pending events and releases the sinks of the backend.
+     */
+    void close();
+}
@@ -0,0 +1,421 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import org.apache.log4j.Level;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The resolved and validated logger configuration, the root level, the per-logger levels and the
+ * appenders of the root logger.
+ * <p>
+ * It's parsed once from the <code>android_log4j.xml</code> or the
+ * <code>android_log4j.properties</code> by the <code>LogConfigLoader</code> and can be written
+ * into a compact binary form, which is read back without any parsing.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 06:02:44 PM
+ * @since 1.0.0
+ */
+public final class LogConfig {
+    
+    /** MAGIC - "LCFG" */
+    private static final int MAGIC = 0x4C434647;
+    
+    /** VERSION - the version of the binary form. */
+    private static final int VERSION = 1;
+    
+    /** mRootLevel */
+    private final Level mRootLevel;
+    
+    /** mLoggerLevels */
+    private final Map<String, Level> mLoggerLevels;
+    
+    /** mAppenders */
+    private final List<AppenderConfig> mAppenders;
+    
+    /**
+     * @param rootLevel
+     * @param loggerLevels
+     * @param appenders
+     */
+    public LogConfig(final Level rootLevel, final Map<String, Level> loggerLevels, final List<AppenderConfig> appenders) {
+        if(LogHelper.isNull(rootLevel)) {
+            throw new NullPointerException("The rootLevel should not be NULL!");
+        }
+        
+        mRootLevel = rootLevel;
+        mLoggerLevels = Collections.unmodifiableMap(new LinkedHashMap<String, Level>(loggerLevels));
+        mAppenders = Collections.unmodifiableList(new ArrayList<AppenderConfig>(appenders));
+    }
+    
+    /**
+     * Returns the <code>mRootLevel</code> value.
+     *
+     * @return
+     */
+    public final Level getRootLevel() {
+        return mRootLevel;
+    }
+    
+    /**
+     * Returns the unmodifiable levels of the loggers by their names.
+     *
+     * @return
+     */
+    public final Map<String, Level> getLoggerLevels() {
+        return mLoggerLevels;
+    }
+    
+    /**
+     * Returns the unmodifiable list of the appenders of the root logger.
+     *
+     * @return
+     */
+    public final List<AppenderConfig> getAppenders() {
+        return mAppenders;
+    }
+    
+    /**
+     * Returns the first file appender, if any otherwise null.
+     *
+     * @return
+     */
+    public final AppenderConfig getFileAppender() {
+        for(AppenderConfig appenderConfig : mAppenders) {
+            if(appenderConfig.getAppenderType() != AppenderType.CONSOLE) {
+                return appenderConfig;
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Writes this configuration into the given <code>dataOutput</code>.
+     *
+     * @param dataOutput
+     * @throws IOException
+     */
+    public final void writeTo(final DataOutput dataOutput) throws IOException {
+        dataOutput.writeInt(MAGIC);
+        dataOutput.writeInt(VERSION);
+        dataOutput.writeUTF(mRootLevel.toString());
+        dataOutput.writeInt(mLoggerLevels.size());
+        for(Map.Entry<String, Level> entry : mLoggerLevels.entrySet()) {
+            dataOutput.writeUTF(entry.getKey());
+            dataOutput.writeUTF(entry.getValue().toString());
+        }
+        
+        dataOutput.writeInt(mAppenders.size());
+        for(AppenderConfig appenderConfig : mAppenders) {
+            appenderConfig.writeTo(dataOutput);
+        }
+    }
+    
+    /**
+     * Reads the configuration written by the <code>writeTo()</code> method.
+     *
+     * @param dataInput
+     * @return
+     * @throws IOException if the data is not a valid configuration.
+     */
+    public static LogConfig readFrom(final DataInput dataInput) throws IOException {
+        if(dataInput.readInt() != MAGIC || dataInput.readInt() != VERSION) {
+            throw new IOException("Invalid configuration cache!");
+        }
+        
+        final Level rootLevel = readLevel(dataInput);
+        final int loggers = dataInput.readInt();
+        final Map<String, Level> loggerLevels = new LinkedHashMap<String, Level>();
+        for(int i = 0; i < loggers; i++) {
+            loggerLevels.put(dataInput.readUTF(), readLevel(dataInput));
+        }
+        
+        final int appenders = dataInput.readInt();
+        final List<AppenderConfig> appenderConfigs = new ArrayList<AppenderConfig>();
+        for(int i = 0; i < appenders; i++) {
+            appenderConfigs.add(AppenderConfig.readFrom(dataInput));
+        }
+        
+        return new LogConfig(rootLevel, loggerLevels, appenderConfigs);
+    }
+    
+    /**
+     * @param dataInput
+     * @return
+     * @throws IOException
+     */
+    private static Level readLevel(final DataInput dataInput) throws IOException {
+        final String levelName = dataInput.readUTF();
+        final Level level = Level.toLevel(levelName, null);
+        if(LogHelper.isNull(level)) {
+            throw new IOException("Invalid level:" + levelName);
+        }
+        
+        return level;
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public String toString() {
+        return "LogConfig <rootLevel=" + mRootLevel + ", loggerLevels=" + mLoggerLevels + ", appenders=" + mAppenders + ">";
+    }
+    
+    /**
+     * The kinds of the supported appenders.
+     */
+    public enum AppenderType {
+        CONSOLE, FILE, ROLLING_FILE, DAILY_ROLLING_FILE, WAL;
+    }
+    
+    /**
+     * The resolved settings of one appender.
+     */
+    public static final class AppenderConfig {
+        
+        /** mName */
+        private final String mName;
+        
+        /** mAppenderType */
+        private final AppenderType mAppenderType;
+        
+        /** mLogPattern */
+        private final String mLogPattern;
+        
+        /** mFileName - relative to the logs folder, unless it's an absolute path. */
+        private final String mFileName;
+        
+        /** mMaxFileSize */
+        private final long mMaxFileSize;
+        
+        /** mMaxBackupFiles */
+        private final int mMaxBackupFiles;
+        
+        /** mImmediateFlush */
+        private final boolean mImmediateFlush;
+        
+        /** mAppend */
+        private final boolean mAppend;
+        
+        /** mDatePattern */
+        private final String mDatePattern;
+        
+        /**
+         * @param name
+         * @param appenderType
+         * @param logPattern
+         * @param fileName
+         * @param maxFileSize
+         * @param maxBackupFiles
+         * @param immediateFlush
+         * @param append
+         * @param datePattern
+         */
+        public AppenderConfig(final String name, final AppenderType appenderType, final String logPattern, final String fileName, final long maxFileSize, final int maxBackupFiles, final boolean immediateFlush, final boolean append, final String datePattern) {
+            if(LogHelper.isNullOrEmpty(name)) {
+                throw new IllegalArgumentException("name is either NULL or EMPTY!");
+            }
+            if(LogHelper.isNull(appenderType)) {
+                throw new NullPointerException("The appenderType should not be NULL!");
+            }
+            if(LogHelper.isNullOrEmpty(logPattern)) {
+                throw new IllegalArgumentException("logPattern is either NULL or EMPTY! appender:" + name);
+            }
+            if(appenderType != AppenderType.CONSOLE && LogHelper.isNullOrEmpty(fileName)) {
+                throw new IllegalArgumentException("fileName is either NULL or EMPTY! appender:" + name);
+            }
+            if((appenderType == AppenderType.ROLLING_FILE || appenderType == AppenderType.WAL) && (maxFileSize <= 0 || maxFileSize >= Integer.MAX_VALUE)) {
+                throw new IllegalArgumentException("Invalid Value! maxFileSize:" + maxFileSize + ", appender:" + name);
+            }
+            if(appenderType == AppenderType.ROLLING_FILE && maxBackupFiles <= 0) {
+                throw new IllegalArgumentException("Invalid Value! maxBackupFiles:" + maxBackupFiles + ", appender:" + name);
+            }
+            if(appenderType == AppenderType.WAL && maxBackupFiles < 0) {
+                throw new IllegalArgumentException("Invalid Value! maxBackupFiles:" + maxBackupFiles + ", appender:" + name);
+            }
+            if(appenderType == AppenderType.DAILY_ROLLING_FILE && LogHelper.isNullOrEmpty(datePattern)) {
+                throw new IllegalArgumentException("datePattern is either NULL or EMPTY! appender:" + name);
+            }
+            
+            mName = name;
+            mAppenderType = appenderType;
+            mLogPattern = logPattern;
+            mFileName = fileName;
+            mMaxFileSize = maxFileSize;
+            mMaxBackupFiles = maxBackupFiles;
+            mImmediateFlush = immediateFlush;
+            mAppend = append;
+            mDatePattern = datePattern;
+        }
+        
+        /**
+         * Returns the <code>mName</code> value.
+         *
+         * @return
+         */
+        public final String getName() {
+            return mName;
+        }
+        
+        /**
+         * Returns the <code>mAppenderType</code> value.
+         *
+         * @return
+         */
+        public final AppenderType getAppenderType() {
+            return mAppenderType;
+        }
+        
+        /**
+         * Returns the <code>mLogPattern</code> value.
+         *
+         * @return
+         */
+        public final String getLogPattern() {
+            return mLogPattern;
+        }
+        
+        /**
+         * Returns the <code>mFileName</code> value.
+         *
+         * @return
+         */
+        public final String getFileName() {
+            return mFileName;
+        }
+        
+        /**
+         * Returns the <code>mMaxFileSize</code> value.
+         *
+         * @return
+         */
+        public final long getMaxFileSize() {
+            return mMaxFileSize;
+        }
+        
+        /**
+         * Returns the <code>mMaxBackupFiles</code> value.
+         *
+         * @return
+         */
+        public final int getMaxBackupFiles() {
+            return mMaxBackupFiles;
+        }
+        
+        /**
+         * Returns the <code>mImmediateFlush</code> value.
+         *
+         * @return
+         */
+        public final boolean isImmediateFlush() {
+            return mImmediateFlush;
+        }
+        
+        /**
+         * Returns the <code>mAppend</code> value.
+         *
+         * @return
+         */
+        public final boolean isAppend() {
+            return mAppend;
+        }
+        
+        /**
+         * Returns the <code>mDatePattern</code> value.
+         *
+         * @return
+         */
+        public final String getDatePattern() {
+            return mDatePattern;
+        }
+        
+        /**
+         * @param dataOutput
+         * @throws IOException
+         */
+        private void writeTo(final DataOutput dataOutput) throws IOException {
+            dataOutput.writeUTF(mName);
+            dataOutput.writeByte(mAppenderType.ordinal());
+            dataOutput.writeUTF(mLogPattern);
+            dataOutput.writeUTF(LogHelper.isNull(mFileName) ? "" : mFileName);
+            dataOutput.writeLong(mMaxFileSize);
+            dataOutput.writeInt(mMaxBackupFiles);
+            dataOutput.writeBoolean(mImmediateFlush);
+            dataOutput.writeBoolean(mAppend);
+            dataOutput.writeUTF(LogHelper.isNull(mDatePattern) ? "" : mDatePattern);
+        }
+        
+        /**
+         * @param dataInput
+         * @return
+         * @throws IOException
+         */
+        private static AppenderConfig readFrom(final DataInput dataInput) throws IOException {
+            final String name = dataInput.readUTF();
+            final int appenderType = dataInput.readUnsignedByte();
+            if(appenderType >= AppenderType.values().length) {
+                throw new IOException("Invalid appenderType:" + appenderType);
+            }
+            
+            final String logPattern = dataInput.readUTF();
+            final String fileName = dataInput.readUTF();
+            final long maxFileSize = dataInput.readLong();
+            final int maxBackupFiles = dataInput.readInt();
+            final boolean immediateFlush = dataInput.readBoolean();
+            final boolean append = dataInput.readBoolean();
+            final String datePattern = dataInput.readUTF();
+            try {
+                return new AppenderConfig(name, AppenderType.values()[appenderType], logPattern, (fileName.length() == 0 ? null : fileName), maxFileSize, maxBackupFiles, immediateFlush, append, (datePattern.length() == 0 ? null : datePattern));
+            } catch(RuntimeException ex) {
+                throw new IOException("Invalid appender:" + name, ex);
+            }
+        }
+        
+        /**
+         * @return
+         */
+        @Override
+        public String toString() {
+            return mName + "<" + mAppenderType + ", " + mLogPattern + ", " + mFileName + ", " + mMaxFileSize + ", " + mMaxBackupFiles + ", " + mImmediateFlush + ", " + mAppend + ", " + mDatePattern + ">";
+        }
+    }
+}
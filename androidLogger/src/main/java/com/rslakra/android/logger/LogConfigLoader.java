@@ -0,0 +1,572 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import android.content.Context;
+import android.util.Log;
+
+import org.apache.log4j.Level;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+/**
+ * Loads the <code>LogConfig</code> from the log4j style <code>.xml</code> or
+ * <code>.properties</code> configuration files.
+ * <p>
+ * The configuration is parsed and validated once. The resolved configuration is cached in a
+ * compact binary file in the app's files folder, named by the hash of the configuration file, so
+ * the later starts skip the XML/properties parsing as long as the file doesn't change.
+ * <p>
+ * Supported are the levels of the root logger and the named loggers and the appenders of the
+ * root logger. The <code>ConsoleAppender</code> is mapped to the <code>AndroidAppender</code>.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 06:27:15 PM
+ * @since 1.0.0
+ */
+public final class LogConfigLoader {
+    
+    /** LOG_TAG */
+    private static final String LOG_TAG = "LogConfigLoader";
+    
+    /** CACHE_FILE_PREFIX */
+    public static final String CACHE_FILE_PREFIX = "log_config_";
+    
+    /** CACHE_FILE_SUFFIX */
+    public static final String CACHE_FILE_SUFFIX = ".bin";
+    
+    /** XML_SUFFIX */
+    private static final String XML_SUFFIX = ".xml";
+    
+    /** DEFAULT_DATE_PATTERN */
+    private static final String DEFAULT_DATE_PATTERN = "'.'yyyy-MM-dd";
+    
+    /** ROOT_LOGGER_KEY */
+    private static final String ROOT_LOGGER_KEY = "log4j.rootLogger";
+    
+    /** ROOT_CATEGORY_KEY */
+    private static final String ROOT_CATEGORY_KEY = "log4j.rootCategory";
+    
+    /** LOGGER_PREFIX */
+    private static final String LOGGER_PREFIX = "log4j.logger.";
+    
+    /** CATEGORY_PREFIX */
+    private static final String CATEGORY_PREFIX = "log4j.category.";
+    
+    /** APPENDER_PREFIX */
+    private static final String APPENDER_PREFIX = "log4j.appender.";
+    
+    /** PARAM_FILE */
+    private static final String PARAM_FILE = "file";
+    
+    /** PARAM_MAX_FILE_SIZE */
+    private static final String PARAM_MAX_FILE_SIZE = "maxfilesize";
+    
+    /** PARAM_MAX_BACKUP_INDEX */
+    private static final String PARAM_MAX_BACKUP_INDEX = "maxbackupindex";
+    
+    /** PARAM_IMMEDIATE_FLUSH */
+    private static final String PARAM_IMMEDIATE_FLUSH = "immediateflush";
+    
+    /** PARAM_APPEND */
+    private static final String PARAM_APPEND = "append";
+    
+    /** PARAM_DATE_PATTERN */
+    private static final String PARAM_DATE_PATTERN = "datepattern";
+    
+    /** PARAM_CONVERSION_PATTERN */
+    private static final String PARAM_CONVERSION_PATTERN = "layout.conversionpattern";
+    
+    /**
+     * Utility class.
+     */
+    private LogConfigLoader() {
+        throw new UnsupportedOperationException("Object creation is not allowed for this class!");
+    }
+    
+    /**
+     * Loads the configuration of the given <code>assetName</code> asset, using the cached
+     * configuration in the app's files folder, if it's available.
+     *
+     * @param context
+     * @param assetName
+     * @return
+     */
+    public static LogConfig load(final Context context, final String assetName) {
+        final InputStream assetStream = LogHelper.readAssets(context, assetName);
+        if(LogHelper.isNull(assetStream)) {
+            throw new RuntimeException(assetName + " configuration file did not find!");
+        }
+        
+        try {
+            return load(assetStream, assetName.endsWith(XML_SUFFIX), context.getFilesDir());
+        } finally {
+            LogHelper.closeSilently(assetStream);
+        }
+    }
+    
+    /**
+     * Loads the configuration of the given <code>inputStream</code>. The resolved configuration
+     * is read from or written into the <code>cacheFolder</code>, if it's not null.
+     *
+     * @param inputStream
+     * @param xmlConfig
+     * @param cacheFolder
+     * @return
+     */
+    public static LogConfig load(final InputStream inputStream, final boolean xmlConfig, final File cacheFolder) {
+        try {
+            return load(readFully(inputStream), xmlConfig, cacheFolder);
+        } catch(IOException ex) {
+            throw new RuntimeException("Error while reading the configuration!", ex);
+        }
+    }
+    
+    /**
+     * Loads the configuration of the given <code>configBytes</code>. The resolved configuration is
+     * read from or written into the <code>cacheFolder</code>, if it's not null.
+     *
+     * @param configBytes
+     * @param xmlConfig
+     * @param cacheFolder
+     * @return
+     */
+    public static LogConfig load(final byte[] configBytes, final boolean xmlConfig, final File cacheFolder) {
+        final File cacheFile = (LogHelper.isNull(cacheFolder) ? null : new File(cacheFolder, CACHE_FILE_PREFIX + hashKey(configBytes) + CACHE_FILE_SUFFIX));
+        if(LogHelper.isNotNull(cacheFile) && cacheFile.exists()) {
+            DataInputStream dataInput = null;
+            try {
+                dataInput = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)));
+                return LogConfig.readFrom(dataInput);
+            } catch(IOException ex) {
+                Log.w(LOG_TAG, "Ignoring the invalid configuration cache:" + cacheFile, ex);
+            } finally {
+                LogHelper.closeSilently(dataInput);
+            }
+        }
+        
+        final LogConfig logConfig;
+        if(xmlConfig) {
+            logConfig = parseXml(new ByteArrayInputStream(configBytes));
+        } else {
+            logConfig = parseProperties(LogHelper.loadProperties(new ByteArrayInputStream(configBytes)));
+        }
+        
+        if(LogHelper.isNotNull(cacheFile)) {
+            writeCache(logConfig, cacheFile);
+        }
+        
+        return logConfig;
+    }
+    
+    /**
+     * Writes the <code>logConfig</code> into the <code>cacheFile</code> and deletes the stale
+     * cache files. The failures are just logged.
+     *
+     * @param logConfig
+     * @param cacheFile
+     */
+    private static void writeCache(final LogConfig logConfig, final File cacheFile) {
+        final File cacheFolder = cacheFile.getParentFile();
+        if(!cacheFolder.exists() && !cacheFolder.mkdirs()) {
+            Log.w(LOG_TAG, "Unable to create folder:" + cacheFolder.getAbsolutePath());
+            return;
+        }
+        
+        final File[] staleFiles = cacheFolder.listFiles();
+        if(LogHelper.isNotNull(staleFiles)) {
+            for(File staleFile : staleFiles) {
+                if(staleFile.getName().startsWith(CACHE_FILE_PREFIX) && !staleFile.equals(cacheFile)) {
+                    staleFile.delete();
+                }
+            }
+        }
+        
+        final File tempFile = new File(cacheFolder, cacheFile.getName() + ".tmp");
+        DataOutputStream dataOutput = null;
+        try {
+            dataOutput = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            logConfig.writeTo(dataOutput);
+            dataOutput.close();
+            dataOutput = null;
+            if(!tempFile.renameTo(cacheFile)) {
+                Log.w(LOG_TAG, "Unable to write the configuration cache:" + cacheFile);
+                tempFile.delete();
+            }
+        } catch(IOException ex) {
+            Log.w(LOG_TAG, "Unable to write the configuration cache:" + cacheFile, ex);
+            LogHelper.closeSilently(dataOutput);
+            tempFile.delete();
+        }
+    }
+    
+    /**
+     * Returns the hex string of the <code>SHA-1</code> hash of the given <code>configBytes</code>.
+     *
+     * @param configBytes
+     * @return
+     */
+    static String hashKey(final byte[] configBytes) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(configBytes);
+            final StringBuilder hashKey = new StringBuilder(digest.length * 2);
+            for(byte value : digest) {
+                hashKey.append(Character.forDigit((value >> 4) & 0x0F, 16)).append(Character.forDigit(value & 0x0F, 16));
+            }
+            
+            return hashKey.toString();
+        } catch(NoSuchAlgorithmException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+    
+    /**
+     * @param inputStream
+     * @return
+     * @throws IOException
+     */
+    private static byte[] readFully(final InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int length;
+        while((length = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, length);
+        }
+        
+        return outputStream.toByteArray();
+    }
+    
+    /**
+     * Parses and validates the log4j style <code>properties</code>.
+     *
+     * @param properties
+     * @return
+     * @throws IllegalArgumentException if the configuration is not valid.
+     */
+    public static LogConfig parseProperties(final Properties properties) {
+        if(LogHelper.isNull(properties) || properties.isEmpty()) {
+            throw new IllegalArgumentException("The configuration should not be empty!");
+        }
+        
+        String rootLogger = properties.getProperty(ROOT_LOGGER_KEY);
+        if(LogHelper.isNull(rootLogger)) {
+            rootLogger = properties.getProperty(ROOT_CATEGORY_KEY, LogType.INFO.toString());
+        }
+        final String[] rootTokens = rootLogger.split(",");
+        final Level rootLevel = parseLevel(rootTokens[0], "rootLogger");
+        
+        final Map<String, Level> loggerLevels = new LinkedHashMap<String, Level>();
+        for(String key : properties.stringPropertyNames()) {
+            final String loggerName;
+            if(key.startsWith(LOGGER_PREFIX)) {
+                loggerName = key.substring(LOGGER_PREFIX.length());
+            } else if(key.startsWith(CATEGORY_PREFIX)) {
+                loggerName = key.substring(CATEGORY_PREFIX.length());
+            } else {
+                continue;
+            }
+            
+            final String[] loggerTokens = properties.getProperty(key).split(",");
+            loggerLevels.put(loggerName, parseLevel(loggerTokens[0], loggerName));
+            if(loggerTokens.length > 1) {
+                Log.w(LOG_TAG, "Ignoring the appenders of the logger:" + loggerName);
+            }
+        }
+        
+        final List<LogConfig.AppenderConfig> appenders = new ArrayList<LogConfig.AppenderConfig>();
+        for(int i = 1; i < rootTokens.length; i++) {
+            final String appenderName = rootTokens[i].trim();
+            if(appenderName.length() == 0) {
+                continue;
+            }
+            
+            final String appenderKey = APPENDER_PREFIX + appenderName;
+            final String className = properties.getProperty(appenderKey);
+            if(LogHelper.isNull(className)) {
+                throw new IllegalArgumentException("Undefined appender:" + appenderName);
+            }
+            
+            final Map<String, String> params = new HashMap<String, String>();
+            for(String key : properties.stringPropertyNames()) {
+                if(key.startsWith(appenderKey + ".")) {
+                    params.put(key.substring(appenderKey.length() + 1).toLowerCase(Locale.US), properties.getProperty(key).trim());
+                }
+            }
+            appenders.add(newAppenderConfig(appenderName, className.trim(), params));
+        }
+        
+        return new LogConfig(rootLevel, loggerLevels, appenders);
+    }
+    
+    /**
+     * Parses and validates the log4j style XML configuration.
+     *
+     * @param inputStream
+     * @return
+     * @throws IllegalArgumentException if the configuration is not valid.
+     */
+    public static LogConfig parseXml(final InputStream inputStream) {
+        final Document document;
+        try {
+            final DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
+            builderFactory.setNamespaceAware(false);
+            builderFactory.setValidating(false);
+            final DocumentBuilder documentBuilder = builderFactory.newDocumentBuilder();
+            /* don't load the log4j.dtd. */
+            documentBuilder.setEntityResolver(new EntityResolver() {
+                @Override
+                public InputSource resolveEntity(final String publicId, final String systemId) {
+                    return new InputSource(new ByteArrayInputStream(new byte[0]));
+                }
+            });
+            document = documentBuilder.parse(inputStream);
+        } catch(ParserConfigurationException ex) {
+            throw new RuntimeException(ex);
+        } catch(SAXException ex) {
+            throw new IllegalArgumentException("Invalid XML configuration!", ex);
+        } catch(IOException ex) {
+            throw new RuntimeException("Error while reading the XML configuration!", ex);
+        }
+        
+        final Map<String, Element> appenderElements = new HashMap<String, Element>();
+        Level rootLevel = Level.INFO;
+        final List<String> rootAppenders = new ArrayList<String>();
+        final Map<String, Level> loggerLevels = new LinkedHashMap<String, Level>();
+        final NodeList childNodes = document.getDocumentElement().getChildNodes();
+        for(int i = 0; i < childNodes.getLength(); i++) {
+            if(childNodes.item(i).getNodeType() != Node.ELEMENT_NODE) {
+                continue;
+            }
+            
+            final Element element = (Element) childNodes.item(i);
+            final String tagName = element.getTagName();
+            if("appender".equals(tagName)) {
+                appenderElements.put(element.getAttribute("name"), element);
+            } else if("root".equals(tagName)) {
+                final String levelValue = levelValue(element);
+                if(LogHelper.isNotNull(levelValue)) {
+                    rootLevel = parseLevel(levelValue, "root");
+                }
+                for(Element appenderRef : childElements(element, "appender-ref")) {
+                    rootAppenders.add(appenderRef.getAttribute("ref"));
+                }
+            } else if("logger".equals(tagName) || "category".equals(tagName)) {
+                final String loggerName = element.getAttribute("name");
+                final String levelValue = levelValue(element);
+                if(LogHelper.isNullOrEmpty(loggerName) || LogHelper.isNull(levelValue)) {
+                    throw new IllegalArgumentException("Invalid logger:" + loggerName);
+                }
+                loggerLevels.put(loggerName, parseLevel(levelValue, loggerName));
+                if(!childElements(element, "appender-ref").isEmpty()) {
+                    Log.w(LOG_TAG, "Ignoring the appenders of the logger:" + loggerName);
+                }
+            }
+        }
+        
+        final List<LogConfig.AppenderConfig> appenders = new ArrayList<LogConfig.AppenderConfig>();
+        for(String appenderName : rootAppenders) {
+            final Element appenderElement = appenderElements.get(appenderName);
+            if(LogHelper.isNull(appenderElement)) {
+                throw new IllegalArgumentException("Undefined appender:" + appenderName);
+            }
+            
+            final Map<String, String> params = new HashMap<String, String>();
+            for(Element param : childElements(appenderElement, "param")) {
+                params.put(param.getAttribute("name").toLowerCase(Locale.US), param.getAttribute("value").trim());
+            }
+            for(Element layout : childElements(appenderElement, "layout")) {
+                for(Element param : childElements(layout, "param")) {
+                    params.put("layout." + param.getAttribute("name").toLowerCase(Locale.US), param.getAttribute("value").trim());
+                }
+            }
+            appenders.add(newAppenderConfig(appenderName, appenderElement.getAttribute("class"), params));
+        }
+        
+        return new LogConfig(rootLevel, loggerLevels, appenders);
+    }
+    
+    /**
+     * Returns the value of the <code>level</code> or the <code>priority</code> child element.
+     *
+     * @param element
+     * @return
+     */
+    private static String levelValue(final Element element) {
+        for(Element levelElement : childElements(element, "level")) {
+            return levelElement.getAttribute("value");
+        }
+        for(Element levelElement : childElements(element, "priority")) {
+            return levelElement.getAttribute("value");
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Returns the child elements of the given <code>tagName</code>.
+     *
+     * @param element
+     * @param tagName
+     * @return
+     */
+    private static List<Element> childElements(final Element element, final String tagName) {
+        final List<Element> elements = new ArrayList<Element>();
+        final NodeList childNodes = element.getChildNodes();
+        for(int i = 0; i < childNodes.getLength(); i++) {
+            final Node childNode = childNodes.item(i);
+            if(childNode.getNodeType() == Node.ELEMENT_NODE && tagName.equals(((Element) childNode).getTagName())) {
+                elements.add((Element) childNode);
+            }
+        }
+        
+        return elements;
+    }
+    
+    /**
+     * Returns the <code>Level</code> of the given name. Both the log4j and the
+     * <code>LogType</code> names are accepted.
+     *
+     * @param levelName
+     * @param loggerName
+     * @return
+     */
+    private static Level parseLevel(final String levelName, final String loggerName) {
+        final String name = levelName.trim().toUpperCase(Locale.US);
+        final Level level = Level.toLevel(name, null);
+        if(LogHelper.isNotNull(level)) {
+            return level;
+        }
+        
+        try {
+            return LogType.toLevel(LogType.valueOf(name));
+        } catch(RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid Value! level:" + levelName + ", logger:" + loggerName);
+        }
+    }
+    
+    /**
+     * Returns the size in bytes of the given <code>size</code>. The size without any unit is in
+     * MB, like in the <code>android_log4j.properties</code>.
+     *
+     * @param size
+     * @return
+     */
+    static long parseFileSize(final String size) {
+        final String value = size.trim().toUpperCase(Locale.US);
+        long multiplier = LogHelper.MB_SIZE;
+        int end = value.length();
+        if(value.endsWith("KB")) {
+            multiplier = 1024;
+            end -= 2;
+        } else if(value.endsWith("MB")) {
+            end -= 2;
+        } else if(value.endsWith("GB")) {
+            multiplier = 1024 * LogHelper.MB_SIZE;
+            end -= 2;
+        }
+        
+        try {
+            return Long.parseLong(value.substring(0, end).trim()) * multiplier;
+        } catch(NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid Value! maxFileSize:" + size);
+        }
+    }
+    
+    /**
+     * Returns the validated appender configuration of the given <code>params</code>, whose names
+     * are in the lower case.
+     *
+     * @param appenderName
+     * @param className
+     * @param params
+     * @return
+     */
+    private static LogConfig.AppenderConfig newAppenderConfig(final String appenderName, final String className, final Map<String, String> params) {
+        final String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        final LogConfig.AppenderType appenderType;
+        if("ConsoleAppender".equals(simpleName) || "AndroidAppender".equals(simpleName)) {
+            appenderType = LogConfig.AppenderType.CONSOLE;
+        } else if("FileAppender".equals(simpleName)) {
+            appenderType = LogConfig.AppenderType.FILE;
+        } else if("RollingFileAppender".equals(simpleName)) {
+            appenderType = LogConfig.AppenderType.ROLLING_FILE;
+        } else if("DailyRollingFileAppender".equals(simpleName)) {
+            appenderType = LogConfig.AppenderType.DAILY_ROLLING_FILE;
+        } else if("WalAppender".equals(simpleName)) {
+            appenderType = LogConfig.AppenderType.WAL;
+        } else {
+            throw new IllegalArgumentException("Unsupported appender:" + appenderName + ", class:" + className);
+        }
+        
+        final String logPattern = (params.containsKey(PARAM_CONVERSION_PATTERN) ? params.get(PARAM_CONVERSION_PATTERN) : LogHelper.LOG_PATTERN);
+        final long maxFileSize = (params.containsKey(PARAM_MAX_FILE_SIZE) ? parseFileSize(params.get(PARAM_MAX_FILE_SIZE)) : LogHelper.MAX_FILE_SIZE);
+        final int maxBackupFiles;
+        try {
+            maxBackupFiles = (params.containsKey(PARAM_MAX_BACKUP_INDEX) ? Integer.parseInt(params.get(PARAM_MAX_BACKUP_INDEX)) : LogHelper.MAX_BACKUP_FILES);
+        } catch(NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid Value! maxBackupIndex:" + params.get(PARAM_MAX_BACKUP_INDEX));
+        }
+        final boolean immediateFlush = (!params.containsKey(PARAM_IMMEDIATE_FLUSH) || Boolean.parseBoolean(params.get(PARAM_IMMEDIATE_FLUSH)));
+        final boolean append = (!params.containsKey(PARAM_APPEND) || Boolean.parseBoolean(params.get(PARAM_APPEND)));
+        final String datePattern = (params.containsKey(PARAM_DATE_PATTERN) ? params.get(PARAM_DATE_PATTERN) : DEFAULT_DATE_PATTERN);
+        return new LogConfig.AppenderConfig(appenderName, appenderType, logPattern, params.get(PARAM_FILE), maxFileSize, maxBackupFiles, immediateFlush, append, (appenderType == LogConfig.AppenderType.DAILY_ROLLING_FILE ? datePattern : null));
+    }
+}
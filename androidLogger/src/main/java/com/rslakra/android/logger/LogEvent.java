@@ -0,0 +1,256 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import java.util.Arrays;
+
+/**
+ * A mutable log event, which is recycled through the <code>LogEventPool</code> instead of being
+ * allocated for every logging call buffered by the <code>DeferredLog</code>.
+ * <p>
+ * The event keeps the message template and its arguments, so the message is formatted only when
+ * it's needed, by the thread writing it. The arguments are copied into an inline array, which is
+ * reused by the next events. All the references are cleared, when the event is released.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 10:41:53 PM
+ * @since 1.0.0
+ */
+public final class LogEvent {
+    
+    /** INLINE_ARGUMENTS - the arguments kept without allocating a new array. */
+    public static final int INLINE_ARGUMENTS = 8;
+    
+    /** mTimeStamp */
+    private long mTimeStamp;
+    
+    /** mLogType */
+    private LogType mLogType;
+    
+    /** mLogTag */
+    private String mLogTag;
+    
+    /** mThreadId */
+    private long mThreadId;
+    
+    /** mThreadName */
+    private String mThreadName;
+    
+    /** mTemplate - the message or the format of the message, if there are arguments. */
+    private String mTemplate;
+    
+    /** mArguments */
+    private Object[] mArguments = new Object[INLINE_ARGUMENTS];
+    
+    /** mArgumentCount */
+    private int mArgumentCount;
+    
+    /** mThrowable */
+    private Throwable mThrowable;
+    
+    /** mMessage - the formatted message, once it's formatted. */
+    private String mMessage;
+    
+    /** mAcquired - true, while the event is out of the pool. */
+    boolean mAcquired;
+    
+    /** mLeakTracker - set, while the event is tracked by the leak detector. */
+    LogEventPool.LeakTracker mLeakTracker;
+    
+    /**
+     * Creates the events for the <code>LogEventPool</code> only.
+     */
+    LogEvent() {
+    }
+    
+    /**
+     * Captures the given event along with the current time and thread.
+     *
+     * @param logType
+     * @param logTag
+     * @param template
+     * @param arguments
+     * @param throwable
+     * @return
+     */
+    public final LogEvent set(final LogType logType, final String logTag, final String template, final Object[] arguments, final Throwable throwable) {
+        final Thread thread = Thread.currentThread();
+        mTimeStamp = System.currentTimeMillis();
+        mLogType = logType;
+        mLogTag = logTag;
+        mThreadId = thread.getId();
+        mThreadName = thread.getName();
+        mTemplate = template;
+        mThrowable = throwable;
+        mMessage = null;
+        mArgumentCount = (LogHelper.isNull(arguments) ? 0 : arguments.length);
+        if(mArgumentCount > mArguments.length) {
+            mArguments = new Object[mArgumentCount];
+        }
+        if(mArgumentCount > 0) {
+            System.arraycopy(arguments, 0, mArguments, 0, mArgumentCount);
+        }
+        
+        return this;
+    }
+    
+    /**
+     * Clears all the references, so that the pooled event doesn't keep anything alive. The
+     * larger argument array is dropped as well.
+     */
+    final void reset() {
+        if(mArguments.length > INLINE_ARGUMENTS) {
+            mArguments = new Object[INLINE_ARGUMENTS];
+        } else {
+            Arrays.fill(mArguments, 0, mArgumentCount, null);
+        }
+        mTimeStamp = 0;
+        mLogType = null;
+        mLogTag = null;
+        mThreadId = 0;
+        mThreadName = null;
+        mTemplate = null;
+        mArgumentCount = 0;
+        mThrowable = null;
+        mMessage = null;
+    }
+    
+    /**
+     * Returns the <code>mTimeStamp</code> value.
+     *
+     * @return
+     */
+    public final long getTimeStamp() {
+        return mTimeStamp;
+    }
+    
+    /**
+     * Returns the <code>mLogType</code> value.
+     *
+     * @return
+     */
+    public final LogType getLogType() {
+        return mLogType;
+    }
+    
+    /**
+     * Returns the <code>mLogTag</code> value.
+     *
+     * @return
+     */
+    public final String getLogTag() {
+        return mLogTag;
+    }
+    
+    /**
+     * Returns the <code>mThreadId</code> value.
+     *
+     * @return
+     */
+    public final long getThreadId() {
+        return mThreadId;
+    }
+    
+    /**
+     * Returns the <code>mThreadName</code> value.
+     *
+     * @return
+     */
+    public final String getThreadName() {
+        return mThreadName;
+    }
+    
+    /**
+     * Returns the <code>mTemplate</code> value.
+     *
+     * @return
+     */
+    public final String getTemplate() {
+        return mTemplate;
+    }
+    
+    /**
+     * Returns the number of the arguments.
+     *
+     * @return
+     */
+    public final int getArgumentCount() {
+        return mArgumentCount;
+    }
+    
+    /**
+     * Returns the argument at the given <code>index</code>.
+     *
+     * @param index
+     * @return
+     */
+    public final Object getArgument(final int index) {
+        if(index < 0 || index >= mArgumentCount) {
+            throw new IndexOutOfBoundsException("Invalid Value! index:" + index);
+        }
+        
+        return mArguments[index];
+    }
+    
+    /**
+     * Returns the <code>mThrowable</code> value.
+     *
+     * @return
+     */
+    public final Throwable getThrowable() {
+        return mThrowable;
+    }
+    
+    /**
+     * Returns the message, formatting the template with the arguments on the first call.
+     *
+     * @return
+     */
+    public final String getMessage() {
+        if(LogHelper.isNull(mMessage)) {
+            if(mArgumentCount == 0 || LogHelper.isNull(mTemplate)) {
+                mMessage = mTemplate;
+            } else {
+                mMessage = String.format(mTemplate, Arrays.copyOf(mArguments, mArgumentCount));
+            }
+        }
+        
+        return mMessage;
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public String toString() {
+        return mLogType + " [" + mThreadName + "] [" + mLogTag + "] - " + getMessage();
+    }
+}
@@ -0,0 +1,293 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import java.nio.ByteBuffer;
+import java.util.Calendar;
+
+/**
+ * Encodes the log events directly into the UTF-8 bytes of a heap <code>ByteBuffer</code> in the
+ * <code>[yyyy-MM-dd HH:mm:ss.SSS] LEVEL [thread] [tag] - message</code> format, without creating
+ * any intermediate string.
+ * <p>
+ * The date part is formatted once per second. The instances are not thread-safe, each writing
+ * thread owns its own encoder.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 07:48:21 PM
+ * @since 1.0.0
+ */
+final class LogEventEncoder {
+    
+    /** LOG_PATTERN - the conversion pattern of the encoded format, to parse the written lines. */
+    static final String LOG_PATTERN = "[%d{yyyy-MM-dd HH:mm:ss.SSS}] %5p [%t] [%c] - %m%n";
+    
+    /** LEVELS - the padded level names by the <code>LogType</code> ordinal, like the %5p. */
+    private static final byte[][] LEVELS = new byte[LogType.values().length][];
+    
+    static {
+        for(LogType logType : LogType.values()) {
+            final String levelName;
+            switch(logType) {
+                case ERROR:
+                case ASSERT:
+                    levelName = "ERROR";
+                    break;
+                case WARN:
+                    levelName = " WARN";
+                    break;
+                case INFO:
+                    levelName = " INFO";
+                    break;
+                default:
+                    levelName = "DEBUG";
+                    break;
+            }
+            LEVELS[logType.ordinal()] = levelName.getBytes();
+        }
+    }
+    
+    /** mCalendar */
+    private final Calendar mCalendar = Calendar.getInstance();
+    
+    /** mDateSecond - the second, the <code>mDateBytes</code> are formatted for. */
+    private long mDateSecond = Long.MIN_VALUE;
+    
+    /** mDateBytes - the "[yyyy-MM-dd HH:mm:ss." bytes. */
+    private final byte[] mDateBytes = new byte[21];
+    
+    /**
+     * Returns the maximum number of the bytes, the given event may be encoded into.
+     *
+     * @param threadName
+     * @param logTag
+     * @param logMessage
+     * @param throwable
+     * @return
+     */
+    static int maxEncodedSize(final String threadName, final String logTag, final String logMessage, final Throwable throwable) {
+        long chars = String.valueOf(threadName).length() + String.valueOf(logTag).length() + String.valueOf(logMessage).length();
+        if(LogHelper.isNotNull(throwable)) {
+            chars += LogHelper.getStackTraceDeduper().render(throwable).length();
+        }
+        
+        return (int) Math.min(Integer.MAX_VALUE, chars * 3 + 64);
+    }
+    
+    /**
+     * Encodes the given event at the position of the <code>buffer</code> and advances it. Returns
+     * false and leaves the <code>buffer</code> unchanged, if the event doesn't fit.
+     *
+     * @param buffer
+     * @param timeMillis
+     * @param logType
+     * @param threadName
+     * @param logTag
+     * @param logMessage
+     * @param throwable
+     * @return
+     */
+    final boolean encode(final ByteBuffer buffer, final long timeMillis, final LogType logType, final String threadName, final String logTag, final String logMessage, final Throwable throwable) {
+        final byte[] bytes = buffer.array();
+        final int limit = buffer.arrayOffset() + buffer.limit();
+        int position = buffer.arrayOffset() + buffer.position();
+        
+        position = putDate(bytes, position, limit, timeMillis);
+        position = putAscii(bytes, position, limit, "] ");
+        position = putBytes(bytes, position, limit, LEVELS[logType.ordinal()]);
+        position = putAscii(bytes, position, limit, " [");
+        position = putUtf8(bytes, position, limit, threadName);
+        position = putAscii(bytes, position, limit, "] [");
+        position = putUtf8(bytes, position, limit, logTag);
+        position = putAscii(bytes, position, limit, "] - ");
+        position = putUtf8(bytes, position, limit, logMessage);
+        position = putAscii(bytes, position, limit, "\n");
+        if(LogHelper.isNotNull(throwable)) {
+            position = putUtf8(bytes, position, limit, LogHelper.getStackTraceDeduper().render(throwable));
+            position = putAscii(bytes, position, limit, "\n");
+        }
+        
+        if(position < 0) {
+            return false;
+        }
+        
+        buffer.position(position - buffer.arrayOffset());
+        return true;
+    }
+    
+    /**
+     * @param bytes
+     * @param position
+     * @param limit
+     * @param timeMillis
+     * @return
+     */
+    private int putDate(final byte[] bytes, int position, final int limit, final long timeMillis) {
+        if(position < 0 || position + mDateBytes.length + 3 > limit) {
+            return -1;
+        }
+        
+        final long second = timeMillis / 1000;
+        if(second != mDateSecond) {
+            mDateSecond = second;
+            mCalendar.setTimeInMillis(timeMillis);
+            mDateBytes[0] = '[';
+            putDigits(mDateBytes, 1, mCalendar.get(Calendar.YEAR), 4);
+            mDateBytes[5] = '-';
+            putDigits(mDateBytes, 6, mCalendar.get(Calendar.MONTH) + 1, 2);
+            mDateBytes[8] = '-';
+            putDigits(mDateBytes, 9, mCalendar.get(Calendar.DAY_OF_MONTH), 2);
+            mDateBytes[11] = ' ';
+            putDigits(mDateBytes, 12, mCalendar.get(Calendar.HOUR_OF_DAY), 2);
+            mDateBytes[14] = ':';
+            putDigits(mDateBytes, 15, mCalendar.get(Calendar.MINUTE), 2);
+            mDateBytes[17] = ':';
+            putDigits(mDateBytes, 18, mCalendar.get(Calendar.SECOND), 2);
+            mDateBytes[20] = '.';
+        }
+        
+        System.arraycopy(mDateBytes, 0, bytes, position, mDateBytes.length);
+        position += mDateBytes.length;
+        putDigits(bytes, position, (int) (timeMillis % 1000), 3);
+        return position + 3;
+    }
+    
+    /**
+     * Puts the given <code>value</code> as the zero padded <code>digits</code>.
+     *
+     * @param bytes
+     * @param position
+     * @param value
+     * @param digits
+     */
+    private static void putDigits(final byte[] bytes, final int position, int value, final int digits) {
+        for(int i = position + digits - 1; i >= position; i--) {
+            bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+    
+    /**
+     * @param bytes
+     * @param position
+     * @param limit
+     * @param value
+     * @return
+     */
+    private static int putBytes(final byte[] bytes, final int position, final int limit, final byte[] value) {
+        if(position < 0 || position + value.length > limit) {
+            return -1;
+        }
+        
+        System.arraycopy(value, 0, bytes, position, value.length);
+        return position + value.length;
+    }
+    
+    /**
+     * Puts the given ASCII only <code>value</code>.
+     *
+     * @param bytes
+     * @param position
+     * @param limit
+     * @param value
+     * @return
+     */
+    private static int putAscii(final byte[] bytes, int position, final int limit, final String value) {
+        if(position < 0 || position + value.length() > limit) {
+            return -1;
+        }
+        
+        for(int i = 0; i < value.length(); i++) {
+            bytes[position++] = (byte) value.charAt(i);
+        }
+        
+        return position;
+    }
+    
+    /**
+     * Puts the UTF-8 bytes of the given <code>value</code>. The unpaired surrogates are replaced
+     * by the '?'.
+     *
+     * @param bytes
+     * @param position
+     * @param limit
+     * @param value
+     * @return
+     */
+    static int putUtf8(final byte[] bytes, int position, final int limit, final String value) {
+        if(position < 0) {
+            return -1;
+        }
+        if(LogHelper.isNull(value)) {
+            return putAscii(bytes, position, limit, "null");
+        }
+        
+        final int length = value.length();
+        for(int i = 0; i < length; i++) {
+            final char ch = value.charAt(i);
+            if(ch < 0x80) {
+                if(position >= limit) {
+                    return -1;
+                }
+                bytes[position++] = (byte) ch;
+            } else if(ch < 0x800) {
+                if(position + 2 > limit) {
+                    return -1;
+                }
+                bytes[position++] = (byte) (0xC0 | (ch >> 6));
+                bytes[position++] = (byte) (0x80 | (ch & 0x3F));
+            } else if(Character.isHighSurrogate(ch) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                if(position + 4 > limit) {
+                    return -1;
+                }
+                final int codePoint = Character.toCodePoint(ch, value.charAt(++i));
+                bytes[position++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if(Character.isSurrogate(ch)) {
+                if(position >= limit) {
+                    return -1;
+                }
+                bytes[position++] = '?';
+            } else {
+                if(position + 3 > limit) {
+                    return -1;
+                }
+                bytes[position++] = (byte) (0xE0 | (ch >> 12));
+                bytes[position++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+                bytes[position++] = (byte) (0x80 | (ch & 0x3F));
+            }
+        }
+        
+        return position;
+    }
+}
@@ -0,0 +1,260 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import android.util.Log;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bounded pool of the <code>LogEvent</code> objects.
+ * <p>
+ * The <code>acquire</code> hands out a pooled event, or a new one, if the pool is empty. The
+ * <code>release</code> resets the event and puts it back, unless the pool is full.
+ * <p>
+ * The pool backs only the events buffered by the <code>DeferredLog</code>, while the log4j is
+ * configured. The queued and async appenders still get a log4j <code>LoggingEvent</code> for every
+ * logging call, which can't be recycled, as the appenders may keep it after it's appended.
+ * <p>
+ * In the debug mode, the leak detector remembers where every event was acquired. The events,
+ * which are garbage collected without being released, are reported to the logcat with the stack
+ * trace of their acquisition and counted in the <code>getLeakedCount()</code>.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 10:58:07 PM
+ * @since 1.0.0
+ */
+public final class LogEventPool {
+    
+    /** LOG_TAG */
+    private static final String LOG_TAG = "LogEventPool";
+    
+    /** DEFAULT_CAPACITY */
+    public static final int DEFAULT_CAPACITY = 256;
+    
+    /** mEvents - the stack of the pooled events. */
+    private final LogEvent[] mEvents;
+    
+    /** mSize */
+    private int mSize;
+    
+    /** mCreatedCount */
+    private long mCreatedCount;
+    
+    /** mOutstandingCount - the events acquired and not released yet. */
+    private int mOutstandingCount;
+    
+    /** mLeakDetectionEnabled */
+    private volatile boolean mLeakDetectionEnabled;
+    
+    /** mLeakQueue */
+    private final ReferenceQueue<LogEvent> mLeakQueue = new ReferenceQueue<LogEvent>();
+    
+    /** mLeakTrackers - keeps the trackers reachable, until their events are released. */
+    private final Set<LeakTracker> mLeakTrackers = Collections.newSetFromMap(new ConcurrentHashMap<LeakTracker, Boolean>());
+    
+    /** mLeakedCount */
+    private volatile long mLeakedCount;
+    
+    /**
+     * @param capacity
+     */
+    public LogEventPool(final int capacity) {
+        if(capacity <= 0) {
+            throw new IllegalArgumentException("Invalid Value! capacity:" + capacity);
+        }
+        
+        mEvents = new LogEvent[capacity];
+    }
+    
+    /**
+     * Returns the <code>mLeakDetectionEnabled</code> value.
+     *
+     * @return
+     */
+    public final boolean isLeakDetectionEnabled() {
+        return mLeakDetectionEnabled;
+    }
+    
+    /**
+     * Enables or disables the leak detector. It captures a stack trace for every acquired event,
+     * so it's meant for the debug builds only.
+     *
+     * @param leakDetectionEnabled
+     */
+    public final void setLeakDetectionEnabled(final boolean leakDetectionEnabled) {
+        mLeakDetectionEnabled = leakDetectionEnabled;
+    }
+    
+    /**
+     * Returns a pooled event or a new one, if the pool is empty. The event must be given back
+     * with the <code>release</code>, once it's written.
+     *
+     * @return
+     */
+    public final LogEvent acquire() {
+        LogEvent logEvent = null;
+        synchronized(this) {
+            if(mSize > 0) {
+                logEvent = mEvents[--mSize];
+                mEvents[mSize] = null;
+            } else {
+                mCreatedCount++;
+            }
+            mOutstandingCount++;
+        }
+        if(LogHelper.isNull(logEvent)) {
+            logEvent = new LogEvent();
+        }
+        
+        logEvent.mAcquired = true;
+        if(mLeakDetectionEnabled) {
+            reportLeaks();
+            final LeakTracker leakTracker = new LeakTracker(logEvent, mLeakQueue);
+            mLeakTrackers.add(leakTracker);
+            logEvent.mLeakTracker = leakTracker;
+        }
+        
+        return logEvent;
+    }
+    
+    /**
+     * Resets the given event and puts it back into the pool, unless the pool is full.
+     *
+     * @param logEvent
+     * @throws IllegalStateException if the event is already released.
+     */
+    public final void release(final LogEvent logEvent) {
+        if(LogHelper.isNull(logEvent)) {
+            throw new NullPointerException("The logEvent should not be NULL!");
+        }
+        if(!logEvent.mAcquired) {
+            throw new IllegalStateException("The logEvent is already released!");
+        }
+        
+        logEvent.mAcquired = false;
+        if(LogHelper.isNotNull(logEvent.mLeakTracker)) {
+            mLeakTrackers.remove(logEvent.mLeakTracker);
+            logEvent.mLeakTracker.clear();
+            logEvent.mLeakTracker = null;
+        }
+        logEvent.reset();
+        synchronized(this) {
+            mOutstandingCount--;
+            if(mSize < mEvents.length) {
+                mEvents[mSize++] = logEvent;
+            }
+        }
+    }
+    
+    /**
+     * Reports the events, which were garbage collected without being released, and returns their
+     * number.
+     *
+     * @return
+     */
+    public final int reportLeaks() {
+        int leaks = 0;
+        LeakTracker leakTracker;
+        while((leakTracker = (LeakTracker) mLeakQueue.poll()) != null) {
+            if(mLeakTrackers.remove(leakTracker)) {
+                leaks++;
+                Log.w(LOG_TAG, "The LogEvent was never released to the pool!", leakTracker.mAcquiredAt);
+            }
+        }
+        if(leaks > 0) {
+            synchronized(this) {
+                mOutstandingCount -= leaks;
+                mLeakedCount += leaks;
+            }
+        }
+        
+        return leaks;
+    }
+    
+    /**
+     * Returns the number of the pooled events.
+     *
+     * @return
+     */
+    public final synchronized int getSize() {
+        return mSize;
+    }
+    
+    /**
+     * Returns the number of the events created, because the pool was empty.
+     *
+     * @return
+     */
+    public final synchronized long getCreatedCount() {
+        return mCreatedCount;
+    }
+    
+    /**
+     * Returns the number of the events acquired and not released yet.
+     *
+     * @return
+     */
+    public final synchronized int getOutstandingCount() {
+        return mOutstandingCount;
+    }
+    
+    /**
+     * Returns the number of the leaked events reported by the leak detector.
+     *
+     * @return
+     */
+    public final long getLeakedCount() {
+        return mLeakedCount;
+    }
+    
+    /**
+     * Remembers where an event was acquired, until the event is released or collected.
+     */
+    static final class LeakTracker extends WeakReference<LogEvent> {
+        
+        /** mAcquiredAt */
+        private final Throwable mAcquiredAt;
+        
+        /**
+         * @param logEvent
+         * @param leakQueue
+         */
+        private LeakTracker(final LogEvent logEvent, final ReferenceQueue<LogEvent> leakQueue) {
+            super(logEvent, leakQueue);
+            mAcquiredAt = new Throwable("The LogEvent acquired at:");
+        }
+    }
+}
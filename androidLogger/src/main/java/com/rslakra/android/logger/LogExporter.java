@@ -0,0 +1,784 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams all the logs of the logs folder (the active files, the rolled segments and the crash
+ * dumps) into a single zip or tar.gz archive, to be attached to a bug report. The files are copied
+ * through a fixed-size buffer (or the <code>FileChannel.transferTo</code> for the already
+ * compressed segments into a zip), so the memory used doesn't depend on the size of the logs.
+ * <p>
+ * All the files are opened and their lengths taken before the first byte is written, so the
+ * archive is a consistent snapshot while the logging goes on: the events appended later are not
+ * exported, the partial last line of an active file is left out and the opened files are still
+ * readable if they are rolled over or deleted during the export.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-20 04:17:08 AM
+ * @since 1.0.0
+ */
+public final class LogExporter {
+    
+    /** UTF_8 */
+    private static final Charset UTF_8 = Charset.forName(Utf8StreamWriter.UTF_8);
+    
+    /** DUMP_PATTERN - the crash dumps, exported as they are. */
+    private static final Pattern DUMP_PATTERN = Pattern.compile(".+\\.(crash|dmp|trace)(\\.gz)?");
+    
+    /** GZIP_SUFFIX */
+    private static final String GZIP_SUFFIX = ".gz";
+    
+    /** BUFFER_SIZE - the size of the copy buffer. */
+    private static final int BUFFER_SIZE = 16 * 1024;
+    
+    /** TAR_BLOCK_SIZE */
+    private static final int TAR_BLOCK_SIZE = 512;
+    
+    /**
+     * The supported archive formats.
+     */
+    public enum Format {
+        ZIP, TAR_GZ;
+    }
+    
+    /** mLogsFolder */
+    private final File mLogsFolder;
+    
+    /** mLogPattern */
+    private final String mLogPattern;
+    
+    /** mFromMillis */
+    private volatile long mFromMillis = Long.MIN_VALUE;
+    
+    /** mToMillis */
+    private volatile long mToMillis = Long.MAX_VALUE;
+    
+    /**
+     * @param logsFolder
+     * @param logPattern - the pattern the logs are written with, to filter them by time.
+     */
+    public LogExporter(final File logsFolder, final String logPattern) {
+        if(LogHelper.isNull(logsFolder)) {
+            throw new NullPointerException("The logsFolder should not be NULL!");
+        }
+        if(LogHelper.isNullOrEmpty(logPattern)) {
+            throw new IllegalArgumentException("logPattern is either NULL or EMPTY!");
+        }
+        
+        mLogsFolder = logsFolder;
+        mLogPattern = logPattern;
+    }
+    
+    /**
+     * Exports only the events logged from the <code>fromMillis</code> (inclusive) to the
+     * <code>toMillis</code> (exclusive) and the crash dumps modified in the window. The
+     * <code>Long.MIN_VALUE</code> and the <code>Long.MAX_VALUE</code> leave the window open.
+     *
+     * @param fromMillis
+     * @param toMillis
+     */
+    public void setTimeWindow(final long fromMillis, final long toMillis) {
+        if(fromMillis > toMillis) {
+            throw new IllegalArgumentException("Invalid Value! fromMillis:" + fromMillis + ", toMillis:" + toMillis);
+        }
+        
+        mFromMillis = fromMillis;
+        mToMillis = toMillis;
+    }
+    
+    /**
+     * Returns true, if the time window is set.
+     *
+     * @return
+     */
+    private boolean isFiltered() {
+        return (mFromMillis != Long.MIN_VALUE || mToMillis != Long.MAX_VALUE);
+    }
+    
+    /**
+     * Returns the files to be exported, the log segments and the crash dumps of the logs folder.
+     *
+     * @return
+     */
+    public List<File> getExportFiles() {
+        final List<File> exportFiles = new ArrayList<File>(LogMergeReader.getSegmentFiles(mLogsFolder));
+        final File[] files = mLogsFolder.listFiles();
+        if(LogHelper.isNotNull(files)) {
+            Arrays.sort(files);
+            for(File file : files) {
+                if(file.isFile() && DUMP_PATTERN.matcher(file.getName()).matches()) {
+                    exportFiles.add(file);
+                }
+            }
+        }
+        
+        return exportFiles;
+    }
+    
+    /**
+     * Writes the archive of the logs into the given <code>outputStream</code>, which is left
+     * open.
+     *
+     * @param outputStream
+     * @param format
+     * @return the number of the exported files.
+     * @throws IOException
+     */
+    public int export(final OutputStream outputStream, final Format format) throws IOException {
+        if(LogHelper.isNull(outputStream)) {
+            throw new NullPointerException("The outputStream should not be NULL!");
+        }
+        if(LogHelper.isNull(format)) {
+            throw new NullPointerException("The format should not be NULL!");
+        }
+        
+        final List<Snapshot> snapshots = takeSnapshots();
+        try {
+            final LogLineParser lineParser = new LogLineParser(mLogPattern);
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            if(format == Format.ZIP) {
+                exportZip(snapshots, outputStream, lineParser, buffer);
+            } else {
+                exportTarGz(snapshots, outputStream, lineParser, buffer);
+            }
+            outputStream.flush();
+        } finally {
+            for(Snapshot snapshot : snapshots) {
+                LogHelper.closeSilently(snapshot.mRandomAccessFile);
+            }
+        }
+        
+        return snapshots.size();
+    }
+    
+    /**
+     * Writes the archive of the logs into the given <code>fileDescriptor</code> (e.g. of a
+     * <code>ParcelFileDescriptor</code>), which is left open.
+     *
+     * @param fileDescriptor
+     * @param format
+     * @return the number of the exported files.
+     * @throws IOException
+     */
+    public int export(final FileDescriptor fileDescriptor, final Format format) throws IOException {
+        if(LogHelper.isNull(fileDescriptor)) {
+            throw new NullPointerException("The fileDescriptor should not be NULL!");
+        }
+        
+        return export(new BufferedOutputStream(new FileOutputStream(fileDescriptor), BUFFER_SIZE), format);
+    }
+    
+    /**
+     * Opens all the export files and takes their lengths, before any of them is exported.
+     *
+     * @return
+     * @throws IOException
+     */
+    private List<Snapshot> takeSnapshots() throws IOException {
+        final boolean filtered = isFiltered();
+        final List<Snapshot> snapshots = new ArrayList<Snapshot>();
+        try {
+            for(File file : getExportFiles()) {
+                final boolean dump = DUMP_PATTERN.matcher(file.getName()).matches();
+                if(dump && filtered && (file.lastModified() < mFromMillis || file.lastModified() >= mToMillis)) {
+                    continue;
+                }
+                
+                final RandomAccessFile randomAccessFile;
+                try {
+                    randomAccessFile = new RandomAccessFile(file, "r");
+                } catch(FileNotFoundException ex) {
+                    // rolled over or deleted since listed.
+                    continue;
+                }
+                snapshots.add(new Snapshot(file, randomAccessFile, dump, file.lastModified()));
+            }
+        } catch(IOException ex) {
+            for(Snapshot snapshot : snapshots) {
+                LogHelper.closeSilently(snapshot.mRandomAccessFile);
+            }
+            throw ex;
+        }
+        
+        return snapshots;
+    }
+    
+    /**
+     * @param snapshots
+     * @param outputStream
+     * @param lineParser
+     * @param buffer
+     * @throws IOException
+     */
+    private void exportZip(final List<Snapshot> snapshots, final OutputStream outputStream, final LogLineParser lineParser, final byte[] buffer) throws IOException {
+        final ZipOutputStream zipStream = new ZipOutputStream(outputStream);
+        for(Snapshot snapshot : snapshots) {
+            final boolean transfer = (snapshot.mCompressed && (snapshot.mDump || !isFiltered()));
+            final ZipEntry zipEntry = new ZipEntry(getEntryName(snapshot));
+            zipEntry.setTime(snapshot.mLastModified);
+            zipStream.setLevel(transfer ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+            zipStream.putNextEntry(zipEntry);
+            if(transfer) {
+                final FileChannel fileChannel = snapshot.mRandomAccessFile.getChannel();
+                long position = 0;
+                while(position < snapshot.mLength) {
+                    position += fileChannel.transferTo(position, snapshot.mLength - position, Channels.newChannel(zipStream));
+                }
+            } else {
+                writeContent(snapshot, zipStream, lineParser, buffer);
+            }
+            zipStream.closeEntry();
+        }
+        zipStream.finish();
+    }
+    
+    /**
+     * @param snapshots
+     * @param outputStream
+     * @param lineParser
+     * @param buffer
+     * @throws IOException
+     */
+    private void exportTarGz(final List<Snapshot> snapshots, final OutputStream outputStream, final LogLineParser lineParser, final byte[] buffer) throws IOException {
+        final GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, BUFFER_SIZE);
+        for(Snapshot snapshot : snapshots) {
+            // the tar header needs the size, so the converted content is counted first.
+            final long size = (isConverted(snapshot) ? writeContent(snapshot, null, lineParser, buffer) : snapshot.mLength);
+            writeTarHeader(gzipStream, getEntryName(snapshot), size, snapshot.mLastModified);
+            final long written = writeContent(snapshot, gzipStream, lineParser, buffer);
+            if(written != size) {
+                throw new IOException("The size of:" + snapshot.mFile + " changed from:" + size + " to:" + written);
+            }
+            final int padding = (int) ((TAR_BLOCK_SIZE - size % TAR_BLOCK_SIZE) % TAR_BLOCK_SIZE);
+            gzipStream.write(new byte[padding]);
+        }
+        gzipStream.write(new byte[2 * TAR_BLOCK_SIZE]);
+        gzipStream.finish();
+    }
+    
+    /**
+     * Returns true, if the content of the given <code>snapshot</code> isn't exported as it is,
+     * i.e. the <code>WalAppender</code> segments rendered as text or the segments filtered by the
+     * time window.
+     *
+     * @param snapshot
+     * @return
+     */
+    private boolean isConverted(final Snapshot snapshot) {
+        return (!snapshot.mDump && (snapshot.mWal || isFiltered()));
+    }
+    
+    /**
+     * Returns the name of the archive entry of the given <code>snapshot</code>.
+     *
+     * @param snapshot
+     * @return
+     */
+    private String getEntryName(final Snapshot snapshot) {
+        String entryName = snapshot.mFile.getName();
+        if(isConverted(snapshot)) {
+            if(snapshot.mCompressed) {
+                entryName = entryName.substring(0, entryName.length() - GZIP_SUFFIX.length());
+            }
+            if(snapshot.mWal) {
+                entryName += ".txt";
+            }
+        }
+        
+        return entryName;
+    }
+    
+    /**
+     * Writes the snapshot content of the given file into the <code>outputStream</code> or only
+     * counts it, if the <code>outputStream</code> is null.
+     *
+     * @param snapshot
+     * @param outputStream
+     * @param lineParser
+     * @param buffer
+     * @return the number of the bytes written.
+     * @throws IOException
+     */
+    private long writeContent(final Snapshot snapshot, final OutputStream outputStream, final LogLineParser lineParser, final byte[] buffer) throws IOException {
+        final CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+        InputStream inputStream = new SnapshotInputStream(snapshot.mRandomAccessFile.getChannel(), snapshot.mLength);
+        if(!isConverted(snapshot)) {
+            int length;
+            while((length = inputStream.read(buffer)) > 0) {
+                countingStream.write(buffer, 0, length);
+            }
+            return countingStream.getCount();
+        }
+        
+        if(snapshot.mCompressed) {
+            inputStream = new GZIPInputStream(inputStream, BUFFER_SIZE);
+        }
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(countingStream, UTF_8), BUFFER_SIZE);
+        if(snapshot.mWal) {
+            writeRecords(new DataInputStream(inputStream), (snapshot.mCompressed ? Long.MAX_VALUE : snapshot.mLength), writer, lineParser, buffer);
+        } else {
+            writeLines(new BufferedReader(new InputStreamReader(inputStream, UTF_8), BUFFER_SIZE), writer, lineParser);
+        }
+        writer.flush();
+        return countingStream.getCount();
+    }
+    
+    /**
+     * Writes the lines of the entries in the time window, the continuation lines (e.g. of a stack
+     * trace) follow their entry.
+     *
+     * @param reader
+     * @param writer
+     * @param lineParser
+     * @throws IOException
+     */
+    private void writeLines(final BufferedReader reader, final Writer writer, final LogLineParser lineParser) throws IOException {
+        boolean included = !isFiltered();
+        String line;
+        while(LogHelper.isNotNull(line = reader.readLine())) {
+            final long timestamp = lineParser.parseTimestamp(line);
+            if(timestamp != Long.MIN_VALUE) {
+                included = isInWindow(timestamp);
+            }
+            if(included) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        }
+    }
+    
+    /**
+     * Writes the valid records of a <code>WalAppender</code> segment in the time window as text.
+     * The records stop at a length longer than the <code>remaining</code> bytes of the segment.
+     *
+     * @param dataStream
+     * @param remaining  - the length of the segment or <code>Long.MAX_VALUE</code>, if it's
+     *                   compressed.
+     * @param writer
+     * @param lineParser
+     * @param buffer
+     * @throws IOException
+     */
+    private void writeRecords(final DataInputStream dataStream, final long remaining, final Writer writer, final LogLineParser lineParser, final byte[] buffer) throws IOException {
+        try {
+            long left = remaining;
+            int length;
+            //the records are never empty, a zero length is the unwritten space of the segment.
+            while((length = dataStream.readInt()) > 0 && length <= left - WalAppender.HEADER_SIZE) {
+                final int checksum = dataStream.readInt();
+                final byte[] payload = readPayload(dataStream, length, (remaining != Long.MAX_VALUE), buffer);
+                if(Crc32c.checksum(payload, 0, length) != checksum) {
+                    return;
+                }
+                left -= WalAppender.HEADER_SIZE + length;
+                
+                final String text = new String(payload, UTF_8);
+                final long timestamp = lineParser.parseTimestamp(text);
+                if(!isFiltered() || (timestamp != Long.MIN_VALUE && isInWindow(timestamp))) {
+                    writer.write(text);
+                    if(!text.endsWith("\n")) {
+                        writer.write('\n');
+                    }
+                }
+            }
+        } catch(EOFException ex) {
+            // the torn tail of the segment.
+        }
+    }
+    
+    /**
+     * Reads the payload of the given <code>length</code>. If the length isn't bounded by the
+     * size of the segment, the payload is read through the <code>buffer</code>, so a damaged
+     * length hits the end of the segment before allocating it.
+     *
+     * @param dataStream
+     * @param length
+     * @param bounded
+     * @param buffer
+     * @return
+     * @throws IOException
+     */
+    private static byte[] readPayload(final DataInputStream dataStream, final int length, final boolean bounded, final byte[] buffer) throws IOException {
+        if(bounded || length <= buffer.length) {
+            final byte[] payload = new byte[length];
+            dataStream.readFully(payload);
+            return payload;
+        }
+        
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(buffer.length);
+        while(outputStream.size() < length) {
+            final int read = dataStream.read(buffer, 0, Math.min(buffer.length, length - outputStream.size()));
+            if(read < 0) {
+                throw new EOFException();
+            }
+            outputStream.write(buffer, 0, read);
+        }
+        
+        return outputStream.toByteArray();
+    }
+    
+    /**
+     * @param timestamp
+     * @return
+     */
+    private boolean isInWindow(final long timestamp) {
+        return (timestamp >= mFromMillis && timestamp < mToMillis);
+    }
+    
+    /**
+     * Writes the ustar header of an entry.
+     *
+     * @param outputStream
+     * @param entryName
+     * @param size
+     * @param lastModified
+     * @throws IOException
+     */
+    private static void writeTarHeader(final OutputStream outputStream, final String entryName, final long size, final long lastModified) throws IOException {
+        final byte[] header = new byte[TAR_BLOCK_SIZE];
+        final byte[] nameBytes = entryName.getBytes(UTF_8);
+        System.arraycopy(nameBytes, 0, header, 0, Math.min(nameBytes.length, 100));
+        putOctal(header, 100, 8, 0644);
+        putOctal(header, 108, 8, 0);
+        putOctal(header, 116, 8, 0);
+        putOctal(header, 124, 12, size);
+        putOctal(header, 136, 12, lastModified / 1000);
+        Arrays.fill(header, 148, 156, (byte) ' ');
+        header[156] = '0';
+        System.arraycopy("ustar\u000000".getBytes(UTF_8), 0, header, 257, 8);
+        
+        long checksum = 0;
+        for(byte value : header) {
+            checksum += (value & 0xFF);
+        }
+        putOctal(header, 148, 7, checksum);
+        outputStream.write(header);
+    }
+    
+    /**
+     * Puts the zero-padded octal <code>value</code> followed by a NUL into the field of the
+     * <code>header</code>.
+     *
+     * @param header
+     * @param offset
+     * @param length
+     * @param value
+     */
+    private static void putOctal(final byte[] header, final int offset, final int length, final long value) {
+        final String octal = Long.toOctalString(value);
+        if(octal.length() > length - 1) {
+            throw new IllegalArgumentException("Invalid Value! value:" + value);
+        }
+        
+        for(int i = 0; i < length - 1; i++) {
+            final int index = i - (length - 1 - octal.length());
+            header[offset + i] = (byte) (index < 0 ? '0' : octal.charAt(index));
+        }
+        header[offset + length - 1] = 0;
+    }
+    
+    /**
+     * An export file opened with its length taken at the snapshot time.
+     */
+    private static final class Snapshot {
+        
+        /** mFile */
+        private final File mFile;
+        
+        /** mRandomAccessFile */
+        private final RandomAccessFile mRandomAccessFile;
+        
+        /** mDump */
+        private final boolean mDump;
+        
+        /** mCompressed */
+        private final boolean mCompressed;
+        
+        /** mWal */
+        private final boolean mWal;
+        
+        /** mLastModified */
+        private final long mLastModified;
+        
+        /** mLength - the length of the exported content. */
+        private final long mLength;
+        
+        /**
+         * @param file
+         * @param randomAccessFile
+         * @param dump
+         * @param lastModified
+         * @throws IOException
+         */
+        private Snapshot(final File file, final RandomAccessFile randomAccessFile, final boolean dump, final long lastModified) throws IOException {
+            mFile = file;
+            mRandomAccessFile = randomAccessFile;
+            mDump = dump;
+            mCompressed = file.getName().endsWith(GZIP_SUFFIX);
+            final String fileName = (mCompressed ? file.getName().substring(0, file.getName().length() - GZIP_SUFFIX.length()) : file.getName());
+            mWal = (!dump && (fileName.endsWith(Log4JConfigurator.WAL_FILE_SUFFIX) || fileName.matches(".*\\" + Log4JConfigurator.WAL_FILE_SUFFIX + "\\.[0-9]+")));
+            mLastModified = lastModified;
+            final long length = randomAccessFile.length();
+            // the text being appended is cut at its last line, the WAL at its last valid record.
+            if(dump || mCompressed) {
+                mLength = length;
+            } else {
+                mLength = (mWal ? getRecordsEnd(randomAccessFile.getChannel(), length) : getLineEnd(randomAccessFile.getChannel(), length));
+            }
+        }
+        
+        /**
+         * Returns the end of the last valid record of the <code>WalAppender</code> segment. The
+         * segment is preallocated and the records appended after the snapshot are left out, so
+         * the content is the same each time it's read.
+         *
+         * @param fileChannel
+         * @param length
+         * @return
+         * @throws IOException
+         */
+        private static long getRecordsEnd(final FileChannel fileChannel, final long length) throws IOException {
+            final ByteBuffer header = ByteBuffer.allocate(WalAppender.HEADER_SIZE);
+            ByteBuffer payload = ByteBuffer.allocate(BUFFER_SIZE);
+            long end = 0;
+            while(length - end >= WalAppender.HEADER_SIZE) {
+                header.clear();
+                if(!readFully(fileChannel, header, end)) {
+                    break;
+                }
+                final int recordLength = header.getInt(0);
+                //the records are never empty, a zero length is the unwritten space of the segment.
+                if(recordLength <= 0 || recordLength > length - end - WalAppender.HEADER_SIZE) {
+                    break;
+                }
+                if(recordLength > payload.capacity()) {
+                    payload = ByteBuffer.allocate(recordLength);
+                }
+                payload.clear();
+                payload.limit(recordLength);
+                if(!readFully(fileChannel, payload, end + WalAppender.HEADER_SIZE) || Crc32c.checksum(payload.array(), 0, recordLength) != header.getInt(4)) {
+                    break;
+                }
+                end += WalAppender.HEADER_SIZE + recordLength;
+            }
+            
+            return end;
+        }
+        
+        /**
+         * Fills the given <code>byteBuffer</code> from the given <code>position</code>.
+         *
+         * @param fileChannel
+         * @param byteBuffer
+         * @param position
+         * @return false, if the end of the file is reached first.
+         * @throws IOException
+         */
+        private static boolean readFully(final FileChannel fileChannel, final ByteBuffer byteBuffer, final long position) throws IOException {
+            while(byteBuffer.hasRemaining()) {
+                if(fileChannel.read(byteBuffer, position + byteBuffer.position()) < 0) {
+                    return false;
+                }
+            }
+            
+            return true;
+        }
+        
+        /**
+         * Returns the length of the complete lines of the text file.
+         *
+         * @param fileChannel
+         * @param length
+         * @return
+         * @throws IOException
+         */
+        private static long getLineEnd(final FileChannel fileChannel, final long length) throws IOException {
+            final ByteBuffer byteBuffer = ByteBuffer.allocate(1024);
+            long end = length;
+            while(end > 0) {
+                final int size = (int) Math.min(byteBuffer.capacity(), end);
+                byteBuffer.clear();
+                byteBuffer.limit(size);
+                while(byteBuffer.hasRemaining() && fileChannel.read(byteBuffer, end - size + byteBuffer.position()) > 0) {
+                    // fills the buffer.
+                }
+                for(int i = byteBuffer.position() - 1; i >= 0; i--) {
+                    if(byteBuffer.get(i) == '\n') {
+                        return end - size + i + 1;
+                    }
+                }
+                end -= size;
+            }
+            
+            return 0;
+        }
+    }
+    
+    /**
+     * Reads the snapshot of a file through the positional reads, which don't move the position of
+     * the channel.
+     */
+    private static final class SnapshotInputStream extends InputStream {
+        
+        /** mFileChannel */
+        private final FileChannel mFileChannel;
+        
+        /** mLength */
+        private final long mLength;
+        
+        /** mPosition */
+        private long mPosition;
+        
+        /**
+         * @param fileChannel
+         * @param length
+         */
+        private SnapshotInputStream(final FileChannel fileChannel, final long length) {
+            mFileChannel = fileChannel;
+            mLength = length;
+        }
+        
+        /**
+         * @return
+         * @throws IOException
+         */
+        @Override
+        public int read() throws IOException {
+            final byte[] bytes = new byte[1];
+            return (read(bytes, 0, 1) < 0 ? -1 : (bytes[0] & 0xFF));
+        }
+        
+        /**
+         * @param bytes
+         * @param offset
+         * @param length
+         * @return
+         * @throws IOException
+         */
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+            if(mPosition >= mLength) {
+                return -1;
+            }
+            
+            final int size = (int) Math.min(length, mLength - mPosition);
+            final int count = mFileChannel.read(ByteBuffer.wrap(bytes, offset, size), mPosition);
+            if(count < 0) {
+                throw new EOFException("The file is truncated at:" + mPosition);
+            }
+            mPosition += count;
+            return count;
+        }
+    }
+    
+    /**
+     * Counts the bytes written into the wrapped stream, which may be null to count only.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        
+        /** mOutputStream */
+        private final OutputStream mOutputStream;
+        
+        /** mCount */
+        private long mCount;
+        
+        /**
+         * @param outputStream
+         */
+        private CountingOutputStream(final OutputStream outputStream) {
+            mOutputStream = outputStream;
+        }
+        
+        /**
+         * @return
+         */
+        private long getCount() {
+            return mCount;
+        }
+        
+        /**
+         * @param value
+         * @throws IOException
+         */
+        @Override
+        public void write(final int value) throws IOException {
+            if(LogHelper.isNotNull(mOutputStream)) {
+                mOutputStream.write(value);
+            }
+            mCount++;
+        }
+        
+        /**
+         * @param bytes
+         * @param offset
+         * @param length
+         * @throws IOException
+         */
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            if(LogHelper.isNotNull(mOutputStream)) {
+                mOutputStream.write(bytes, offset, length);
+            }
+            mCount += length;
+        }
+    }
+}
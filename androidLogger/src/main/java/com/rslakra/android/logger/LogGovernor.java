@@ -0,0 +1,445 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * This class handles the adaptive verbosity of the logging under load.
+ * <p>
+ * It samples the <code>LogMetrics</code> periodically and checks the logging pressure against
+ * the budgets: the events per second (including the shed ones), the deepest queue, the bytes
+ * written per minute and the time spent in the appenders as a share of the CPU. When any budget
+ * is exceeded, the effective <code>LogType</code> threshold is raised by one step (e.g. from
+ * <code>DEBUG</code> to <code>INFO</code>), up to the <code>mMaxLogType</code>. Once all the
+ * measures stay below the <code>RELEASE_RATIO</code> of their budgets for the
+ * <code>mCalmSamples</code> samples, the threshold is lowered by one step again. When the
+ * configured level is restored, a summary of the shed events is logged.
+ * <p>
+ * The budgets of 0 are not checked. The <code>ERROR</code> and the <code>ASSERT</code> events are
+ * never shed.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-20 12:41:18 AM
+ * @since 1.0.0
+ */
+public final class LogGovernor {
+    
+    /** LOG_TAG */
+    private static final String LOG_TAG = "LogGovernor";
+    
+    /** LOG_TYPES */
+    private static final LogType[] LOG_TYPES = LogType.values();
+    
+    /** RELEASE_RATIO - the share of the budgets, the measures must stay below to release. */
+    public static final double RELEASE_RATIO = 0.5d;
+    
+    /** DEFAULT_CALM_SAMPLES */
+    public static final int DEFAULT_CALM_SAMPLES = 3;
+    
+    /** NO_THRESHOLD - all the log types are admitted. */
+    private static final int NO_THRESHOLD = LogType.VERBOSE.ordinal();
+    
+    /** mLogMetrics */
+    private final LogMetrics mLogMetrics;
+    
+    /** mThreshold - the ordinal of the lowest admitted <code>LogType</code>. */
+    private volatile int mThreshold = NO_THRESHOLD;
+    
+    /** mShedEvents - indexed by <code>LogType.ordinal()</code>. */
+    private final StripedCounter[] mShedEvents = new StripedCounter[LOG_TYPES.length];
+    
+    /** mMaxEventsPerSecond */
+    private volatile long mMaxEventsPerSecond;
+    
+    /** mMaxQueueDepth */
+    private volatile long mMaxQueueDepth;
+    
+    /** mMaxBytesPerMinute */
+    private volatile long mMaxBytesPerMinute;
+    
+    /** mMaxAppenderCpuShare */
+    private volatile double mMaxAppenderCpuShare;
+    
+    /** mMaxLogType - the highest threshold, the governor may raise to. */
+    private volatile LogType mMaxLogType = LogType.WARN;
+    
+    /** mCalmSamples */
+    private volatile int mCalmSamples = DEFAULT_CALM_SAMPLES;
+    
+    /** mTimer */
+    private Timer mTimer;
+    
+    /** mSampled - the following fields are used by the sampling only. */
+    private boolean mSampled;
+    
+    /** mLastNanos */
+    private long mLastNanos;
+    
+    /** mLastEvents */
+    private long mLastEvents;
+    
+    /** mLastBytes */
+    private long mLastBytes;
+    
+    /** mLastAppendNanos */
+    private long mLastAppendNanos;
+    
+    /** mCalmCount */
+    private int mCalmCount;
+    
+    /** mShedStartNanos */
+    private long mShedStartNanos;
+    
+    /** mShedStart - the shed events, when the shedding started. */
+    private final long[] mShedStart = new long[LOG_TYPES.length];
+    
+    /** mLastSummary */
+    private volatile String mLastSummary;
+    
+    /**
+     * @param logMetrics
+     */
+    public LogGovernor(final LogMetrics logMetrics) {
+        if(LogHelper.isNull(logMetrics)) {
+            throw new NullPointerException("The logMetrics should not be NULL!");
+        }
+        
+        mLogMetrics = logMetrics;
+        for(int i = 0; i < mShedEvents.length; i++) {
+            mShedEvents[i] = new StripedCounter();
+        }
+    }
+    
+    /**
+     * Returns true, if the events of the given <code>logType</code> are not shed. The shed
+     * events are counted.
+     *
+     * @param logType
+     * @return
+     */
+    public final boolean isAdmitted(final LogType logType) {
+        if(logType.ordinal() <= mThreshold) {
+            return true;
+        }
+        
+        mShedEvents[logType.ordinal()].increment();
+        return false;
+    }
+    
+    /**
+     * Returns true, if the threshold is raised.
+     *
+     * @return
+     */
+    public final boolean isShedding() {
+        return (mThreshold != NO_THRESHOLD);
+    }
+    
+    /**
+     * Returns the lowest admitted <code>LogType</code>, the <code>VERBOSE</code>, if nothing is
+     * shed.
+     *
+     * @return
+     */
+    public final LogType getLogType() {
+        return LOG_TYPES[mThreshold];
+    }
+    
+    /**
+     * Returns the number of the shed events of the given <code>logType</code>.
+     *
+     * @param logType
+     * @return
+     */
+    public final long getShedEvents(final LogType logType) {
+        return mShedEvents[logType.ordinal()].sum();
+    }
+    
+    /**
+     * Returns the summary of the last shedding or null, if nothing was shed yet.
+     *
+     * @return
+     */
+    public final String getLastSummary() {
+        return mLastSummary;
+    }
+    
+    /**
+     * The <code>maxEventsPerSecond</code> budget to be set.
+     *
+     * @param maxEventsPerSecond
+     */
+    public final void setMaxEventsPerSecond(final long maxEventsPerSecond) {
+        if(maxEventsPerSecond < 0) {
+            throw new IllegalArgumentException("Invalid Value! maxEventsPerSecond:" + maxEventsPerSecond);
+        }
+        
+        mMaxEventsPerSecond = maxEventsPerSecond;
+    }
+    
+    /**
+     * The <code>maxQueueDepth</code> budget of the deepest queue to be set.
+     *
+     * @param maxQueueDepth
+     */
+    public final void setMaxQueueDepth(final long maxQueueDepth) {
+        if(maxQueueDepth < 0) {
+            throw new IllegalArgumentException("Invalid Value! maxQueueDepth:" + maxQueueDepth);
+        }
+        
+        mMaxQueueDepth = maxQueueDepth;
+    }
+    
+    /**
+     * The <code>maxBytesPerMinute</code> budget of all the appenders to be set.
+     *
+     * @param maxBytesPerMinute
+     */
+    public final void setMaxBytesPerMinute(final long maxBytesPerMinute) {
+        if(maxBytesPerMinute < 0) {
+            throw new IllegalArgumentException("Invalid Value! maxBytesPerMinute:" + maxBytesPerMinute);
+        }
+        
+        mMaxBytesPerMinute = maxBytesPerMinute;
+    }
+    
+    /**
+     * The <code>maxAppenderCpuShare</code> budget to be set, the share (0.0 - 1.0) of the CPU
+     * time of all the processors spent in the appenders.
+     *
+     * @param maxAppenderCpuShare
+     */
+    public final void setMaxAppenderCpuShare(final double maxAppenderCpuShare) {
+        if(maxAppenderCpuShare < 0.0d || maxAppenderCpuShare > 1.0d) {
+            throw new IllegalArgumentException("Invalid Value! maxAppenderCpuShare:" + maxAppenderCpuShare);
+        }
+        
+        mMaxAppenderCpuShare = maxAppenderCpuShare;
+    }
+    
+    /**
+     * The <code>maxLogType</code> to be set, the highest threshold the governor may raise to.
+     * The <code>ERROR</code> and the <code>ASSERT</code> events are never shed. Default is the
+     * <code>WARN</code>.
+     *
+     * @param maxLogType
+     */
+    public final void setMaxLogType(final LogType maxLogType) {
+        if(LogHelper.isNull(maxLogType)) {
+            throw new NullPointerException("The maxLogType should not be NULL!");
+        }
+        if(maxLogType.ordinal() < LogType.WARN.ordinal()) {
+            throw new IllegalArgumentException("Invalid Value! maxLogType:" + maxLogType);
+        }
+        
+        mMaxLogType = maxLogType;
+    }
+    
+    /**
+     * The number of the <code>calmSamples</code> to be set, a step is released after.
+     *
+     * @param calmSamples
+     */
+    public final void setCalmSamples(final int calmSamples) {
+        if(calmSamples <= 0) {
+            throw new IllegalArgumentException("Invalid Value! calmSamples:" + calmSamples);
+        }
+        
+        mCalmSamples = calmSamples;
+    }
+    
+    /**
+     * Starts sampling the metrics every <code>periodMillis</code> on a background timer. The
+     * metrics are enabled, since the measures are taken from them.
+     *
+     * @param periodMillis
+     */
+    public final synchronized void start(final long periodMillis) {
+        if(periodMillis <= 0) {
+            throw new IllegalArgumentException("Invalid Value! periodMillis:" + periodMillis);
+        }
+        
+        stop();
+        mLogMetrics.setEnabled(true);
+        mTimer = new Timer(LOG_TAG, true);
+        mTimer.scheduleAtFixedRate(new TimerTask() {
+            @Override
+            public void run() {
+                sample(mLogMetrics.snapshot(), System.nanoTime(), LogHelper.getLogType());
+            }
+        }, periodMillis, periodMillis);
+    }
+    
+    /**
+     * Stops the sampling and restores the configured level.
+     */
+    public final synchronized void stop() {
+        if(LogHelper.isNotNull(mTimer)) {
+            mTimer.cancel();
+            mTimer = null;
+        }
+        if(isShedding()) {
+            restore(System.nanoTime());
+        }
+        mSampled = false;
+    }
+    
+    /**
+     * Checks the measures of the given <code>snapshot</code> since the previous sample against
+     * the budgets and raises or lowers the threshold by one step.
+     *
+     * @param snapshot
+     * @param nowNanos
+     * @param configuredLogType
+     */
+    final synchronized void sample(final LogMetrics.Snapshot snapshot, final long nowNanos, final LogType configuredLogType) {
+        long events = 0;
+        for(Long logTypeEvents : snapshot.getLogTypeEvents().values()) {
+            events += logTypeEvents;
+        }
+        for(StripedCounter shedEvents : mShedEvents) {
+            events += shedEvents.sum();
+        }
+        
+        long bytes = 0;
+        long appendNanos = 0;
+        for(LogMetrics.AppenderSnapshot appenderSnapshot : snapshot.getAppenders().values()) {
+            bytes += appenderSnapshot.getBytes();
+            appendNanos += appenderSnapshot.getAppendTimes().getTotal();
+        }
+        
+        long queueDepth = 0;
+        for(LogMetrics.QueueSnapshot queueSnapshot : snapshot.getQueues().values()) {
+            queueDepth = Math.max(queueDepth, queueSnapshot.getDepth());
+        }
+        
+        if(mSampled && nowNanos > mLastNanos) {
+            final double seconds = (nowNanos - mLastNanos) / 1000000000.0d;
+            final double eventsPerSecond = (events - mLastEvents) / seconds;
+            final double bytesPerMinute = (bytes - mLastBytes) * 60.0d / seconds;
+            final double appenderCpuShare = (appendNanos - mLastAppendNanos) / ((nowNanos - mLastNanos) * (double) Runtime.getRuntime().availableProcessors());
+            final double pressure = Math.max(Math.max(ratio(eventsPerSecond, mMaxEventsPerSecond), ratio(queueDepth, mMaxQueueDepth)), Math.max(ratio(bytesPerMinute, mMaxBytesPerMinute), ratio(appenderCpuShare, mMaxAppenderCpuShare)));
+            if(pressure > 1.0d) {
+                mCalmCount = 0;
+                raise(nowNanos, configuredLogType, "eventsPerSecond=" + Math.round(eventsPerSecond) + ", queueDepth=" + queueDepth + ", bytesPerMinute=" + Math.round(bytesPerMinute) + ", appenderCpuShare=" + String.format("%.3f", appenderCpuShare));
+            } else if(pressure < RELEASE_RATIO) {
+                if(isShedding() && ++mCalmCount >= mCalmSamples) {
+                    mCalmCount = 0;
+                    release(nowNanos, configuredLogType);
+                }
+            } else {
+                mCalmCount = 0;
+            }
+        }
+        
+        mSampled = true;
+        mLastNanos = nowNanos;
+        mLastEvents = events;
+        mLastBytes = bytes;
+        mLastAppendNanos = appendNanos;
+    }
+    
+    /**
+     * Returns the ratio of the given <code>value</code> to the given <code>budget</code>, 0 if the
+     * budget is not set.
+     *
+     * @param value
+     * @param budget
+     * @return
+     */
+    private static double ratio(final double value, final double budget) {
+        return (budget > 0 ? value / budget : 0.0d);
+    }
+    
+    /**
+     * Raises the threshold by one step above the effective level, up to the
+     * <code>mMaxLogType</code>.
+     *
+     * @param nowNanos
+     * @param configuredLogType
+     * @param measures
+     */
+    private void raise(final long nowNanos, final LogType configuredLogType, final String measures) {
+        final int threshold = Math.max(Math.min(mThreshold, configuredLogType.ordinal()) - 1, mMaxLogType.ordinal());
+        if(threshold >= mThreshold || threshold >= configuredLogType.ordinal()) {
+            return;
+        }
+        
+        if(!isShedding()) {
+            mShedStartNanos = nowNanos;
+            for(int i = 0; i < LOG_TYPES.length; i++) {
+                mShedStart[i] = mShedEvents[i].sum();
+            }
+        }
+        mThreshold = threshold;
+        LogHelper.w(LOG_TAG, "Raised the log level to " + LOG_TYPES[threshold] + " under the load: " + measures);
+    }
+    
+    /**
+     * Lowers the threshold by one step and restores the configured level, once it's reached.
+     *
+     * @param nowNanos
+     * @param configuredLogType
+     */
+    private void release(final long nowNanos, final LogType configuredLogType) {
+        final int threshold = mThreshold + 1;
+        if(threshold >= configuredLogType.ordinal()) {
+            restore(nowNanos);
+        } else {
+            mThreshold = threshold;
+        }
+    }
+    
+    /**
+     * Restores the configured level and logs the summary of the shed events.
+     *
+     * @param nowNanos
+     */
+    private void restore(final long nowNanos) {
+        mThreshold = NO_THRESHOLD;
+        final Map<LogType, Long> shedEvents = new LinkedHashMap<LogType, Long>();
+        long totalShed = 0;
+        for(int i = 0; i < LOG_TYPES.length; i++) {
+            final long shed = mShedEvents[i].sum() - mShedStart[i];
+            if(shed > 0) {
+                shedEvents.put(LOG_TYPES[i], shed);
+                totalShed += shed;
+            }
+        }
+        
+        mLastSummary = "Restored the log level after " + ((nowNanos - mShedStartNanos) / 1000000L) + " ms, shed " + totalShed + " events: " + shedEvents;
+        LogHelper.logReport(LOG_TAG, mLastSummary);
+    }
+}
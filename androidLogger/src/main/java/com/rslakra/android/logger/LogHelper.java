@@ -39,17 +39,25 @@ import android.util.Log;
 import android.webkit.WebResourceRequest;
 import android.widget.Toast;
 
+import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
-import org.apache.log4j.PropertyConfigurator;
+import org.apache.log4j.spi.LoggingEvent;
+import org.apache.log4j.spi.ThrowableInformation;
 
 import java.io.Closeable;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.RandomAccessFile;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Properties;
+import java.util.Set;
 
 /**
  * See
@@ -87,24 +95,6 @@ public final class LogHelper {
     /* ANDROID_LOG4J_XML  */
     private static final String ANDROID_LOG4J_XML = "android_log4j.xml";
     
-    /* LOG4J_ROOT_LOGGER */
-    private final static String LOG4J_ROOT_LOGGER = "log4j.rootLogger";
-    
-    /* CONSOLE_LOG_PATTERN */
-    private final static String CONSOLE_LOG_PATTERN = "log4j.appender.console.layout.ConversionPattern";
-    
-    /* KEY_RFA_FILE */
-    private final static String KEY_RFA_FILE = "log4j.appender.RFA.File";
-    
-    /* KEY_RFA_MAX_FILE_SIZE */
-    private final static String KEY_RFA_MAX_FILE_SIZE = "log4j.appender.RFA.MaxFileSize";
-    
-    /* KEY_RFA_MAX_BACKUP_FILES */
-    private final static String KEY_RFA_MAX_BACKUP_FILES = "log4j.appender.RFA.MaxBackupIndex";
-    
-    /* KEY_RFA_LOG_PATTERN */
-    private final static String KEY_RFA_LOG_PATTERN = "log4j.appender.RFA.layout.ConversionPattern";
-    
     /* LOG_FILE_NAME */
     public final static String LOG_FILE_NAME = "android.log";
     
@@ -118,7 +108,7 @@ public final class LogHelper {
     public final static long MAX_FILE_SIZE = MB_SIZE * 2;
     
     /* LOG_PATTERN */
-    public final static String LOG_PATTERN = "[%d{yyyy-MM-dd HH:mm:ss.S}] %5p [%t] [%c{1}(%L)] - %m%n";
+    public final static String LOG_PATTERN = "[%d{yyyy-MM-dd HH:mm:ss.S}] %5p [%t] [%c{1}(%L)] [%X{seq}] - %m%n";
     
     /* mLogType */
     private static LogType sLogType = LogType.INFO;
@@ -126,8 +116,47 @@ public final class LogHelper {
     /* log4JLogsEnabled */
     private static boolean sLog4JLogsEnabled = false;
     
-    /* sLog4JConfigurator */
-    private final static Log4JConfigurator sLog4JConfigurator = new Log4JConfigurator();
+    /* sConfigFileWatcher */
+    private static ConfigFileWatcher sConfigFileWatcher;
+    
+    /* sLogUploader */
+    private static LogUploader sLogUploader;
+    
+    /* sLogJanitor */
+    private static LogJanitor sLogJanitor;
+    
+    /* sLogBackend - takes over the logs from the logcat and the log4j, if it's set. */
+    private static volatile LogBackend sLogBackend;
+    
+    /* sFileBackendFolder - the logs folder of the file backend, if it's active. */
+    private static volatile String sFileBackendFolder;
+    
+    /* sDeferredLog - buffers the events while the logger is configured in background. */
+    private static volatile DeferredLog sDeferredLog;
+    
+    /* sLogSampler */
+    private final static LogSampler sLogSampler = new LogSampler();
+    
+    /* LOGCAT_APPENDER */
+    public final static String LOGCAT_APPENDER = "logcat";
+    
+    /* sLogMetrics */
+    private final static LogMetrics sLogMetrics = new LogMetrics();
+    
+    /* sLogGovernor - sheds the verbose events under the logging load. */
+    private final static LogGovernor sLogGovernor = new LogGovernor(sLogMetrics);
+    
+    /* sStackTraceDeduper - renders the repeated stack traces as references. */
+    private final static StackTraceDeduper sStackTraceDeduper = new StackTraceDeduper();
+    
+    /* sLogEventPool */
+    private final static LogEventPool sLogEventPool = new LogEventPool(LogEventPool.DEFAULT_CAPACITY);
+    
+    /* sLogRedactor - masks the sensitive values of the messages before any sink. */
+    private final static LogRedactor sLogRedactor = new LogRedactor();
+    
+    /* sFieldAllowlist - the fields of the structured records logged, all if null. */
+    private static volatile Set<String> sFieldAllowlist;
     
     /**
      * Singleton object
@@ -298,6 +327,16 @@ public final class LogHelper {
         return Log.getStackTraceString(mThrowable);
     }
     
+    /**
+     * Returns the <code>sStackTraceDeduper</code> value, which renders the stack traces of the
+     * logged throwables and references the repeated ones by their <code>trace#id</code>.
+     *
+     * @return
+     */
+    public static StackTraceDeduper getStackTraceDeduper() {
+        return sStackTraceDeduper;
+    }
+    
     /**
      * Returns the formatted string for the given objects.
      *
@@ -560,7 +599,12 @@ public final class LogHelper {
      * @return
      */
     public static LogType getLogType() {
-        return (isLog4JLogsEnabled() ? LogType.toLogType(sLog4JConfigurator.getLogLevel()) : sLogType);
+        final LogBackend logBackend = sLogBackend;
+        if(isNotNull(logBackend)) {
+            return logBackend.getLogType();
+        }
+        
+        return (isLog4JLogsEnabled() ? LogType.toLogType(getLog4JConfigurator().getLogLevel()) : sLogType);
     }
     
     /**
@@ -569,8 +613,12 @@ public final class LogHelper {
      * @param logType
      */
     public static final void setLogType(final LogType logType) {
+        final LogBackend logBackend = sLogBackend;
+        if(isNotNull(logBackend)) {
+            logBackend.setLogType(logType);
+        }
         if(isLog4JLogsEnabled()) {
-            sLog4JConfigurator.setLogLevel(LogType.toLevel(logType));
+            getLog4JConfigurator().setLogLevel(LogType.toLevel(logType));
         }
         sLogType = logType;
     }
@@ -628,13 +676,199 @@ public final class LogHelper {
      *                                  <code>logType</code> otherwise false.
      */
     public static boolean isLogEnabledFor(final LogType logType) {
-        if(isLog4JLogsEnabled()) {
-            return (sLog4JConfigurator.isLogEnabledFor(LogType.toLevel(logType)));
+        final LogBackend logBackend = sLogBackend;
+        if(isNotNull(logBackend)) {
+            return logBackend.isLogEnabledFor(null, logType);
+        } else if(isLog4JLogsEnabled()) {
+            return (getLog4JConfigurator().isLogEnabledFor(LogType.toLevel(logType)));
         } else {
-            return (isNotNull(logType) && logType.ordinal() >= getLogType().ordinal());
+            return (isNotNull(logType) && logType.ordinal() <= getLogType().ordinal());
+        }
+    }
+    
+    /**
+     * Returns true if the logging is allowed for the given <code>logType</code> and the event of
+     * the given <code>logTag</code> is not sampled out otherwise false. The level of the logger
+     * named by the <code>logTag</code> (or its closest configured ancestor) is used, if any.
+     * <p>
+     * The sampling and the <code>LogGovernor</code> decisions are made here, so the dropped
+     * events are never formatted.
+     *
+     * @param logTag
+     * @param logType
+     * @return
+     */
+    public static boolean isLogEnabledFor(final String logTag, final LogType logType) {
+        return (isLevelEnabledFor(logTag, logType) && sLogGovernor.isAdmitted(logType) && sLogSampler.isSampled(logTag, logType));
+    }
+    
+    /**
+     * Returns true if the logging is allowed for the given <code>logType</code> by the level of
+     * the logger named by the <code>logTag</code> otherwise false, without sampling or shedding.
+     *
+     * @param logTag
+     * @param logType
+     * @return
+     */
+    private static boolean isLevelEnabledFor(final String logTag, final LogType logType) {
+        final LogBackend logBackend = sLogBackend;
+        if(isNotNull(logBackend)) {
+            return logBackend.isLogEnabledFor(logTag, logType);
+        } else if(isLog4JLogsEnabled()) {
+            return getLog4JConfigurator().isLogEnabledFor(logTag, LogType.toLevel(logType));
+        }
+        
+        return isLogEnabledFor(logType);
+    }
+    
+    /**
+     * Logs the given INFO <code>logMessage</code> of the logger itself (e.g. the report of the
+     * <code>LogSampler</code>), which is never sampled out or shed, so the report of a load isn't
+     * dropped by the same load.
+     *
+     * @param logTag
+     * @param logMessage
+     */
+    static void logReport(final String logTag, final String logMessage) {
+        if(isLevelEnabledFor(logTag, LogType.INFO)) {
+            log(LogType.INFO, logTag, logMessage, null);
         }
     }
     
+    /**
+     * Returns the <code>sLogSampler</code> value.
+     *
+     * @return
+     */
+    public static LogSampler getLogSampler() {
+        return sLogSampler;
+    }
+    
+    /**
+     * The <code>samplingRate</code> to be set for the given <code>logTag</code> and
+     * <code>logType</code>.
+     *
+     * @param logTag
+     * @param logType
+     * @param samplingRate the rate between 0.0 (drop all) and 1.0 (keep all).
+     */
+    public static void setSamplingRate(final String logTag, final LogType logType, final double samplingRate) {
+        sLogSampler.setSamplingRate(logTag, logType, samplingRate);
+    }
+    
+    /**
+     * The <code>correlationKey</code> to be set for the current thread, so that all the lines of
+     * one request are either kept or dropped together by the sampler.
+     *
+     * @param correlationKey
+     */
+    public static void setCorrelationKey(final String correlationKey) {
+        LogSampler.setCorrelationKey(correlationKey);
+    }
+    
+    /**
+     * Returns the <code>sLogRedactor</code> value, which masks the sensitive keys and prefixes
+     * configured in all the logged messages.
+     *
+     * @return
+     */
+    public static LogRedactor getLogRedactor() {
+        return sLogRedactor;
+    }
+    
+    /**
+     * Returns the <code>sFieldAllowlist</code> value, the fields of the structured records logged,
+     * if any otherwise null.
+     *
+     * @return
+     */
+    public static Set<String> getFieldAllowlist() {
+        return sFieldAllowlist;
+    }
+    
+    /**
+     * The <code>fieldAllowlist</code> to be set. Only the listed fields of the structured records
+     * are logged, all of them if it's null.
+     *
+     * @param fieldAllowlist
+     */
+    public static void setFieldAllowlist(final Set<String> fieldAllowlist) {
+        sFieldAllowlist = (isNull(fieldAllowlist) ? null : Collections.unmodifiableSet(new HashSet<String>(fieldAllowlist)));
+    }
+    
+    /**
+     * Returns the structured record of the given <code>logMessage</code>, whose fields are logged
+     * with it as a single event by the <code>LogRecord.log()</code>. The level is checked once
+     * here, the record of a disabled event ignores the fields.
+     *
+     * @param logType
+     * @param logTag
+     * @param logMessage
+     * @return
+     */
+    public static LogRecord newRecord(final LogType logType, final String logTag, final String logMessage) {
+        if(isLogEnabledFor(logTag, logType)) {
+            return LogRecord.obtain(logType, logTag, logMessage, sFieldAllowlist, sLogRedactor);
+        }
+        
+        return LogRecord.DISABLED;
+    }
+    
+    /**
+     * Returns the <code>sLogMetrics</code> value, the built-in metrics of the logging.
+     *
+     * @return
+     */
+    public static LogMetrics getLogMetrics() {
+        return sLogMetrics;
+    }
+    
+    /**
+     * Enables or disables the recording of the built-in logging metrics.
+     *
+     * @param metricsEnabled
+     */
+    public static void setMetricsEnabled(final boolean metricsEnabled) {
+        sLogMetrics.setEnabled(metricsEnabled);
+    }
+    
+    /**
+     * Returns the <code>sLogGovernor</code> value, which raises the effective level temporarily,
+     * when the logging budgets are exceeded.
+     *
+     * @return
+     */
+    public static LogGovernor getLogGovernor() {
+        return sLogGovernor;
+    }
+    
+    /**
+     * Starts the <code>LogGovernor</code>, which samples the logging pressure every
+     * <code>periodMillis</code>. The metrics are enabled, since the pressure is measured by them.
+     *
+     * @param periodMillis
+     */
+    public static void startLogGovernor(final long periodMillis) {
+        sLogGovernor.start(periodMillis);
+    }
+    
+    /**
+     * Stops the <code>LogGovernor</code> and restores the configured level.
+     */
+    public static void stopLogGovernor() {
+        sLogGovernor.stop();
+    }
+    
+    /**
+     * Returns the <code>sLogEventPool</code> value, the pool of the events buffered by the logger,
+     * until the log4j is configured. Its leak detector can be enabled in the debug builds.
+     *
+     * @return
+     */
+    public static LogEventPool getLogEventPool() {
+        return sLogEventPool;
+    }
+    
     /**************************************************************************
      * Configure Log4J logger
      **************************************************************************/
@@ -649,29 +883,155 @@ public final class LogHelper {
      * @param maxBackupFiles
      * @param maxFileSize
      */
-    public static void log4JConfigure(final String logFolderPath, final String fileName, final LogType logLevel, final String logPattern, final int maxBackupFiles, final long maxFileSize) {
+    public static synchronized void log4JConfigure(final String logFolderPath, final String fileName, final LogType logLevel, final String logPattern, final int maxBackupFiles, final long maxFileSize) {
+        closeLogBackend();
         setLog4JLogsEnabled(true);
+        applySettings(logFolderPath, fileName, logLevel, maxBackupFiles, maxFileSize);
+        
+        /** the logs pattern to be set. */
+        getLog4JConfigurator().setLogPattern(logPattern);
+        
+        //configure the log4j logger
+        getLog4JConfigurator().configure();
+    }
+    
+    /**
+     * Sets the given settings to the <code>Log4JConfigurator</code>.
+     *
+     * @param logFolderPath
+     * @param fileName
+     * @param logLevel
+     * @param maxBackupFiles
+     * @param maxFileSize
+     */
+    private static void applySettings(final String logFolderPath, final String fileName, final LogType logLevel, final int maxBackupFiles, final long maxFileSize) {
+        /** no configuration file is used. */
+        getLog4JConfigurator().setLogConfig(null);
+        
         /* setting all the properties in the reverse order. */
         /** the logs folder to be set. */
-        sLog4JConfigurator.setLogsFolder(logFolderPath);
+        getLog4JConfigurator().setLogsFolder(logFolderPath);
         
         /** the log file name to be set. */
-        sLog4JConfigurator.setFileName(fileName);
+        getLog4JConfigurator().setFileName(fileName);
         
         /** the root log level to be set. */
-        sLog4JConfigurator.setLogLevel(LogType.toLevel(logLevel));
-        
-        /** the logs pattern to be set. */
-        sLog4JConfigurator.setLogPattern(logPattern);
+        getLog4JConfigurator().setLogLevel(LogType.toLevel(logLevel));
         
         /** the maximum number of backup files to be created. */
-        sLog4JConfigurator.setMaxBackupFiles(maxBackupFiles);
+        getLog4JConfigurator().setMaxBackupFiles(maxBackupFiles);
         
         /** the maximum log file size to be set. */
-        sLog4JConfigurator.setMaxFileSize(maxFileSize);
+        getLog4JConfigurator().setMaxFileSize(maxFileSize);
         
-        //configure the log4j logger
-        sLog4JConfigurator.configure();
+        /** the metrics of the appenders. */
+        getLog4JConfigurator().setLogMetrics(sLogMetrics);
+    }
+    
+    /**
+     * Configures the logger with the given settings on a background thread and returns
+     * immediately. The creation of the folders, the files and the appenders is done off the
+     * caller's (UI) thread. The events logged meanwhile are buffered in memory and replayed in the
+     * same order, once the logger is configured. The pattern layout is created on the background
+     * thread as well, since the date format initialization is expensive.
+     *
+     * @param logFolderPath
+     * @param fileName
+     * @param logLevel
+     * @param logPattern
+     * @param maxBackupFiles
+     * @param maxFileSize
+     */
+    public static synchronized void log4JConfigureAsync(final String logFolderPath, final String fileName, final LogType logLevel, final String logPattern, final int maxBackupFiles, final long maxFileSize) {
+        if(isNullOrEmpty(logPattern)) {
+            throw new IllegalArgumentException("logPattern is either NULL or EMPTY!");
+        }
+        
+        closeLogBackend();
+        applySettings(logFolderPath, fileName, logLevel, maxBackupFiles, maxFileSize);
+        final DeferredLog deferredLog = new DeferredLog(DeferredLog.DEFAULT_CAPACITY, sLogMetrics.getQueueMetrics(DeferredLog.QUEUE_NAME), sLogEventPool);
+        sDeferredLog = deferredLog;
+        setLog4JLogsEnabled(true);
+        
+        final Thread configureThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    synchronized(LogHelper.class) {
+                        getLog4JConfigurator().setLogPattern(logPattern);
+                        getLog4JConfigurator().configure();
+                    }
+                } catch(RuntimeException ex) {
+                    Log.e(LOG_TAG, "Error while configuring the logger, falling back to logcat!", ex);
+                    setLog4JLogsEnabled(false);
+                }
+                
+                deferredLog.replay(new DeferredLog.Replayer() {
+                    @Override
+                    public void replay(final LogEvent pendingEvent) {
+                        replayEvent(pendingEvent);
+                    }
+                });
+                if(sDeferredLog == deferredLog) {
+                    sDeferredLog = null;
+                }
+            }
+        }, LOG_TAG + "-configure");
+        configureThread.setDaemon(true);
+        configureThread.start();
+    }
+    
+    /**
+     * Configures the logger with the given settings on a background thread.
+     *
+     * @param logFolderPath
+     * @param fileName
+     * @param logLevel
+     */
+    public static void log4JConfigureAsync(final String logFolderPath, final String fileName, final LogType logLevel) {
+        log4JConfigureAsync(logFolderPath, fileName, logLevel, LOG_PATTERN, MAX_BACKUP_FILES, MAX_FILE_SIZE);
+    }
+    
+    /**
+     * Waits until the background configuration started by the <code>log4JConfigureAsync</code> is
+     * done and the buffered events are replayed.
+     *
+     * @param timeoutMillis
+     * @return true, if the logger is configured within the given time otherwise false.
+     */
+    public static boolean awaitConfigured(final long timeoutMillis) {
+        final DeferredLog deferredLog = sDeferredLog;
+        if(isNull(deferredLog)) {
+            return true;
+        }
+        
+        try {
+            return deferredLog.await(timeoutMillis);
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    /**
+     * Replays the event buffered while the logger was being configured, keeping its original time
+     * and thread name. The formatted messages are redacted only here.
+     *
+     * @param pendingEvent
+     */
+    private static void replayEvent(final LogEvent pendingEvent) {
+        final String logMessage = sLogRedactor.redact(pendingEvent.getMessage());
+        if(!isLog4JLogsEnabled()) {
+            logcat(pendingEvent.getLogType(), pendingEvent.getLogTag(), logMessage, pendingEvent.getThrowable());
+            return;
+        }
+        
+        final Logger logger = getLogger(pendingEvent.getLogTag());
+        final Level level = (pendingEvent.getLogType() == LogType.VERBOSE ? Level.DEBUG : LogType.toLevel(pendingEvent.getLogType()));
+        if(logger.isEnabledFor(level)) {
+            final ThrowableInformation throwableInformation = (isNull(pendingEvent.getThrowable()) ? null : new ThrowableInformation(pendingEvent.getThrowable()));
+            logger.callAppenders(new LoggingEvent(Logger.class.getName(), logger, pendingEvent.getTimeStamp(), level, logMessage, pendingEvent.getThreadName(), throwableInformation, null, null, null));
+        }
     }
     
     /**
@@ -741,60 +1101,422 @@ public final class LogHelper {
      * @param log4JFileStream
      * @param useXMLConfig
      */
-    public static void log4JConfigure(final String logFolderPath, final Context context, InputStream log4JFileStream, final boolean useXMLConfig) {
-        setLog4JLogsEnabled(true);
+    public static synchronized void log4JConfigure(final String logFolderPath, final Context context, InputStream log4JFileStream, final boolean useXMLConfig) {
+        final LogConfig logConfig;
         if(isNull(log4JFileStream)) {
-            if(useXMLConfig) {
-                log4JFileStream = readAssets(context, ANDROID_LOG4J_XML);
-            } else {
-                log4JFileStream = readAssets(context, ANDROID_LOG4J_PROPERTIES);
-            }
+            logConfig = LogConfigLoader.load(context, (useXMLConfig ? ANDROID_LOG4J_XML : ANDROID_LOG4J_PROPERTIES));
+        } else {
+            logConfig = LogConfigLoader.load(log4JFileStream, useXMLConfig, (isNull(context) ? null : context.getFilesDir()));
         }
         
-        if(isNull(log4JFileStream)) {
-            throw new RuntimeException((useXMLConfig ? ANDROID_LOG4J_XML : ANDROID_LOG4J_PROPERTIES) + " configuration file did not find!");
+        closeLogBackend();
+        setLog4JLogsEnabled(true);
+        applyLogConfig(logFolderPath, logConfig);
+        
+        //configure the log4j logger
+        getLog4JConfigurator().configure();
+    }
+    
+    /**
+     * Sets the given <code>logConfig</code> to the <code>Log4JConfigurator</code>.
+     *
+     * @param logFolderPath
+     * @param logConfig
+     */
+    private static void applyLogConfig(final String logFolderPath, final LogConfig logConfig) {
+        /** the logs folder to be set. */
+        getLog4JConfigurator().setLogsFolder(logFolderPath);
+        
+        /** the appenders and the logger levels to be set. */
+        getLog4JConfigurator().setLogConfig(logConfig);
+        
+        /** the root log level to be set. */
+        getLog4JConfigurator().setLogLevel(logConfig.getRootLevel());
+        
+        /** the log file name to be set. */
+        final LogConfig.AppenderConfig fileAppender = logConfig.getFileAppender();
+        if(isNotNull(fileAppender)) {
+            getLog4JConfigurator().setFileName(fileAppender.getFileName());
+        }
+        
+        /** the metrics of the appenders. */
+        getLog4JConfigurator().setLogMetrics(sLogMetrics);
+    }
+    
+    /**
+     * Configures the logger to write the logs into the given file without the log4j. Every thread
+     * encodes its events into its own buffers and a background thread merges them in order and
+     * writes them into the file, so the logging threads don't serialize on any shared lock. The
+     * logs are not written into the logcat in this mode.
+     *
+     * @param logFolderPath
+     * @param fileName
+     * @param logLevel
+     * @param maxBackupFiles
+     * @param maxFileSize
+     */
+    public static synchronized void stripedConfigure(final String logFolderPath, final String fileName, final LogType logLevel, final int maxBackupFiles, final long maxFileSize) {
+        if(isNullOrEmpty(logFolderPath)) {
+            throw new IllegalArgumentException("logFolderPath is either NULL or EMPTY!");
+        }
+        if(isNullOrEmpty(fileName)) {
+            throw new IllegalArgumentException("fileName is either NULL or EMPTY!");
+        }
+        
+        closeLogBackend();
+        try {
+            setFileBackend(logFolderPath, new StripedFileWriter(new File(logFolderPath, fileName), maxFileSize, maxBackupFiles, StripedFileWriter.FLUSH_INTERVAL_MILLIS, sLogMetrics), false, logLevel);
+        } catch(IOException ex) {
+            throw new RuntimeException("Error while configuring the striped logs file!", ex);
+        }
+    }
+    
+    /**
+     * Configures the logger to write the logs into the given file without the log4j.
+     *
+     * @param logFolderPath
+     * @param fileName
+     * @param logLevel
+     */
+    public static void stripedConfigure(final String logFolderPath, final String fileName, final LogType logLevel) {
+        stripedConfigure(logFolderPath, fileName, logLevel, MAX_BACKUP_FILES, MAX_FILE_SIZE);
+    }
+    
+    /**
+     * Configures the logger to write the logs into the given file without the log4j and without
+     * any background thread. The concurrent threads publish their events and the thread holding
+     * the lock writes them all at once, so an event is in the file when the logging call returns.
+     * The logs are not written into the logcat in this mode.
+     *
+     * @param logFolderPath
+     * @param fileName
+     * @param logLevel
+     * @param maxBackupFiles
+     * @param maxFileSize
+     */
+    public static synchronized void combiningConfigure(final String logFolderPath, final String fileName, final LogType logLevel, final int maxBackupFiles, final long maxFileSize) {
+        if(isNullOrEmpty(logFolderPath)) {
+            throw new IllegalArgumentException("logFolderPath is either NULL or EMPTY!");
+        }
+        if(isNullOrEmpty(fileName)) {
+            throw new IllegalArgumentException("fileName is either NULL or EMPTY!");
+        }
+        
+        closeLogBackend();
+        try {
+            setFileBackend(logFolderPath, new CombiningFileWriter(new File(logFolderPath, fileName), maxFileSize, maxBackupFiles, sLogMetrics), false, logLevel);
+        } catch(IOException ex) {
+            throw new RuntimeException("Error while configuring the combining logs file!", ex);
+        }
+    }
+    
+    /**
+     * Configures the logger to write the logs into the given file without the log4j and without
+     * any background thread.
+     *
+     * @param logFolderPath
+     * @param fileName
+     * @param logLevel
+     */
+    public static void combiningConfigure(final String logFolderPath, final String fileName, final LogType logLevel) {
+        combiningConfigure(logFolderPath, fileName, logLevel, MAX_BACKUP_FILES, MAX_FILE_SIZE);
+    }
+    
+    /**
+     * Configures the logger to log through the built-in <code>NativeBackend</code> without the
+     * log4j. The events are written synchronously into the given file and into the logcat too,
+     * if the <code>logcatEnabled</code> is set to be true. Once the per-thread buffers are
+     * created, nothing is allocated per event.
+     *
+     * @param logFolderPath
+     * @param fileName
+     * @param logLevel
+     * @param maxBackupFiles
+     * @param maxFileSize
+     * @param logcatEnabled
+     */
+    public static synchronized void nativeConfigure(final String logFolderPath, final String fileName, final LogType logLevel, final int maxBackupFiles, final long maxFileSize, final boolean logcatEnabled) {
+        if(isNullOrEmpty(logFolderPath)) {
+            throw new IllegalArgumentException("logFolderPath is either NULL or EMPTY!");
+        }
+        if(isNullOrEmpty(fileName)) {
+            throw new IllegalArgumentException("fileName is either NULL or EMPTY!");
         }
         
-        if(useXMLConfig && false) {
-            /* TODO - Find a way to override the log file path based on the specified logFileName. */
-            /* loads the provided log4j file. */
-            PropertyConfigurator.configure(log4JFileStream);
+        closeLogBackend();
+        try {
+            setFileBackend(logFolderPath, new CombiningFileWriter(new File(logFolderPath, fileName), maxFileSize, maxBackupFiles, sLogMetrics), logcatEnabled, logLevel);
+        } catch(IOException ex) {
+            throw new RuntimeException("Error while configuring the native logs file!", ex);
+        }
+    }
+    
+    /**
+     * Configures the logger to log through the built-in <code>NativeBackend</code> into the given
+     * file and into the logcat.
+     *
+     * @param logFolderPath
+     * @param fileName
+     * @param logLevel
+     */
+    public static void nativeConfigure(final String logFolderPath, final String fileName, final LogType logLevel) {
+        nativeConfigure(logFolderPath, fileName, logLevel, MAX_BACKUP_FILES, MAX_FILE_SIZE, true);
+    }
+    
+    /**
+     * Switches the logs to the <code>NativeBackend</code> of the given writer, which writes into
+     * the given <code>logFolderPath</code>.
+     *
+     * @param logFolderPath
+     * @param logFileWriter
+     * @param logcatEnabled
+     * @param logLevel
+     */
+    private static void setFileBackend(final String logFolderPath, final LogFileWriter logFileWriter, final boolean logcatEnabled, final LogType logLevel) {
+        setLog4JLogsEnabled(false);
+        sLogType = logLevel;
+        sLogBackend = new NativeBackend(logFileWriter, logcatEnabled, logLevel);
+        sFileBackendFolder = logFolderPath;
+    }
+    
+    /**
+     * Returns the <code>sLogBackend</code> value, the backend taking over the logs, if any
+     * otherwise null.
+     *
+     * @return
+     */
+    public static LogBackend getLogBackend() {
+        return sLogBackend;
+    }
+    
+    /**
+     * The <code>logBackend</code> to be set. The events are logged through the given backend
+     * instead of the logcat or the log4j. The previous backend, if any, is closed. The null
+     * <code>logBackend</code> switches back to the logcat or the log4j.
+     *
+     * @param logBackend
+     */
+    public static synchronized void setLogBackend(final LogBackend logBackend) {
+        closeLogBackend();
+        sLogBackend = logBackend;
+    }
+    
+    /**
+     * Closes the log backend, if any, after writing its pending logs.
+     */
+    private static void closeLogBackend() {
+        final LogBackend logBackend = sLogBackend;
+        if(isNotNull(logBackend)) {
+            sLogBackend = null;
+            sFileBackendFolder = null;
+            logBackend.close();
+        }
+    }
+    
+    /**
+     * Waits until the logs buffered by the log backend are written into the file. Returns true
+     * right away, if the logs are not buffered.
+     *
+     * @param timeoutMillis
+     * @return
+     */
+    public static boolean flushLogs(final long timeoutMillis) {
+        final LogBackend logBackend = sLogBackend;
+        if(isNotNull(logBackend)) {
+            return logBackend.flush(timeoutMillis);
+        }
+        
+        return (!isLog4JLogsEnabled() || getLog4JBackend().flush(timeoutMillis));
+    }
+    
+    /**
+     * Returns the logs folder of the active backend: the folder of the file backend or the logs
+     * folder of the log4j, if it's configured. The log4j configurator isn't created, if the log4j
+     * is not used.
+     *
+     * @return
+     */
+    private static File getActiveLogsFolder() {
+        final String logsFolder;
+        if(isNotNull(sLogBackend)) {
+            logsFolder = sFileBackendFolder;
+        } else if(isLog4JLogsEnabled()) {
+            logsFolder = getLog4JConfigurator().getLogsFolder();
         } else {
-            final Properties mProperties = loadProperties(log4JFileStream);
-            if(mProperties.size() == 0) {
-                throw new RuntimeException("Invalid [" + ANDROID_LOG4J_PROPERTIES + "] configuration file!");
-            }
-            setLog4JLogsEnabled(true);
-            /* setting all the properties in the reverse order. */
-            /** the logs folder to be set. */
-            sLog4JConfigurator.setLogsFolder(logFolderPath);
-            
-            /** the log file name to be set. */
-            sLog4JConfigurator.setFileName(mProperties.getProperty(KEY_RFA_FILE, LOG_FILE_NAME));
-            
-            /** the root log level to be set. */
-            String rootLogger = mProperties.getProperty(LOG4J_ROOT_LOGGER, LogType.INFO.toString());
-            if(isNullOrEmpty(rootLogger) || rootLogger.length() < 8) {
-                throw new RuntimeException("Invalid [" + ANDROID_LOG4J_PROPERTIES + "] file! rootLogger:" + rootLogger);
-            } else {
-                rootLogger = rootLogger.split(",")[0];
+            logsFolder = null;
+        }
+        if(isNullOrEmpty(logsFolder)) {
+            throw new IllegalStateException("The logger is not configured yet!");
+        }
+        
+        return new File(logsFolder);
+    }
+    
+    /**
+     * Returns the conversion pattern of the lines written by the active backend.
+     *
+     * @return
+     */
+    private static String getActiveLogPattern() {
+        if(isNotNull(sLogBackend)) {
+            return LogEventEncoder.LOG_PATTERN;
+        }
+        
+        return (isNull(getLog4JConfigurator().getLogPattern()) ? LOG_PATTERN : getLog4JConfigurator().getLogPattern().getConversionPattern());
+    }
+    
+    /**
+     * Returns a new <code>LogMergeReader</code> of all the log segments of the logs folder, which
+     * iterates the events of all the processes and the rolled files in the chronological order.
+     * The reader must be closed after use. The logs should be flushed before, to include the
+     * buffered events.
+     *
+     * @return
+     */
+    public static LogMergeReader newLogMergeReader() {
+        return LogMergeReader.open(getActiveLogsFolder(), getActiveLogPattern());
+    }
+    
+    /**
+     * Streams all the logs of the logs folder (the active files, the rolled segments and the crash
+     * dumps) into the given <code>outputStream</code> as a single archive, e.g. to attach them to
+     * a bug report. The buffered events are flushed before, within 1 second. The
+     * <code>Long.MIN_VALUE</code> and the <code>Long.MAX_VALUE</code> export the logs of any time.
+     *
+     * @param outputStream
+     * @param format
+     * @param fromMillis
+     * @param toMillis
+     * @return the number of the exported files.
+     * @throws IOException
+     */
+    public static int exportLogs(final OutputStream outputStream, final LogExporter.Format format, final long fromMillis, final long toMillis) throws IOException {
+        final File logsFolder = getActiveLogsFolder();
+        flushLogs(1000);
+        final LogExporter logExporter = new LogExporter(logsFolder, getActiveLogPattern());
+        logExporter.setTimeWindow(fromMillis, toMillis);
+        return logExporter.export(outputStream, format);
+    }
+    
+    /**
+     * Starts polling the <code>android_log4j.properties</code> file in the logs folder every
+     * <code>periodSeconds</code>. When the file changes, the logger is reconfigured with its
+     * settings without dropping any event. The logger must be configured with the log4j before,
+     * the configuration file isn't applied to an active <code>LogBackend</code>.
+     *
+     * @param periodSeconds
+     */
+    public static synchronized void startConfigWatching(final long periodSeconds) {
+        final String logsFolder = getLog4JConfigurator().getLogsFolder();
+        if(isNullOrEmpty(logsFolder)) {
+            throw new IllegalStateException("The logger is not configured yet!");
+        }
+        if(isNotNull(sLogBackend)) {
+            throw new IllegalStateException("The configuration file can't be applied to the active LogBackend!");
+        }
+        
+        stopConfigWatching();
+        sConfigFileWatcher = new ConfigFileWatcher(new File(logsFolder, ANDROID_LOG4J_PROPERTIES), new ConfigFileWatcher.Listener() {
+            @Override
+            public void onChanged(final File configFile) {
+                log4JReconfigure(configFile);
             }
-            sLog4JConfigurator.setLogLevel(LogType.toLevel(LogType.valueOf(rootLogger)));
-            
-            /** the logs pattern to be set. */
-            sLog4JConfigurator.setLogPattern(mProperties.getProperty(KEY_RFA_LOG_PATTERN, LOG_PATTERN));
-            
-            /** the maximum number of backup files to be created. */
-            sLog4JConfigurator.setMaxBackupFiles(Integer.parseInt(mProperties.getProperty(KEY_RFA_MAX_BACKUP_FILES, String.valueOf(MAX_BACKUP_FILES))));
-            
-            /** the maximum log file size to be set. */
-            sLog4JConfigurator.setMaxFileSize(Integer.parseInt(mProperties.getProperty(KEY_RFA_MAX_FILE_SIZE, "2")) * MB_SIZE);
-            
-            //configure the log4j logger
-            sLog4JConfigurator.configure();
-//            PropertyConfigurator.configure(loadProperties(log4JFileStream));
+        });
+        sConfigFileWatcher.start(periodSeconds);
+    }
+    
+    /**
+     * Stops polling the configuration file.
+     */
+    public static synchronized void stopConfigWatching() {
+        if(isNotNull(sConfigFileWatcher)) {
+            sConfigFileWatcher.stop();
+            sConfigFileWatcher = null;
+        }
+    }
+    
+    /**
+     * Starts uploading the finished log segments of the logs folder to the given
+     * <code>endpoint</code> every <code>periodMillis</code> in background. Only the new data of
+     * the segments is sent, compressed in batches.
+     *
+     * @param endpoint
+     * @param periodMillis
+     * @return
+     */
+    public static synchronized LogUploader startLogUploader(final URL endpoint, final long periodMillis) {
+        final File logsFolder = getActiveLogsFolder();
+        stopLogUploader();
+        sLogUploader = new LogUploader(logsFolder, endpoint);
+        sLogUploader.start(periodMillis);
+        return sLogUploader;
+    }
+    
+    /**
+     * Stops uploading the logs.
+     */
+    public static synchronized void stopLogUploader() {
+        if(isNotNull(sLogUploader)) {
+            sLogUploader.stop();
+            sLogUploader = null;
+        }
+    }
+    
+    /**
+     * Starts keeping the logs folder within the given quota in background, evicting the oldest
+     * finished files (the rolled segments, the crash dumps and the exports) every
+     * <code>periodMillis</code>. The 0 disables a limit.
+     *
+     * @param maxTotalBytes
+     * @param maxAgeMillis
+     * @param minFreeBytes
+     * @param periodMillis
+     * @return
+     */
+    public static synchronized LogJanitor startLogJanitor(final long maxTotalBytes, final long maxAgeMillis, final long minFreeBytes, final long periodMillis) {
+        final File logsFolder = getActiveLogsFolder();
+        stopLogJanitor();
+        sLogJanitor = new LogJanitor(logsFolder);
+        sLogJanitor.setMaxTotalBytes(maxTotalBytes);
+        sLogJanitor.setMaxAgeMillis(maxAgeMillis);
+        sLogJanitor.setMinFreeBytes(minFreeBytes);
+        sLogJanitor.start(periodMillis);
+        return sLogJanitor;
+    }
+    
+    /**
+     * Stops cleaning up the logs folder.
+     */
+    public static synchronized void stopLogJanitor() {
+        if(isNotNull(sLogJanitor)) {
+            sLogJanitor.stop();
+            sLogJanitor = null;
+        }
+    }
+    
+    /**
+     * Reconfigures the logger with the given <code>android_log4j.properties</code> file. The new
+     * pipeline is built first and then published with a single reference swap. It's rejected,
+     * while a <code>LogBackend</code> is active, since the pipeline would never be used.
+     *
+     * @param configFile
+     */
+    private static synchronized void log4JReconfigure(final File configFile) {
+        if(isNotNull(sLogBackend)) {
+            throw new IllegalStateException("The configuration file can't be applied to the active LogBackend!");
         }
         
+        InputStream configStream = null;
+        try {
+            configStream = new FileInputStream(configFile);
+            applyLogConfig(getLog4JConfigurator().getLogsFolder(), LogConfigLoader.parseProperties(loadProperties(configStream)));
+            getLog4JConfigurator().configure();
+            i(LOG_TAG, "Reconfigured with:" + configFile.getAbsolutePath() + ", " + getLog4JConfigurator().getLogPipeline());
+        } catch(IOException ex) {
+            throw new RuntimeException("Error while reading the configuration file:" + configFile, ex);
+        } finally {
+            closeSilently(configStream);
+        }
     }
     
     /**
@@ -812,13 +1534,51 @@ public final class LogHelper {
         closeSilently(log4JFileStream);
     }
     
+    /**
+     * Returns the <code>Log4JConfigurator</code>, which configures the log4j logging. It's
+     * created lazily on the first use, so that the log4j is not initialized by just loading this
+     * class.
+     *
+     * @return
+     */
+    public static Log4JConfigurator getLog4JConfigurator() {
+        return Log4JConfiguratorHolder.INSTANCE;
+    }
+    
+    /**
+     * Holds the lazily created <code>Log4JConfigurator</code>.
+     */
+    private static final class Log4JConfiguratorHolder {
+        
+        /* INSTANCE */
+        private static final Log4JConfigurator INSTANCE = new Log4JConfigurator();
+        
+        /* BACKEND */
+        private static final Log4JBackend BACKEND = new Log4JBackend(INSTANCE);
+    }
+    
+    /**
+     * Returns the backend, which logs through the log4j loggers of the
+     * <code>getLog4JConfigurator()</code>.
+     *
+     * @return
+     */
+    public static Log4JBackend getLog4JBackend() {
+        return Log4JConfiguratorHolder.BACKEND;
+    }
+    
     /**
      * Returns the log file path, if <code>sLog4JLogsEnabled</code> is true otherwise null.
      *
      * @return
      */
     public static String getLogFilePath() {
-        return (isLog4JLogsEnabled() ? sLog4JConfigurator.getLogFilePath() : null);
+        final LogBackend logBackend = sLogBackend;
+        if(isNotNull(logBackend)) {
+            return logBackend.getLogFilePath();
+        }
+        
+        return (isLog4JLogsEnabled() ? getLog4JConfigurator().getLogFilePath() : null);
     }
     
     /**************************************************************************
@@ -884,18 +1644,129 @@ public final class LogHelper {
      **************************************************************************/
     
     /**
-     * Logs ERROR messages.
+     * Logs the given <code>logMessage</code> without checking the <code>logType</code>. The
+     * callers must check the <code>isLogEnabledFor(logTag, logType)</code> before calling it, so
+     * that the disabled and the sampled-out events are never formatted. The message is redacted
+     * by the <code>sLogRedactor</code> before it reaches any sink.
+     *
+     * @param logType
+     * @param logTag
+     * @param message
+     * @param throwable
+     */
+    static void log(final LogType logType, final String logTag, final String message, final Throwable throwable) {
+        logRedacted(logType, logTag, sLogRedactor.redact(message), throwable);
+    }
+    
+    /**
+     * Logs the given <code>logMessage</code>, which is already redacted (e.g. the fields of a
+     * <code>LogRecord</code> are masked by their keys), without scanning it again. The stack trace
+     * of the <code>throwable</code> is redacted, when it's rendered by the
+     * <code>sStackTraceDeduper</code>.
      *
+     * @param logType
      * @param logTag
      * @param logMessage
+     * @param throwable
      */
-    public static void e(final String logTag, final String logMessage) {
-        if(isLogEnabledFor(LogType.ERROR)) {
+    static void logRedacted(final LogType logType, final String logTag, final String logMessage, final Throwable throwable) {
+        final DeferredLog deferredLog = sDeferredLog;
+        if(isNotNull(deferredLog) && deferredLog.offer(logType, logTag, logMessage, null, throwable)) {
+            return;
+        }
+        
+        final LogBackend logBackend = sLogBackend;
+        if(isNotNull(logBackend)) {
+            if(sLogMetrics.isEnabled()) {
+                final long startTime = System.nanoTime();
+                logBackend.log(logType, logTag, logMessage, throwable);
+                sLogMetrics.recordEvent(logType, logTag, System.nanoTime() - startTime);
+            } else {
+                logBackend.log(logType, logTag, logMessage, throwable);
+            }
+        } else if(sLogMetrics.isEnabled()) {
+            final long startTime = System.nanoTime();
             if(isLog4JLogsEnabled()) {
-                getLogger(logTag).error(logMessage);
+                getLog4JBackend().log(logType, logTag, logMessage, throwable);
             } else {
-                Log.e(logTag, toString(logMessage));
+                logcat(logType, logTag, logMessage, throwable);
+                final LogMetrics.AppenderMetrics appenderMetrics = sLogMetrics.getAppenderMetrics(LOGCAT_APPENDER);
+                appenderMetrics.recordAppend(System.nanoTime() - startTime);
+                appenderMetrics.recordBytes(isNull(logMessage) ? 0 : Utf8StreamWriter.encodedLength(logMessage));
             }
+            sLogMetrics.recordEvent(logType, logTag, System.nanoTime() - startTime);
+        } else if(isLog4JLogsEnabled()) {
+            getLog4JBackend().log(logType, logTag, logMessage, throwable);
+        } else {
+            logcat(logType, logTag, logMessage, throwable);
+        }
+    }
+    
+    /**
+     * Formats the given <code>format</code> with the <code>logArguments</code> and logs it. While
+     * the logger is being configured, the event is buffered unformatted and formatted only when
+     * it's replayed.
+     *
+     * @param logType
+     * @param logTag
+     * @param format
+     * @param logArguments
+     * @param throwable
+     */
+    private static void logFormat(final LogType logType, final String logTag, final String format, final Object[] logArguments, final Throwable throwable) {
+        final DeferredLog deferredLog = sDeferredLog;
+        if(isNotNull(deferredLog) && deferredLog.offer(logType, logTag, format, logArguments, throwable)) {
+            return;
+        }
+        
+        log(logType, logTag, format(format, logArguments), throwable);
+    }
+    
+    /**
+     * Logs the given <code>logMessage</code> to the logcat. The stack trace of the
+     * <code>throwable</code> is rendered by the <code>sStackTraceDeduper</code>, so the repeated
+     * traces are only referenced.
+     *
+     * @param logType
+     * @param logTag
+     * @param logMessage
+     * @param throwable
+     */
+    static void logcat(final LogType logType, final String logTag, final String logMessage, final Throwable throwable) {
+        final String message = (isNull(throwable) ? toString(logMessage) : toString(logMessage) + "\n" + sStackTraceDeduper.render(throwable));
+        switch(logType) {
+            case ERROR:
+                Log.e(logTag, message);
+                break;
+            case WARN:
+                Log.w(logTag, message);
+                break;
+            case INFO:
+                Log.i(logTag, message);
+                break;
+            case DEBUG:
+                Log.d(logTag, message);
+                break;
+            case VERBOSE:
+                Log.v(logTag, message);
+                break;
+            case ASSERT:
+                Log.wtf(logTag, message);
+                break;
+            default:
+                break;
+        }
+    }
+    
+    /**
+     * Logs ERROR messages.
+     *
+     * @param logTag
+     * @param logMessage
+     */
+    public static void e(final String logTag, final String logMessage) {
+        if(isLogEnabledFor(logTag, LogType.ERROR)) {
+            log(LogType.ERROR, logTag, logMessage, null);
         }
     }
     
@@ -907,12 +1778,8 @@ public final class LogHelper {
      * @param throwable
      */
     public static void e(final String logTag, final String logMessage, final Throwable throwable) {
-        if(isLogEnabledFor(LogType.ERROR)) {
-            if(isLog4JLogsEnabled()) {
-                getLogger(logTag).error(logMessage, throwable);
-            } else {
-                Log.e(logTag, toString(logMessage), throwable);
-            }
+        if(isLogEnabledFor(logTag, LogType.ERROR)) {
+            log(LogType.ERROR, logTag, logMessage, throwable);
         }
     }
     
@@ -923,12 +1790,8 @@ public final class LogHelper {
      * @param logMessage
      */
     public static void w(final String logTag, final String logMessage) {
-        if(isLogEnabledFor(LogType.WARN)) {
-            if(isLog4JLogsEnabled()) {
-                getLogger(logTag).warn(logMessage);
-            } else {
-                Log.w(logTag, toString(logMessage));
-            }
+        if(isLogEnabledFor(logTag, LogType.WARN)) {
+            log(LogType.WARN, logTag, logMessage, null);
         }
     }
     
@@ -939,28 +1802,20 @@ public final class LogHelper {
      * @param logMessage
      */
     public static void i(final String logTag, final String logMessage) {
-        if(isLogEnabledFor(LogType.INFO)) {
-            if(isLog4JLogsEnabled()) {
-                getLogger(logTag).info(logMessage);
-            } else {
-                Log.i(logTag, toString(logMessage));
-            }
+        if(isLogEnabledFor(logTag, LogType.INFO)) {
+            log(LogType.INFO, logTag, logMessage, null);
         }
     }
     
     /**
-     * Logs LogHelper message.
+     * Logs DEBUG messages.
      *
      * @param logTag
      * @param logMessage
      */
     public static void d(final String logTag, final String logMessage) {
-        if(isLogEnabledFor(LogType.DEBUG)) {
-            if(isLog4JLogsEnabled()) {
-                getLogger(logTag).debug(logMessage);
-            } else {
-                Log.d(logTag, toString(logMessage));
-            }
+        if(isLogEnabledFor(logTag, LogType.DEBUG)) {
+            log(LogType.DEBUG, logTag, logMessage, null);
         }
     }
     
@@ -971,12 +1826,8 @@ public final class LogHelper {
      * @param logMessage
      */
     public static void v(final String logTag, final String logMessage) {
-        if(isLogEnabledFor(LogType.VERBOSE)) {
-            if(isLog4JLogsEnabled()) {
-                getLogger(logTag).debug(logMessage);
-            } else {
-                Log.v(logTag, toString(logMessage));
-            }
+        if(isLogEnabledFor(logTag, LogType.VERBOSE)) {
+            log(LogType.VERBOSE, logTag, logMessage, null);
         }
     }
     
@@ -991,7 +1842,9 @@ public final class LogHelper {
      * @param logMessage
      */
     public static void e(final String logTag, final Object logMessage) {
-        e(logTag, toString(logMessage));
+        if(isLogEnabledFor(logTag, LogType.ERROR)) {
+            log(LogType.ERROR, logTag, toString(logMessage), null);
+        }
     }
     
     /**
@@ -1002,7 +1855,9 @@ public final class LogHelper {
      * @param logArguments
      */
     public static void e(final String logTag, final String format, final Object... logArguments) {
-        e(logTag, format(format, logArguments));
+        if(isLogEnabledFor(logTag, LogType.ERROR)) {
+            logFormat(LogType.ERROR, logTag, format, logArguments, null);
+        }
     }
     
     /**
@@ -1012,7 +1867,9 @@ public final class LogHelper {
      * @param throwable
      */
     public static void e(final String logTag, final Throwable throwable) {
-        e(logTag, throwable.getLocalizedMessage(), throwable);
+        if(isLogEnabledFor(logTag, LogType.ERROR)) {
+            log(LogType.ERROR, logTag, throwable.getLocalizedMessage(), throwable);
+        }
     }
     
     /**
@@ -1024,10 +1881,11 @@ public final class LogHelper {
      * @param logArguments
      */
     public static void e(final String logTag, final Throwable throwable, final String format, final Object... logArguments) {
-        e(logTag, format(format, logArguments), throwable);
+        if(isLogEnabledFor(logTag, LogType.ERROR)) {
+            logFormat(LogType.ERROR, logTag, format, logArguments, throwable);
+        }
     }
     
-    
     /**
      * Logs WARNING messages.
      *
@@ -1035,10 +1893,11 @@ public final class LogHelper {
      * @param logMessage
      */
     public static void w(final String logTag, final Object logMessage) {
-        w(logTag, toString(logMessage));
+        if(isLogEnabledFor(logTag, LogType.WARN)) {
+            log(LogType.WARN, logTag, toString(logMessage), null);
+        }
     }
     
-    
     /**
      * Logs WARNING messages.
      *
@@ -1047,10 +1906,11 @@ public final class LogHelper {
      * @param logArguments
      */
     public static void w(final String logTag, final String format, final Object... logArguments) {
-        w(logTag, format(format, logArguments));
+        if(isLogEnabledFor(logTag, LogType.WARN)) {
+            logFormat(LogType.WARN, logTag, format, logArguments, null);
+        }
     }
     
-    
     /**
      * Logs INFO messages.
      *
@@ -1058,10 +1918,11 @@ public final class LogHelper {
      * @param logMessage
      */
     public static void i(final String logTag, final Object logMessage) {
-        i(logTag, toString(logMessage));
+        if(isLogEnabledFor(logTag, LogType.INFO)) {
+            log(LogType.INFO, logTag, toString(logMessage), null);
+        }
     }
     
-    
     /**
      * Logs INFO messages.
      *
@@ -1070,28 +1931,34 @@ public final class LogHelper {
      * @param logArguments
      */
     public static void i(final String logTag, final String format, final Object... logArguments) {
-        i(logTag, format(format, logArguments));
+        if(isLogEnabledFor(logTag, LogType.INFO)) {
+            logFormat(LogType.INFO, logTag, format, logArguments, null);
+        }
     }
     
     /**
-     * Logs LogHelper messages.
+     * Logs DEBUG messages.
      *
      * @param logTag
      * @param logMessage
      */
     public static void d(final String logTag, final Object logMessage) {
-        d(logTag, toString(logMessage));
+        if(isLogEnabledFor(logTag, LogType.DEBUG)) {
+            log(LogType.DEBUG, logTag, toString(logMessage), null);
+        }
     }
     
     /**
-     * Logs LogHelper messages.
+     * Logs DEBUG messages.
      *
      * @param logTag
      * @param format
      * @param logArguments
      */
     public static void d(final String logTag, final String format, final Object... logArguments) {
-        d(logTag, format(format, logArguments));
+        if(isLogEnabledFor(logTag, LogType.DEBUG)) {
+            logFormat(LogType.DEBUG, logTag, format, logArguments, null);
+        }
     }
     
     /**
@@ -1101,7 +1968,9 @@ public final class LogHelper {
      * @param logMessage
      */
     public static void v(final String logTag, final Object logMessage) {
-        v(logTag, toString(logMessage));
+        if(isLogEnabledFor(logTag, LogType.VERBOSE)) {
+            log(LogType.VERBOSE, logTag, toString(logMessage), null);
+        }
     }
     
     /**
@@ -1112,13 +1981,15 @@ public final class LogHelper {
      * @param logArguments
      */
     public static void v(final String logTag, final String format, final Object... logArguments) {
-        v(logTag, format(format, logArguments));
+        if(isLogEnabledFor(logTag, LogType.VERBOSE)) {
+            logFormat(LogType.VERBOSE, logTag, format, logArguments, null);
+        }
     }
     
-    
     /**
      * What a Terrible Failure: Report an exception that should never happen.
-     * Similar to {@link #wtf(String, Throwable)}, with a message as well.
+     * Similar to {@link #wtf(String, Throwable)}, with a message as well. The message and the
+     * stack trace are redacted like the ones of the other levels.
      *
      * @param logTag
      * @param logMessage
@@ -1126,11 +1997,7 @@ public final class LogHelper {
      */
     public static void wtf(final String logTag, final Object logMessage, final Throwable mThrowable) {
         if(isLogEnabledFor(LogType.ERROR)) {
-            if(isNull(mThrowable)) {
-                Log.wtf(logTag, toString(logMessage));
-            } else {
-                Log.wtf(logTag, toString(logMessage), mThrowable);
-            }
+            logcat(LogType.ASSERT, logTag, sLogRedactor.redact(toString(logMessage)), mThrowable);
         }
     }
     
@@ -1156,7 +2023,7 @@ public final class LogHelper {
      */
     public static void wtf(final String logTag, final Throwable mThrowable) {
         if(isLogEnabledFor(LogType.ERROR)) {
-            Log.wtf(logTag, mThrowable);
+            logcat(LogType.ASSERT, logTag, sLogRedactor.redact(mThrowable.getLocalizedMessage()), mThrowable);
         }
     }
     
@@ -1178,7 +2045,7 @@ public final class LogHelper {
      **************************************************************************/
     
     /**
-     * Logs the URL details.
+     * Logs the URL details as a single structured record.
      *
      * @param logTag
      * @param uri
@@ -1186,11 +2053,10 @@ public final class LogHelper {
     @TargetApi(21)
     public static void logUri(final String logTag, final Uri uri) {
         if(isNotNull(uri) && !isNullOrEmpty(logTag)) {
-            d(logTag, "urlString:" + uri.toString());
-            d(logTag, "Scheme:" + uri.getScheme());
-            d(logTag, "Host:" + uri.getHost());
-            d(logTag, "QueryParameterNames:" + uri.getQueryParameterNames());
-            d(logTag, "Query:" + uri.getQuery());
+            final LogRecord logRecord = newRecord(LogType.DEBUG, logTag, "Uri");
+            if(logRecord.isEnabled()) {
+                logRecord.field("url", uri).field("scheme", uri.getScheme()).field("host", uri.getHost()).field("queryNames", uri.getQueryParameterNames()).field("query", uri.getQuery()).log();
+            }
         }
     }
     
@@ -1205,19 +2071,19 @@ public final class LogHelper {
     }
     
     /**
-     * Logs the <code>WebResourceRequest</code>.
+     * Logs the <code>WebResourceRequest</code> as a single structured record.
      *
      * @param logTag
      * @param webRequest
      */
     @TargetApi(21)
     public static void logWebRequest(final String logTag, final WebResourceRequest webRequest) {
-        if(!isNullOrEmpty(logTag)) {
-            d(logTag, "urlString:" + webRequest.getUrl().toString());
-            d(logTag, "Method:" + webRequest.getMethod());
-            d(logTag, "RequestHeaders:" + webRequest.getRequestHeaders());
-            d(logTag, "QueryParameterNames:" + webRequest.getUrl().getQueryParameterNames());
-            d(logTag, "Query:" + webRequest.getUrl().getQuery());
+        if(isNotNull(webRequest) && !isNullOrEmpty(logTag)) {
+            final LogRecord logRecord = newRecord(LogType.DEBUG, logTag, "WebRequest");
+            if(logRecord.isEnabled()) {
+                final Uri uri = webRequest.getUrl();
+                logRecord.field("url", uri).field("method", webRequest.getMethod()).field("headers", webRequest.getRequestHeaders()).field("queryNames", uri.getQueryParameterNames()).field("query", uri.getQuery()).log();
+            }
         }
     }
     
@@ -0,0 +1,299 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A log-linear histogram of the non-negative <code>long</code> values, like the nanoseconds spent
+ * in a logging call.
+ * <p>
+ * The values below <code>16</code> have their own buckets. Above that, every power of two range
+ * is split into <code>16</code> linear buckets, so the recorded values are precise within ~6%.
+ * The values above <code>2^40</code> are clamped to the last bucket. The recording is lock free
+ * and never allocates.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 10:18:02 AM
+ * @since 1.0.0
+ */
+public final class LogHistogram {
+    
+    /** SUB_BUCKET_BITS */
+    private static final int SUB_BUCKET_BITS = 4;
+    
+    /** SUB_BUCKETS */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    
+    /** MAX_EXPONENT - the largest tracked value is <code>2^MAX_EXPONENT - 1</code>. */
+    private static final int MAX_EXPONENT = 40;
+    
+    /** MAX_VALUE */
+    public static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+    
+    /** BUCKETS */
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+    
+    /** mCounts */
+    private final AtomicLongArray mCounts = new AtomicLongArray(BUCKETS);
+    
+    /** mTotal - the sum of all the recorded values. */
+    private final StripedCounter mTotal = new StripedCounter();
+    
+    /** mMaxValue */
+    private final AtomicLong mMaxValue = new AtomicLong();
+    
+    /**
+     * Default Constructor.
+     */
+    public LogHistogram() {
+    }
+    
+    /**
+     * Returns the bucket index of the given <code>value</code>.
+     *
+     * @param value
+     * @return
+     */
+    static int bucketIndex(long value) {
+        if(value < SUB_BUCKETS) {
+            return (value < 0 ? 0 : (int) value);
+        }
+        if(value > MAX_VALUE) {
+            value = MAX_VALUE;
+        }
+        
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int group = exponent - SUB_BUCKET_BITS + 1;
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+        return (group << SUB_BUCKET_BITS) + subBucket;
+    }
+    
+    /**
+     * Returns the lowest value of the given bucket <code>index</code>.
+     *
+     * @param index
+     * @return
+     */
+    static long lowestValue(final int index) {
+        final int group = (index >>> SUB_BUCKET_BITS);
+        final int subBucket = (index & (SUB_BUCKETS - 1));
+        if(group == 0) {
+            return subBucket;
+        }
+        
+        return ((long) (SUB_BUCKETS + subBucket)) << (group - 1);
+    }
+    
+    /**
+     * Returns the highest value of the given bucket <code>index</code>.
+     *
+     * @param index
+     * @return
+     */
+    static long highestValue(final int index) {
+        return (index + 1 < BUCKETS ? lowestValue(index + 1) - 1 : MAX_VALUE);
+    }
+    
+    /**
+     * Records the given <code>value</code>.
+     *
+     * @param value
+     */
+    public final void record(final long value) {
+        mCounts.getAndIncrement(bucketIndex(value));
+        mTotal.add(value);
+        long maxValue = mMaxValue.get();
+        while(value > maxValue && !mMaxValue.compareAndSet(maxValue, value)) {
+            maxValue = mMaxValue.get();
+        }
+    }
+    
+    /**
+     * Adds all the values recorded by the <code>other</code> histogram into this histogram.
+     *
+     * @param other
+     */
+    public final void add(final LogHistogram other) {
+        for(int i = 0; i < BUCKETS; i++) {
+            final long count = other.mCounts.get(i);
+            if(count > 0) {
+                mCounts.getAndAdd(i, count);
+            }
+        }
+        mTotal.add(other.mTotal.sum());
+        final long otherMaxValue = other.mMaxValue.get();
+        long maxValue = mMaxValue.get();
+        while(otherMaxValue > maxValue && !mMaxValue.compareAndSet(maxValue, otherMaxValue)) {
+            maxValue = mMaxValue.get();
+        }
+    }
+    
+    /**
+     * Resets all the recorded values.
+     */
+    public final void reset() {
+        for(int i = 0; i < BUCKETS; i++) {
+            mCounts.set(i, 0);
+        }
+        mTotal.reset();
+        mMaxValue.set(0);
+    }
+    
+    /**
+     * Returns the snapshot of the recorded values. If <code>reset</code> is set to be true, the
+     * histogram is reset while the snapshot is taken.
+     *
+     * @param reset
+     * @return
+     */
+    public final Snapshot snapshot(final boolean reset) {
+        final long[] counts = new long[BUCKETS];
+        long count = 0;
+        for(int i = 0; i < BUCKETS; i++) {
+            counts[i] = (reset ? mCounts.getAndSet(i, 0) : mCounts.get(i));
+            count += counts[i];
+        }
+        
+        final long total = (reset ? mTotal.sumThenReset() : mTotal.sum());
+        final long maxValue = (reset ? mMaxValue.getAndSet(0) : mMaxValue.get());
+        return new Snapshot(counts, count, total, maxValue);
+    }
+    
+    /**
+     * Returns the snapshot of the recorded values.
+     *
+     * @return
+     */
+    public final Snapshot snapshot() {
+        return snapshot(false);
+    }
+    
+    /**
+     * An immutable copy of the histogram.
+     */
+    public static final class Snapshot {
+        
+        /** mCounts */
+        private final long[] mCounts;
+        
+        /** mCount */
+        private final long mCount;
+        
+        /** mTotal */
+        private final long mTotal;
+        
+        /** mMaxValue */
+        private final long mMaxValue;
+        
+        /**
+         * @param counts
+         * @param count
+         * @param total
+         * @param maxValue
+         */
+        private Snapshot(final long[] counts, final long count, final long total, final long maxValue) {
+            mCounts = counts;
+            mCount = count;
+            mTotal = total;
+            mMaxValue = maxValue;
+        }
+        
+        /**
+         * Returns the number of recorded values.
+         *
+         * @return
+         */
+        public final long getCount() {
+            return mCount;
+        }
+        
+        /**
+         * Returns the sum of the recorded values.
+         *
+         * @return
+         */
+        public final long getTotal() {
+            return mTotal;
+        }
+        
+        /**
+         * Returns the largest recorded value.
+         *
+         * @return
+         */
+        public final long getMaxValue() {
+            return mMaxValue;
+        }
+        
+        /**
+         * Returns the mean of the recorded values.
+         *
+         * @return
+         */
+        public final double getMean() {
+            return (mCount == 0 ? 0.0d : (double) mTotal / mCount);
+        }
+        
+        /**
+         * Returns the value at the given <code>percentile</code> (0.0 - 100.0). The returned value
+         * is the highest value of the bucket, which holds the percentile.
+         *
+         * @param percentile
+         * @return
+         */
+        public final long getValueAtPercentile(final double percentile) {
+            if(mCount == 0) {
+                return 0;
+            }
+            
+            final long rank = Math.max(1, (long) Math.ceil((Math.min(percentile, 100.0d) / 100.0d) * mCount));
+            long seen = 0;
+            for(int i = 0; i < mCounts.length; i++) {
+                seen += mCounts[i];
+                if(seen >= rank) {
+                    return Math.min(highestValue(i), mMaxValue);
+                }
+            }
+            
+            return mMaxValue;
+        }
+        
+        /**
+         * @return
+         */
+        @Override
+        public String toString() {
+            return "count=" + mCount + ", mean=" + Math.round(getMean()) + ", p50=" + getValueAtPercentile(50.0d) + ", p99=" + getValueAtPercentile(99.0d) + ", p99.9=" + getValueAtPercentile(99.9d) + ", max=" + mMaxValue;
+        }
+    }
+}
@@ -0,0 +1,475 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the logs folder within a disk quota in background. All the files of the logs folder are
+ * counted (the active files, the rolled segments, the crash dumps, the exports and the upload
+ * spool), but only the finished ones (the rolled and the sealed segments, the crash dumps and the
+ * exports) are evicted, oldest first, when the folder is over the <code>maxTotalBytes</code>, a
+ * file is older than the <code>maxAgeMillis</code> or the free space of the disk is below the
+ * <code>minFreeBytes</code>.
+ * <p>
+ * The usage is tracked incrementally: a folder is listed again only if its modification time
+ * changed (i.e. a file was added, renamed or deleted), otherwise only the sizes of the active
+ * files are refreshed. The files are deleted in batches of the <code>deleteBatchSize</code> on the
+ * janitor thread, never on the logging threads.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-20 05:58:12 AM
+ * @since 1.0.0
+ */
+public final class LogJanitor {
+    
+    /** LOG_TAG */
+    private static final String LOG_TAG = "LogJanitor";
+    
+    /** DEFAULT_DELETE_BATCH_SIZE */
+    public static final int DEFAULT_DELETE_BATCH_SIZE = 32;
+    
+    /** EVICTABLE_PATTERN - the finished segments, the crash dumps and the exports. */
+    private static final Pattern EVICTABLE_PATTERN = Pattern.compile(".+\\.((log|wal)\\.[-_0-9]+|crash|dmp|trace|zip|tar)(\\.gz)?");
+    
+    /** BACKUP_PATTERN - the base name and the index of a rolled backup. */
+    private static final Pattern BACKUP_PATTERN = Pattern.compile("(.+)\\.([0-9]+)(\\.gz)?");
+    
+    /** mLogsFolder */
+    private final File mLogsFolder;
+    
+    /** mFiles - the tracked files by their paths. */
+    private final Map<String, TrackedFile> mFiles = new HashMap<String, TrackedFile>();
+    
+    /** mFolders - the modification times of the listed folders by their paths. */
+    private final Map<String, Long> mFolders = new HashMap<String, Long>();
+    
+    /** mTotalBytes */
+    private long mTotalBytes;
+    
+    /** mMaxTotalBytes - 0, if there is no byte budget. */
+    private volatile long mMaxTotalBytes;
+    
+    /** mMaxAgeMillis - 0, if there is no maximum age. */
+    private volatile long mMaxAgeMillis;
+    
+    /** mMinFreeBytes - 0, if there is no free space floor. */
+    private volatile long mMinFreeBytes;
+    
+    /** mDeleteBatchSize */
+    private volatile int mDeleteBatchSize = DEFAULT_DELETE_BATCH_SIZE;
+    
+    /** mTimer */
+    private Timer mTimer;
+    
+    /**
+     * @param logsFolder
+     */
+    public LogJanitor(final File logsFolder) {
+        if(LogHelper.isNull(logsFolder)) {
+            throw new NullPointerException("The logsFolder should not be NULL!");
+        }
+        
+        mLogsFolder = logsFolder;
+    }
+    
+    /**
+     * The total bytes of the logs folder, 0 removes the budget.
+     *
+     * @param maxTotalBytes
+     */
+    public final void setMaxTotalBytes(final long maxTotalBytes) {
+        if(maxTotalBytes < 0) {
+            throw new IllegalArgumentException("Invalid Value! maxTotalBytes:" + maxTotalBytes);
+        }
+        
+        mMaxTotalBytes = maxTotalBytes;
+    }
+    
+    /**
+     * The maximum age of the finished files, 0 keeps them regardless of the age.
+     *
+     * @param maxAgeMillis
+     */
+    public final void setMaxAgeMillis(final long maxAgeMillis) {
+        if(maxAgeMillis < 0) {
+            throw new IllegalArgumentException("Invalid Value! maxAgeMillis:" + maxAgeMillis);
+        }
+        
+        mMaxAgeMillis = maxAgeMillis;
+    }
+    
+    /**
+     * The free space to be kept on the disk of the logs folder, 0 removes the floor.
+     *
+     * @param minFreeBytes
+     */
+    public final void setMinFreeBytes(final long minFreeBytes) {
+        if(minFreeBytes < 0) {
+            throw new IllegalArgumentException("Invalid Value! minFreeBytes:" + minFreeBytes);
+        }
+        
+        mMinFreeBytes = minFreeBytes;
+    }
+    
+    /**
+     * The <code>mDeleteBatchSize</code> to be set.
+     *
+     * @param deleteBatchSize
+     */
+    public final void setDeleteBatchSize(final int deleteBatchSize) {
+        if(deleteBatchSize <= 0) {
+            throw new IllegalArgumentException("Invalid Value! deleteBatchSize:" + deleteBatchSize);
+        }
+        
+        mDeleteBatchSize = deleteBatchSize;
+    }
+    
+    /**
+     * Returns the bytes of the logs folder, as of the last clean up.
+     *
+     * @return
+     */
+    public final synchronized long getTotalBytes() {
+        return mTotalBytes;
+    }
+    
+    /**
+     * Starts cleaning up the logs folder every <code>periodMillis</code>.
+     *
+     * @param periodMillis
+     */
+    public final synchronized void start(final long periodMillis) {
+        if(periodMillis <= 0) {
+            throw new IllegalArgumentException("Invalid Value! periodMillis:" + periodMillis);
+        }
+        
+        stop();
+        mTimer = new Timer(LOG_TAG, true);
+        mTimer.schedule(new TimerTask() {
+            @Override
+            public void run() {
+                clean();
+            }
+        }, 0, periodMillis);
+    }
+    
+    /**
+     * Stops cleaning up the logs folder.
+     */
+    public final synchronized void stop() {
+        if(LogHelper.isNotNull(mTimer)) {
+            mTimer.cancel();
+            mTimer = null;
+        }
+    }
+    
+    /**
+     * Evicts the finished files over the quota.
+     *
+     * @return the number of the deleted files.
+     */
+    public final int clean() {
+        return clean(System.currentTimeMillis(), mLogsFolder.getUsableSpace());
+    }
+    
+    /**
+     * Evicts the finished files older than the <code>maxAgeMillis</code> at the
+     * <code>nowMillis</code> and then the oldest ones, until the logs folder fits the
+     * <code>maxTotalBytes</code> and the <code>usableBytes</code> of the disk reach the
+     * <code>minFreeBytes</code>.
+     *
+     * @param nowMillis
+     * @param usableBytes
+     * @return the number of the deleted files.
+     */
+    final synchronized int clean(final long nowMillis, final long usableBytes) {
+        refresh(mLogsFolder);
+        
+        final List<TrackedFile> evictables = new ArrayList<TrackedFile>();
+        for(TrackedFile trackedFile : mFiles.values()) {
+            if(trackedFile.mEvictable) {
+                evictables.add(trackedFile);
+            }
+        }
+        Collections.sort(evictables, new Comparator<TrackedFile>() {
+            @Override
+            public int compare(final TrackedFile left, final TrackedFile right) {
+                if(left.mLastModified != right.mLastModified) {
+                    return (left.mLastModified < right.mLastModified ? -1 : 1);
+                }
+                // the higher index of the backups of the same file is the older one.
+                if(LogHelper.isNotNull(left.mBaseName) && left.mBaseName.equals(right.mBaseName) && left.mIndex != right.mIndex) {
+                    return (left.mIndex > right.mIndex ? -1 : 1);
+                }
+                return left.mFile.getName().compareTo(right.mFile.getName());
+            }
+        });
+        orderSealedSegments(evictables);
+        
+        final long maxTotalBytes = mMaxTotalBytes;
+        final long maxAgeMillis = mMaxAgeMillis;
+        final long minFreeBytes = mMinFreeBytes;
+        final List<TrackedFile> victims = new ArrayList<TrackedFile>();
+        long totalBytes = mTotalBytes;
+        long freeBytes = usableBytes;
+        for(TrackedFile trackedFile : evictables) {
+            final boolean expired = (maxAgeMillis > 0 && trackedFile.mLastModified < nowMillis - maxAgeMillis);
+            final boolean overBudget = (maxTotalBytes > 0 && totalBytes > maxTotalBytes);
+            final boolean lowOnSpace = (minFreeBytes > 0 && freeBytes < minFreeBytes);
+            if(!expired && !overBudget && !lowOnSpace) {
+                break;
+            }
+            victims.add(trackedFile);
+            totalBytes -= trackedFile.mLength;
+            freeBytes += trackedFile.mLength;
+        }
+        
+        int deleted = 0;
+        for(int start = 0; start < victims.size(); start += mDeleteBatchSize) {
+            if(start > 0) {
+                // lets the logging threads at the disk between the batches.
+                Thread.yield();
+            }
+            for(TrackedFile trackedFile : victims.subList(start, Math.min(start + mDeleteBatchSize, victims.size()))) {
+                if(trackedFile.mFile.delete() || !trackedFile.mFile.exists()) {
+                    mFiles.remove(trackedFile.mFile.getPath());
+                    mTotalBytes -= trackedFile.mLength;
+                    deleted++;
+                } else {
+                    Log.w(LOG_TAG, "Unable to delete:" + trackedFile.mFile);
+                }
+            }
+        }
+        
+        if(deleted > 0) {
+            Log.i(LOG_TAG, "Deleted " + deleted + " files, " + mTotalBytes + " bytes are left in:" + mLogsFolder);
+        }
+        return deleted;
+    }
+    
+    /**
+     * Puts the sealed segments of each <code>SegmentManifest</code> of the logs folder in their
+     * sequence order, oldest first, within the places they take in the given
+     * <code>evictables</code>. Their numeric suffix is the sequence, so the higher one is the newer
+     * segment, unlike the rolled backups, and their modification times may be skewed across the
+     * processes. The other files keep their modification time order.
+     *
+     * @param evictables
+     */
+    private void orderSealedSegments(final List<TrackedFile> evictables) {
+        for(TrackedFile manifestFile : mFiles.values()) {
+            if(manifestFile.mEvictable || !manifestFile.mFile.getName().endsWith(SegmentManifest.MANIFEST_SUFFIX) || !mLogsFolder.equals(manifestFile.mFile.getParentFile())) {
+                continue;
+            }
+            
+            final Map<String, Integer> sequences = new HashMap<String, Integer>();
+            try {
+                for(File segmentFile : new SegmentManifest(manifestFile.mFile).getSegments()) {
+                    sequences.put(segmentFile.getName(), sequences.size());
+                }
+            } catch(IOException ex) {
+                Log.w(LOG_TAG, "Unable to read:" + manifestFile.mFile, ex);
+                continue;
+            }
+            
+            final List<Integer> places = new ArrayList<Integer>();
+            final List<TrackedFile> segments = new ArrayList<TrackedFile>();
+            for(int i = 0; i < evictables.size(); i++) {
+                if(sequences.containsKey(evictables.get(i).mFile.getName())) {
+                    places.add(i);
+                    segments.add(evictables.get(i));
+                }
+            }
+            Collections.sort(segments, new Comparator<TrackedFile>() {
+                @Override
+                public int compare(final TrackedFile left, final TrackedFile right) {
+                    return sequences.get(left.mFile.getName()).compareTo(sequences.get(right.mFile.getName()));
+                }
+            });
+            for(int i = 0; i < places.size(); i++) {
+                evictables.set(places.get(i), segments.get(i));
+            }
+        }
+    }
+    
+    /**
+     * Brings the tracked files of the given <code>folder</code> up to date. The folder is listed
+     * again only if it's changed, otherwise the sizes of its active files are refreshed.
+     *
+     * @param folder
+     */
+    private void refresh(final File folder) {
+        final String folderPath = folder.getPath();
+        final long folderModified = folder.lastModified();
+        final Long lastModified = mFolders.get(folderPath);
+        if(LogHelper.isNotNull(lastModified) && lastModified.longValue() == folderModified && folderModified != 0) {
+            for(TrackedFile trackedFile : mFiles.values()) {
+                if(!trackedFile.mEvictable && folder.equals(trackedFile.mFile.getParentFile())) {
+                    update(trackedFile);
+                }
+            }
+            for(String path : new ArrayList<String>(mFolders.keySet())) {
+                final File subFolder = new File(path);
+                if(folder.equals(subFolder.getParentFile())) {
+                    refresh(subFolder);
+                }
+            }
+            return;
+        }
+        
+        mFolders.put(folderPath, folderModified);
+        final Set<String> listed = new HashSet<String>();
+        final File[] files = folder.listFiles();
+        if(LogHelper.isNotNull(files)) {
+            for(File file : files) {
+                listed.add(file.getPath());
+                if(file.isDirectory()) {
+                    refresh(file);
+                } else {
+                    TrackedFile trackedFile = mFiles.get(file.getPath());
+                    if(LogHelper.isNull(trackedFile)) {
+                        trackedFile = new TrackedFile(file, (folder.equals(mLogsFolder) && EVICTABLE_PATTERN.matcher(file.getName()).matches()));
+                        mFiles.put(file.getPath(), trackedFile);
+                    }
+                    update(trackedFile);
+                }
+            }
+        }
+        
+        // forgets the files and the folders, which are gone.
+        final String prefix = folderPath + File.separator;
+        for(Iterator<Map.Entry<String, TrackedFile>> iterator = mFiles.entrySet().iterator(); iterator.hasNext(); ) {
+            final Map.Entry<String, TrackedFile> entry = iterator.next();
+            if(entry.getValue().mFile.getParentFile().equals(folder) && !listed.contains(entry.getKey())) {
+                mTotalBytes -= entry.getValue().mLength;
+                iterator.remove();
+            }
+        }
+        for(Iterator<String> iterator = mFolders.keySet().iterator(); iterator.hasNext(); ) {
+            final String path = iterator.next();
+            if(path.startsWith(prefix) && path.indexOf(File.separatorChar, prefix.length()) < 0 && !listed.contains(path)) {
+                iterator.remove();
+                forget(path);
+            }
+        }
+    }
+    
+    /**
+     * Forgets the tracked files under the deleted folder.
+     *
+     * @param folderPath
+     */
+    private void forget(final String folderPath) {
+        final String prefix = folderPath + File.separator;
+        for(Iterator<Map.Entry<String, TrackedFile>> iterator = mFiles.entrySet().iterator(); iterator.hasNext(); ) {
+            final Map.Entry<String, TrackedFile> entry = iterator.next();
+            if(entry.getKey().startsWith(prefix)) {
+                mTotalBytes -= entry.getValue().mLength;
+                iterator.remove();
+            }
+        }
+        for(Iterator<String> iterator = mFolders.keySet().iterator(); iterator.hasNext(); ) {
+            if(iterator.next().startsWith(prefix)) {
+                iterator.remove();
+            }
+        }
+    }
+    
+    /**
+     * Refreshes the size and the modification time of the tracked file.
+     *
+     * @param trackedFile
+     */
+    private void update(final TrackedFile trackedFile) {
+        final long length = trackedFile.mFile.length();
+        mTotalBytes += length - trackedFile.mLength;
+        trackedFile.mLength = length;
+        trackedFile.mLastModified = trackedFile.mFile.lastModified();
+    }
+    
+    /**
+     * A file of the logs folder, as of the last refresh.
+     */
+    private static final class TrackedFile {
+        
+        /** mFile */
+        private final File mFile;
+        
+        /** mEvictable */
+        private final boolean mEvictable;
+        
+        /** mBaseName - the name of the file a rolled backup belongs to, null for the others. */
+        private final String mBaseName;
+        
+        /** mIndex - the index of a rolled backup. */
+        private final long mIndex;
+        
+        /** mLength */
+        private long mLength;
+        
+        /** mLastModified */
+        private long mLastModified;
+        
+        /**
+         * @param file
+         * @param evictable
+         */
+        private TrackedFile(final File file, final boolean evictable) {
+            mFile = file;
+            mEvictable = evictable;
+            final Matcher matcher = BACKUP_PATTERN.matcher(file.getName());
+            if(matcher.matches() && matcher.group(2).length() < 18) {
+                mBaseName = matcher.group(1);
+                mIndex = Long.parseLong(matcher.group(2));
+            } else {
+                mBaseName = null;
+                mIndex = 0;
+            }
+        }
+    }
+}
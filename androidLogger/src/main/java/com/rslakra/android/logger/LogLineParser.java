@@ -0,0 +1,154 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses the timestamp and the sequence number (printed by the <code>%X{seq}</code>) of the log
+ * lines written with a conversion pattern, which starts with the date (e.g. the
+ * <code>LogHelper.LOG_PATTERN</code>). It's not thread-safe.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-20 03:52:19 AM
+ * @since 1.0.0
+ */
+final class LogLineParser {
+    
+    /** DATE_PATTERN - the date conversion of the log pattern. */
+    private static final Pattern DATE_PATTERN = Pattern.compile("%[-.0-9]*d(\\{([^}]*)\\})?");
+    
+    /** CONVERSION_PATTERN - any conversion of the log pattern. */
+    private static final Pattern CONVERSION_PATTERN = Pattern.compile("%[-.0-9]*[a-zA-Z%](\\{[^}]*\\})?");
+    
+    /** SEQUENCE_PATTERN - the sequence conversion of the log pattern. */
+    private static final Pattern SEQUENCE_PATTERN = Pattern.compile("%[-.0-9]*X\\{" + QueuedAppender.SEQUENCE_KEY + "\\}");
+    
+    /** ISO8601_FORMAT - the format of the <code>%d</code> and the <code>%d{ISO8601}</code>. */
+    private static final String ISO8601_FORMAT = "yyyy-MM-dd HH:mm:ss,SSS";
+    
+    /** NO_SEQUENCE */
+    public static final long NO_SEQUENCE = -1L;
+    
+    /** mDateFormat */
+    private final SimpleDateFormat mDateFormat;
+    
+    /** mDateOffset - the length of the literal prefix before the date. */
+    private final int mDateOffset;
+    
+    /** mSequencePrefix - the literal before the sequence number, null if it's not printed. */
+    private final String mSequencePrefix;
+    
+    /**
+     * @param logPattern
+     */
+    LogLineParser(final String logPattern) {
+        if(LogHelper.isNullOrEmpty(logPattern)) {
+            throw new IllegalArgumentException("logPattern is either NULL or EMPTY!");
+        }
+        
+        final Matcher dateMatcher = DATE_PATTERN.matcher(logPattern);
+        if(!dateMatcher.find() || logPattern.substring(0, dateMatcher.start()).indexOf('%') >= 0) {
+            throw new IllegalArgumentException("The logPattern must start with a date! logPattern:" + logPattern);
+        }
+        String dateFormat = dateMatcher.group(2);
+        if(LogHelper.isNullOrEmpty(dateFormat) || "ISO8601".equals(dateFormat)) {
+            dateFormat = ISO8601_FORMAT;
+        } else if("ABSOLUTE".equals(dateFormat)) {
+            dateFormat = "HH:mm:ss,SSS";
+        } else if("DATE".equals(dateFormat)) {
+            dateFormat = "dd MMM yyyy HH:mm:ss,SSS";
+        }
+        mDateFormat = new SimpleDateFormat(dateFormat);
+        mDateFormat.setLenient(false);
+        mDateOffset = dateMatcher.start();
+        
+        // the literal between the sequence and the conversion before it locates the sequence.
+        String sequencePrefix = null;
+        int literalStart = 0;
+        final Matcher conversionMatcher = CONVERSION_PATTERN.matcher(logPattern);
+        while(conversionMatcher.find()) {
+            if(SEQUENCE_PATTERN.matcher(conversionMatcher.group()).matches()) {
+                sequencePrefix = logPattern.substring(literalStart, conversionMatcher.start());
+                break;
+            }
+            literalStart = conversionMatcher.end();
+        }
+        mSequencePrefix = (LogHelper.isNullOrEmpty(sequencePrefix) ? null : sequencePrefix);
+    }
+    
+    /**
+     * Returns the timestamp of the given <code>line</code> or <code>Long.MIN_VALUE</code>, if it
+     * doesn't start with one.
+     *
+     * @param line
+     * @return
+     */
+    final long parseTimestamp(final String line) {
+        if(line.length() <= mDateOffset) {
+            return Long.MIN_VALUE;
+        }
+        
+        final ParsePosition parsePosition = new ParsePosition(mDateOffset);
+        final Date date = mDateFormat.parse(line, parsePosition);
+        return (LogHelper.isNull(date) ? Long.MIN_VALUE : date.getTime());
+    }
+    
+    /**
+     * Returns the sequence number printed in the given <code>line</code>, if any.
+     *
+     * @param line
+     * @return
+     */
+    final long parseSequence(final String line) {
+        if(LogHelper.isNull(mSequencePrefix)) {
+            return NO_SEQUENCE;
+        }
+        
+        final int start = line.indexOf(mSequencePrefix);
+        if(start < 0) {
+            return NO_SEQUENCE;
+        }
+        
+        long sequence = 0;
+        int index = start + mSequencePrefix.length();
+        final int digitsStart = index;
+        while(index < line.length() && Character.isDigit(line.charAt(index)) && index - digitsStart < 18) {
+            sequence = sequence * 10 + (line.charAt(index++) - '0');
+        }
+        
+        return (index == digitsStart ? NO_SEQUENCE : sequence);
+    }
+}
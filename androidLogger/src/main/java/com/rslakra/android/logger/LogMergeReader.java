@@ -0,0 +1,465 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * This class merges the log segments of all the processes, the threads and the rolled files into
+ * one chronological stream of the <code>LogEntry</code>s.
+ * <p>
+ * Each segment is read sequentially and only its next entry is held in memory, the entries are
+ * merged with a heap on their timestamp and then the sequence number (printed by the
+ * <code>%X{seq}</code>), so the memory used depends on the number of the segments, not their
+ * size. The plain, the rolled (<code>.1</code>, <code>.2026-10-19</code>), the compressed
+ * (<code>.gz</code>) and the <code>WalAppender</code> segments are supported. The lines, which
+ * don't start with a timestamp (e.g. the stack traces), belong to the entry before them.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-20 03:07:45 AM
+ * @since 1.0.0
+ */
+public final class LogMergeReader implements Iterator<LogMergeReader.LogEntry>, Closeable {
+    
+    /** LOG_TAG */
+    private static final String LOG_TAG = "LogMergeReader";
+    
+    /** UTF_8 */
+    private static final Charset UTF_8 = Charset.forName(Utf8StreamWriter.UTF_8);
+    
+    /** SEGMENT_PATTERN - the log files, optionally rolled and/or compressed. */
+    private static final Pattern SEGMENT_PATTERN = Pattern.compile(".+\\.(log|wal)(\\.[-_0-9]+)?(\\.gz)?");
+    
+    /** NO_SEQUENCE */
+    public static final long NO_SEQUENCE = LogLineParser.NO_SEQUENCE;
+    
+    /** CHUNK_SIZE - the records of the compressed segments are read in chunks of this size. */
+    private static final int CHUNK_SIZE = 64 * 1024;
+    
+    /** mLineParser */
+    private final LogLineParser mLineParser;
+    
+    /** mCursors */
+    private final PriorityQueue<Cursor> mCursors;
+    
+    /** mOpenCursors */
+    private final List<Cursor> mOpenCursors = new ArrayList<Cursor>();
+    
+    /**
+     * Opens the given <code>segmentFiles</code> written with the given <code>logPattern</code>.
+     *
+     * @param segmentFiles
+     * @param logPattern
+     */
+    public LogMergeReader(final List<File> segmentFiles, final String logPattern) {
+        if(LogHelper.isNull(segmentFiles)) {
+            throw new NullPointerException("The segmentFiles should not be NULL!");
+        }
+        if(LogHelper.isNullOrEmpty(logPattern)) {
+            throw new IllegalArgumentException("logPattern is either NULL or EMPTY!");
+        }
+        
+        mLineParser = new LogLineParser(logPattern);
+        mCursors = new PriorityQueue<Cursor>(Math.max(1, segmentFiles.size()), new Comparator<Cursor>() {
+            @Override
+            public int compare(final Cursor left, final Cursor right) {
+                if(left.mEntry.mTimestamp != right.mEntry.mTimestamp) {
+                    return (left.mEntry.mTimestamp < right.mEntry.mTimestamp ? -1 : 1);
+                }
+                if(left.mEntry.mSequence != right.mEntry.mSequence) {
+                    return (left.mEntry.mSequence < right.mEntry.mSequence ? -1 : 1);
+                }
+                
+                return (left.mIndex < right.mIndex ? -1 : (left.mIndex == right.mIndex ? 0 : 1));
+            }
+        });
+        
+        for(File segmentFile : segmentFiles) {
+            try {
+                final Cursor cursor = new Cursor(segmentFile, mOpenCursors.size());
+                mOpenCursors.add(cursor);
+                if(cursor.advance()) {
+                    mCursors.offer(cursor);
+                }
+            } catch(IOException ex) {
+                Log.w(LOG_TAG, "Unable to read the segment:" + segmentFile, ex);
+            }
+        }
+    }
+    
+    /**
+     * Opens all the segments of the given <code>logsFolder</code>.
+     *
+     * @param logsFolder
+     * @param logPattern
+     * @return
+     */
+    public static LogMergeReader open(final File logsFolder, final String logPattern) {
+        return new LogMergeReader(getSegmentFiles(logsFolder), logPattern);
+    }
+    
+    /**
+     * Returns the log segments of the given <code>logsFolder</code> sorted by their names.
+     *
+     * @param logsFolder
+     * @return
+     */
+    public static List<File> getSegmentFiles(final File logsFolder) {
+        final List<File> segmentFiles = new ArrayList<File>();
+        final File[] files = (LogHelper.isNull(logsFolder) ? null : logsFolder.listFiles());
+        if(LogHelper.isNotNull(files)) {
+            Arrays.sort(files);
+            for(File file : files) {
+                if(file.isFile() && SEGMENT_PATTERN.matcher(file.getName()).matches()) {
+                    segmentFiles.add(file);
+                }
+            }
+        }
+        
+        return segmentFiles;
+    }
+    
+    /**
+     * Returns true, if there are more entries.
+     *
+     * @return
+     */
+    @Override
+    public boolean hasNext() {
+        return !mCursors.isEmpty();
+    }
+    
+    /**
+     * Returns the oldest entry of all the segments.
+     *
+     * @return
+     */
+    @Override
+    public LogEntry next() {
+        final Cursor cursor = mCursors.poll();
+        if(LogHelper.isNull(cursor)) {
+            throw new NoSuchElementException();
+        }
+        
+        final LogEntry logEntry = cursor.mEntry;
+        try {
+            if(cursor.advance()) {
+                mCursors.offer(cursor);
+            }
+        } catch(IOException ex) {
+            Log.w(LOG_TAG, "Unable to read the segment:" + cursor.mFile, ex);
+            cursor.close();
+        }
+        
+        return logEntry;
+    }
+    
+    /**
+     * Not supported.
+     */
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+    
+    /**
+     * Closes all the segments.
+     */
+    @Override
+    public void close() {
+        mCursors.clear();
+        for(Cursor cursor : mOpenCursors) {
+            cursor.close();
+        }
+    }
+    
+    /**
+     * One event of a segment.
+     */
+    public static final class LogEntry {
+        
+        /** mTimestamp */
+        private final long mTimestamp;
+        
+        /** mSequence */
+        private final long mSequence;
+        
+        /** mText - all the lines of the event, without the last line separator. */
+        private final String mText;
+        
+        /** mSegmentFile */
+        private final File mSegmentFile;
+        
+        /**
+         * @param timestamp
+         * @param sequence
+         * @param text
+         * @param segmentFile
+         */
+        LogEntry(final long timestamp, final long sequence, final String text, final File segmentFile) {
+            mTimestamp = timestamp;
+            mSequence = sequence;
+            mText = text;
+            mSegmentFile = segmentFile;
+        }
+        
+        /**
+         * Returns the <code>mTimestamp</code> value, <code>Long.MIN_VALUE</code> for the lines
+         * before the first timestamp of a segment.
+         *
+         * @return
+         */
+        public final long getTimestamp() {
+            return mTimestamp;
+        }
+        
+        /**
+         * Returns the <code>mSequence</code> value or the <code>NO_SEQUENCE</code>.
+         *
+         * @return
+         */
+        public final long getSequence() {
+            return mSequence;
+        }
+        
+        /**
+         * Returns the <code>mText</code> value.
+         *
+         * @return
+         */
+        public final String getText() {
+            return mText;
+        }
+        
+        /**
+         * Returns the <code>mSegmentFile</code> value.
+         *
+         * @return
+         */
+        public final File getSegmentFile() {
+            return mSegmentFile;
+        }
+        
+        /**
+         * @return
+         */
+        @Override
+        public String toString() {
+            return mText;
+        }
+    }
+    
+    /**
+     * The read position in one segment.
+     */
+    private final class Cursor {
+        
+        /** mFile */
+        private final File mFile;
+        
+        /** mIndex - the order of the segment, which breaks the ties. */
+        private final int mIndex;
+        
+        /** mReader - the reader of the text segments. */
+        private final BufferedReader mReader;
+        
+        /** mDataStream - the stream of the <code>WalAppender</code> segments. */
+        private final DataInputStream mDataStream;
+        
+        /** mRemaining - the bytes left in the segment, the Long.MAX_VALUE if it is compressed. */
+        private long mRemaining;
+        
+        /** mNextLine - the first line of the next entry, already read. */
+        private String mNextLine;
+        
+        /** mEntry - the current entry. */
+        private LogEntry mEntry;
+        
+        /**
+         * @param file
+         * @param index
+         * @throws IOException
+         */
+        private Cursor(final File file, final int index) throws IOException {
+            mFile = file;
+            mIndex = index;
+            mRemaining = file.length();
+            InputStream inputStream = new BufferedInputStream(new FileInputStream(file));
+            try {
+                String fileName = file.getName();
+                if(fileName.endsWith(".gz")) {
+                    inputStream = new GZIPInputStream(inputStream);
+                    fileName = fileName.substring(0, fileName.length() - ".gz".length());
+                    mRemaining = Long.MAX_VALUE;
+                }
+                if(fileName.endsWith(Log4JConfigurator.WAL_FILE_SUFFIX) || fileName.matches(".*\\" + Log4JConfigurator.WAL_FILE_SUFFIX + "\\.[0-9]+")) {
+                    mDataStream = new DataInputStream(inputStream);
+                    mReader = null;
+                } else {
+                    mDataStream = null;
+                    mReader = new BufferedReader(new InputStreamReader(inputStream, UTF_8));
+                    mNextLine = mReader.readLine();
+                }
+            } catch(IOException ex) {
+                LogHelper.closeSilently(inputStream);
+                throw ex;
+            }
+        }
+        
+        /**
+         * Reads the next entry of the segment.
+         *
+         * @return false, if the segment has no more entries.
+         * @throws IOException
+         */
+        private boolean advance() throws IOException {
+            mEntry = (LogHelper.isNull(mReader) ? readRecord() : readLines());
+            if(LogHelper.isNull(mEntry)) {
+                close();
+                return false;
+            }
+            
+            return true;
+        }
+        
+        /**
+         * Reads the lines of the next entry of a text segment.
+         *
+         * @return
+         * @throws IOException
+         */
+        private LogEntry readLines() throws IOException {
+            if(LogHelper.isNull(mNextLine)) {
+                return null;
+            }
+            
+            final String firstLine = mNextLine;
+            final StringBuilder textBuilder = new StringBuilder(firstLine);
+            while(LogHelper.isNotNull(mNextLine = mReader.readLine()) && mLineParser.parseTimestamp(mNextLine) == Long.MIN_VALUE) {
+                textBuilder.append('\n').append(mNextLine);
+            }
+            
+            return new LogEntry(mLineParser.parseTimestamp(firstLine), mLineParser.parseSequence(firstLine), textBuilder.toString(), mFile);
+        }
+        
+        /**
+         * Reads the next valid record of a <code>WalAppender</code> segment. A record longer than
+         * the rest of the segment ends it, so a damaged length is never allocated.
+         *
+         * @return
+         * @throws IOException
+         */
+        private LogEntry readRecord() throws IOException {
+            try {
+                final int length = mDataStream.readInt();
+                final int checksum = mDataStream.readInt();
+                //the records are never empty, a zero length is the unwritten space of the segment.
+                if(length <= 0 || length > mRemaining - WalAppender.HEADER_SIZE) {
+                    return null;
+                }
+                
+                final byte[] payload = readPayload(length);
+                if(mRemaining != Long.MAX_VALUE) {
+                    mRemaining -= WalAppender.HEADER_SIZE + length;
+                }
+                if(Crc32c.checksum(payload, 0, length) != checksum) {
+                    return null;
+                }
+                
+                String text = new String(payload, UTF_8);
+                while(text.endsWith("\n") || text.endsWith("\r")) {
+                    text = text.substring(0, text.length() - 1);
+                }
+                return new LogEntry(mLineParser.parseTimestamp(text), mLineParser.parseSequence(text), text, mFile);
+            } catch(EOFException ex) {
+                return null;
+            }
+        }
+        
+        /**
+         * Reads the payload of the given <code>length</code>. The payload of a compressed segment,
+         * whose size isn't known, is read in chunks, so a damaged length hits the end of the
+         * segment before allocating it.
+         *
+         * @param length
+         * @return
+         * @throws IOException
+         */
+        private byte[] readPayload(final int length) throws IOException {
+            if(mRemaining != Long.MAX_VALUE || length <= CHUNK_SIZE) {
+                final byte[] payload = new byte[length];
+                mDataStream.readFully(payload);
+                return payload;
+            }
+            
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(CHUNK_SIZE);
+            final byte[] chunk = new byte[CHUNK_SIZE];
+            while(outputStream.size() < length) {
+                final int read = mDataStream.read(chunk, 0, Math.min(CHUNK_SIZE, length - outputStream.size()));
+                if(read < 0) {
+                    throw new EOFException();
+                }
+                outputStream.write(chunk, 0, read);
+            }
+            
+            return outputStream.toByteArray();
+        }
+        
+        /**
+         * Closes the segment.
+         */
+        private void close() {
+            LogHelper.closeSilently(mReader, mDataStream);
+        }
+    }
+}
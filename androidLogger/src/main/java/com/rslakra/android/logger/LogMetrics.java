@@ -0,0 +1,707 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class handles the built-in metrics of the logging itself.
+ * <p>
+ * It counts the events per <code>LogType</code> and per tag, the bytes written per appender, the
+ * time spent in the caller and in each appender (as log-linear histograms in nanoseconds) and the
+ * depth, the lag and the dropped (per <code>LogType</code>) and spilled events of the queues. The metrics are read through the
+ * <code>snapshot()</code> and can optionally be logged every N seconds.
+ * <p>
+ * Recording never allocates, except when a tag, an appender or a queue is seen for the first
+ * time. At most <code>MAX_TAGS</code> tags are tracked, the rest are counted under
+ * <code>OTHER_TAGS</code>.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 10:32:40 AM
+ * @since 1.0.0
+ */
+public final class LogMetrics {
+    
+    /** LOG_TAG */
+    private static final String LOG_TAG = "LogMetrics";
+    
+    /** MAX_TAGS */
+    public static final int MAX_TAGS = 128;
+    
+    /** OTHER_TAGS */
+    public static final String OTHER_TAGS = "*";
+    
+    /** LOG_TYPES */
+    private static final LogType[] LOG_TYPES = LogType.values();
+    
+    /** mEnabled */
+    private volatile boolean mEnabled;
+    
+    /** mLogTypeEvents - indexed by <code>LogType.ordinal()</code>. */
+    private final StripedCounter[] mLogTypeEvents = new StripedCounter[LOG_TYPES.length];
+    
+    /** mTagEvents */
+    private final ConcurrentHashMap<String, StripedCounter> mTagEvents = new ConcurrentHashMap<String, StripedCounter>();
+    
+    /** mCallerTimes */
+    private final LogHistogram mCallerTimes = new LogHistogram();
+    
+    /** mAppenderMetrics */
+    private final ConcurrentHashMap<String, AppenderMetrics> mAppenderMetrics = new ConcurrentHashMap<String, AppenderMetrics>();
+    
+    /** mQueueMetrics */
+    private final ConcurrentHashMap<String, QueueMetrics> mQueueMetrics = new ConcurrentHashMap<String, QueueMetrics>();
+    
+    /** mReportTimer */
+    private Timer mReportTimer;
+    
+    /**
+     * Default Constructor.
+     */
+    public LogMetrics() {
+        for(int i = 0; i < mLogTypeEvents.length; i++) {
+            mLogTypeEvents[i] = new StripedCounter();
+        }
+    }
+    
+    /**
+     * Returns the <code>mEnabled</code> value.
+     *
+     * @return
+     */
+    public final boolean isEnabled() {
+        return mEnabled;
+    }
+    
+    /**
+     * The <code>mEnabled</code> to be set.
+     *
+     * @param enabled
+     */
+    public final void setEnabled(final boolean enabled) {
+        mEnabled = enabled;
+    }
+    
+    /**
+     * Records the event of the given <code>logType</code> and <code>logTag</code>, which took
+     * <code>callerNanos</code> nanoseconds in the caller.
+     *
+     * @param logType
+     * @param logTag
+     * @param callerNanos
+     */
+    public final void recordEvent(final LogType logType, final String logTag, final long callerNanos) {
+        mLogTypeEvents[logType.ordinal()].increment();
+        getTagCounter(logTag).increment();
+        mCallerTimes.record(callerNanos);
+    }
+    
+    /**
+     * Returns the counter of the given <code>logTag</code>.
+     *
+     * @param logTag
+     * @return
+     */
+    private StripedCounter getTagCounter(final String logTag) {
+        final String tagKey = (LogHelper.isNull(logTag) ? OTHER_TAGS : logTag);
+        StripedCounter tagCounter = mTagEvents.get(tagKey);
+        if(LogHelper.isNull(tagCounter)) {
+            if(mTagEvents.size() >= MAX_TAGS) {
+                tagCounter = mTagEvents.get(OTHER_TAGS);
+                if(LogHelper.isNotNull(tagCounter)) {
+                    return tagCounter;
+                }
+                return putIfAbsent(mTagEvents, OTHER_TAGS, new StripedCounter());
+            }
+            tagCounter = putIfAbsent(mTagEvents, tagKey, new StripedCounter());
+        }
+        
+        return tagCounter;
+    }
+    
+    /**
+     * Returns the metrics of the given <code>appenderName</code> appender.
+     *
+     * @param appenderName
+     * @return
+     */
+    public final AppenderMetrics getAppenderMetrics(final String appenderName) {
+        final AppenderMetrics appenderMetrics = mAppenderMetrics.get(appenderName);
+        return (LogHelper.isNull(appenderMetrics) ? putIfAbsent(mAppenderMetrics, appenderName, new AppenderMetrics()) : appenderMetrics);
+    }
+    
+    /**
+     * Returns the metrics of the given <code>queueName</code> queue.
+     *
+     * @param queueName
+     * @return
+     */
+    public final QueueMetrics getQueueMetrics(final String queueName) {
+        final QueueMetrics queueMetrics = mQueueMetrics.get(queueName);
+        return (LogHelper.isNull(queueMetrics) ? putIfAbsent(mQueueMetrics, queueName, new QueueMetrics()) : queueMetrics);
+    }
+    
+    /**
+     * Puts the <code>value</code>, if the <code>key</code> is not mapped yet and returns the
+     * mapped value.
+     *
+     * @param map
+     * @param key
+     * @param value
+     * @return
+     */
+    private static <V> V putIfAbsent(final ConcurrentHashMap<String, V> map, final String key, final V value) {
+        final V oldValue = map.putIfAbsent(key, value);
+        return (LogHelper.isNull(oldValue) ? value : oldValue);
+    }
+    
+    /**
+     * Resets all the metrics.
+     */
+    public final void reset() {
+        for(StripedCounter logTypeEvents : mLogTypeEvents) {
+            logTypeEvents.reset();
+        }
+        mTagEvents.clear();
+        mCallerTimes.reset();
+        for(AppenderMetrics appenderMetrics : mAppenderMetrics.values()) {
+            appenderMetrics.reset();
+        }
+        for(QueueMetrics queueMetrics : mQueueMetrics.values()) {
+            queueMetrics.mDropped.reset();
+            for(int i = 0; i < LOG_TYPES.length; i++) {
+                queueMetrics.mLogTypeDropped.set(i, 0);
+            }
+            queueMetrics.mSpilled.reset();
+            queueMetrics.mLags.reset();
+        }
+    }
+    
+    /**
+     * Returns the snapshot of all the metrics.
+     *
+     * @return
+     */
+    public final Snapshot snapshot() {
+        final Map<LogType, Long> logTypeEvents = new LinkedHashMap<LogType, Long>();
+        for(int i = 0; i < LOG_TYPES.length; i++) {
+            logTypeEvents.put(LOG_TYPES[i], mLogTypeEvents[i].sum());
+        }
+        
+        final Map<String, Long> tagEvents = new LinkedHashMap<String, Long>();
+        for(Map.Entry<String, StripedCounter> entry : mTagEvents.entrySet()) {
+            tagEvents.put(entry.getKey(), entry.getValue().sum());
+        }
+        
+        final Map<String, AppenderSnapshot> appenders = new LinkedHashMap<String, AppenderSnapshot>();
+        for(Map.Entry<String, AppenderMetrics> entry : mAppenderMetrics.entrySet()) {
+            final AppenderMetrics appenderMetrics = entry.getValue();
+            appenders.put(entry.getKey(), new AppenderSnapshot(appenderMetrics.mEvents.sum(), appenderMetrics.mBytes.sum(), appenderMetrics.mAppendTimes.snapshot()));
+        }
+        
+        final Map<String, QueueSnapshot> queues = new LinkedHashMap<String, QueueSnapshot>();
+        for(Map.Entry<String, QueueMetrics> entry : mQueueMetrics.entrySet()) {
+            final QueueMetrics queueMetrics = entry.getValue();
+            final Map<LogType, Long> logTypeDropped = new LinkedHashMap<LogType, Long>();
+            for(int i = 0; i < LOG_TYPES.length; i++) {
+                if(queueMetrics.mLogTypeDropped.get(i) > 0) {
+                    logTypeDropped.put(LOG_TYPES[i], queueMetrics.mLogTypeDropped.get(i));
+                }
+            }
+            queues.put(entry.getKey(), new QueueSnapshot(queueMetrics.mDepth.get(), queueMetrics.mMaxDepth.get(), queueMetrics.mDropped.sum(), Collections.unmodifiableMap(logTypeDropped), queueMetrics.mSpilled.sum(), queueMetrics.mLags.snapshot()));
+        }
+        
+        return new Snapshot(logTypeEvents, tagEvents, mCallerTimes.snapshot(), appenders, queues);
+    }
+    
+    /**
+     * Starts logging the snapshot every <code>periodSeconds</code> seconds on a background timer.
+     * The <code>periodSeconds</code> <code>0</code> stops the reporting.
+     *
+     * @param periodSeconds
+     */
+    public final synchronized void startReporting(final long periodSeconds) {
+        stopReporting();
+        if(periodSeconds > 0) {
+            mReportTimer = new Timer(LOG_TAG, true);
+            mReportTimer.scheduleAtFixedRate(new TimerTask() {
+                @Override
+                public void run() {
+                    LogHelper.i(LOG_TAG, snapshot().toString());
+                }
+            }, periodSeconds * 1000L, periodSeconds * 1000L);
+        }
+    }
+    
+    /**
+     * Stops the periodic logging of the snapshot.
+     */
+    public final synchronized void stopReporting() {
+        if(LogHelper.isNotNull(mReportTimer)) {
+            mReportTimer.cancel();
+            mReportTimer = null;
+        }
+    }
+    
+    /**
+     * The metrics of one appender.
+     */
+    public static final class AppenderMetrics {
+        
+        /** mEvents */
+        private final StripedCounter mEvents = new StripedCounter();
+        
+        /** mBytes */
+        private final StripedCounter mBytes = new StripedCounter();
+        
+        /** mAppendTimes */
+        private final LogHistogram mAppendTimes = new LogHistogram();
+        
+        /**
+         * Records one append, which took <code>appendNanos</code> nanoseconds.
+         *
+         * @param appendNanos
+         */
+        public final void recordAppend(final long appendNanos) {
+            mEvents.increment();
+            mAppendTimes.record(appendNanos);
+        }
+        
+        /**
+         * Records the written <code>bytes</code>.
+         *
+         * @param bytes
+         */
+        public final void recordBytes(final long bytes) {
+            mBytes.add(bytes);
+        }
+        
+        /**
+         * Resets the metrics.
+         */
+        private void reset() {
+            mEvents.reset();
+            mBytes.reset();
+            mAppendTimes.reset();
+        }
+    }
+    
+    /**
+     * The metrics of one queue.
+     */
+    public static final class QueueMetrics {
+        
+        /** mDepth */
+        private final AtomicLong mDepth = new AtomicLong();
+        
+        /** mMaxDepth */
+        private final AtomicLong mMaxDepth = new AtomicLong();
+        
+        /** mDropped */
+        private final StripedCounter mDropped = new StripedCounter();
+        
+        /** mLogTypeDropped - indexed by <code>LogType.ordinal()</code>. */
+        private final AtomicLongArray mLogTypeDropped = new AtomicLongArray(LOG_TYPES.length);
+        
+        /** mSpilled */
+        private final StripedCounter mSpilled = new StripedCounter();
+        
+        /** mLags - the nanoseconds an event waited in the queue. */
+        private final LogHistogram mLags = new LogHistogram();
+        
+        /**
+         * The current <code>depth</code> of the queue to be set.
+         *
+         * @param depth
+         */
+        public final void setDepth(final long depth) {
+            mDepth.set(depth);
+            long maxDepth = mMaxDepth.get();
+            while(depth > maxDepth && !mMaxDepth.compareAndSet(maxDepth, depth)) {
+                maxDepth = mMaxDepth.get();
+            }
+        }
+        
+        /**
+         * Returns the current depth of the queue.
+         *
+         * @return
+         */
+        public final long getDepth() {
+            return mDepth.get();
+        }
+        
+        /**
+         * Records one dropped event.
+         */
+        public final void recordDropped() {
+            mDropped.increment();
+        }
+        
+        /**
+         * Returns the number of dropped events.
+         *
+         * @return
+         */
+        public final long getDropped() {
+            return mDropped.sum();
+        }
+        
+        /**
+         * Records one dropped event of the given <code>logType</code>.
+         *
+         * @param logType
+         */
+        public final void recordDropped(final LogType logType) {
+            mDropped.increment();
+            mLogTypeDropped.getAndIncrement(logType.ordinal());
+        }
+        
+        /**
+         * Returns the number of dropped events of the given <code>logType</code>. The events
+         * dropped by the <code>recordDropped()</code> are not counted under any type.
+         *
+         * @param logType
+         * @return
+         */
+        public final long getDropped(final LogType logType) {
+            return mLogTypeDropped.get(logType.ordinal());
+        }
+        
+        /**
+         * Records one event spilled into the overflow file.
+         */
+        public final void recordSpilled() {
+            mSpilled.increment();
+        }
+        
+        /**
+         * Returns the number of the events spilled into the overflow file.
+         *
+         * @return
+         */
+        public final long getSpilled() {
+            return mSpilled.sum();
+        }
+        
+        /**
+         * Records the time an event waited in the queue, before it was taken out.
+         *
+         * @param lagNanos
+         */
+        public final void recordLag(final long lagNanos) {
+            mLags.record(lagNanos);
+        }
+    }
+    
+    /**
+     * The snapshot of one appender.
+     */
+    public static final class AppenderSnapshot {
+        
+        /** mEvents */
+        private final long mEvents;
+        
+        /** mBytes */
+        private final long mBytes;
+        
+        /** mAppendTimes */
+        private final LogHistogram.Snapshot mAppendTimes;
+        
+        /**
+         * @param events
+         * @param bytes
+         * @param appendTimes
+         */
+        private AppenderSnapshot(final long events, final long bytes, final LogHistogram.Snapshot appendTimes) {
+            mEvents = events;
+            mBytes = bytes;
+            mAppendTimes = appendTimes;
+        }
+        
+        /**
+         * @return
+         */
+        public final long getEvents() {
+            return mEvents;
+        }
+        
+        /**
+         * @return
+         */
+        public final long getBytes() {
+            return mBytes;
+        }
+        
+        /**
+         * Returns the time spent in the appender in nanoseconds.
+         *
+         * @return
+         */
+        public final LogHistogram.Snapshot getAppendTimes() {
+            return mAppendTimes;
+        }
+        
+        /**
+         * @return
+         */
+        @Override
+        public String toString() {
+            return "events=" + mEvents + ", bytes=" + mBytes + ", appendNanos[" + mAppendTimes + "]";
+        }
+    }
+    
+    /**
+     * The snapshot of one queue.
+     */
+    public static final class QueueSnapshot {
+        
+        /** mDepth */
+        private final long mDepth;
+        
+        /** mMaxDepth */
+        private final long mMaxDepth;
+        
+        /** mDropped */
+        private final long mDropped;
+        
+        /** mLogTypeDropped */
+        private final Map<LogType, Long> mLogTypeDropped;
+        
+        /** mSpilled */
+        private final long mSpilled;
+        
+        /** mLags */
+        private final LogHistogram.Snapshot mLags;
+        
+        /**
+         * @param depth
+         * @param maxDepth
+         * @param dropped
+         * @param logTypeDropped
+         * @param spilled
+         * @param lags
+         */
+        private QueueSnapshot(final long depth, final long maxDepth, final long dropped, final Map<LogType, Long> logTypeDropped, final long spilled, final LogHistogram.Snapshot lags) {
+            mDepth = depth;
+            mMaxDepth = maxDepth;
+            mDropped = dropped;
+            mLogTypeDropped = logTypeDropped;
+            mSpilled = spilled;
+            mLags = lags;
+        }
+        
+        /**
+         * @return
+         */
+        public final long getDepth() {
+            return mDepth;
+        }
+        
+        /**
+         * @return
+         */
+        public final long getMaxDepth() {
+            return mMaxDepth;
+        }
+        
+        /**
+         * @return
+         */
+        public final long getDropped() {
+            return mDropped;
+        }
+        
+        /**
+         * Returns the dropped events per <code>LogType</code>, only the types with drops are
+         * included.
+         *
+         * @return
+         */
+        public final Map<LogType, Long> getLogTypeDropped() {
+            return mLogTypeDropped;
+        }
+        
+        /**
+         * @param logType
+         * @return
+         */
+        public final long getDropped(final LogType logType) {
+            final Long dropped = mLogTypeDropped.get(logType);
+            return (LogHelper.isNull(dropped) ? 0 : dropped);
+        }
+        
+        /**
+         * @return
+         */
+        public final long getSpilled() {
+            return mSpilled;
+        }
+        
+        /**
+         * Returns the time the events waited in the queue in nanoseconds.
+         *
+         * @return
+         */
+        public final LogHistogram.Snapshot getLags() {
+            return mLags;
+        }
+        
+        /**
+         * @return
+         */
+        @Override
+        public String toString() {
+            return "depth=" + mDepth + ", maxDepth=" + mMaxDepth + ", dropped=" + mDropped + (mLogTypeDropped.isEmpty() ? "" : mLogTypeDropped.toString()) + ", spilled=" + mSpilled + ", lagNanos[" + mLags + "]";
+        }
+    }
+    
+    /**
+     * The immutable snapshot of all the metrics.
+     */
+    public static final class Snapshot {
+        
+        /** mLogTypeEvents */
+        private final Map<LogType, Long> mLogTypeEvents;
+        
+        /** mTagEvents */
+        private final Map<String, Long> mTagEvents;
+        
+        /** mCallerTimes */
+        private final LogHistogram.Snapshot mCallerTimes;
+        
+        /** mAppenders */
+        private final Map<String, AppenderSnapshot> mAppenders;
+        
+        /** mQueues */
+        private final Map<String, QueueSnapshot> mQueues;
+        
+        /**
+         * @param logTypeEvents
+         * @param tagEvents
+         * @param callerTimes
+         * @param appenders
+         * @param queues
+         */
+        private Snapshot(final Map<LogType, Long> logTypeEvents, final Map<String, Long> tagEvents, final LogHistogram.Snapshot callerTimes, final Map<String, AppenderSnapshot> appenders, final Map<String, QueueSnapshot> queues) {
+            mLogTypeEvents = Collections.unmodifiableMap(logTypeEvents);
+            mTagEvents = Collections.unmodifiableMap(tagEvents);
+            mCallerTimes = callerTimes;
+            mAppenders = Collections.unmodifiableMap(appenders);
+            mQueues = Collections.unmodifiableMap(queues);
+        }
+        
+        /**
+         * Returns the number of events of the given <code>logType</code>.
+         *
+         * @param logType
+         * @return
+         */
+        public final long getEvents(final LogType logType) {
+            final Long events = mLogTypeEvents.get(logType);
+            return (LogHelper.isNull(events) ? 0 : events);
+        }
+        
+        /**
+         * Returns the number of events of the given <code>logTag</code>.
+         *
+         * @param logTag
+         * @return
+         */
+        public final long getEvents(final String logTag) {
+            final Long events = mTagEvents.get(logTag);
+            return (LogHelper.isNull(events) ? 0 : events);
+        }
+        
+        /**
+         * @return
+         */
+        public final Map<LogType, Long> getLogTypeEvents() {
+            return mLogTypeEvents;
+        }
+        
+        /**
+         * @return
+         */
+        public final Map<String, Long> getTagEvents() {
+            return mTagEvents;
+        }
+        
+        /**
+         * Returns the time spent in the caller in nanoseconds.
+         *
+         * @return
+         */
+        public final LogHistogram.Snapshot getCallerTimes() {
+            return mCallerTimes;
+        }
+        
+        /**
+         * @return
+         */
+        public final Map<String, AppenderSnapshot> getAppenders() {
+            return mAppenders;
+        }
+        
+        /**
+         * @return
+         */
+        public final Map<String, QueueSnapshot> getQueues() {
+            return mQueues;
+        }
+        
+        /**
+         * @return
+         */
+        @Override
+        public String toString() {
+            final StringBuilder sBuilder = new StringBuilder("LogMetrics:");
+            sBuilder.append(" events").append(mLogTypeEvents);
+            sBuilder.append(", tags").append(mTagEvents);
+            sBuilder.append(", callerNanos[").append(mCallerTimes).append(']');
+            for(Map.Entry<String, AppenderSnapshot> entry : mAppenders.entrySet()) {
+                sBuilder.append(", appender[").append(entry.getKey()).append(": ").append(entry.getValue()).append(']');
+            }
+            for(Map.Entry<String, QueueSnapshot> entry : mQueues.entrySet()) {
+                sBuilder.append(", queue[").append(entry.getKey()).append(": ").append(entry.getValue()).append(']');
+            }
+            
+            return sBuilder.toString();
+        }
+    }
+}
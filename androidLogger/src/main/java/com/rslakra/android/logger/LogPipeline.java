@@ -0,0 +1,348 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import org.apache.log4j.Appender;
+import org.apache.log4j.Level;
+import org.apache.log4j.spi.LoggingEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An immutable snapshot of the logging pipeline, the root log level, the levels of the named
+ * loggers and the appenders with their layouts. A new pipeline is built off to the side and
+ * published by the <code>PipelineAppender</code> with a single reference swap.
+ * <p>
+ * The events being appended, when the pipeline is replaced, still finish on it. The retired
+ * pipeline closes its appenders, which are not reused by its successor, once the last of them is
+ * done. The new appenders of the same files are <code>HandoffAppender</code>s, which open the
+ * files only after that.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 04:32:47 PM
+ * @since 1.0.0
+ */
+public final class LogPipeline {
+    
+    /** mLogLevel */
+    private final Level mLogLevel;
+    
+    /** mLoggerLevels */
+    private final Map<String, Level> mLoggerLevels;
+    
+    /** mAppenders */
+    private final Appender[] mAppenders;
+    
+    /** mAppendersKey - identifies the settings, the appenders are created with. */
+    private final String mAppendersKey;
+    
+    /** mInFlight - the number of the events being appended. */
+    private final AtomicInteger mInFlight = new AtomicInteger();
+    
+    /** mRetired */
+    private volatile boolean mRetired;
+    
+    /** mPredecessor - the pipeline replaced by this one, until it's closed. */
+    private volatile LogPipeline mPredecessor;
+    
+    /** mSuccessor */
+    private volatile LogPipeline mSuccessor;
+    
+    /** mClosed */
+    private final AtomicBoolean mClosed = new AtomicBoolean();
+    
+    /** mClosedLatch - released, once the appenders are closed. */
+    private final CountDownLatch mClosedLatch = new CountDownLatch(1);
+    
+    /** mHandoffAppenders - the appenders of the successors waiting for the files of this one. */
+    private final List<HandoffAppender> mHandoffAppenders = new CopyOnWriteArrayList<HandoffAppender>();
+    
+    /**
+     * @param logLevel
+     * @param appenders
+     * @param appendersKey
+     */
+    public LogPipeline(final Level logLevel, final List<Appender> appenders, final String appendersKey) {
+        this(logLevel, Collections.<String, Level>emptyMap(), appenders, appendersKey);
+    }
+    
+    /**
+     * @param logLevel
+     * @param loggerLevels
+     * @param appenders
+     * @param appendersKey
+     */
+    public LogPipeline(final Level logLevel, final Map<String, Level> loggerLevels, final List<Appender> appenders, final String appendersKey) {
+        if(LogHelper.isNull(logLevel)) {
+            throw new NullPointerException("The logLevel should not be NULL!");
+        }
+        if(LogHelper.isNull(appenders)) {
+            throw new NullPointerException("The appenders should not be NULL!");
+        }
+        
+        mLogLevel = logLevel;
+        mLoggerLevels = Collections.unmodifiableMap(new HashMap<String, Level>(loggerLevels));
+        mAppenders = appenders.toArray(new Appender[appenders.size()]);
+        mAppendersKey = appendersKey;
+    }
+    
+    /**
+     * Returns the <code>mLogLevel</code> value.
+     *
+     * @return
+     */
+    public final Level getLogLevel() {
+        return mLogLevel;
+    }
+    
+    /**
+     * Returns true if the given <code>logLevel</code> is enabled by this pipeline.
+     *
+     * @param logLevel
+     * @return
+     */
+    public final boolean isLogEnabledFor(final Level logLevel) {
+        return (LogHelper.isNotNull(logLevel) && logLevel.toInt() >= mLogLevel.toInt());
+    }
+    
+    /**
+     * Returns the unmodifiable levels of the named loggers.
+     *
+     * @return
+     */
+    public final Map<String, Level> getLoggerLevels() {
+        return mLoggerLevels;
+    }
+    
+    /**
+     * Returns true if the given <code>logLevel</code> is enabled for the given
+     * <code>loggerName</code>. The level of the closest named ancestor (by the dots in the name)
+     * is used, or the root level if there is none.
+     *
+     * @param loggerName
+     * @param logLevel
+     * @return
+     */
+    public final boolean isLogEnabledFor(final String loggerName, final Level logLevel) {
+        if(mLoggerLevels.isEmpty() || LogHelper.isNull(loggerName) || LogHelper.isNull(logLevel)) {
+            return isLogEnabledFor(logLevel);
+        }
+        
+        String name = loggerName;
+        while(true) {
+            final Level level = mLoggerLevels.get(name);
+            if(LogHelper.isNotNull(level)) {
+                return (logLevel.toInt() >= level.toInt());
+            }
+            
+            final int index = name.lastIndexOf('.');
+            if(index < 0) {
+                return isLogEnabledFor(logLevel);
+            }
+            name = name.substring(0, index);
+        }
+    }
+    
+    /**
+     * Returns the unmodifiable list of the appenders.
+     *
+     * @return
+     */
+    public final List<Appender> getAppenders() {
+        return Collections.unmodifiableList(Arrays.asList(mAppenders));
+    }
+    
+    /**
+     * Returns the <code>mAppendersKey</code> value.
+     *
+     * @return
+     */
+    public final String getAppendersKey() {
+        return mAppendersKey;
+    }
+    
+    /**
+     * Returns true if this pipeline is replaced by another one.
+     *
+     * @return
+     */
+    public final boolean isRetired() {
+        return mRetired;
+    }
+    
+    /**
+     * Marks an event in flight on this pipeline. Returns false, if the pipeline is already
+     * retired and the current pipeline should be used instead.
+     *
+     * @return
+     */
+    final boolean acquire() {
+        mInFlight.incrementAndGet();
+        if(mRetired) {
+            release();
+            return false;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Marks an event done on this pipeline. The last event done on the retired pipeline closes it.
+     */
+    final void release() {
+        if(mInFlight.decrementAndGet() == 0 && mRetired) {
+            close();
+        }
+    }
+    
+    /**
+     * Appends the given event to all the appenders.
+     *
+     * @param logEvent
+     */
+    final void append(final LoggingEvent logEvent) {
+        for(int i = 0; i < mAppenders.length; i++) {
+            mAppenders[i].doAppend(logEvent);
+        }
+    }
+    
+    /**
+     * Sets the pipeline replaced by this one. The appenders of this pipeline are not closed before
+     * the <code>predecessor</code> is closed, since it may still use some of them.
+     *
+     * @param predecessor
+     */
+    final void setPredecessor(final LogPipeline predecessor) {
+        mPredecessor = predecessor;
+    }
+    
+    /**
+     * Retires this pipeline in the favour of the given <code>successor</code>, which may be null.
+     * It's closed right away, if no event is in flight.
+     *
+     * @param successor
+     */
+    final void retire(final LogPipeline successor) {
+        mSuccessor = successor;
+        mRetired = true;
+        if(mInFlight.get() == 0) {
+            close();
+        }
+    }
+    
+    /**
+     * Closes the appenders, which are not used by the successor. If the predecessor is still
+     * draining, it's left to the predecessor to close this pipeline after itself.
+     */
+    private void close() {
+        final LogPipeline predecessor = mPredecessor;
+        if(LogHelper.isNotNull(predecessor) && !predecessor.mClosed.get()) {
+            return;
+        }
+        
+        if(mClosed.compareAndSet(false, true)) {
+            mPredecessor = null;
+            final LogPipeline successor = mSuccessor;
+            final List<Appender> reused = (LogHelper.isNull(successor) ? new ArrayList<Appender>() : successor.getAppenders());
+            for(Appender appender : mAppenders) {
+                if(!reused.contains(appender)) {
+                    appender.close();
+                }
+            }
+            
+            mClosedLatch.countDown();
+            for(HandoffAppender handoffAppender : mHandoffAppenders) {
+                handoffAppender.handOff();
+            }
+            mHandoffAppenders.clear();
+            if(LogHelper.isNotNull(successor) && successor.mRetired && successor.mInFlight.get() == 0) {
+                successor.close();
+            }
+        }
+    }
+    
+    /**
+     * Adds the given <code>handoffAppender</code>, which opens its file, once this pipeline is
+     * closed.
+     *
+     * @param handoffAppender
+     */
+    final void addHandoffAppender(final HandoffAppender handoffAppender) {
+        mHandoffAppenders.add(handoffAppender);
+        if(isClosed()) {
+            handoffAppender.handOff();
+        }
+    }
+    
+    /**
+     * Returns true, if the retired pipeline is drained and its appenders are closed otherwise
+     * false.
+     *
+     * @return
+     */
+    final boolean isClosed() {
+        return (mClosedLatch.getCount() == 0);
+    }
+    
+    /**
+     * Waits up to the given <code>timeoutMillis</code>, until the retired pipeline is drained and
+     * its appenders are closed.
+     *
+     * @param timeoutMillis
+     * @return true, if the pipeline is closed otherwise false.
+     */
+    final boolean awaitClosed(final long timeoutMillis) {
+        try {
+            return mClosedLatch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return isClosed();
+        }
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public String toString() {
+        return "LogPipeline <logLevel=" + mLogLevel + ", loggerLevels=" + mLoggerLevels + ", appenders=" + mAppenders.length + ", retired=" + mRetired + ">";
+    }
+}
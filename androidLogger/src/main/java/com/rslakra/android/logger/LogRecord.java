@@ -0,0 +1,347 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A structured log event, the message followed by the <code>key=value</code> fields, which is
+ * logged as a single record. The values are quoted, if they are empty or contain a whitespace,
+ * a <code>'='</code>, a <code>'"'</code> or a <code>'\'</code>, and the maps and the iterables are
+ * rendered as <code>"{k=v, k=v}"</code> and <code>"[v, v]"</code>.
+ * <p>
+ * The records are obtained by the <code>LogHelper.newRecord()</code>, which checks the log level
+ * once, and each thread reuses its own record, so the fields are appended straight into its
+ * buffer without any intermediate string and only the final message is created by the
+ * <code>log()</code>, as the backends take the messages as strings. The record of a disabled event
+ * ignores the fields. The fields missing in the <code>LogHelper.getFieldAllowlist()</code>, if
+ * any, are skipped without rendering their values and the values of the sensitive keys (and the
+ * map entries) of the <code>LogRedactor</code> are masked without rendering them. The message and
+ * the rendered values of the other fields (e.g. a URL with a token in its query) are redacted one
+ * by one, as they are appended, so the record is not scanned again.
+ * <p>
+ * A record must be completed by the <code>log()</code> and not used after that. A record, which is
+ * never logged (e.g. a field value throws), is replaced by the next record of its thread.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-20 07:26:44 AM
+ * @since 1.0.0
+ */
+public final class LogRecord {
+    
+    /** INITIAL_CAPACITY */
+    private static final int INITIAL_CAPACITY = 256;
+    
+    /** MAX_RETAINED_CAPACITY - the larger buffers are not kept by the threads. */
+    private static final int MAX_RETAINED_CAPACITY = 8 * 1024;
+    
+    /** DISABLED - the record of the disabled events. */
+    static final LogRecord DISABLED = new LogRecord();
+    
+    /** sRecords - the record of each thread. */
+    private static final ThreadLocal<LogRecord> sRecords = new ThreadLocal<LogRecord>() {
+        @Override
+        protected LogRecord initialValue() {
+            return new LogRecord();
+        }
+    };
+    
+    /** mBuilder */
+    private StringBuilder mBuilder = new StringBuilder(INITIAL_CAPACITY);
+    
+    /** mLogType - null, if the record is disabled. */
+    private LogType mLogType;
+    
+    /** mLogTag */
+    private String mLogTag;
+    
+    /** mFieldAllowlist - null, if all the fields are logged. */
+    private Set<String> mFieldAllowlist;
+    
+    /** mLogRedactor */
+    private LogRedactor mLogRedactor;
+    
+    /** mInUse - the record is obtained and not logged yet. */
+    private boolean mInUse;
+    
+    /**
+     *
+     */
+    private LogRecord() {
+    }
+    
+    /**
+     * Returns the record of the current thread started with the given <code>logMessage</code>.
+     *
+     * @param logType
+     * @param logTag
+     * @param logMessage
+     * @param fieldAllowlist
+     * @param logRedactor
+     * @return
+     */
+    static LogRecord obtain(final LogType logType, final String logTag, final String logMessage, final Set<String> fieldAllowlist, final LogRedactor logRedactor) {
+        LogRecord logRecord = sRecords.get();
+        if(logRecord.mInUse) {
+            // the record is either filled by an outer call or abandoned by a failed one, which never
+            // reached the log(), so the thread keeps the new record from now on.
+            logRecord = new LogRecord();
+            sRecords.set(logRecord);
+        }
+        
+        logRecord.mInUse = true;
+        logRecord.mLogType = logType;
+        logRecord.mLogTag = logTag;
+        logRecord.mFieldAllowlist = fieldAllowlist;
+        logRecord.mLogRedactor = logRedactor;
+        logRecord.mBuilder.append(logRedactor.redact(logMessage));
+        return logRecord;
+    }
+    
+    /**
+     * Returns true, if the record is logged otherwise false.
+     *
+     * @return
+     */
+    public boolean isEnabled() {
+        return LogHelper.isNotNull(mLogType);
+    }
+    
+    /**
+     * Returns true, if the value of the field of the given <code>key</code> is to be appended
+     * otherwise false. The values of the sensitive keys are masked.
+     *
+     * @param key
+     * @return
+     */
+    private boolean startField(final String key) {
+        if(LogHelper.isNull(mLogType) || (LogHelper.isNotNull(mFieldAllowlist) && !mFieldAllowlist.contains(key))) {
+            return false;
+        }
+        
+        mBuilder.append(' ').append(key).append('=');
+        if(mLogRedactor.isSensitiveKey(key)) {
+            mBuilder.append(LogRedactor.MASK);
+            return false;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Appends the field of the given <code>key</code> and <code>value</code>.
+     *
+     * @param key
+     * @param value
+     * @return
+     */
+    public LogRecord field(final String key, final CharSequence value) {
+        if(startField(key)) {
+            appendValue(redact(value));
+        }
+        
+        return this;
+    }
+    
+    /**
+     * Appends the field of the given <code>key</code> and <code>value</code>.
+     *
+     * @param key
+     * @param value
+     * @return
+     */
+    public LogRecord field(final String key, final long value) {
+        if(startField(key)) {
+            mBuilder.append(value);
+        }
+        
+        return this;
+    }
+    
+    /**
+     * Appends the field of the given <code>key</code> and <code>value</code>.
+     *
+     * @param key
+     * @param value
+     * @return
+     */
+    public LogRecord field(final String key, final boolean value) {
+        if(startField(key)) {
+            mBuilder.append(value);
+        }
+        
+        return this;
+    }
+    
+    /**
+     * Appends the field of the given <code>key</code> and <code>value</code>. The entries of the
+     * maps and the elements of the iterables are appended one by one.
+     *
+     * @param key
+     * @param value
+     * @return
+     */
+    public LogRecord field(final String key, final Object value) {
+        if(startField(key)) {
+            if(value instanceof CharSequence) {
+                appendValue(redact((CharSequence) value));
+            } else if(value instanceof Map) {
+                mBuilder.append("\"{");
+                boolean first = true;
+                for(Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    if(!first) {
+                        mBuilder.append(", ");
+                    }
+                    first = false;
+                    final String entryKey = String.valueOf(entry.getKey());
+                    appendEscaped(entryKey);
+                    mBuilder.append('=');
+                    if(mLogRedactor.isSensitiveKey(entryKey)) {
+                        mBuilder.append(LogRedactor.MASK);
+                    } else {
+                        appendEscaped(redact(String.valueOf(entry.getValue())));
+                    }
+                }
+                mBuilder.append("}\"");
+            } else if(value instanceof Iterable) {
+                mBuilder.append("\"[");
+                boolean first = true;
+                for(Object element : (Iterable<?>) value) {
+                    if(!first) {
+                        mBuilder.append(", ");
+                    }
+                    first = false;
+                    appendEscaped(redact(String.valueOf(element)));
+                }
+                mBuilder.append("]\"");
+            } else {
+                appendValue(redact(String.valueOf(value)));
+            }
+        }
+        
+        return this;
+    }
+    
+    /**
+     * Returns the given <code>value</code> with the sensitive values masked by the
+     * <code>LogRedactor</code>. The value is not copied, if there is no rule to redact.
+     *
+     * @param value
+     * @return
+     */
+    private CharSequence redact(final CharSequence value) {
+        if(LogHelper.isNull(value) || !mLogRedactor.isEnabled()) {
+            return value;
+        }
+        
+        return mLogRedactor.redact(value.toString());
+    }
+    
+    /**
+     * Appends the given <code>value</code>, quoted if needed.
+     *
+     * @param value
+     */
+    private void appendValue(final CharSequence value) {
+        if(LogHelper.isNull(value)) {
+            mBuilder.append("null");
+            return;
+        }
+        
+        boolean quoted = (value.length() == 0);
+        for(int i = 0; !quoted && i < value.length(); i++) {
+            final char ch = value.charAt(i);
+            quoted = (ch <= ' ' || ch == '=' || ch == '"' || ch == '\\');
+        }
+        
+        if(quoted) {
+            mBuilder.append('"');
+            appendEscaped(value);
+            mBuilder.append('"');
+        } else {
+            mBuilder.append(value);
+        }
+    }
+    
+    /**
+     * Appends the given <code>value</code> with its quotes, backslashes and line breaks escaped.
+     *
+     * @param value
+     */
+    private void appendEscaped(final CharSequence value) {
+        for(int i = 0; i < value.length(); i++) {
+            final char ch = value.charAt(i);
+            switch(ch) {
+                case '"':
+                case '\\':
+                    mBuilder.append('\\').append(ch);
+                    break;
+                case '\n':
+                    mBuilder.append("\\n");
+                    break;
+                case '\r':
+                    mBuilder.append("\\r");
+                    break;
+                case '\t':
+                    mBuilder.append("\\t");
+                    break;
+                default:
+                    mBuilder.append(ch);
+                    break;
+            }
+        }
+    }
+    
+    /**
+     * Logs the record and releases it.
+     */
+    public void log() {
+        if(LogHelper.isNull(mLogType)) {
+            return;
+        }
+        
+        try {
+            LogHelper.logRedacted(mLogType, mLogTag, mBuilder.toString(), null);
+        } finally {
+            mLogType = null;
+            mLogTag = null;
+            mFieldAllowlist = null;
+            mLogRedactor = null;
+            if(mBuilder.capacity() > MAX_RETAINED_CAPACITY) {
+                mBuilder = new StringBuilder(INITIAL_CAPACITY);
+            } else {
+                mBuilder.setLength(0);
+            }
+            mInUse = false;
+        }
+    }
+}
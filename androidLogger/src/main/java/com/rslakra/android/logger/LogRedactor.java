@@ -0,0 +1,425 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Masks the values of the sensitive keys and the tokens following the sensitive prefixes in the
+ * log messages, before they reach any sink.
+ * <p>
+ * All the keys and the prefixes are compiled into a single Aho-Corasick automaton, whose failure
+ * links are resolved into a complete transition table (a DFA) over the case-folded ASCII
+ * characters used by them, so a message is redacted in one pass with a table lookup per
+ * character, whatever the number of the rules. A key matches, when it's followed by a
+ * <code>'='</code> or a <code>':'</code> (like <code>token=abc</code>, <code>Authorization: Basic
+ * abc</code> or <code>"password":"abc"</code>), and a prefix matches anywhere. The value is masked
+ * up to the next whitespace, quote or delimiter (the closing quote, if it's quoted), keeping the
+ * auth scheme, if any. The messages without any match are returned as is, without copying.
+ * <p>
+ * The fields of the <code>LogRecord</code> are redacted by their keys, without rendering their
+ * values at all.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-20 08:12:35 AM
+ * @since 1.0.0
+ */
+public final class LogRedactor {
+    
+    /** MASK */
+    public static final String MASK = "***";
+    
+    /** DEFAULT_SENSITIVE_KEYS - matched case-insensitively anywhere in the keys. */
+    public static final List<String> DEFAULT_SENSITIVE_KEYS = Collections.unmodifiableList(Arrays.asList("authorization", "cookie", "password", "passwd", "secret", "token", "api_key", "apikey", "api-key"));
+    
+    /** AUTH_SCHEMES - kept in front of the masked credentials. */
+    private static final String[] AUTH_SCHEMES = {"basic", "bearer", "digest", "negotiate"};
+    
+    /** KEY - the state matches a sensitive key. */
+    private static final byte KEY = 1;
+    
+    /** PREFIX - the state matches a sensitive prefix. */
+    private static final byte PREFIX = 2;
+    
+    /** mSensitiveKeys */
+    private List<String> mSensitiveKeys = DEFAULT_SENSITIVE_KEYS;
+    
+    /** mSensitivePrefixes */
+    private List<String> mSensitivePrefixes = Collections.emptyList();
+    
+    /** mAutomaton - null, if there is no rule. */
+    private volatile Automaton mAutomaton;
+    
+    /**
+     * Creates the redactor of the <code>DEFAULT_SENSITIVE_KEYS</code>.
+     */
+    public LogRedactor() {
+        mAutomaton = new Automaton(mSensitiveKeys, mSensitivePrefixes);
+    }
+    
+    /**
+     * Returns the <code>mSensitiveKeys</code> value.
+     *
+     * @return
+     */
+    public synchronized List<String> getSensitiveKeys() {
+        return mSensitiveKeys;
+    }
+    
+    /**
+     * The <code>sensitiveKeys</code> to be set, whose values are masked. It replaces the
+     * <code>DEFAULT_SENSITIVE_KEYS</code>.
+     *
+     * @param sensitiveKeys
+     */
+    public synchronized void setSensitiveKeys(final Collection<String> sensitiveKeys) {
+        mSensitiveKeys = toRules(sensitiveKeys);
+        compile();
+    }
+    
+    /**
+     * Returns the <code>mSensitivePrefixes</code> value.
+     *
+     * @return
+     */
+    public synchronized List<String> getSensitivePrefixes() {
+        return mSensitivePrefixes;
+    }
+    
+    /**
+     * The <code>sensitivePrefixes</code> to be set, like <code>"eyJ"</code> of the JWTs, the rest
+     * of whose tokens is masked.
+     *
+     * @param sensitivePrefixes
+     */
+    public synchronized void setSensitivePrefixes(final Collection<String> sensitivePrefixes) {
+        mSensitivePrefixes = toRules(sensitivePrefixes);
+        compile();
+    }
+    
+    /**
+     * Returns the lower case copies of the given <code>rules</code>.
+     *
+     * @param rules
+     * @return
+     */
+    private static List<String> toRules(final Collection<String> rules) {
+        final List<String> lowerRules = new ArrayList<String>();
+        if(LogHelper.isNotNull(rules)) {
+            for(String rule : rules) {
+                if(LogHelper.isNullOrEmpty(rule)) {
+                    throw new IllegalArgumentException("rule is either NULL or EMPTY!");
+                }
+                
+                lowerRules.add(rule.toLowerCase(Locale.US));
+            }
+        }
+        
+        return Collections.unmodifiableList(lowerRules);
+    }
+    
+    /**
+     * Compiles the rules into the <code>mAutomaton</code>.
+     */
+    private void compile() {
+        mAutomaton = (mSensitiveKeys.isEmpty() && mSensitivePrefixes.isEmpty() ? null : new Automaton(mSensitiveKeys, mSensitivePrefixes));
+    }
+    
+    /**
+     * Returns true, if there is any rule to redact otherwise false.
+     *
+     * @return
+     */
+    public boolean isEnabled() {
+        return LogHelper.isNotNull(mAutomaton);
+    }
+    
+    /**
+     * Returns true, if the given <code>key</code> contains any of the sensitive keys otherwise
+     * false.
+     *
+     * @param key
+     * @return
+     */
+    public boolean isSensitiveKey(final CharSequence key) {
+        final Automaton automaton = mAutomaton;
+        if(LogHelper.isNull(automaton) || LogHelper.isNull(key)) {
+            return false;
+        }
+        
+        int state = 0;
+        for(int i = 0; i < key.length(); i++) {
+            state = automaton.next(state, key.charAt(i));
+            if((automaton.mOutputs[state] & KEY) != 0) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Returns the given <code>message</code> with the sensitive values masked, the same instance,
+     * if there is nothing to mask.
+     *
+     * @param message
+     * @return
+     */
+    public String redact(final String message) {
+        final Automaton automaton = mAutomaton;
+        if(LogHelper.isNull(automaton) || LogHelper.isNull(message)) {
+            return message;
+        }
+        
+        final int length = message.length();
+        StringBuilder redacted = null;
+        int copied = 0;
+        int state = 0;
+        for(int i = 0; i < length; i++) {
+            state = automaton.next(state, message.charAt(i));
+            final byte output = automaton.mOutputs[state];
+            if(output == 0) {
+                continue;
+            }
+            
+            int start = ((output & KEY) != 0 ? valueStart(message, i + 1) : -1);
+            if(start < 0 && (output & PREFIX) != 0) {
+                start = i + 1;
+            }
+            if(start < 0) {
+                continue;
+            }
+            
+            final boolean quoted = (start > 0 && message.charAt(start - 1) == '"' && start - 1 > i);
+            int end = valueEnd(message, start, quoted);
+            if(!quoted && end < length && message.charAt(end) == ' ' && isAuthScheme(message, start, end)) {
+                start = end + 1;
+                end = valueEnd(message, start, false);
+            }
+            if(end > start) {
+                if(LogHelper.isNull(redacted)) {
+                    redacted = new StringBuilder(length);
+                }
+                redacted.append(message, copied, start).append(MASK);
+                copied = end;
+                i = end - 1;
+                state = 0;
+            }
+        }
+        
+        return (LogHelper.isNull(redacted) ? message : redacted.append(message, copied, length).toString());
+    }
+    
+    /**
+     * Returns the start of the value following the key ending at the given <code>index</code>,
+     * or -1, if the key isn't followed by a separator.
+     *
+     * @param message
+     * @param index
+     * @return
+     */
+    private static int valueStart(final String message, int index) {
+        final int length = message.length();
+        if(index < length && message.charAt(index) == '"') {
+            index++;
+        }
+        while(index < length && message.charAt(index) == ' ') {
+            index++;
+        }
+        if(index == length || (message.charAt(index) != '=' && message.charAt(index) != ':')) {
+            return -1;
+        }
+        
+        index++;
+        while(index < length && message.charAt(index) == ' ') {
+            index++;
+        }
+        if(index < length && message.charAt(index) == '"') {
+            index++;
+        }
+        
+        return index;
+    }
+    
+    /**
+     * Returns the end of the value starting at the given <code>start</code>.
+     *
+     * @param message
+     * @param start
+     * @param quoted
+     * @return
+     */
+    private static int valueEnd(final String message, final int start, final boolean quoted) {
+        final int length = message.length();
+        int index = start;
+        while(index < length) {
+            final char ch = message.charAt(index);
+            if(quoted ? (ch == '"' && message.charAt(index - 1) != '\\') : (ch <= ' ' || ch == '"' || ch == '\'' || ch == '&' || ch == ',' || ch == ';' || ch == '}' || ch == ']' || ch == ')' || ch == '<' || ch == '>')) {
+                break;
+            }
+            index++;
+        }
+        
+        return index;
+    }
+    
+    /**
+     * Returns true, if the given range of the <code>message</code> is an auth scheme.
+     *
+     * @param message
+     * @param start
+     * @param end
+     * @return
+     */
+    private static boolean isAuthScheme(final String message, final int start, final int end) {
+        for(String authScheme : AUTH_SCHEMES) {
+            if(authScheme.length() == end - start && message.regionMatches(true, start, authScheme, 0, authScheme.length())) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * The compiled rules, a DFA over the character classes of the rules. The class 0 stands for
+     * all the characters not used by any rule.
+     */
+    private static final class Automaton {
+        
+        /** mClasses - the character classes of the ASCII characters, case-folded. */
+        private final byte[] mClasses = new byte[128];
+        
+        /** mClassCount */
+        private final int mClassCount;
+        
+        /** mTransitions - the next state by the <code>state * mClassCount + class</code>. */
+        private final int[] mTransitions;
+        
+        /** mOutputs - the <code>KEY</code> and <code>PREFIX</code> matches ending at the state. */
+        private final byte[] mOutputs;
+        
+        /**
+         * @param sensitiveKeys
+         * @param sensitivePrefixes
+         */
+        private Automaton(final List<String> sensitiveKeys, final List<String> sensitivePrefixes) {
+            int classCount = 1;
+            int maxStates = 1;
+            final List<String> rules = new ArrayList<String>(sensitiveKeys);
+            rules.addAll(sensitivePrefixes);
+            for(String rule : rules) {
+                for(int i = 0; i < rule.length(); i++) {
+                    final char ch = rule.charAt(i);
+                    if(ch >= 128) {
+                        throw new IllegalArgumentException("Invalid Value! rule:" + rule);
+                    }
+                    if(mClasses[ch] == 0) {
+                        if(classCount == Byte.MAX_VALUE) {
+                            throw new IllegalArgumentException("Invalid Value! rules:" + rules);
+                        }
+                        mClasses[ch] = (byte) classCount;
+                        if(ch >= 'a' && ch <= 'z') {
+                            mClasses[Character.toUpperCase(ch)] = (byte) classCount;
+                        }
+                        classCount++;
+                    }
+                }
+                maxStates += rule.length();
+            }
+            mClassCount = classCount;
+            
+            // the trie of the rules.
+            final int[] transitions = new int[maxStates * classCount];
+            Arrays.fill(transitions, -1);
+            final byte[] outputs = new byte[maxStates];
+            int stateCount = 1;
+            for(int r = 0; r < rules.size(); r++) {
+                final String rule = rules.get(r);
+                int state = 0;
+                for(int i = 0; i < rule.length(); i++) {
+                    final int index = state * classCount + mClasses[rule.charAt(i)];
+                    if(transitions[index] < 0) {
+                        transitions[index] = stateCount++;
+                    }
+                    state = transitions[index];
+                }
+                outputs[state] |= (r < sensitiveKeys.size() ? KEY : PREFIX);
+            }
+            
+            // resolves the failure links breadth first into the missing transitions.
+            final int[] failures = new int[stateCount];
+            final int[] queue = new int[stateCount];
+            int head = 0;
+            int tail = 0;
+            for(int c = 0; c < classCount; c++) {
+                if(transitions[c] < 0) {
+                    transitions[c] = 0;
+                } else {
+                    queue[tail++] = transitions[c];
+                }
+            }
+            while(head < tail) {
+                final int state = queue[head++];
+                outputs[state] |= outputs[failures[state]];
+                for(int c = 0; c < classCount; c++) {
+                    final int index = state * classCount + c;
+                    final int failure = transitions[failures[state] * classCount + c];
+                    if(transitions[index] < 0) {
+                        transitions[index] = failure;
+                    } else {
+                        failures[transitions[index]] = failure;
+                        queue[tail++] = transitions[index];
+                    }
+                }
+            }
+            
+            mTransitions = Arrays.copyOf(transitions, stateCount * classCount);
+            mOutputs = Arrays.copyOf(outputs, stateCount);
+        }
+        
+        /**
+         * Returns the state following the given <code>state</code> by the <code>ch</code>.
+         *
+         * @param state
+         * @param ch
+         * @return
+         */
+        private int next(final int state, final char ch) {
+            return mTransitions[state * mClassCount + (ch < 128 ? mClasses[ch] : 0)];
+        }
+    }
+}
@@ -0,0 +1,439 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class handles the probabilistic sampling of the log events per tag and <code>LogType</code>.
+ * <p>
+ * The sampling rates are kept next to the <code>LogType</code> thresholds. A rate of
+ * <code>1.0</code> keeps all the events, <code>0.0</code> drops all and <code>0.01</code> keeps
+ * roughly one event out of hundred. The decision is made by a thread-local xorshift generator or,
+ * if a correlation key is set for the current thread, by hashing that key so that all the lines of
+ * one request are either kept or dropped together.
+ * <p>
+ * The sampled-out events are counted per tag and <code>LogType</code> and reported periodically by
+ * a background timer, while any sampling rule is configured, so the sampling decisions never
+ * report on the logging threads.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 09:12:47 AM
+ * @since 1.0.0
+ */
+public final class LogSampler {
+    
+    /** LOG_TAG */
+    private static final String LOG_TAG = "LogSampler";
+    
+    /** ALL_TAGS - the rule applied to the tags, which don't have their own rule. */
+    public static final String ALL_TAGS = "*";
+    
+    /** SAMPLE_BITS - the resolution of the sampling rates. */
+    private static final int SAMPLE_BITS = 24;
+    
+    /** SAMPLE_SCALE */
+    private static final int SAMPLE_SCALE = 1 << SAMPLE_BITS;
+    
+    /** REPORT_INTERVAL_MILLIS - the default interval of the sampled-out report. */
+    public static final long REPORT_INTERVAL_MILLIS = 60 * 1000L;
+    
+    /** LOG_TYPES */
+    private static final LogType[] LOG_TYPES = LogType.values();
+    
+    /** sRandomState - the per thread xorshift state. */
+    private static final ThreadLocal<long[]> sRandomState = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            long seed = mix64(System.nanoTime() ^ Thread.currentThread().getId());
+            return new long[]{(seed == 0 ? 0x9E3779B97F4A7C15L : seed)};
+        }
+    };
+    
+    /** sCorrelationKey - the correlation key of the current thread. */
+    private static final ThreadLocal<String> sCorrelationKey = new ThreadLocal<String>();
+    
+    /** mSamplingRules */
+    private final Map<String, SamplingRule> mSamplingRules = new ConcurrentHashMap<String, SamplingRule>();
+    
+    /** mEnabled - true, if any sampling rule is configured. */
+    private volatile boolean mEnabled;
+    
+    /** mReportInterval */
+    private volatile long mReportInterval = REPORT_INTERVAL_MILLIS;
+    
+    /** mReportTimer - runs only while any sampling rule is configured. */
+    private Timer mReportTimer;
+    
+    /** mReportTimerInterval - the interval the <code>mReportTimer</code> is scheduled with. */
+    private long mReportTimerInterval;
+    
+    /**
+     * Default Constructor.
+     */
+    public LogSampler() {
+    }
+    
+    /**
+     * Returns the <code>mEnabled</code> value.
+     *
+     * @return
+     */
+    public final boolean isEnabled() {
+        return mEnabled;
+    }
+    
+    /**
+     * The <code>samplingRate</code> to be set for the given <code>logTag</code> and
+     * <code>logType</code>. Use <code>ALL_TAGS</code> to set the rate for all the tags, which
+     * don't have their own rate.
+     *
+     * @param logTag
+     * @param logType
+     * @param samplingRate the rate between 0.0 (drop all) and 1.0 (keep all).
+     */
+    public final void setSamplingRate(final String logTag, final LogType logType, final double samplingRate) {
+        if(LogHelper.isNullOrEmpty(logTag)) {
+            throw new IllegalArgumentException("logTag is either NULL or EMPTY!");
+        }
+        if(LogHelper.isNull(logType)) {
+            throw new NullPointerException("The logType should not be NULL!");
+        }
+        if(samplingRate < 0.0d || samplingRate > 1.0d) {
+            throw new IllegalArgumentException("Invalid Value! samplingRate:" + samplingRate);
+        }
+        
+        synchronized(mSamplingRules) {
+            SamplingRule samplingRule = mSamplingRules.get(logTag);
+            if(LogHelper.isNull(samplingRule)) {
+                samplingRule = new SamplingRule(logTag);
+                mSamplingRules.put(logTag, samplingRule);
+            }
+            samplingRule.setThreshold(logType, (int) Math.round(samplingRate * SAMPLE_SCALE));
+            mEnabled = true;
+        }
+        scheduleReport();
+    }
+    
+    /**
+     * Returns the sampling rate of the given <code>logTag</code> and <code>logType</code>.
+     *
+     * @param logTag
+     * @param logType
+     * @return
+     */
+    public final double getSamplingRate(final String logTag, final LogType logType) {
+        final SamplingRule samplingRule = findRule(logTag);
+        return (LogHelper.isNull(samplingRule) ? 1.0d : ((double) samplingRule.getThreshold(logType) / SAMPLE_SCALE));
+    }
+    
+    /**
+     * Removes all the sampling rates of the given <code>logTag</code>.
+     *
+     * @param logTag
+     */
+    public final void removeSamplingRates(final String logTag) {
+        synchronized(mSamplingRules) {
+            mSamplingRules.remove(logTag);
+            mEnabled = !mSamplingRules.isEmpty();
+        }
+        scheduleReport();
+    }
+    
+    /**
+     * Removes all the sampling rates.
+     */
+    public final void clearSamplingRates() {
+        synchronized(mSamplingRules) {
+            mSamplingRules.clear();
+            mEnabled = false;
+        }
+        scheduleReport();
+    }
+    
+    /**
+     * Returns the <code>mReportInterval</code> value in milliseconds.
+     *
+     * @return
+     */
+    public final long getReportInterval() {
+        return mReportInterval;
+    }
+    
+    /**
+     * The <code>reportInterval</code> to be set in milliseconds. The value <code>0</code> disables
+     * the periodic report of the sampled-out events.
+     *
+     * @param reportInterval
+     */
+    public final void setReportInterval(final long reportInterval) {
+        if(reportInterval < 0) {
+            throw new IllegalArgumentException("Invalid Value! reportInterval:" + reportInterval);
+        }
+        mReportInterval = reportInterval;
+        scheduleReport();
+    }
+    
+    /**
+     * Starts, reschedules or stops the <code>mReportTimer</code> to match the rules and the
+     * <code>mReportInterval</code>.
+     */
+    private synchronized void scheduleReport() {
+        final long reportInterval = (mEnabled ? mReportInterval : 0);
+        if(reportInterval == mReportTimerInterval) {
+            return;
+        }
+        
+        if(LogHelper.isNotNull(mReportTimer)) {
+            mReportTimer.cancel();
+            mReportTimer = null;
+        }
+        mReportTimerInterval = reportInterval;
+        if(reportInterval > 0) {
+            mReportTimer = new Timer(LOG_TAG, true);
+            mReportTimer.scheduleAtFixedRate(new TimerTask() {
+                @Override
+                public void run() {
+                    report();
+                }
+            }, reportInterval, reportInterval);
+        }
+    }
+    
+    /**
+     * The <code>correlationKey</code> to be set for the current thread. While it's set, the
+     * sampling decisions of this thread are made by hashing the key, so that all the lines of one
+     * request are either kept or dropped together. Pass <code>null</code> to clear it.
+     *
+     * @param correlationKey
+     */
+    public static void setCorrelationKey(final String correlationKey) {
+        if(LogHelper.isNull(correlationKey)) {
+            sCorrelationKey.remove();
+        } else {
+            sCorrelationKey.set(correlationKey);
+        }
+    }
+    
+    /**
+     * Returns the correlation key of the current thread, if any.
+     *
+     * @return
+     */
+    public static String getCorrelationKey() {
+        return sCorrelationKey.get();
+    }
+    
+    /**
+     * Returns true if the event of the given <code>logTag</code> and <code>logType</code> should
+     * be kept otherwise false.
+     *
+     * @param logTag
+     * @param logType
+     * @return
+     */
+    public final boolean isSampled(final String logTag, final LogType logType) {
+        if(!mEnabled) {
+            return true;
+        }
+        
+        final SamplingRule samplingRule = findRule(logTag);
+        if(LogHelper.isNull(samplingRule)) {
+            return true;
+        }
+        
+        final int threshold = samplingRule.getThreshold(logType);
+        if(threshold >= SAMPLE_SCALE) {
+            return true;
+        } else if(threshold > 0) {
+            final String correlationKey = sCorrelationKey.get();
+            final long hash = (LogHelper.isNull(correlationKey) ? nextRandom() : mix64(correlationKey.hashCode()));
+            if((int) (hash >>> (64 - SAMPLE_BITS)) < threshold) {
+                return true;
+            }
+        }
+        
+        samplingRule.countSampledOut(logType);
+        return false;
+    }
+    
+    /**
+     * Returns the total number of events sampled out since the last report.
+     *
+     * @return
+     */
+    public final long getSampledOutCount() {
+        long sampledOut = 0;
+        for(SamplingRule samplingRule : mSamplingRules.values()) {
+            for(int i = 0; i < LOG_TYPES.length; i++) {
+                sampledOut += samplingRule.mSampledOut.get(i);
+            }
+        }
+        
+        return sampledOut;
+    }
+    
+    /**
+     * Logs the sampled-out counts and resets them.
+     *
+     * @return the report or null, if nothing was sampled out.
+     */
+    public final String report() {
+        StringBuilder reportBuilder = null;
+        final Iterator<SamplingRule> rules = mSamplingRules.values().iterator();
+        while(rules.hasNext()) {
+            final SamplingRule samplingRule = rules.next();
+            for(int i = 0; i < LOG_TYPES.length; i++) {
+                final long sampledOut = samplingRule.mSampledOut.getAndSet(i, 0);
+                if(sampledOut > 0) {
+                    if(LogHelper.isNull(reportBuilder)) {
+                        reportBuilder = new StringBuilder("Sampled out events:");
+                    }
+                    reportBuilder.append(LogHelper.SPACE).append(samplingRule.mLogTag).append('/').append(LOG_TYPES[i]).append('=').append(sampledOut);
+                }
+            }
+        }
+        
+        if(LogHelper.isNull(reportBuilder)) {
+            return null;
+        }
+        
+        final String report = reportBuilder.toString();
+        LogHelper.logReport(LOG_TAG, report);
+        return report;
+    }
+    
+    /**
+     * Returns the rule of the given <code>logTag</code> or the <code>ALL_TAGS</code> rule.
+     *
+     * @param logTag
+     * @return
+     */
+    private SamplingRule findRule(final String logTag) {
+        SamplingRule samplingRule = (LogHelper.isNull(logTag) ? null : mSamplingRules.get(logTag));
+        if(LogHelper.isNull(samplingRule)) {
+            samplingRule = mSamplingRules.get(ALL_TAGS);
+        }
+        
+        return samplingRule;
+    }
+    
+    /**
+     * Returns the next random value of the current thread (xorshift64*).
+     *
+     * @return
+     */
+    private static long nextRandom() {
+        final long[] state = sRandomState.get();
+        long x = state[0];
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        state[0] = x;
+        return x * 0x2545F4914F6CDD1DL;
+    }
+    
+    /**
+     * Mixes the bits of the given <code>value</code> (the finalizer of the MurmurHash3).
+     *
+     * @param value
+     * @return
+     */
+    private static long mix64(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+    
+    /**
+     * The sampling thresholds and the sampled-out counts of one tag.
+     */
+    private static final class SamplingRule {
+        
+        /** mLogTag */
+        private final String mLogTag;
+        
+        /** mThresholds - indexed by <code>LogType.ordinal()</code>, replaced on every change. */
+        private volatile int[] mThresholds;
+        
+        /** mSampledOut - indexed by <code>LogType.ordinal()</code>. */
+        private final AtomicLongArray mSampledOut = new AtomicLongArray(LOG_TYPES.length);
+        
+        /**
+         * @param logTag
+         */
+        private SamplingRule(final String logTag) {
+            mLogTag = logTag;
+            final int[] thresholds = new int[LOG_TYPES.length];
+            for(int i = 0; i < thresholds.length; i++) {
+                thresholds[i] = SAMPLE_SCALE;
+            }
+            mThresholds = thresholds;
+        }
+        
+        /**
+         * @param logType
+         * @return
+         */
+        private int getThreshold(final LogType logType) {
+            return mThresholds[logType.ordinal()];
+        }
+        
+        /**
+         * Publishes a copy of the thresholds with the given <code>threshold</code> set, so that
+         * the readers never see a partially updated array. The writers are serialized by the
+         * <code>mSamplingRules</code> lock.
+         *
+         * @param logType
+         * @param threshold
+         */
+        private void setThreshold(final LogType logType, final int threshold) {
+            final int[] thresholds = mThresholds.clone();
+            thresholds[logType.ordinal()] = threshold;
+            mThresholds = thresholds;
+        }
+        
+        /**
+         * @param logType
+         */
+        private void countSampledOut(final LogType logType) {
+            mSampledOut.incrementAndGet(logType.ordinal());
+        }
+    }
+}
@@ -0,0 +1,632 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Uploads the finished log segments of the logs folder (the rolled and the sealed ones, never the
+ * files the appenders are still writing) to an HTTP endpoint in the background.
+ * <p>
+ * The new bytes of the segments are batched (up to the <code>maxBatchBytes</code>), compressed
+ * and spooled into the <code>upload</code> folder of the logs folder before they are sent, each
+ * segment chunk preceded by a <code>--- segment:name offset:n length:n</code> line. Once the
+ * endpoint accepts the batch, the byte offsets reached in its segments are checkpointed, so only
+ * the new data is sent next time. The checkpoints are keyed by the content of the segments (not
+ * their names, which change as the backups are rolled), the spooled batch and the checkpoints
+ * survive the restarts and a batch is retried with the same <code>X-Log-Batch</code> id until it's
+ * accepted, so the endpoint receives every batch at least once.
+ * <p>
+ * The failed uploads are retried with an exponential back off and the upload bandwidth can be
+ * capped.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-20 05:06:41 AM
+ * @since 1.0.0
+ */
+public final class LogUploader {
+    
+    /** LOG_TAG */
+    private static final String LOG_TAG = "LogUploader";
+    
+    /** SPOOL_FOLDER - the folder of the logs folder, the batches are spooled into. */
+    public static final String SPOOL_FOLDER = "upload";
+    
+    /** BATCH_HEADER - the header of the batch id. */
+    public static final String BATCH_HEADER = "X-Log-Batch";
+    
+    /** DEFAULT_MAX_BATCH_BYTES */
+    public static final int DEFAULT_MAX_BATCH_BYTES = 256 * 1024;
+    
+    /** FINISHED_PATTERN - the rolled and the sealed segments, which are not written anymore. */
+    private static final Pattern FINISHED_PATTERN = Pattern.compile(".+\\.(log|wal)\\.[-_0-9]+(\\.gz)?");
+    
+    /** CHECKPOINTS_FILE */
+    private static final String CHECKPOINTS_FILE = "checkpoints.properties";
+    
+    /** BATCH_SUFFIX */
+    private static final String BATCH_SUFFIX = ".batch";
+    
+    /** PROPERTIES_SUFFIX */
+    private static final String PROPERTIES_SUFFIX = ".properties";
+    
+    /** TEMP_SUFFIX */
+    private static final String TEMP_SUFFIX = ".tmp";
+    
+    /** NEXT_BATCH */
+    private static final String NEXT_BATCH = "nextBatch";
+    
+    /** SEGMENT_PREFIX */
+    private static final String SEGMENT_PREFIX = "segment.";
+    
+    /** FINGERPRINT_SIZE - the leading bytes of a segment, which identify it. */
+    private static final int FINGERPRINT_SIZE = 1024;
+    
+    /** BUFFER_SIZE */
+    private static final int BUFFER_SIZE = 16 * 1024;
+    
+    /** mLogsFolder */
+    private final File mLogsFolder;
+    
+    /** mSpoolFolder */
+    private final File mSpoolFolder;
+    
+    /** mEndpoint */
+    private final URL mEndpoint;
+    
+    /** mUploadLock - serializes the uploads. */
+    private final Object mUploadLock = new Object();
+    
+    /** mRandom - the jitter of the back off. */
+    private final Random mRandom = new Random();
+    
+    /** mMaxBatchBytes - the uncompressed bytes of a batch. */
+    private volatile int mMaxBatchBytes = DEFAULT_MAX_BATCH_BYTES;
+    
+    /** mMaxBytesPerSecond - the upload bandwidth, 0 if it's not capped. */
+    private volatile long mMaxBytesPerSecond;
+    
+    /** mInitialBackoffMillis */
+    private volatile long mInitialBackoffMillis = 1000L;
+    
+    /** mMaxBackoffMillis */
+    private volatile long mMaxBackoffMillis = 5 * 60 * 1000L;
+    
+    /** mTimeoutMillis - the connect and the read timeout. */
+    private volatile int mTimeoutMillis = 30 * 1000;
+    
+    /** mBackoffMillis - the current back off, 0 after a successful upload. */
+    private long mBackoffMillis;
+    
+    /** mPeriodMillis */
+    private long mPeriodMillis;
+    
+    /** mTimer */
+    private Timer mTimer;
+    
+    /**
+     * @param logsFolder
+     * @param endpoint
+     */
+    public LogUploader(final File logsFolder, final URL endpoint) {
+        if(LogHelper.isNull(logsFolder)) {
+            throw new NullPointerException("The logsFolder should not be NULL!");
+        }
+        if(LogHelper.isNull(endpoint)) {
+            throw new NullPointerException("The endpoint should not be NULL!");
+        }
+        
+        mLogsFolder = logsFolder;
+        mSpoolFolder = new File(logsFolder, SPOOL_FOLDER);
+        mEndpoint = endpoint;
+    }
+    
+    /**
+     * The <code>mMaxBatchBytes</code> to be set.
+     *
+     * @param maxBatchBytes
+     */
+    public final void setMaxBatchBytes(final int maxBatchBytes) {
+        if(maxBatchBytes <= 0) {
+            throw new IllegalArgumentException("Invalid Value! maxBatchBytes:" + maxBatchBytes);
+        }
+        
+        mMaxBatchBytes = maxBatchBytes;
+    }
+    
+    /**
+     * Caps the upload bandwidth, 0 removes the cap.
+     *
+     * @param maxBytesPerSecond
+     */
+    public final void setMaxBytesPerSecond(final long maxBytesPerSecond) {
+        if(maxBytesPerSecond < 0) {
+            throw new IllegalArgumentException("Invalid Value! maxBytesPerSecond:" + maxBytesPerSecond);
+        }
+        
+        mMaxBytesPerSecond = maxBytesPerSecond;
+    }
+    
+    /**
+     * The back off after the first failed upload, doubled on each next failure up to the
+     * <code>maxBackoffMillis</code>.
+     *
+     * @param initialBackoffMillis
+     * @param maxBackoffMillis
+     */
+    public final void setBackoff(final long initialBackoffMillis, final long maxBackoffMillis) {
+        if(initialBackoffMillis <= 0 || maxBackoffMillis < initialBackoffMillis) {
+            throw new IllegalArgumentException("Invalid Value! initialBackoffMillis:" + initialBackoffMillis + ", maxBackoffMillis:" + maxBackoffMillis);
+        }
+        
+        mInitialBackoffMillis = initialBackoffMillis;
+        mMaxBackoffMillis = maxBackoffMillis;
+    }
+    
+    /**
+     * The <code>mTimeoutMillis</code> to be set.
+     *
+     * @param timeoutMillis
+     */
+    public final void setTimeoutMillis(final int timeoutMillis) {
+        if(timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Invalid Value! timeoutMillis:" + timeoutMillis);
+        }
+        
+        mTimeoutMillis = timeoutMillis;
+    }
+    
+    /**
+     * Starts uploading every <code>periodMillis</code>, or after the back off, if an upload
+     * failed.
+     *
+     * @param periodMillis
+     */
+    public final synchronized void start(final long periodMillis) {
+        if(periodMillis <= 0) {
+            throw new IllegalArgumentException("Invalid Value! periodMillis:" + periodMillis);
+        }
+        
+        stop();
+        mPeriodMillis = periodMillis;
+        mTimer = new Timer(LOG_TAG, true);
+        schedule(periodMillis);
+    }
+    
+    /**
+     * Stops uploading, the spooled batch is sent after the next start.
+     */
+    public final synchronized void stop() {
+        if(LogHelper.isNotNull(mTimer)) {
+            mTimer.cancel();
+            mTimer = null;
+        }
+    }
+    
+    /**
+     * @param delayMillis
+     */
+    private synchronized void schedule(final long delayMillis) {
+        if(LogHelper.isNotNull(mTimer)) {
+            mTimer.schedule(new TimerTask() {
+                @Override
+                public void run() {
+                    boolean succeeded = false;
+                    try {
+                        upload();
+                        succeeded = true;
+                    } catch(IOException ex) {
+                        Log.w(LOG_TAG, "Unable to upload the logs to:" + mEndpoint, ex);
+                    }
+                    schedule(nextDelayMillis(succeeded));
+                }
+            }, delayMillis);
+        }
+    }
+    
+    /**
+     * Returns the delay of the next upload, the period after a successful upload or the doubled
+     * back off (with a random jitter of its half) after a failed one.
+     *
+     * @param succeeded
+     * @return
+     */
+    final synchronized long nextDelayMillis(final boolean succeeded) {
+        if(succeeded) {
+            mBackoffMillis = 0;
+            return mPeriodMillis;
+        }
+        
+        mBackoffMillis = (mBackoffMillis == 0 ? mInitialBackoffMillis : Math.min(mBackoffMillis * 2, mMaxBackoffMillis));
+        return mBackoffMillis - (long) (mRandom.nextDouble() * (mBackoffMillis / 2));
+    }
+    
+    /**
+     * Sends the spooled batch and then the batches of the new data of the finished segments,
+     * until all of them are uploaded.
+     *
+     * @return the number of the batches sent.
+     * @throws IOException if a batch isn't accepted, it stays spooled.
+     */
+    public final int upload() throws IOException {
+        synchronized(mUploadLock) {
+            if(!mSpoolFolder.exists() && !mSpoolFolder.mkdirs()) {
+                throw new IOException("Unable to create:" + mSpoolFolder);
+            }
+            
+            int batches = 0;
+            File batchProperties = getSpooledBatch();
+            if(LogHelper.isNull(batchProperties)) {
+                batchProperties = spoolBatch();
+            }
+            while(LogHelper.isNotNull(batchProperties)) {
+                final Properties properties = readProperties(batchProperties);
+                final String batchId = batchProperties.getName().substring(0, batchProperties.getName().length() - PROPERTIES_SUFFIX.length());
+                final File batchFile = new File(mSpoolFolder, batchId + BATCH_SUFFIX);
+                send(batchFile, batchId);
+                commit(properties);
+                batchFile.delete();
+                batchProperties.delete();
+                batches++;
+                batchProperties = spoolBatch();
+            }
+            
+            return batches;
+        }
+    }
+    
+    /**
+     * Returns the properties of the batch spooled before, deleting the incomplete ones.
+     *
+     * @return
+     */
+    private File getSpooledBatch() {
+        File spooled = null;
+        final File[] files = mSpoolFolder.listFiles();
+        if(LogHelper.isNotNull(files)) {
+            for(File file : files) {
+                final String fileName = file.getName();
+                if(fileName.endsWith(PROPERTIES_SUFFIX) && !CHECKPOINTS_FILE.equals(fileName)) {
+                    spooled = file;
+                } else if(fileName.endsWith(TEMP_SUFFIX)) {
+                    file.delete();
+                }
+            }
+            // the data of a batch is renamed before its properties, the orphans are incomplete.
+            for(File file : files) {
+                final String fileName = file.getName();
+                if(fileName.endsWith(BATCH_SUFFIX) && (LogHelper.isNull(spooled) || !spooled.getName().equals(fileName.substring(0, fileName.length() - BATCH_SUFFIX.length()) + PROPERTIES_SUFFIX))) {
+                    file.delete();
+                }
+            }
+        }
+        
+        return spooled;
+    }
+    
+    /**
+     * Spools the next batch of the new data of the finished segments, oldest first.
+     *
+     * @return the properties of the batch, null if there is no new data.
+     * @throws IOException
+     */
+    private File spoolBatch() throws IOException {
+        final File checkpointsFile = new File(mSpoolFolder, CHECKPOINTS_FILE);
+        final Properties checkpoints = readProperties(checkpointsFile);
+        final long batchSequence = Long.parseLong(checkpoints.getProperty(NEXT_BATCH, "1"));
+        final String batchId = String.valueOf(batchSequence);
+        final File batchTemp = new File(mSpoolFolder, batchId + BATCH_SUFFIX + TEMP_SUFFIX);
+        final Properties batch = new Properties();
+        final Set<String> segmentKeys = new HashSet<String>();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        long batchBytes = 0;
+        
+        final OutputStream outputStream = new GZIPOutputStream(new FileOutputStream(batchTemp), BUFFER_SIZE);
+        try {
+            for(File segmentFile : getFinishedSegments()) {
+                final RandomAccessFile randomAccessFile;
+                try {
+                    randomAccessFile = new RandomAccessFile(segmentFile, "r");
+                } catch(IOException ex) {
+                    // rolled away since listed.
+                    continue;
+                }
+                try {
+                    final long length = randomAccessFile.length();
+                    final String segmentKey = SEGMENT_PREFIX + getFingerprint(randomAccessFile, length);
+                    segmentKeys.add(segmentKey);
+                    final long offset = Long.parseLong(checkpoints.getProperty(segmentKey, "0"));
+                    final long size = Math.min(length - offset, mMaxBatchBytes - batchBytes);
+                    if(size <= 0) {
+                        continue;
+                    }
+                    
+                    outputStream.write(("--- segment:" + segmentFile.getName() + " offset:" + offset + " length:" + size + "\n").getBytes(Utf8StreamWriter.UTF_8));
+                    randomAccessFile.seek(offset);
+                    long remaining = size;
+                    while(remaining > 0) {
+                        final int count = randomAccessFile.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                        if(count < 0) {
+                            throw new IOException("The segment is truncated:" + segmentFile);
+                        }
+                        outputStream.write(buffer, 0, count);
+                        remaining -= count;
+                    }
+                    batch.setProperty(segmentKey, String.valueOf(offset + size));
+                    batchBytes += size;
+                } finally {
+                    randomAccessFile.close();
+                }
+            }
+        } finally {
+            outputStream.close();
+        }
+        
+        // forgets the checkpoints of the deleted segments.
+        boolean pruned = false;
+        for(String key : checkpoints.stringPropertyNames()) {
+            if(key.startsWith(SEGMENT_PREFIX) && !segmentKeys.contains(key)) {
+                checkpoints.remove(key);
+                pruned = true;
+            }
+        }
+        
+        if(batch.isEmpty()) {
+            batchTemp.delete();
+            if(pruned) {
+                writeProperties(checkpointsFile, checkpoints);
+            }
+            return null;
+        }
+        
+        checkpoints.setProperty(NEXT_BATCH, String.valueOf(batchSequence + 1));
+        writeProperties(checkpointsFile, checkpoints);
+        if(!batchTemp.renameTo(new File(mSpoolFolder, batchId + BATCH_SUFFIX))) {
+            throw new IOException("Unable to rename:" + batchTemp);
+        }
+        final File batchProperties = new File(mSpoolFolder, batchId + PROPERTIES_SUFFIX);
+        writeProperties(batchProperties, batch);
+        return batchProperties;
+    }
+    
+    /**
+     * Returns the finished segments of the logs folder, the oldest first.
+     *
+     * @return
+     */
+    private List<File> getFinishedSegments() {
+        final List<File> finishedSegments = new ArrayList<File>();
+        for(File segmentFile : LogMergeReader.getSegmentFiles(mLogsFolder)) {
+            if(FINISHED_PATTERN.matcher(segmentFile.getName()).matches()) {
+                finishedSegments.add(segmentFile);
+            }
+        }
+        Collections.sort(finishedSegments, new Comparator<File>() {
+            @Override
+            public int compare(final File left, final File right) {
+                final long leftModified = left.lastModified();
+                final long rightModified = right.lastModified();
+                return (leftModified < rightModified ? -1 : (leftModified > rightModified ? 1 : left.getName().compareTo(right.getName())));
+            }
+        });
+        
+        return finishedSegments;
+    }
+    
+    /**
+     * Returns the fingerprint of the leading bytes of the segment, which doesn't change when the
+     * segment is renamed.
+     *
+     * @param randomAccessFile
+     * @param length
+     * @return
+     * @throws IOException
+     */
+    private static String getFingerprint(final RandomAccessFile randomAccessFile, final long length) throws IOException {
+        final byte[] bytes = new byte[(int) Math.min(FINGERPRINT_SIZE, length)];
+        randomAccessFile.seek(0);
+        randomAccessFile.readFully(bytes);
+        return Integer.toHexString(Crc32c.checksum(bytes, 0, bytes.length)) + "-" + bytes.length;
+    }
+    
+    /**
+     * Posts the batch file to the endpoint.
+     *
+     * @param batchFile
+     * @param batchId
+     * @throws IOException
+     */
+    private void send(final File batchFile, final String batchId) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) mEndpoint.openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setConnectTimeout(mTimeoutMillis);
+            connection.setReadTimeout(mTimeoutMillis);
+            connection.setFixedLengthStreamingMode(batchFile.length());
+            connection.setRequestProperty("Content-Type", "application/octet-stream");
+            connection.setRequestProperty("Content-Encoding", "gzip");
+            connection.setRequestProperty(BATCH_HEADER, batchId);
+            
+            final InputStream inputStream = new FileInputStream(batchFile);
+            try {
+                final OutputStream outputStream = new ThrottledOutputStream(connection.getOutputStream(), mMaxBytesPerSecond);
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                int length;
+                while((length = inputStream.read(buffer)) > 0) {
+                    outputStream.write(buffer, 0, length);
+                }
+                outputStream.close();
+            } finally {
+                LogHelper.closeSilently(inputStream);
+            }
+            
+            final int responseCode = connection.getResponseCode();
+            final InputStream responseStream = (responseCode < HttpURLConnection.HTTP_BAD_REQUEST ? connection.getInputStream() : connection.getErrorStream());
+            LogHelper.closeSilently(responseStream);
+            if(responseCode < HttpURLConnection.HTTP_OK || responseCode >= HttpURLConnection.HTTP_MULT_CHOICE) {
+                throw new IOException("Unable to upload the batch:" + batchId + ", responseCode:" + responseCode);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+    
+    /**
+     * Advances the checkpoints to the offsets of the uploaded batch.
+     *
+     * @param batch
+     * @throws IOException
+     */
+    private void commit(final Properties batch) throws IOException {
+        final File checkpointsFile = new File(mSpoolFolder, CHECKPOINTS_FILE);
+        final Properties checkpoints = readProperties(checkpointsFile);
+        for(String key : batch.stringPropertyNames()) {
+            final long offset = Long.parseLong(batch.getProperty(key));
+            if(offset > Long.parseLong(checkpoints.getProperty(key, "0"))) {
+                checkpoints.setProperty(key, String.valueOf(offset));
+            }
+        }
+        writeProperties(checkpointsFile, checkpoints);
+    }
+    
+    /**
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    private static Properties readProperties(final File file) throws IOException {
+        final Properties properties = new Properties();
+        if(file.exists()) {
+            final InputStream inputStream = new FileInputStream(file);
+            try {
+                properties.load(inputStream);
+            } finally {
+                inputStream.close();
+            }
+        }
+        
+        return properties;
+    }
+    
+    /**
+     * Replaces the file with the given <code>properties</code> through a temporary file, so a
+     * crash never leaves it half written.
+     *
+     * @param file
+     * @param properties
+     * @throws IOException
+     */
+    private static void writeProperties(final File file, final Properties properties) throws IOException {
+        final File tempFile = new File(file.getPath() + TEMP_SUFFIX);
+        final FileOutputStream outputStream = new FileOutputStream(tempFile);
+        try {
+            properties.store(outputStream, null);
+            outputStream.getFD().sync();
+        } finally {
+            outputStream.close();
+        }
+        if(!tempFile.renameTo(file)) {
+            throw new IOException("Unable to rename:" + tempFile);
+        }
+    }
+    
+    /**
+     * Writes no faster than the <code>maxBytesPerSecond</code>, if it's set.
+     */
+    private static final class ThrottledOutputStream extends FilterOutputStream {
+        
+        /** mMaxBytesPerSecond */
+        private final long mMaxBytesPerSecond;
+        
+        /** mStartMillis */
+        private final long mStartMillis = System.currentTimeMillis();
+        
+        /** mWritten */
+        private long mWritten;
+        
+        /**
+         * @param outputStream
+         * @param maxBytesPerSecond
+         */
+        private ThrottledOutputStream(final OutputStream outputStream, final long maxBytesPerSecond) {
+            super(outputStream);
+            mMaxBytesPerSecond = maxBytesPerSecond;
+        }
+        
+        /**
+         * @param bytes
+         * @param offset
+         * @param length
+         * @throws IOException
+         */
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            out.write(bytes, offset, length);
+            mWritten += length;
+            if(mMaxBytesPerSecond > 0) {
+                final long aheadMillis = mWritten * 1000L / mMaxBytesPerSecond - (System.currentTimeMillis() - mStartMillis);
+                if(aheadMillis > 0) {
+                    try {
+                        Thread.sleep(aheadMillis);
+                    } catch(InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("The upload is interrupted!");
+                    }
+                }
+            }
+        }
+    }
+}
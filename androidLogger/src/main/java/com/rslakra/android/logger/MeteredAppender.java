@@ -0,0 +1,274 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import org.apache.log4j.Appender;
+import org.apache.log4j.Layout;
+import org.apache.log4j.spi.ErrorHandler;
+import org.apache.log4j.spi.Filter;
+import org.apache.log4j.spi.LoggingEvent;
+
+/**
+ * A log4j appender, which records the events, the bytes and the time spent in the wrapped
+ * appender into the <code>LogMetrics</code>.
+ * <p>
+ * The bytes are counted by wrapping the layout of the wrapped appender, so the events are still
+ * formatted only once. They are the UTF-8 encoded bytes, which the appenders write.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 11:04:13 AM
+ * @since 1.0.0
+ */
+public final class MeteredAppender implements Appender {
+    
+    /** mAppender */
+    private final Appender mAppender;
+    
+    /** mLogMetrics */
+    private final LogMetrics mLogMetrics;
+    
+    /** mAppenderMetrics */
+    private final LogMetrics.AppenderMetrics mAppenderMetrics;
+    
+    /**
+     * @param appender
+     * @param appenderName
+     * @param logMetrics
+     */
+    public MeteredAppender(final Appender appender, final String appenderName, final LogMetrics logMetrics) {
+        if(LogHelper.isNull(appender)) {
+            throw new NullPointerException("The appender should not be NULL!");
+        }
+        if(LogHelper.isNull(logMetrics)) {
+            throw new NullPointerException("The logMetrics should not be NULL!");
+        }
+        
+        mAppender = appender;
+        mLogMetrics = logMetrics;
+        mAppenderMetrics = logMetrics.getAppenderMetrics(appenderName);
+        mAppender.setName(appenderName);
+        if(LogHelper.isNotNull(mAppender.getLayout()) && !(mAppender.getLayout() instanceof MeteredLayout)) {
+            mAppender.setLayout(new MeteredLayout(mAppender.getLayout()));
+        }
+    }
+    
+    /**
+     * Returns the wrapped appender.
+     *
+     * @return
+     */
+    public final Appender getAppender() {
+        return mAppender;
+    }
+    
+    /**
+     * Appends the event to the wrapped appender and records the time spent in it.
+     *
+     * @param logEvent
+     */
+    @Override
+    public final void doAppend(final LoggingEvent logEvent) {
+        if(mLogMetrics.isEnabled()) {
+            final long startTime = System.nanoTime();
+            mAppender.doAppend(logEvent);
+            mAppenderMetrics.recordAppend(System.nanoTime() - startTime);
+        } else {
+            mAppender.doAppend(logEvent);
+        }
+    }
+    
+    /**
+     * @param newFilter
+     */
+    @Override
+    public final void addFilter(final Filter newFilter) {
+        mAppender.addFilter(newFilter);
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final Filter getFilter() {
+        return mAppender.getFilter();
+    }
+    
+    /**
+     *
+     */
+    @Override
+    public final void clearFilters() {
+        mAppender.clearFilters();
+    }
+    
+    /**
+     *
+     */
+    @Override
+    public final void close() {
+        mAppender.close();
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final String getName() {
+        return mAppender.getName();
+    }
+    
+    /**
+     * @param name
+     */
+    @Override
+    public final void setName(final String name) {
+        mAppender.setName(name);
+    }
+    
+    /**
+     * @param errorHandler
+     */
+    @Override
+    public final void setErrorHandler(final ErrorHandler errorHandler) {
+        mAppender.setErrorHandler(errorHandler);
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final ErrorHandler getErrorHandler() {
+        return mAppender.getErrorHandler();
+    }
+    
+    /**
+     * @param layout
+     */
+    @Override
+    public final void setLayout(final Layout layout) {
+        mAppender.setLayout(LogHelper.isNull(layout) || layout instanceof MeteredLayout ? layout : new MeteredLayout(layout));
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final Layout getLayout() {
+        return mAppender.getLayout();
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final boolean requiresLayout() {
+        return mAppender.requiresLayout();
+    }
+    
+    /**
+     * The layout, which counts the UTF-8 encoded bytes of the formatted events and of the stack
+     * traces, which the appenders write themselves.
+     */
+    private final class MeteredLayout extends Layout {
+        
+        /** mLayout */
+        private final Layout mLayout;
+        
+        /**
+         * @param layout
+         */
+        private MeteredLayout(final Layout layout) {
+            mLayout = layout;
+        }
+        
+        /**
+         * @param logEvent
+         * @return
+         */
+        @Override
+        public String format(final LoggingEvent logEvent) {
+            final String formatted = mLayout.format(logEvent);
+            if(mLogMetrics.isEnabled() && LogHelper.isNotNull(formatted)) {
+                long bytes = Utf8StreamWriter.encodedLength(formatted);
+                // the appender writes the stack trace lines itself, if the layout ignores them.
+                final String[] throwableStrRep = (mLayout.ignoresThrowable() ? logEvent.getThrowableStrRep() : null);
+                if(LogHelper.isNotNull(throwableStrRep)) {
+                    for(String line : throwableStrRep) {
+                        bytes += Utf8StreamWriter.encodedLength(line) + Layout.LINE_SEP_LEN;
+                    }
+                }
+                mAppenderMetrics.recordBytes(bytes);
+            }
+            
+            return formatted;
+        }
+        
+        /**
+         * @return
+         */
+        @Override
+        public boolean ignoresThrowable() {
+            return mLayout.ignoresThrowable();
+        }
+        
+        /**
+         * @return
+         */
+        @Override
+        public String getContentType() {
+            return mLayout.getContentType();
+        }
+        
+        /**
+         * @return
+         */
+        @Override
+        public String getHeader() {
+            return mLayout.getHeader();
+        }
+        
+        /**
+         * @return
+         */
+        @Override
+        public String getFooter() {
+            return mLayout.getFooter();
+        }
+        
+        /**
+         *
+         */
+        @Override
+        public void activateOptions() {
+            mLayout.activateOptions();
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import org.apache.log4j.Layout;
+import org.apache.log4j.helpers.CountingQuietWriter;
+import org.apache.log4j.spi.ErrorCode;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The rolling file appender for the apps logging from more than one process into the same logs
+ * folder. Each process writes its own segment named by the process and the pid (e.g.
+ * <code>android-remote-1234.log</code> for the <code>android.log</code>), so the events are
+ * written without any lock shared across the processes.
+ * <p>
+ * The rolling and the retention are coordinated through the <code>SegmentManifest</code> of the
+ * log file: a full segment is sealed under its <code>FileLock</code> with the next sequence
+ * number of all the processes (e.g. <code>android-remote-1234.log.7</code>) and only the newest
+ * <code>maxBackupIndex</code> sealed segments of all the processes are kept.
+ * <p>
+ * The segments left unsealed by the dead processes are sealed, when an appender is created, so
+ * that a new pid doesn't leave them out of the manifest and its retention.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-20 02:21:36 AM
+ * @since 1.0.0
+ */
+public class MultiProcessFileAppender extends Utf8RollingFileAppender {
+    
+    /** MAIN_PROCESS - the segment name of the process without a <code>:name</code> suffix. */
+    public static final String MAIN_PROCESS = "main";
+    
+    /** sProcessName */
+    private static volatile String sProcessName;
+    
+    /** sOpenSegments - the segments written by the appenders of this process, never orphans. */
+    private static final Set<String> sOpenSegments = Collections.synchronizedSet(new HashSet<String>());
+    
+    /** mSegmentPath - the absolute path of the segment, the close resets the fileName. */
+    private final String mSegmentPath;
+    
+    /** mSegmentManifest */
+    private final SegmentManifest mSegmentManifest;
+    
+    /** mNextRollOver - the size of the segment to retry the failed roll over at. */
+    private long mNextRollOver;
+    
+    /**
+     * @param layout
+     * @param logFilePath - the shared log file path, the segment is derived from.
+     * @param processName
+     * @param pid
+     * @throws IOException
+     */
+    public MultiProcessFileAppender(final Layout layout, final String logFilePath, final String processName, final int pid) throws IOException {
+        super(layout, getSegmentFilePath(logFilePath, processName, pid), true);
+        mSegmentManifest = new SegmentManifest(new File(logFilePath + SegmentManifest.MANIFEST_SUFFIX));
+        mSegmentPath = new File(fileName).getAbsolutePath();
+        sOpenSegments.add(mSegmentPath);
+        sealOrphanedSegments(new File(logFilePath).getAbsoluteFile());
+    }
+    
+    /**
+     * Writes into the segment of the current process.
+     *
+     * @param layout
+     * @param logFilePath
+     * @throws IOException
+     */
+    public MultiProcessFileAppender(final Layout layout, final String logFilePath) throws IOException {
+        this(layout, logFilePath, getProcessName(), android.os.Process.myPid());
+    }
+    
+    /**
+     * Returns the name of the current process read from the <code>/proc/self/cmdline</code>
+     * (e.g. <code>com.example:remote</code>) or the <code>MAIN_PROCESS</code>, if it can't be
+     * read.
+     *
+     * @return
+     */
+    public static String getProcessName() {
+        if(LogHelper.isNull(sProcessName)) {
+            String processName = MAIN_PROCESS;
+            InputStream inputStream = null;
+            try {
+                inputStream = new FileInputStream("/proc/self/cmdline");
+                final byte[] buffer = new byte[256];
+                final int length = inputStream.read(buffer);
+                int end = 0;
+                while(end < length && buffer[end] != 0) {
+                    end++;
+                }
+                if(end > 0) {
+                    processName = new String(buffer, 0, end, Utf8StreamWriter.UTF_8).trim();
+                }
+            } catch(IOException ex) {
+                // not available, the main process is assumed.
+            } finally {
+                LogHelper.closeSilently(inputStream);
+            }
+            sProcessName = processName;
+        }
+        
+        return sProcessName;
+    }
+    
+    /**
+     * Returns the segment file path of the given process, the <code>:name</code> suffix of the
+     * process name (or the <code>MAIN_PROCESS</code>) and the <code>pid</code> are inserted
+     * before the extension of the <code>logFilePath</code>.
+     *
+     * @param logFilePath
+     * @param processName
+     * @param pid
+     * @return
+     */
+    public static String getSegmentFilePath(final String logFilePath, final String processName, final int pid) {
+        if(LogHelper.isNullOrEmpty(logFilePath)) {
+            throw new IllegalArgumentException("logFilePath is either NULL or EMPTY!");
+        }
+        
+        String segmentName = MAIN_PROCESS;
+        if(LogHelper.isNotNull(processName) && processName.indexOf(':') >= 0) {
+            segmentName = processName.substring(processName.lastIndexOf(':') + 1).replaceAll("[^A-Za-z0-9._]", "_");
+        }
+        
+        final int slash = logFilePath.lastIndexOf(File.separatorChar);
+        final int dot = logFilePath.lastIndexOf('.');
+        final String suffix = "-" + segmentName + "-" + pid;
+        return (dot > slash + 1 ? logFilePath.substring(0, dot) + suffix + logFilePath.substring(dot) : logFilePath + suffix);
+    }
+    
+    /**
+     * Returns true, if the process of the given <code>pid</code> is running or it can't be told.
+     *
+     * @param pid
+     * @return
+     */
+    private static boolean isProcessAlive(final int pid) {
+        final File procFolder = new File("/proc");
+        return (!procFolder.isDirectory() || new File(procFolder, String.valueOf(pid)).exists());
+    }
+    
+    /**
+     * Seals the segments of the given shared <code>logFile</code>, which the dead processes left
+     * unsealed, through the manifest. They are deleted by the retention of the next roll over.
+     *
+     * @param logFile
+     */
+    private void sealOrphanedSegments(final File logFile) {
+        final File[] files = logFile.getParentFile().listFiles();
+        if(LogHelper.isNull(files)) {
+            return;
+        }
+        
+        final String logFileName = logFile.getName();
+        final int dot = logFileName.lastIndexOf('.');
+        final String prefix = (dot > 0 ? logFileName.substring(0, dot) : logFileName);
+        final String extension = (dot > 0 ? logFileName.substring(dot) : "");
+        final Pattern segmentPattern = Pattern.compile(Pattern.quote(prefix + "-") + "[A-Za-z0-9._]+-(\\d{1,9})" + Pattern.quote(extension));
+        for(File file : files) {
+            final Matcher matcher = segmentPattern.matcher(file.getName());
+            if(!matcher.matches() || sOpenSegments.contains(file.getAbsolutePath()) || isProcessAlive(Integer.parseInt(matcher.group(1)))) {
+                continue;
+            }
+            
+            try {
+                mSegmentManifest.sealOrphan(file);
+            } catch(IOException ex) {
+                errorHandler.error("Unable to seal the orphaned segment:" + file, ex, ErrorCode.GENERIC_FAILURE);
+            }
+        }
+    }
+    
+    /**
+     * Returns the manifest file shared by the processes.
+     *
+     * @return
+     */
+    public final File getManifestFile() {
+        return mSegmentManifest.getFile();
+    }
+    
+    /**
+     * Seals the segment through the manifest and starts a new one. If the manifest can't be
+     * updated, the segment keeps growing and the roll over is retried after another
+     * <code>maxFileSize</code> bytes.
+     */
+    @Override
+    public void rollOver() {
+        final long size = (qw instanceof CountingQuietWriter ? ((CountingQuietWriter) qw).getCount() : 0);
+        if(size < mNextRollOver) {
+            return;
+        }
+        
+        if(LogHelper.isNotNull(qw)) {
+            qw.flush();
+        }
+        try {
+            mSegmentManifest.seal(new File(fileName), getMaxBackupIndex());
+        } catch(IOException ex) {
+            mNextRollOver = size + getMaximumFileSize();
+            errorHandler.error("Unable to seal the segment:" + fileName, ex, ErrorCode.WRITE_FAILURE);
+            return;
+        }
+        
+        mNextRollOver = 0;
+        try {
+            setFile(fileName, false, bufferedIO, bufferSize);
+        } catch(IOException ex) {
+            errorHandler.error("Unable to open the segment:" + fileName, ex, ErrorCode.FILE_OPEN_FAILURE);
+        }
+    }
+    
+    /**
+     * Closes the segment, it may be sealed as an orphan afterwards.
+     */
+    @Override
+    public synchronized void close() {
+        super.close();
+        sOpenSegments.remove(mSegmentPath);
+    }
+}
@@ -0,0 +1,200 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The backend built into the library, which logs the events without the log4j.
+ * <p>
+ * The level check compares the ordinals of the default or the tag's level. The events are
+ * captured and formatted by the <code>LogFileWriter</code> straight into its reusable per-thread
+ * buffers with the fixed layout of the <code>LogEventEncoder</code>, and optionally sent to the
+ * logcat as well. So, nothing is allocated per event, once the buffers of a thread are created.
+ * <p>
+ * The tag levels match the exact tags only; the dotted tags don't inherit the levels of their
+ * parents, since walking up the names would allocate.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 10:03:11 PM
+ * @since 1.0.0
+ */
+public final class NativeBackend implements LogBackend {
+    
+    /** mLogFileWriter - the file sink, if any. */
+    private final LogFileWriter mLogFileWriter;
+    
+    /** mLogcatEnabled - true, if the events are sent to the logcat too. */
+    private final boolean mLogcatEnabled;
+    
+    /** mLogType */
+    private volatile LogType mLogType;
+    
+    /** mTagLogTypes */
+    private final ConcurrentHashMap<String, LogType> mTagLogTypes = new ConcurrentHashMap<String, LogType>();
+    
+    /**
+     * @param logFileWriter
+     * @param logcatEnabled
+     * @param logType
+     */
+    public NativeBackend(final LogFileWriter logFileWriter, final boolean logcatEnabled, final LogType logType) {
+        if(LogHelper.isNull(logType)) {
+            throw new NullPointerException("The logType should not be NULL!");
+        }
+        
+        mLogFileWriter = logFileWriter;
+        mLogcatEnabled = logcatEnabled;
+        mLogType = logType;
+    }
+    
+    /**
+     * Returns the <code>mLogFileWriter</code> value.
+     *
+     * @return
+     */
+    public final LogFileWriter getLogFileWriter() {
+        return mLogFileWriter;
+    }
+    
+    /**
+     * Returns the <code>mLogcatEnabled</code> value.
+     *
+     * @return
+     */
+    public final boolean isLogcatEnabled() {
+        return mLogcatEnabled;
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final LogType getLogType() {
+        return mLogType;
+    }
+    
+    /**
+     * @param logType
+     */
+    @Override
+    public final void setLogType(final LogType logType) {
+        if(LogHelper.isNull(logType)) {
+            throw new NullPointerException("The logType should not be NULL!");
+        }
+        
+        mLogType = logType;
+    }
+    
+    /**
+     * The <code>logType</code> to be set for the given <code>logTag</code>. The null
+     * <code>logType</code> removes the tag's level, so the default level applies again.
+     *
+     * @param logTag
+     * @param logType
+     */
+    public final void setLogType(final String logTag, final LogType logType) {
+        if(LogHelper.isNull(logTag)) {
+            throw new NullPointerException("The logTag should not be NULL!");
+        }
+        
+        if(LogHelper.isNull(logType)) {
+            mTagLogTypes.remove(logTag);
+        } else {
+            mTagLogTypes.put(logTag, logType);
+        }
+    }
+    
+    /**
+     * @param logTag
+     * @param logType
+     * @return
+     */
+    @Override
+    public final boolean isLogEnabledFor(final String logTag, final LogType logType) {
+        if(LogHelper.isNull(logType)) {
+            return false;
+        }
+        
+        LogType enabledType = null;
+        if(!mTagLogTypes.isEmpty() && LogHelper.isNotNull(logTag)) {
+            enabledType = mTagLogTypes.get(logTag);
+        }
+        if(LogHelper.isNull(enabledType)) {
+            enabledType = mLogType;
+        }
+        
+        return (logType.ordinal() <= enabledType.ordinal());
+    }
+    
+    /**
+     * @param logType
+     * @param logTag
+     * @param logMessage
+     * @param throwable
+     */
+    @Override
+    public final void log(final LogType logType, final String logTag, final String logMessage, final Throwable throwable) {
+        if(LogHelper.isNotNull(mLogFileWriter)) {
+            mLogFileWriter.append(logType, logTag, logMessage, throwable);
+        }
+        if(mLogcatEnabled) {
+            LogHelper.logcat(logType, logTag, logMessage, throwable);
+        }
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final String getLogFilePath() {
+        return (LogHelper.isNull(mLogFileWriter) ? null : mLogFileWriter.getLogFile().getAbsolutePath());
+    }
+    
+    /**
+     * @param timeoutMillis
+     * @return
+     */
+    @Override
+    public final boolean flush(final long timeoutMillis) {
+        return (LogHelper.isNull(mLogFileWriter) || mLogFileWriter.flush(timeoutMillis));
+    }
+    
+    /**
+     *
+     */
+    @Override
+    public final void close() {
+        if(LogHelper.isNotNull(mLogFileWriter)) {
+            mLogFileWriter.close();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import org.apache.log4j.Appender;
+import org.apache.log4j.Layout;
+import org.apache.log4j.helpers.OnlyOnceErrorHandler;
+import org.apache.log4j.spi.ErrorHandler;
+import org.apache.log4j.spi.Filter;
+import org.apache.log4j.spi.LoggingEvent;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A log4j appender, which stays attached to the root logger and appends the events to the
+ * appenders of the current <code>LogPipeline</code>.
+ * <p>
+ * Publishing a new pipeline is a single reference swap, so the reconfiguration doesn't drop or
+ * block the events logged meanwhile and doesn't need to reset the log4j configuration.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 04:51:09 PM
+ * @since 1.0.0
+ */
+public final class PipelineAppender implements Appender {
+    
+    /** mLogPipeline */
+    private final AtomicReference<LogPipeline> mLogPipeline = new AtomicReference<LogPipeline>();
+    
+    /** mName */
+    private volatile String mName;
+    
+    /** mFilter */
+    private volatile Filter mFilter;
+    
+    /** mErrorHandler */
+    private volatile ErrorHandler mErrorHandler = new OnlyOnceErrorHandler();
+    
+    /**
+     * @param appenderName
+     */
+    public PipelineAppender(final String appenderName) {
+        mName = appenderName;
+    }
+    
+    /**
+     * Returns the current pipeline, which may be null, if nothing is published yet.
+     *
+     * @return
+     */
+    public final LogPipeline getLogPipeline() {
+        return mLogPipeline.get();
+    }
+    
+    /**
+     * Publishes the given <code>logPipeline</code>. The replaced pipeline is retired and closed,
+     * once the events in flight on it are done.
+     *
+     * @param logPipeline
+     */
+    public final synchronized void publish(final LogPipeline logPipeline) {
+        final LogPipeline oldPipeline = mLogPipeline.getAndSet(logPipeline);
+        if(LogHelper.isNotNull(oldPipeline) && oldPipeline != logPipeline) {
+            if(LogHelper.isNotNull(logPipeline)) {
+                logPipeline.setPredecessor(oldPipeline);
+            }
+            oldPipeline.retire(logPipeline);
+        }
+    }
+    
+    /**
+     * Appends the event to the current pipeline.
+     *
+     * @param logEvent
+     */
+    @Override
+    public final void doAppend(final LoggingEvent logEvent) {
+        Filter filter = mFilter;
+        while(LogHelper.isNotNull(filter)) {
+            switch(filter.decide(logEvent)) {
+                case Filter.DENY:
+                    return;
+                case Filter.ACCEPT:
+                    filter = null;
+                    break;
+                default:
+                    filter = filter.getNext();
+                    break;
+            }
+        }
+        
+        LogPipeline logPipeline;
+        do {
+            logPipeline = mLogPipeline.get();
+            if(LogHelper.isNull(logPipeline)) {
+                return;
+            }
+        } while(!logPipeline.acquire());
+        
+        try {
+            logPipeline.append(logEvent);
+        } finally {
+            logPipeline.release();
+        }
+    }
+    
+    /**
+     * @param newFilter
+     */
+    @Override
+    public final synchronized void addFilter(final Filter newFilter) {
+        if(LogHelper.isNull(mFilter)) {
+            mFilter = newFilter;
+        } else {
+            Filter filter = mFilter;
+            while(LogHelper.isNotNull(filter.getNext())) {
+                filter = filter.getNext();
+            }
+            filter.setNext(newFilter);
+        }
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final Filter getFilter() {
+        return mFilter;
+    }
+    
+    /**
+     *
+     */
+    @Override
+    public final void clearFilters() {
+        mFilter = null;
+    }
+    
+    /**
+     * Retires the current pipeline and closes its appenders.
+     */
+    @Override
+    public final void close() {
+        publish(null);
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final String getName() {
+        return mName;
+    }
+    
+    /**
+     * @param name
+     */
+    @Override
+    public final void setName(final String name) {
+        mName = name;
+    }
+    
+    /**
+     * @param errorHandler
+     */
+    @Override
+    public final void setErrorHandler(final ErrorHandler errorHandler) {
+        if(LogHelper.isNotNull(errorHandler)) {
+            mErrorHandler = errorHandler;
+        }
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final ErrorHandler getErrorHandler() {
+        return mErrorHandler;
+    }
+    
+    /**
+     * The layouts are set on the appenders of the pipeline.
+     *
+     * @param layout
+     */
+    @Override
+    public final void setLayout(final Layout layout) {
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final Layout getLayout() {
+        return null;
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final boolean requiresLayout() {
+        return false;
+    }
+}
@@ -0,0 +1,853 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import android.util.Log;
+
+import org.apache.log4j.Appender;
+import org.apache.log4j.Layout;
+import org.apache.log4j.Level;
+import org.apache.log4j.spi.ErrorHandler;
+import org.apache.log4j.spi.Filter;
+import org.apache.log4j.spi.LoggingEvent;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A log4j appender, which hands the events over to the wrapped appender through bounded queues
+ * of its own, drained by a background thread. So, a slow sink (a file on a busy storage, a
+ * throttled logcat) can't stall the logging threads or the other sinks of the pipeline.
+ * <p>
+ * The events are queued into the priority lanes of their level: the <code>ERROR</code> and the
+ * <code>ASSERT</code> events, the <code>WARN</code> events and the rest. The drain thread takes
+ * up to the <code>LANE_WEIGHTS</code> events of each lane per batch (the unused share of a lane
+ * is passed to the lower lanes), so an error doesn't wait behind a burst of debug events and
+ * the lower lanes still make progress. Since the lanes reorder the events, each event gets a
+ * sequence number under the <code>SEQUENCE_KEY</code> property (printed by the
+ * <code>%X{seq}</code> of the <code>LogHelper.LOG_PATTERN</code>), which restores the original
+ * order of the events per thread.
+ * <p>
+ * When the lane is full, the event is handled by the <code>DropPolicy</code> of its
+ * <code>LogType</code>. The <code>ERROR</code> and the <code>ASSERT</code> (wtf) events are never
+ * dropped, while there is any room for them: if their policy doesn't find room in their lane, the
+ * lowest level event of their lane or a lower one is evicted to make room or they are spilled into
+ * the overflow file or, as the last resort, kept in the memory overflow of the lane capacity. They
+ * are dropped only if the overflow stays full for the <code>mBlockTimeoutMillis</code> and are
+ * appended by the <code>close()</code> even if the drain thread doesn't finish in time. The logging
+ * thread is never blocked longer than the <code>mBlockTimeoutMillis</code>.
+ * <p>
+ * The depth, the dropped (per <code>LogType</code>) and the spilled events and the time the
+ * events wait in the queue (the lag of the sink) are recorded in the <code>LogMetrics</code> queue
+ * of the <code>QUEUE_PREFIX + appenderName</code>.
+ * <p>
+ * The thread dependent values of the event (the thread name, the NDC, the MDC, the location
+ * information) are taken, before it's queued, like the log4j <code>AsyncAppender</code> does.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 11:42:07 PM
+ * @since 1.0.0
+ */
+public final class QueuedAppender implements Appender {
+    
+    /** LOG_TAG */
+    private static final String LOG_TAG = "QueuedAppender";
+    
+    /** QUEUE_PREFIX - the prefix of the metrics queue name of a sink. */
+    public static final String QUEUE_PREFIX = "sink.";
+    
+    /** DEFAULT_CAPACITY */
+    public static final int DEFAULT_CAPACITY = 1024;
+    
+    /** SEQUENCE_KEY - the property of the sequence number of an event. */
+    public static final String SEQUENCE_KEY = "seq";
+    
+    /** LANE_WEIGHTS - the events taken out of the high, the medium and the low lane per batch. */
+    private static final int[] LANE_WEIGHTS = {32, 16, 16};
+    
+    /** BATCH_SIZE - the events taken out of the lanes at once. */
+    private static final int BATCH_SIZE = 64;
+    
+    /** sSequence - shared by all the sinks, so an event gets the same number in each. */
+    private static final AtomicLong sSequence = new AtomicLong();
+    
+    /** POLL_MILLIS */
+    private static final long POLL_MILLIS = 100L;
+    
+    /** CLOSE_TIMEOUT_MILLIS - the time the queued events are given to drain on close. */
+    private static final long CLOSE_TIMEOUT_MILLIS = 1000L;
+    
+    /** DEFAULT_BLOCK_TIMEOUT_MILLIS */
+    public static final long DEFAULT_BLOCK_TIMEOUT_MILLIS = 100L;
+    
+    /** mAppender */
+    private final Appender mAppender;
+    
+    /** mDropPolicies - indexed by <code>LogType.ordinal()</code>, replaced on change. */
+    private volatile DropPolicy[] mDropPolicies;
+    
+    /** mBlockTimeoutMillis */
+    private volatile long mBlockTimeoutMillis = DEFAULT_BLOCK_TIMEOUT_MILLIS;
+    
+    /** mSpillFile */
+    private volatile SpillFile mSpillFile;
+    
+    /** mSpilled - the events in the spill file, not taken out yet. */
+    private final AtomicInteger mSpilled = new AtomicInteger();
+    
+    /** mOverflow - the kept events, which neither fit into their lane nor into the spill file. */
+    private final ArrayBlockingQueue<QueuedEvent> mOverflow;
+    
+    /** mLocationInfo */
+    private final boolean mLocationInfo;
+    
+    /** mLanes - the high, the medium and the low priority lane. */
+    private final ArrayBlockingQueue<QueuedEvent>[] mLanes;
+    
+    /** mQueueMetrics */
+    private final LogMetrics.QueueMetrics mQueueMetrics;
+    
+    /** mPending - the events queued or being appended. */
+    private final AtomicInteger mPending = new AtomicInteger();
+    
+    /** mFlushLock - notified, when the drain thread has nothing pending. */
+    private final Object mFlushLock = new Object();
+    
+    /** mDrainThread */
+    private final Thread mDrainThread;
+    
+    /** mParked - true, while the drain thread waits for the events. */
+    private volatile boolean mParked;
+    
+    /** mClosed */
+    private volatile boolean mClosed;
+    
+    /**
+     * @param appender
+     * @param appenderName
+     * @param capacity     - the capacity of each lane.
+     * @param dropPolicy   - the drop policy of all the log types.
+     * @param locationInfo - true, if the layout of the wrapped appender uses the location
+     *                     information (%C, %F, %L, %l or %M).
+     * @param logMetrics   - may be null.
+     */
+    public QueuedAppender(final Appender appender, final String appenderName, final int capacity, final DropPolicy dropPolicy, final boolean locationInfo, final LogMetrics logMetrics) {
+        if(LogHelper.isNull(appender)) {
+            throw new NullPointerException("The appender should not be NULL!");
+        }
+        if(LogHelper.isNull(dropPolicy)) {
+            throw new NullPointerException("The dropPolicy should not be NULL!");
+        }
+        if(capacity <= 0) {
+            throw new IllegalArgumentException("Invalid Value! capacity:" + capacity);
+        }
+        
+        mAppender = appender;
+        mAppender.setName(appenderName);
+        mDropPolicies = new DropPolicy[LogType.values().length];
+        Arrays.fill(mDropPolicies, dropPolicy);
+        mLocationInfo = locationInfo;
+        /* the generic arrays can't be created, the lanes only ever hold the QueuedEvent. */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final ArrayBlockingQueue<QueuedEvent>[] lanes = new ArrayBlockingQueue[LANE_WEIGHTS.length];
+        for(int i = 0; i < lanes.length; i++) {
+            lanes[i] = new ArrayBlockingQueue<QueuedEvent>(capacity);
+        }
+        mLanes = lanes;
+        mOverflow = new ArrayBlockingQueue<QueuedEvent>(capacity);
+        mQueueMetrics = (LogHelper.isNull(logMetrics) ? new LogMetrics.QueueMetrics() : logMetrics.getQueueMetrics(QUEUE_PREFIX + appenderName));
+        mDrainThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        }, "log-sink-" + appenderName);
+        mDrainThread.setDaemon(true);
+        mDrainThread.start();
+    }
+    
+    /**
+     * Returns the wrapped appender.
+     *
+     * @return
+     */
+    public final Appender getAppender() {
+        return mAppender;
+    }
+    
+    /**
+     * Returns true, if the location information of the events is taken by the logging threads.
+     *
+     * @return
+     */
+    public final boolean isLocationInfo() {
+        return mLocationInfo;
+    }
+    
+    /**
+     * Returns the drop policy of the given <code>logType</code>.
+     *
+     * @param logType
+     * @return
+     */
+    public final DropPolicy getDropPolicy(final LogType logType) {
+        return mDropPolicies[logType.ordinal()];
+    }
+    
+    /**
+     * The drop policy of the given <code>logType</code> to be set.
+     *
+     * @param logType
+     * @param dropPolicy
+     */
+    public final synchronized void setDropPolicy(final LogType logType, final DropPolicy dropPolicy) {
+        if(LogHelper.isNull(logType)) {
+            throw new NullPointerException("The logType should not be NULL!");
+        }
+        if(LogHelper.isNull(dropPolicy)) {
+            throw new NullPointerException("The dropPolicy should not be NULL!");
+        }
+        
+        final DropPolicy[] dropPolicies = mDropPolicies.clone();
+        dropPolicies[logType.ordinal()] = dropPolicy;
+        mDropPolicies = dropPolicies;
+    }
+    
+    /**
+     * Returns the <code>mBlockTimeoutMillis</code> value.
+     *
+     * @return
+     */
+    public final long getBlockTimeoutMillis() {
+        return mBlockTimeoutMillis;
+    }
+    
+    /**
+     * The <code>mBlockTimeoutMillis</code> to be set, the longest time the <code>BLOCK</code>
+     * policy waits for room in the lane, before the event is dropped.
+     *
+     * @param blockTimeoutMillis
+     */
+    public final void setBlockTimeoutMillis(final long blockTimeoutMillis) {
+        if(blockTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Invalid Value! blockTimeoutMillis:" + blockTimeoutMillis);
+        }
+        
+        mBlockTimeoutMillis = blockTimeoutMillis;
+    }
+    
+    /**
+     * Returns the spill file or null, if it's not set.
+     *
+     * @return
+     */
+    public final File getSpillFile() {
+        final SpillFile spillFile = mSpillFile;
+        return (LogHelper.isNull(spillFile) ? null : spillFile.getFile());
+    }
+    
+    /**
+     * Maps the given <code>spillFile</code> of the given <code>capacity</code> bytes as the
+     * overflow file of the <code>SPILL</code> policy. The file is deleted on close.
+     *
+     * @param spillFile
+     * @param capacity
+     * @throws IOException
+     */
+    public final synchronized void setSpillFile(final File spillFile, final int capacity) throws IOException {
+        if(LogHelper.isNull(spillFile)) {
+            throw new NullPointerException("The spillFile should not be NULL!");
+        }
+        if(LogHelper.isNotNull(mSpillFile)) {
+            throw new IllegalStateException("The spill file is already set!");
+        }
+        
+        mSpillFile = new SpillFile(spillFile, capacity);
+    }
+    
+    /**
+     * Returns the metrics of the queue.
+     *
+     * @return
+     */
+    public final LogMetrics.QueueMetrics getQueueMetrics() {
+        return mQueueMetrics;
+    }
+    
+    /**
+     * Queues the event for the wrapped appender. If its lane is full, the event is handled by
+     * the drop policy of its <code>LogType</code>.
+     *
+     * @param logEvent
+     */
+    @Override
+    public final void doAppend(final LoggingEvent logEvent) {
+        if(mClosed) {
+            return;
+        }
+        
+        /* take the values of the current thread, the drain thread would see its own. */
+        logEvent.getThreadName();
+        logEvent.getNDC();
+        logEvent.getMDCCopy();
+        logEvent.getRenderedMessage();
+        /* the throwable is rendered lazily by the drain thread. */
+        if(mLocationInfo) {
+            logEvent.getLocationInformation();
+        }
+        if(LogHelper.isNull(logEvent.getProperty(SEQUENCE_KEY))) {
+            logEvent.setProperty(SEQUENCE_KEY, Long.toString(sSequence.incrementAndGet()));
+        }
+        
+        final QueuedEvent queuedEvent = new QueuedEvent(logEvent, System.nanoTime());
+        final ArrayBlockingQueue<QueuedEvent> lane = mLanes[queuedEvent.lane()];
+        final DropPolicy dropPolicy = mDropPolicies[queuedEvent.mLogType.ordinal()];
+        mQueueMetrics.setDepth(mPending.incrementAndGet());
+        boolean queued;
+        if(dropPolicy == DropPolicy.SPILL && mSpilled.get() > 0) {
+            /* the lanes are not caught up yet, keep the order of the spilled events. */
+            queued = spill(queuedEvent);
+        } else {
+            queued = (lane.offer(queuedEvent) || offer(lane, queuedEvent, dropPolicy));
+        }
+        
+        if(!queued && queuedEvent.isKept()) {
+            queued = (replaceLowest(queuedEvent) || spill(queuedEvent) || keep(queuedEvent, (dropPolicy == DropPolicy.BLOCK ? 0 : mBlockTimeoutMillis)));
+        }
+        
+        if(queued) {
+            if(mParked) {
+                LockSupport.unpark(mDrainThread);
+            }
+        } else {
+            mQueueMetrics.recordDropped(queuedEvent.mLogType);
+            done(1);
+        }
+    }
+    
+    /**
+     * Handles the given <code>queuedEvent</code>, which doesn't fit into the full
+     * <code>lane</code>, by the given <code>dropPolicy</code>.
+     *
+     * @param lane
+     * @param queuedEvent
+     * @param dropPolicy
+     * @return true, if the event is queued or spilled otherwise false.
+     */
+    private boolean offer(final ArrayBlockingQueue<QueuedEvent> lane, final QueuedEvent queuedEvent, final DropPolicy dropPolicy) {
+        switch(dropPolicy) {
+            case DROP_OLDEST:
+                return (evictOldest(lane) && lane.offer(queuedEvent));
+            case DROP_LOWEST:
+                return replaceLowest(queuedEvent);
+            case BLOCK:
+                try {
+                    return lane.offer(queuedEvent, mBlockTimeoutMillis, TimeUnit.MILLISECONDS);
+                } catch(InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            case SPILL:
+                return spill(queuedEvent);
+            default:
+                return false;
+        }
+    }
+    
+    /**
+     * Drops the oldest event of the given <code>lane</code>, which is not kept, to make room in it.
+     *
+     * @param lane
+     * @return true, if an event is dropped otherwise false.
+     */
+    private boolean evictOldest(final ArrayBlockingQueue<QueuedEvent> lane) {
+        for(QueuedEvent candidate : lane) {
+            if(!candidate.isKept()) {
+                if(lane.remove(candidate)) {
+                    mQueueMetrics.recordDropped(candidate.mLogType);
+                    done(1);
+                    return true;
+                }
+                
+                return false;
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Drops the oldest event of the lowest level below the level of the given
+     * <code>queuedEvent</code> and queues the given event in its place. The lanes are searched
+     * from the lowest one up to the lane of the given event, so a <code>WARN</code> event can
+     * evict a queued <code>DEBUG</code> one. The given event is drained from the lane it's queued
+     * into, its sequence number still tells its place.
+     *
+     * @param queuedEvent
+     * @return true, if the event is queued otherwise false.
+     */
+    private boolean replaceLowest(final QueuedEvent queuedEvent) {
+        for(int i = mLanes.length - 1; i >= queuedEvent.lane(); i--) {
+            final ArrayBlockingQueue<QueuedEvent> lane = mLanes[i];
+            QueuedEvent evictedEvent = null;
+            for(QueuedEvent candidate : lane) {
+                if(!candidate.isKept() && candidate.mLevel < queuedEvent.mLevel && (LogHelper.isNull(evictedEvent) || candidate.mLevel < evictedEvent.mLevel)) {
+                    evictedEvent = candidate;
+                }
+            }
+            
+            if(LogHelper.isNotNull(evictedEvent) && lane.remove(evictedEvent)) {
+                mQueueMetrics.recordDropped(evictedEvent.mLogType);
+                done(1);
+                return lane.offer(queuedEvent);
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Keeps the given <code>queuedEvent</code> in the overflow, waiting up to the given
+     * <code>timeoutMillis</code> for room in it.
+     *
+     * @param queuedEvent
+     * @param timeoutMillis
+     * @return true, if the event is kept otherwise false.
+     */
+    private boolean keep(final QueuedEvent queuedEvent, final long timeoutMillis) {
+        if(mOverflow.offer(queuedEvent)) {
+            return true;
+        }
+        
+        if(mParked) {
+            LockSupport.unpark(mDrainThread);
+        }
+        try {
+            return mOverflow.offer(queuedEvent, timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    /**
+     * Writes the given <code>queuedEvent</code> into the spill file, if there is one.
+     *
+     * @param queuedEvent
+     * @return true, if the event is spilled otherwise false.
+     */
+    private boolean spill(final QueuedEvent queuedEvent) {
+        final SpillFile spillFile = mSpillFile;
+        if(LogHelper.isNotNull(spillFile) && spillFile.write(queuedEvent)) {
+            mSpilled.incrementAndGet();
+            mQueueMetrics.recordSpilled();
+            return true;
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Takes the spilled and then the kept overflow events out into the given
+     * <code>queuedEvents</code>, in the order they were added.
+     *
+     * @param queuedEvents
+     */
+    private void drainOverflow(final List<QueuedEvent> queuedEvents) {
+        final SpillFile spillFile = mSpillFile;
+        while(queuedEvents.size() < BATCH_SIZE && mSpilled.get() > 0) {
+            final QueuedEvent queuedEvent = spillFile.read();
+            if(LogHelper.isNull(queuedEvent)) {
+                break;
+            }
+            mSpilled.decrementAndGet();
+            queuedEvents.add(queuedEvent);
+        }
+        
+        while(queuedEvents.size() < BATCH_SIZE) {
+            final QueuedEvent queuedEvent = mOverflow.poll();
+            if(LogHelper.isNull(queuedEvent)) {
+                break;
+            }
+            queuedEvents.add(queuedEvent);
+        }
+    }
+    
+    /**
+     * Takes the events out of the lanes into the given <code>queuedEvents</code>, up to the
+     * weight of each lane, starting with the high priority lane.
+     *
+     * @param queuedEvents
+     */
+    private void drainLanes(final List<QueuedEvent> queuedEvents) {
+        int room = 0;
+        for(int i = 0; i < mLanes.length; i++) {
+            room += LANE_WEIGHTS[i];
+            room -= mLanes[i].drainTo(queuedEvents, room);
+        }
+    }
+    
+    /**
+     * Returns true, if nothing is waiting in the lanes or in the overflow.
+     *
+     * @return
+     */
+    private boolean isEmpty() {
+        for(ArrayBlockingQueue<QueuedEvent> lane : mLanes) {
+            if(!lane.isEmpty()) {
+                return false;
+            }
+        }
+        
+        return (mSpilled.get() == 0 && mOverflow.isEmpty());
+    }
+    
+    /**
+     * Takes the queued events out in batches and appends them to the wrapped appender, until
+     * this appender is closed and nothing is left in the lanes. The overflow events are taken,
+     * once the lanes are caught up.
+     */
+    private void drain() {
+        final List<QueuedEvent> queuedEvents = new ArrayList<QueuedEvent>(BATCH_SIZE);
+        while(!Thread.currentThread().isInterrupted()) {
+            drainLanes(queuedEvents);
+            if(queuedEvents.isEmpty()) {
+                drainOverflow(queuedEvents);
+            }
+            if(queuedEvents.isEmpty()) {
+                if(mClosed) {
+                    return;
+                }
+                
+                mParked = true;
+                if(isEmpty() && !mClosed) {
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(POLL_MILLIS));
+                }
+                mParked = false;
+                continue;
+            }
+            
+            for(QueuedEvent queuedEvent : queuedEvents) {
+                append(queuedEvent);
+            }
+            done(queuedEvents.size());
+            queuedEvents.clear();
+        }
+        
+        Log.w(LOG_TAG, "Stopped draining the events of:" + getName());
+    }
+    
+    /**
+     * Appends the given <code>queuedEvent</code> to the wrapped appender.
+     *
+     * @param queuedEvent
+     */
+    private void append(final QueuedEvent queuedEvent) {
+        mQueueMetrics.recordLag(System.nanoTime() - queuedEvent.mQueuedNanos);
+        try {
+            mAppender.doAppend(queuedEvent.mLogEvent);
+        } catch(RuntimeException ex) {
+            Log.e(LOG_TAG, "Error while appending the event to:" + getName(), ex);
+        }
+    }
+    
+    /**
+     * Marks the given number of the pending events done (appended or dropped).
+     *
+     * @param events
+     */
+    private void done(final int events) {
+        final int pending = mPending.addAndGet(-events);
+        mQueueMetrics.setDepth(pending);
+        if(pending == 0) {
+            synchronized(mFlushLock) {
+                mFlushLock.notifyAll();
+            }
+        }
+    }
+    
+    /**
+     * Waits until all the queued events are appended to the wrapped appender.
+     *
+     * @param timeoutMillis
+     * @return true, if nothing is pending within the given time otherwise false.
+     */
+    public final boolean flush(final long timeoutMillis) {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized(mFlushLock) {
+            while(mPending.get() > 0) {
+                final long waitMillis = deadline - System.currentTimeMillis();
+                if(waitMillis <= 0 || !mDrainThread.isAlive()) {
+                    return false;
+                }
+                try {
+                    mFlushLock.wait(Math.min(waitMillis, POLL_MILLIS));
+                } catch(InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * @param newFilter
+     */
+    @Override
+    public final void addFilter(final Filter newFilter) {
+        mAppender.addFilter(newFilter);
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final Filter getFilter() {
+        return mAppender.getFilter();
+    }
+    
+    /**
+     *
+     */
+    @Override
+    public final void clearFilters() {
+        mAppender.clearFilters();
+    }
+    
+    /**
+     * Stops taking the events, gives the queued and the overflow ones
+     * <code>CLOSE_TIMEOUT_MILLIS</code> to be appended and closes the wrapped appender. Of the
+     * events left afterwards, the kept ones are appended by the calling thread and the rest are
+     * dropped. The spill file is deleted.
+     */
+    @Override
+    public final void close() {
+        if(mClosed) {
+            return;
+        }
+        
+        mClosed = true;
+        LockSupport.unpark(mDrainThread);
+        try {
+            mDrainThread.join(CLOSE_TIMEOUT_MILLIS);
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if(mDrainThread.isAlive()) {
+            mDrainThread.interrupt();
+            try {
+                mDrainThread.join(CLOSE_TIMEOUT_MILLIS);
+            } catch(InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        final List<QueuedEvent> queuedEvents = new ArrayList<QueuedEvent>(BATCH_SIZE);
+        for(ArrayBlockingQueue<QueuedEvent> lane : mLanes) {
+            lane.drainTo(queuedEvents);
+        }
+        do {
+            for(QueuedEvent queuedEvent : queuedEvents) {
+                if(queuedEvent.isKept()) {
+                    append(queuedEvent);
+                } else {
+                    mQueueMetrics.recordDropped(queuedEvent.mLogType);
+                }
+            }
+            if(!queuedEvents.isEmpty()) {
+                done(queuedEvents.size());
+                queuedEvents.clear();
+            }
+            drainOverflow(queuedEvents);
+        } while(!queuedEvents.isEmpty());
+        
+        if(LogHelper.isNotNull(mSpillFile)) {
+            mSpillFile.close();
+        }
+        mAppender.close();
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final String getName() {
+        return mAppender.getName();
+    }
+    
+    /**
+     * @param name
+     */
+    @Override
+    public final void setName(final String name) {
+        mAppender.setName(name);
+    }
+    
+    /**
+     * @param errorHandler
+     */
+    @Override
+    public final void setErrorHandler(final ErrorHandler errorHandler) {
+        mAppender.setErrorHandler(errorHandler);
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final ErrorHandler getErrorHandler() {
+        return mAppender.getErrorHandler();
+    }
+    
+    /**
+     * @param layout
+     */
+    @Override
+    public final void setLayout(final Layout layout) {
+        mAppender.setLayout(layout);
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final Layout getLayout() {
+        return mAppender.getLayout();
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public final boolean requiresLayout() {
+        return mAppender.requiresLayout();
+    }
+    
+    /**
+     * Returns the <code>LogType</code> of the given log4j <code>level</code>. The log4j
+     * <code>FATAL</code> level of the wtf events is the <code>ASSERT</code>.
+     *
+     * @param level
+     * @return
+     */
+    static LogType toLogType(final Level level) {
+        final int levelInt = level.toInt();
+        if(levelInt >= Level.FATAL_INT) {
+            return LogType.ASSERT;
+        } else if(levelInt >= Level.ERROR_INT) {
+            return LogType.ERROR;
+        } else if(levelInt >= Level.WARN_INT) {
+            return LogType.WARN;
+        } else if(levelInt >= Level.INFO_INT) {
+            return LogType.INFO;
+        } else if(levelInt >= Level.DEBUG_INT) {
+            return LogType.DEBUG;
+        } else {
+            return LogType.VERBOSE;
+        }
+    }
+    
+    /**
+     * The handling of an event, which doesn't fit into the full queue. The <code>DROP_NEWEST</code>
+     * drops the event, the <code>DROP_OLDEST</code> drops the oldest queued event to make room
+     * for it, the <code>DROP_LOWEST</code> drops the oldest queued event of the lowest level below
+     * the level of the event in its lane or a lower one (or the event itself, if there is none),
+     * the <code>BLOCK</code> makes the logging thread wait for room up to the
+     * <code>mBlockTimeoutMillis</code> and the <code>SPILL</code> writes the event into the spill
+     * file, to be appended in order once the queue is caught up.
+     */
+    public enum DropPolicy {
+        DROP_NEWEST, DROP_OLDEST, DROP_LOWEST, BLOCK, SPILL;
+    }
+    
+    /**
+     * An event waiting in a lane.
+     */
+    static final class QueuedEvent {
+        
+        /** mLogEvent */
+        final LoggingEvent mLogEvent;
+        
+        /** mQueuedNanos */
+        final long mQueuedNanos;
+        
+        /** mLevel */
+        final int mLevel;
+        
+        /** mLogType */
+        final LogType mLogType;
+        
+        /**
+         * @param logEvent
+         * @param queuedNanos
+         */
+        QueuedEvent(final LoggingEvent logEvent, final long queuedNanos) {
+            mLogEvent = logEvent;
+            mQueuedNanos = queuedNanos;
+            mLevel = logEvent.getLevel().toInt();
+            mLogType = toLogType(logEvent.getLevel());
+        }
+        
+        /**
+         * Returns the index of the priority lane of the event.
+         *
+         * @return
+         */
+        final int lane() {
+            if(mLevel >= Level.ERROR_INT) {
+                return 0;
+            } else if(mLevel >= Level.WARN_INT) {
+                return 1;
+            } else {
+                return 2;
+            }
+        }
+        
+        /**
+         * Returns true, if the event must never be dropped.
+         *
+         * @return
+         */
+        final boolean isKept() {
+            return (mLevel >= Level.ERROR_INT);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A file channel, which appends the buffers to the log file and rolls the file over like the
+ * log4j <code>RollingFileAppender</code> does, when it exceeds the maximum size.
+ * <p>
+ * This class is not thread-safe. The callers serialize the writes.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 09:02:37 PM
+ * @since 1.0.0
+ */
+final class RollingFileChannel {
+    
+    /** mLogFile */
+    private final File mLogFile;
+    
+    /** mMaxFileSize */
+    private final long mMaxFileSize;
+    
+    /** mMaxBackupFiles */
+    private final int mMaxBackupFiles;
+    
+    /** mFileChannel */
+    private FileChannel mFileChannel;
+    
+    /** mFileSize */
+    private long mFileSize;
+    
+    /**
+     * @param logFile
+     * @param maxFileSize
+     * @param maxBackupFiles
+     * @throws IOException
+     */
+    RollingFileChannel(final File logFile, final long maxFileSize, final int maxBackupFiles) throws IOException {
+        if(LogHelper.isNull(logFile)) {
+            throw new NullPointerException("The logFile should not be NULL!");
+        }
+        if(maxFileSize <= 0) {
+            throw new IllegalArgumentException("Invalid Value! maxFileSize:" + maxFileSize);
+        }
+        if(maxBackupFiles < 0) {
+            throw new IllegalArgumentException("Invalid Value! maxBackupFiles:" + maxBackupFiles);
+        }
+        
+        mLogFile = logFile;
+        mMaxFileSize = maxFileSize;
+        mMaxBackupFiles = maxBackupFiles;
+        if(!logFile.getAbsoluteFile().getParentFile().exists()) {
+            LogHelper.makeFolders(logFile.getAbsoluteFile().getParentFile());
+        }
+        openFile();
+    }
+    
+    /**
+     * Returns the <code>mLogFile</code> value.
+     *
+     * @return
+     */
+    final File getLogFile() {
+        return mLogFile;
+    }
+    
+    /**
+     * Writes the first <code>length</code> buffers with the gathering writes and rolls the file
+     * over, if it exceeds the maximum size.
+     *
+     * @param buffers
+     * @param length
+     * @return the number of the bytes written.
+     * @throws IOException
+     */
+    final long write(final ByteBuffer[] buffers, final int length) throws IOException {
+        long bytes = 0;
+        int offset = 0;
+        while(offset < length) {
+            bytes += mFileChannel.write(buffers, offset, length - offset);
+            while(offset < length && !buffers[offset].hasRemaining()) {
+                offset++;
+            }
+        }
+        
+        mFileSize += bytes;
+        if(mFileSize >= mMaxFileSize) {
+            rollOver();
+        }
+        
+        return bytes;
+    }
+    
+    /**
+     * Closes the log file.
+     */
+    final void close() {
+        LogHelper.closeSilently(mFileChannel);
+    }
+    
+    /**
+     * Opens the log file for appending.
+     *
+     * @throws IOException
+     */
+    private void openFile() throws IOException {
+        mFileChannel = new FileOutputStream(mLogFile, true).getChannel();
+        mFileSize = mFileChannel.size();
+    }
+    
+    /**
+     * Renames the log file to the <code>.1</code> backup, shifting the older backups, and opens a
+     * new log file.
+     *
+     * @throws IOException
+     */
+    private void rollOver() throws IOException {
+        mFileChannel.close();
+        if(mMaxBackupFiles > 0) {
+            new File(mLogFile.getPath() + "." + mMaxBackupFiles).delete();
+            for(int i = mMaxBackupFiles - 1; i >= 1; i--) {
+                final File backupFile = new File(mLogFile.getPath() + "." + i);
+                if(backupFile.exists()) {
+                    backupFile.renameTo(new File(mLogFile.getPath() + "." + (i + 1)));
+                }
+            }
+            mLogFile.renameTo(new File(mLogFile.getPath() + ".1"));
+        } else {
+            mLogFile.delete();
+        }
+        
+        openFile();
+    }
+}
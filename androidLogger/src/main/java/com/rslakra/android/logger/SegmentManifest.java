@@ -0,0 +1,259 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The manifest of the sealed segments, which the processes logging into the same folder share.
+ * The manifest is only read and written while its <code>FileLock</code> is held, so the rolling
+ * and the retention of the processes don't race each other. The lock is taken per roll over, never
+ * per event.
+ * <p>
+ * The sealed segments are numbered by a sequence shared by all the processes, the newest
+ * <code>maxSegments</code> are kept.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-20 02:03:52 AM
+ * @since 1.0.0
+ */
+final class SegmentManifest {
+    
+    /** MANIFEST_SUFFIX */
+    public static final String MANIFEST_SUFFIX = ".manifest";
+    
+    /** NEXT_SEQUENCE */
+    private static final String NEXT_SEQUENCE = "nextSequence";
+    
+    /** SEGMENT_PREFIX */
+    private static final String SEGMENT_PREFIX = "segment.";
+    
+    /** sMonitors - the file locks are held by the JVM, so the threads are serialized here. */
+    private static final ConcurrentMap<String, Object> sMonitors = new ConcurrentHashMap<String, Object>();
+    
+    /** mFile */
+    private final File mFile;
+    
+    /** mMonitor */
+    private final Object mMonitor;
+    
+    /**
+     * @param file
+     */
+    SegmentManifest(final File file) {
+        if(LogHelper.isNull(file)) {
+            throw new NullPointerException("The file should not be NULL!");
+        }
+        
+        mFile = file.getAbsoluteFile();
+        final Object monitor = new Object();
+        final Object existing = sMonitors.putIfAbsent(mFile.getPath(), monitor);
+        mMonitor = (LogHelper.isNull(existing) ? monitor : existing);
+    }
+    
+    /**
+     * Returns the manifest file.
+     *
+     * @return
+     */
+    final File getFile() {
+        return mFile;
+    }
+    
+    /**
+     * Renames the given <code>segmentFile</code> to the next sequence number of the manifest and
+     * deletes the oldest sealed segments of all the processes, keeping the newest
+     * <code>maxSegments</code>.
+     *
+     * @param segmentFile
+     * @param maxSegments
+     * @return the sealed segment file.
+     * @throws IOException
+     */
+    final File seal(final File segmentFile, final int maxSegments) throws IOException {
+        return seal(segmentFile, maxSegments, false);
+    }
+    
+    /**
+     * Seals the given <code>segmentFile</code> left unsealed by a dead process, without deleting
+     * any segment. An empty segment is deleted instead. If another process has sealed or deleted
+     * the segment meanwhile, nothing is done.
+     *
+     * @param segmentFile
+     * @return the sealed segment file or null, if it's not sealed.
+     * @throws IOException
+     */
+    final File sealOrphan(final File segmentFile) throws IOException {
+        return seal(segmentFile, Integer.MAX_VALUE, true);
+    }
+    
+    /**
+     * Seals the given <code>segmentFile</code> under the lock of the manifest.
+     *
+     * @param segmentFile
+     * @param maxSegments
+     * @param orphan
+     * @return the sealed segment file or null, if the orphan is not sealed.
+     * @throws IOException
+     */
+    private File seal(final File segmentFile, final int maxSegments, final boolean orphan) throws IOException {
+        synchronized(mMonitor) {
+            final RandomAccessFile randomAccessFile = new RandomAccessFile(mFile, "rw");
+            try {
+                final FileLock fileLock = randomAccessFile.getChannel().lock();
+                try {
+                    if(orphan && (!segmentFile.exists() || (segmentFile.length() == 0 && segmentFile.delete()))) {
+                        return null;
+                    }
+                    
+                    final Properties properties = read(randomAccessFile);
+                    final long sequence = Long.parseLong(properties.getProperty(NEXT_SEQUENCE, "1"));
+                    final File sealedFile = new File(segmentFile.getPath() + "." + sequence);
+                    if(!segmentFile.renameTo(sealedFile)) {
+                        throw new IOException("Unable to rename:" + segmentFile);
+                    }
+                    properties.setProperty(NEXT_SEQUENCE, String.valueOf(sequence + 1));
+                    properties.setProperty(SEGMENT_PREFIX + sequence, sealedFile.getName());
+                    
+                    final Map<Long, String> segments = getSegments(properties);
+                    final Iterator<Map.Entry<Long, String>> iterator = segments.entrySet().iterator();
+                    while(segments.size() > maxSegments && iterator.hasNext()) {
+                        final Map.Entry<Long, String> entry = iterator.next();
+                        final File oldest = new File(mFile.getParentFile(), entry.getValue());
+                        if(!oldest.exists() || oldest.delete()) {
+                            properties.remove(SEGMENT_PREFIX + entry.getKey());
+                            iterator.remove();
+                        }
+                    }
+                    write(randomAccessFile, properties);
+                    return sealedFile;
+                } finally {
+                    fileLock.release();
+                }
+            } finally {
+                randomAccessFile.close();
+            }
+        }
+    }
+    
+    /**
+     * Returns the sealed segments of all the processes, oldest first.
+     *
+     * @return
+     * @throws IOException
+     */
+    final List<File> getSegments() throws IOException {
+        final List<File> segmentFiles = new ArrayList<File>();
+        if(!mFile.exists()) {
+            return segmentFiles;
+        }
+        
+        synchronized(mMonitor) {
+            final RandomAccessFile randomAccessFile = new RandomAccessFile(mFile, "rw");
+            try {
+                final FileLock fileLock = randomAccessFile.getChannel().lock();
+                try {
+                    for(String fileName : getSegments(read(randomAccessFile)).values()) {
+                        segmentFiles.add(new File(mFile.getParentFile(), fileName));
+                    }
+                } finally {
+                    fileLock.release();
+                }
+            } finally {
+                randomAccessFile.close();
+            }
+        }
+        
+        return segmentFiles;
+    }
+    
+    /**
+     * Returns the sealed segments of the given <code>properties</code> ordered by their sequence.
+     *
+     * @param properties
+     * @return
+     */
+    private static Map<Long, String> getSegments(final Properties properties) {
+        final Map<Long, String> segments = new TreeMap<Long, String>();
+        for(String key : properties.stringPropertyNames()) {
+            if(key.startsWith(SEGMENT_PREFIX)) {
+                segments.put(Long.parseLong(key.substring(SEGMENT_PREFIX.length())), properties.getProperty(key));
+            }
+        }
+        
+        return segments;
+    }
+    
+    /**
+     * Reads the manifest properties of the locked file.
+     *
+     * @param randomAccessFile
+     * @return
+     * @throws IOException
+     */
+    private static Properties read(final RandomAccessFile randomAccessFile) throws IOException {
+        final Properties properties = new Properties();
+        final byte[] bytes = new byte[(int) randomAccessFile.length()];
+        randomAccessFile.seek(0);
+        randomAccessFile.readFully(bytes);
+        properties.load(new ByteArrayInputStream(bytes));
+        return properties;
+    }
+    
+    /**
+     * Replaces the content of the locked file with the given <code>properties</code>.
+     *
+     * @param randomAccessFile
+     * @param properties
+     * @throws IOException
+     */
+    private static void write(final RandomAccessFile randomAccessFile, final Properties properties) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        properties.store(outputStream, "The sealed log segments of all the processes.");
+        final byte[] bytes = outputStream.toByteArray();
+        randomAccessFile.seek(0);
+        randomAccessFile.write(bytes);
+        randomAccessFile.setLength(bytes.length);
+    }
+}
@@ -0,0 +1,318 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LocationInfo;
+import org.apache.log4j.spi.LoggingEvent;
+import org.apache.log4j.spi.ThrowableInformation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A memory-mapped overflow file of a <code>QueuedAppender</code>. The events, which don't fit
+ * into the full queue, are written into it as length-prefixed records and read back in the same
+ * order, once the queue is drained.
+ * <p>
+ * The file is a ring: a record, which doesn't fit into the end of the file, is written at its
+ * start, if the records read meanwhile made room there, so the file keeps taking the events
+ * while it's being drained. A record never wraps around, the end left unused is skipped by the
+ * reads. The file is not synced and is deleted on close, it only takes the bursts off the memory.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 11:58:34 PM
+ * @since 1.0.0
+ */
+final class SpillFile {
+    
+    /** UTF_8 */
+    private static final Charset UTF_8 = Charset.forName(Utf8StreamWriter.UTF_8);
+    
+    /** FQCN */
+    private static final String FQCN = Logger.class.getName();
+    
+    /** mFile */
+    private final File mFile;
+    
+    /** mBuffer */
+    private final MappedByteBuffer mBuffer;
+    
+    /** mWritePosition */
+    private int mWritePosition;
+    
+    /** mReadPosition */
+    private int mReadPosition;
+    
+    /** mWrapped - true, if the writes continue at the start of the file, before the reads. */
+    private boolean mWrapped;
+    
+    /** mLimit - the end of the records at the end of the file, while it's wrapped. */
+    private int mLimit;
+    
+    /** mCount - the events written, but not read yet. */
+    private int mCount;
+    
+    /**
+     * @param file
+     * @param capacity - the size of the file in bytes.
+     * @throws IOException
+     */
+    SpillFile(final File file, final int capacity) throws IOException {
+        if(capacity <= 0) {
+            throw new IllegalArgumentException("Invalid Value! capacity:" + capacity);
+        }
+        
+        mFile = file;
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.setLength(capacity);
+            mBuffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+    
+    /**
+     * Returns the spill file.
+     *
+     * @return
+     */
+    final File getFile() {
+        return mFile;
+    }
+    
+    /**
+     * Writes the given <code>queuedEvent</code> after the last written record, wrapping around to
+     * the start of the file, if it doesn't fit into its end.
+     *
+     * @param queuedEvent
+     * @return true, if the event is written otherwise false, if there is no room for it.
+     */
+    final synchronized boolean write(final QueuedAppender.QueuedEvent queuedEvent) {
+        final byte[] record;
+        try {
+            record = encode(queuedEvent);
+        } catch(IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        
+        final int size = 4 + record.length;
+        if(mWrapped) {
+            if(size > mReadPosition - mWritePosition) {
+                return false;
+            }
+        } else if(size > mBuffer.capacity() - mWritePosition) {
+            if(size > mReadPosition) {
+                return false;
+            }
+            mLimit = mWritePosition;
+            mWritePosition = 0;
+            mWrapped = true;
+        }
+        
+        mBuffer.putInt(mWritePosition, record.length);
+        mBuffer.position(mWritePosition + 4);
+        mBuffer.put(record);
+        mWritePosition += 4 + record.length;
+        mCount++;
+        return true;
+    }
+    
+    /**
+     * Reads the oldest event, which is not read yet.
+     *
+     * @return the event or null, if all the written events are read.
+     */
+    final synchronized QueuedAppender.QueuedEvent read() {
+        if(mCount == 0) {
+            return null;
+        }
+        if(mWrapped && mReadPosition == mLimit) {
+            mReadPosition = 0;
+            mWrapped = false;
+        }
+        
+        final int length = mBuffer.getInt(mReadPosition);
+        mBuffer.position(mReadPosition + 4);
+        mReadPosition += 4 + length;
+        mCount--;
+        final QueuedAppender.QueuedEvent queuedEvent = decode();
+        if(mCount == 0) {
+            mReadPosition = 0;
+            mWritePosition = 0;
+            mWrapped = false;
+        }
+        
+        return queuedEvent;
+    }
+    
+    /**
+     * Deletes the file. The events not read yet are lost.
+     */
+    final synchronized void close() {
+        mCount = 0;
+        mReadPosition = 0;
+        mWritePosition = 0;
+        mWrapped = false;
+        if(mFile.exists() && !mFile.delete()) {
+            mFile.deleteOnExit();
+        }
+    }
+    
+    /**
+     * Encodes the given <code>queuedEvent</code> into a record.
+     *
+     * @param queuedEvent
+     * @return
+     * @throws IOException
+     */
+    private static byte[] encode(final QueuedAppender.QueuedEvent queuedEvent) throws IOException {
+        final LoggingEvent logEvent = queuedEvent.mLogEvent;
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(256);
+        final DataOutputStream dataStream = new DataOutputStream(outputStream);
+        dataStream.writeLong(queuedEvent.mQueuedNanos);
+        dataStream.writeLong(logEvent.getTimeStamp());
+        dataStream.writeInt(logEvent.getLevel().toInt());
+        writeString(dataStream, logEvent.getLoggerName());
+        writeString(dataStream, logEvent.getThreadName());
+        writeString(dataStream, logEvent.getRenderedMessage());
+        writeString(dataStream, logEvent.getNDC());
+        
+        final String[] throwableStrRep = logEvent.getThrowableStrRep();
+        dataStream.writeInt(LogHelper.isNull(throwableStrRep) ? -1 : throwableStrRep.length);
+        if(LogHelper.isNotNull(throwableStrRep)) {
+            for(String line : throwableStrRep) {
+                writeString(dataStream, line);
+            }
+        }
+        
+        dataStream.writeBoolean(logEvent.locationInformationExists());
+        if(logEvent.locationInformationExists()) {
+            final LocationInfo locationInfo = logEvent.getLocationInformation();
+            writeString(dataStream, locationInfo.getFileName());
+            writeString(dataStream, locationInfo.getClassName());
+            writeString(dataStream, locationInfo.getMethodName());
+            writeString(dataStream, locationInfo.getLineNumber());
+        }
+        
+        final Map<?, ?> properties = logEvent.getProperties();
+        dataStream.writeInt(properties.size());
+        for(Map.Entry<?, ?> entry : properties.entrySet()) {
+            writeString(dataStream, String.valueOf(entry.getKey()));
+            writeString(dataStream, String.valueOf(entry.getValue()));
+        }
+        dataStream.flush();
+        
+        return outputStream.toByteArray();
+    }
+    
+    /**
+     * Decodes the record at the current position of the <code>mBuffer</code>.
+     *
+     * @return
+     */
+    private QueuedAppender.QueuedEvent decode() {
+        final long queuedNanos = mBuffer.getLong();
+        final long timeStamp = mBuffer.getLong();
+        final Level level = Level.toLevel(mBuffer.getInt());
+        final String loggerName = readString();
+        final String threadName = readString();
+        final String message = readString();
+        final String ndc = readString();
+        
+        ThrowableInformation throwableInformation = null;
+        final int throwableLines = mBuffer.getInt();
+        if(throwableLines >= 0) {
+            final String[] throwableStrRep = new String[throwableLines];
+            for(int i = 0; i < throwableLines; i++) {
+                throwableStrRep[i] = readString();
+            }
+            throwableInformation = new ThrowableInformation(throwableStrRep);
+        }
+        
+        LocationInfo locationInfo = null;
+        if(mBuffer.get() != 0) {
+            locationInfo = new LocationInfo(readString(), readString(), readString(), readString());
+        }
+        
+        final int propertiesSize = mBuffer.getInt();
+        final Map<String, String> properties = new HashMap<String, String>();
+        for(int i = 0; i < propertiesSize; i++) {
+            properties.put(readString(), readString());
+        }
+        
+        final LoggingEvent logEvent = new LoggingEvent(FQCN, Logger.getLogger(loggerName), timeStamp, level, message, threadName, throwableInformation, ndc, locationInfo, properties);
+        return new QueuedAppender.QueuedEvent(logEvent, queuedNanos);
+    }
+    
+    /**
+     * Writes the given <code>value</code> as length-prefixed UTF-8 bytes.
+     *
+     * @param dataStream
+     * @param value
+     * @throws IOException
+     */
+    private static void writeString(final DataOutputStream dataStream, final String value) throws IOException {
+        if(LogHelper.isNull(value)) {
+            dataStream.writeInt(-1);
+        } else {
+            final byte[] bytes = value.getBytes(UTF_8);
+            dataStream.writeInt(bytes.length);
+            dataStream.write(bytes);
+        }
+    }
+    
+    /**
+     * Reads a string written by the <code>writeString</code>.
+     *
+     * @return
+     */
+    private String readString() {
+        final int length = mBuffer.getInt();
+        if(length < 0) {
+            return null;
+        }
+        
+        final byte[] bytes = new byte[length];
+        mBuffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+}
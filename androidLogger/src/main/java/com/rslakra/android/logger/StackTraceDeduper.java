@@ -0,0 +1,325 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import org.apache.log4j.DefaultThrowableRenderer;
+import org.apache.log4j.spi.ThrowableRenderer;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders the stack traces of the logged throwables once and only references the repeated ones.
+ * A stack trace is fingerprinted by a hash of the frames of the throwable and its causes, the
+ * first occurrence is rendered in full followed by a <code>trace#id</code> line and the later
+ * occurrences only by their first line followed by a <code>trace#id (seen N times)</code> line.
+ * The full trace is rendered again once the <code>reprintMillis</code> passed since it was last
+ * rendered, so that a rolled log file doesn't leave the references dangling.
+ * <p>
+ * It's installed as the <code>ThrowableRenderer</code> of the log4j repository, so the stack
+ * traces are rendered once per event, by the first appender asking for them (i.e. on the drain
+ * thread of a <code>QueuedAppender</code>), and shared by all the appenders. The same throwable
+ * rendered again by the same thread (e.g. for the file and the logcat) isn't counted again.
+ * <p>
+ * The messages of the rendered throwables and their causes are redacted by the
+ * <code>LogHelper.getLogRedactor()</code>, so the stack traces reach no sink unmasked.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-20 06:41:27 AM
+ * @since 1.0.0
+ */
+public final class StackTraceDeduper implements ThrowableRenderer {
+    
+    /** DEFAULT_CAPACITY - the number of the distinct traces remembered. */
+    public static final int DEFAULT_CAPACITY = 256;
+    
+    /** DEFAULT_REPRINT_MILLIS */
+    public static final long DEFAULT_REPRINT_MILLIS = 5 * 60 * 1000L;
+    
+    /** TRACE_PREFIX */
+    public static final String TRACE_PREFIX = "trace#";
+    
+    /** MAX_CAUSES - guards against the cyclic causes. */
+    private static final int MAX_CAUSES = 32;
+    
+    /** mTraces - the least recently seen traces are forgotten first. */
+    private final Map<Long, Trace> mTraces;
+    
+    /** mReprintMillis - 0, if the traces are never rendered again. */
+    private volatile long mReprintMillis = DEFAULT_REPRINT_MILLIS;
+    
+    /** mLastRendered - the throwable last rendered by the thread with its lines. */
+    private final ThreadLocal<Object[]> mLastRendered = new ThreadLocal<Object[]>();
+    
+    /** mNextId */
+    private int mNextId = 1;
+    
+    /**
+     * @param capacity
+     */
+    public StackTraceDeduper(final int capacity) {
+        if(capacity <= 0) {
+            throw new IllegalArgumentException("Invalid Value! capacity:" + capacity);
+        }
+        
+        mTraces = new LinkedHashMap<Long, Trace>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, Trace> eldest) {
+                return (size() > capacity);
+            }
+        };
+    }
+    
+    /**
+     *
+     */
+    public StackTraceDeduper() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * The <code>mReprintMillis</code> to be set.
+     *
+     * @param reprintMillis
+     */
+    public final void setReprintMillis(final long reprintMillis) {
+        if(reprintMillis < 0) {
+            throw new IllegalArgumentException("Invalid Value! reprintMillis:" + reprintMillis);
+        }
+        
+        mReprintMillis = reprintMillis;
+    }
+    
+    /**
+     * Returns the lines of the stack trace of the given <code>throwable</code>.
+     *
+     * @param throwable
+     * @return
+     */
+    @Override
+    public String[] doRender(final Throwable throwable) {
+        return doRender(throwable, System.currentTimeMillis());
+    }
+    
+    /**
+     * Returns the stack trace of the given <code>throwable</code>, its lines separated by the
+     * <code>'\n'</code>.
+     *
+     * @param throwable
+     * @return
+     */
+    public final String render(final Throwable throwable) {
+        final String[] lines = doRender(throwable);
+        final StringBuilder traceBuilder = new StringBuilder();
+        for(int i = 0; i < lines.length; i++) {
+            if(i > 0) {
+                traceBuilder.append('\n');
+            }
+            traceBuilder.append(lines[i]);
+        }
+        
+        return traceBuilder.toString();
+    }
+    
+    /**
+     * @param throwable
+     * @param nowMillis
+     * @return
+     */
+    final String[] doRender(final Throwable throwable, final long nowMillis) {
+        if(LogHelper.isNull(throwable)) {
+            return new String[0];
+        }
+        
+        final Object[] lastRendered = mLastRendered.get();
+        if(LogHelper.isNotNull(lastRendered) && ((WeakReference<?>) lastRendered[0]).get() == throwable) {
+            return (String[]) lastRendered[1];
+        }
+        final String[] lines = renderTrace(throwable, nowMillis);
+        mLastRendered.set(new Object[]{new WeakReference<Throwable>(throwable), lines});
+        return lines;
+    }
+    
+    /**
+     * Counts the trace of the given <code>throwable</code> and renders it in full, if it's not
+     * seen before or the <code>mReprintMillis</code> passed since its last full rendering.
+     *
+     * @param throwable
+     * @param nowMillis
+     * @return
+     */
+    private String[] renderTrace(final Throwable throwable, final long nowMillis) {
+        final List<StackTraceElement[]> frames = getFrames(throwable);
+        final Long fingerprint = Long.valueOf(getFingerprint(throwable, frames));
+        final int id;
+        final int count;
+        synchronized(mTraces) {
+            Trace trace = mTraces.get(fingerprint);
+            if(LogHelper.isNull(trace) || !trace.matches(throwable, frames)) {
+                trace = new Trace(mNextId++, throwable, frames);
+                mTraces.put(fingerprint, trace);
+            }
+            id = trace.mId;
+            count = ++trace.mCount;
+            final long reprintMillis = mReprintMillis;
+            if(count > 1 && (reprintMillis == 0 || nowMillis - trace.mRenderedMillis < reprintMillis)) {
+                return redact(new String[]{String.valueOf(throwable), "\t" + TRACE_PREFIX + id + " (seen " + count + " times)"});
+            }
+            trace.mRenderedMillis = nowMillis;
+        }
+        
+        final String[] lines = DefaultThrowableRenderer.render(throwable);
+        final String[] tracedLines = Arrays.copyOf(lines, lines.length + 1);
+        tracedLines[lines.length] = "\t" + TRACE_PREFIX + id + (count > 1 ? " (seen " + count + " times)" : "");
+        return redact(tracedLines);
+    }
+    
+    /**
+     * Masks the sensitive values of the messages of the given rendered <code>lines</code> by the
+     * <code>LogHelper.getLogRedactor()</code>, the frames are not scanned.
+     *
+     * @param lines
+     * @return
+     */
+    private static String[] redact(final String[] lines) {
+        final LogRedactor logRedactor = LogHelper.getLogRedactor();
+        for(int i = 0; i < lines.length; i++) {
+            if(!lines[i].startsWith("\tat ")) {
+                lines[i] = logRedactor.redact(lines[i]);
+            }
+        }
+        
+        return lines;
+    }
+    
+    /**
+     * Returns the frames of the given <code>throwable</code> and its causes.
+     *
+     * @param throwable
+     * @return
+     */
+    private static List<StackTraceElement[]> getFrames(final Throwable throwable) {
+        final List<StackTraceElement[]> frames = new ArrayList<StackTraceElement[]>();
+        Throwable cause = throwable;
+        while(LogHelper.isNotNull(cause) && frames.size() < MAX_CAUSES) {
+            frames.add(cause.getStackTrace());
+            cause = cause.getCause();
+        }
+        
+        return frames;
+    }
+    
+    /**
+     * Returns the 64-bit FNV-1a hash of the classes and the frames of the throwable and its
+     * causes.
+     *
+     * @param throwable
+     * @param frames
+     * @return
+     */
+    private static long getFingerprint(final Throwable throwable, final List<StackTraceElement[]> frames) {
+        long hash = 0xCBF29CE484222325L;
+        Throwable cause = throwable;
+        for(StackTraceElement[] causeFrames : frames) {
+            hash = (hash ^ cause.getClass().getName().hashCode()) * 0x100000001B3L;
+            for(StackTraceElement frame : causeFrames) {
+                hash = (hash ^ frame.hashCode()) * 0x100000001B3L;
+            }
+            cause = cause.getCause();
+        }
+        
+        return hash;
+    }
+    
+    /**
+     * A distinct stack trace seen.
+     */
+    private static final class Trace {
+        
+        /** mId */
+        private final int mId;
+        
+        /** mClasses - the classes of the throwable and its causes. */
+        private final List<Class<?>> mClasses = new ArrayList<Class<?>>();
+        
+        /** mFrames */
+        private final List<StackTraceElement[]> mFrames;
+        
+        /** mCount */
+        private int mCount;
+        
+        /** mRenderedMillis - when the full trace was rendered last. */
+        private long mRenderedMillis;
+        
+        /**
+         * @param id
+         * @param throwable
+         * @param frames
+         */
+        private Trace(final int id, final Throwable throwable, final List<StackTraceElement[]> frames) {
+            mId = id;
+            mFrames = frames;
+            Throwable cause = throwable;
+            for(int i = 0; i < frames.size(); i++) {
+                mClasses.add(cause.getClass());
+                cause = cause.getCause();
+            }
+        }
+        
+        /**
+         * Returns true, if the given <code>throwable</code> has the same trace, the fingerprints
+         * may collide.
+         *
+         * @param throwable
+         * @param frames
+         * @return
+         */
+        private boolean matches(final Throwable throwable, final List<StackTraceElement[]> frames) {
+            if(frames.size() != mFrames.size()) {
+                return false;
+            }
+            
+            Throwable cause = throwable;
+            for(int i = 0; i < frames.size(); i++) {
+                if(cause.getClass() != mClasses.get(i) || !Arrays.equals(frames.get(i), mFrames.get(i))) {
+                    return false;
+                }
+                cause = cause.getCause();
+            }
+            
+            return true;
+        }
+    }
+}
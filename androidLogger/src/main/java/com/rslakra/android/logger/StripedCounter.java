@@ -0,0 +1,153 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A <code>LongAdder</code> style counter, which spreads the updates over several padded cells
+ * selected by the thread id, so that the concurrent writers don't fight over one cache line. The
+ * <code>LongAdder</code> itself is not available below API 24.
+ * <p>
+ * The updates never allocate.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 10:05:31 AM
+ * @since 1.0.0
+ */
+public final class StripedCounter {
+    
+    /** CELL_PADDING - the number of longs per cache line (64 bytes). */
+    private static final int CELL_PADDING = 8;
+    
+    /** MAX_STRIPES */
+    private static final int MAX_STRIPES = 8;
+    
+    /** STRIPES */
+    private static final int STRIPES = stripes();
+    
+    /** mCells */
+    private final AtomicLongArray mCells = new AtomicLongArray(STRIPES * CELL_PADDING);
+    
+    /**
+     * Default Constructor.
+     */
+    public StripedCounter() {
+    }
+    
+    /**
+     * Returns the number of stripes, the next power of two of the available processors.
+     *
+     * @return
+     */
+    private static int stripes() {
+        final int processors = Math.min(Runtime.getRuntime().availableProcessors(), MAX_STRIPES);
+        int stripes = 1;
+        while(stripes < processors) {
+            stripes <<= 1;
+        }
+        
+        return stripes;
+    }
+    
+    /**
+     * Returns the cell index of the current thread.
+     *
+     * @return
+     */
+    private static int cellIndex() {
+        long threadId = Thread.currentThread().getId();
+        threadId ^= (threadId >>> 16);
+        threadId *= 0x45D9F3BL;
+        threadId ^= (threadId >>> 16);
+        return ((int) threadId & (STRIPES - 1)) * CELL_PADDING;
+    }
+    
+    /**
+     * Adds the given <code>value</code>.
+     *
+     * @param value
+     */
+    public final void add(final long value) {
+        mCells.getAndAdd(cellIndex(), value);
+    }
+    
+    /**
+     * Increments the counter by one.
+     */
+    public final void increment() {
+        mCells.getAndIncrement(cellIndex());
+    }
+    
+    /**
+     * Returns the current sum. The sum is not an atomic snapshot, if the counter is being updated
+     * concurrently.
+     *
+     * @return
+     */
+    public final long sum() {
+        long sum = 0;
+        for(int i = 0; i < STRIPES; i++) {
+            sum += mCells.get(i * CELL_PADDING);
+        }
+        
+        return sum;
+    }
+    
+    /**
+     * Returns the current sum and resets the counter.
+     *
+     * @return
+     */
+    public final long sumThenReset() {
+        long sum = 0;
+        for(int i = 0; i < STRIPES; i++) {
+            sum += mCells.getAndSet(i * CELL_PADDING, 0);
+        }
+        
+        return sum;
+    }
+    
+    /**
+     * Resets the counter.
+     */
+    public final void reset() {
+        sumThenReset();
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public String toString() {
+        return String.valueOf(sum());
+    }
+}
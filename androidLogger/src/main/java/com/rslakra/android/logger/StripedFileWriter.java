@@ -0,0 +1,498 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes the log events into a file without any lock shared by the logging threads.
+ * <p>
+ * Every thread encodes its events into its own chunks of bytes. The chunks are guarded by the
+ * thread's own monitor, which is contended only when the writer thread collects them. The writer
+ * thread periodically (or when a thread runs out of chunks) collects the filled chunks of all the
+ * threads, merges their events by the sequence numbers and writes them with a single gathering
+ * <code>FileChannel.write(ByteBuffer[])</code>.
+ * <p>
+ * The sequence number of an event is taken after it's encoded, under the thread's monitor, so the
+ * writer writes only the events below the sequence read before the collection. The newer ones
+ * wait for the next round. That keeps the file in the global order of the events.
+ * <p>
+ * The file is rolled over like the log4j <code>RollingFileAppender</code> does.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 08:14:56 PM
+ * @since 1.0.0
+ */
+public final class StripedFileWriter implements LogFileWriter {
+    
+    /** LOG_TAG */
+    private static final String LOG_TAG = "StripedFileWriter";
+    
+    /** APPENDER_NAME - the name of the metrics of this writer. */
+    public static final String APPENDER_NAME = "striped";
+    
+    /** CHUNK_SIZE */
+    public static final int CHUNK_SIZE = 16 * 1024;
+    
+    /** MAX_CHUNKS - the chunks per thread, before the thread waits for the writer. */
+    public static final int MAX_CHUNKS = 4;
+    
+    /** FLUSH_INTERVAL_MILLIS */
+    public static final long FLUSH_INTERVAL_MILLIS = 200;
+    
+    /** mFileChannel - used by the writer thread only. */
+    private final RollingFileChannel mFileChannel;
+    
+    /** mFlushIntervalMillis */
+    private final long mFlushIntervalMillis;
+    
+    /** mAppenderMetrics */
+    private final LogMetrics.AppenderMetrics mAppenderMetrics;
+    
+    /** mSequence - the sequence of the next event. */
+    private final AtomicLong mSequence = new AtomicLong();
+    
+    /** mWrittenSequence - all the events below it are written. */
+    private final AtomicLong mWrittenSequence = new AtomicLong();
+    
+    /** mThreadBuffers */
+    private final CopyOnWriteArrayList<ThreadBuffer> mThreadBuffers = new CopyOnWriteArrayList<ThreadBuffer>();
+    
+    /** mThreadBuffer */
+    private final ThreadLocal<ThreadBuffer> mThreadBuffer = new ThreadLocal<ThreadBuffer>() {
+        @Override
+        protected ThreadBuffer initialValue() {
+            final ThreadBuffer threadBuffer = new ThreadBuffer(Thread.currentThread());
+            mThreadBuffers.add(threadBuffer);
+            return threadBuffer;
+        }
+    };
+    
+    /** mWriterThread */
+    private final Thread mWriterThread;
+    
+    /** mSlices - the reusable slices of a gathering write. */
+    private final List<ByteBuffer> mSlices = new ArrayList<ByteBuffer>();
+    
+    /** mClosed */
+    private volatile boolean mClosed;
+    
+    /**
+     * @param logFile
+     * @param maxFileSize
+     * @param maxBackupFiles
+     * @param flushIntervalMillis
+     * @param logMetrics
+     * @throws IOException
+     */
+    public StripedFileWriter(final File logFile, final long maxFileSize, final int maxBackupFiles, final long flushIntervalMillis, final LogMetrics logMetrics) throws IOException {
+        if(flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Invalid Value! flushIntervalMillis:" + flushIntervalMillis);
+        }
+        
+        mFileChannel = new RollingFileChannel(logFile, maxFileSize, maxBackupFiles);
+        mFlushIntervalMillis = flushIntervalMillis;
+        mAppenderMetrics = (LogHelper.isNull(logMetrics) ? null : logMetrics.getAppenderMetrics(APPENDER_NAME));
+        
+        mWriterThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeLoop();
+            }
+        }, LOG_TAG);
+        mWriterThread.setDaemon(true);
+        mWriterThread.start();
+    }
+    
+    /**
+     * Returns the log file.
+     *
+     * @return
+     */
+    @Override
+    public final File getLogFile() {
+        return mFileChannel.getLogFile();
+    }
+    
+    /**
+     * Encodes the event into the chunk of the current thread. Blocks only, if the thread has
+     * filled all its chunks and the writer has not written them yet.
+     *
+     * @param logType
+     * @param logTag
+     * @param logMessage
+     * @param throwable
+     */
+    @Override
+    public final void append(final LogType logType, final String logTag, final String logMessage, final Throwable throwable) {
+        if(mClosed) {
+            return;
+        }
+        
+        final ThreadBuffer threadBuffer = mThreadBuffer.get();
+        final long timeMillis = System.currentTimeMillis();
+        synchronized(threadBuffer) {
+            Chunk chunk = threadBuffer.activeChunk(this);
+            if(!threadBuffer.mEncoder.encode(chunk.mBuffer, timeMillis, logType, threadBuffer.mThreadName, logTag, logMessage, throwable)) {
+                if(chunk.mCount > 0) {
+                    threadBuffer.mFilled.add(chunk);
+                    threadBuffer.mActive = null;
+                    LockSupport.unpark(mWriterThread);
+                    chunk = threadBuffer.activeChunk(this);
+                }
+                
+                if(!threadBuffer.mEncoder.encode(chunk.mBuffer, timeMillis, logType, threadBuffer.mThreadName, logTag, logMessage, throwable)) {
+                    /* the event is larger than a chunk, it gets a chunk of its own. */
+                    chunk = new Chunk(LogEventEncoder.maxEncodedSize(threadBuffer.mThreadName, logTag, logMessage, throwable));
+                    threadBuffer.mEncoder.encode(chunk.mBuffer, timeMillis, logType, threadBuffer.mThreadName, logTag, logMessage, throwable);
+                    threadBuffer.mFilled.add(chunk);
+                }
+            }
+            
+            chunk.add(mSequence.getAndIncrement());
+        }
+    }
+    
+    /**
+     * Writes all the events appended so far and waits, until they are written or the given time
+     * elapses.
+     *
+     * @param timeoutMillis
+     * @return true, if all the events are written.
+     */
+    @Override
+    public final boolean flush(final long timeoutMillis) {
+        final long sequence = mSequence.get();
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        while(mWrittenSequence.get() < sequence && mWriterThread.isAlive()) {
+            LockSupport.unpark(mWriterThread);
+            if(System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(100000L);
+        }
+        
+        return (mWrittenSequence.get() >= sequence);
+    }
+    
+    /**
+     * Writes the pending events, stops the writer thread and closes the file.
+     */
+    @Override
+    public final void close() {
+        if(!mClosed) {
+            mClosed = true;
+            LockSupport.unpark(mWriterThread);
+            try {
+                mWriterThread.join(5000);
+            } catch(InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * The loop of the writer thread.
+     */
+    private void writeLoop() {
+        try {
+            while(!mClosed) {
+                LockSupport.parkNanos(mFlushIntervalMillis * 1000000L);
+                writePending(mSequence.get());
+            }
+            
+            writePending(Long.MAX_VALUE);
+        } catch(IOException ex) {
+            Log.e(LOG_TAG, "Error while writing the logs into:" + getLogFile(), ex);
+            mClosed = true;
+        } finally {
+            mFileChannel.close();
+        }
+    }
+    
+    /**
+     * Collects the chunks of all the threads and writes their events below the given
+     * <code>sequence</code> in order.
+     *
+     * @param sequence
+     * @throws IOException
+     */
+    private void writePending(final long sequence) throws IOException {
+        for(ThreadBuffer threadBuffer : mThreadBuffers) {
+            synchronized(threadBuffer) {
+                while(!threadBuffer.mFilled.isEmpty()) {
+                    threadBuffer.mPending.add(threadBuffer.mFilled.poll());
+                }
+                if(LogHelper.isNotNull(threadBuffer.mActive) && threadBuffer.mActive.mCount > 0) {
+                    threadBuffer.mPending.add(threadBuffer.mActive);
+                    threadBuffer.mActive = null;
+                }
+            }
+        }
+        
+        final long startTime = System.nanoTime();
+        mSlices.clear();
+        ThreadBuffer lastBuffer = null;
+        ByteBuffer lastSlice = null;
+        while(true) {
+            /* the thread with the oldest pending event. */
+            ThreadBuffer nextBuffer = null;
+            long nextSequence = sequence;
+            for(ThreadBuffer threadBuffer : mThreadBuffers) {
+                final Chunk chunk = threadBuffer.mPending.peek();
+                if(LogHelper.isNotNull(chunk) && chunk.headSequence() < nextSequence) {
+                    nextSequence = chunk.headSequence();
+                    nextBuffer = threadBuffer;
+                }
+            }
+            if(LogHelper.isNull(nextBuffer)) {
+                break;
+            }
+            
+            final Chunk chunk = nextBuffer.mPending.peek();
+            final int start = chunk.headStart();
+            final int end = chunk.mEnds[chunk.mReadIndex++];
+            if(nextBuffer == lastBuffer && lastSlice.limit() == start && chunk.mBuffer.array() == lastSlice.array()) {
+                lastSlice.limit(end);
+            } else {
+                lastSlice = chunk.mBuffer.duplicate();
+                lastSlice.limit(end);
+                lastSlice.position(start);
+                mSlices.add(lastSlice);
+                lastBuffer = nextBuffer;
+            }
+            
+            if(chunk.mReadIndex == chunk.mCount) {
+                nextBuffer.mPending.poll();
+                nextBuffer.mWritten.add(chunk);
+                lastBuffer = null;
+            }
+        }
+        
+        write();
+        if(LogHelper.isNotNull(mAppenderMetrics) && !mSlices.isEmpty()) {
+            mAppenderMetrics.recordAppend(System.nanoTime() - startTime);
+        }
+        
+        /* give the written chunks back and forget the dead threads. */
+        for(ThreadBuffer threadBuffer : mThreadBuffers) {
+            if(!threadBuffer.mWritten.isEmpty()) {
+                synchronized(threadBuffer) {
+                    while(!threadBuffer.mWritten.isEmpty()) {
+                        final Chunk chunk = threadBuffer.mWritten.poll();
+                        if(chunk.mBuffer.capacity() == CHUNK_SIZE) {
+                            threadBuffer.mFree.add(chunk.reset());
+                        }
+                    }
+                    threadBuffer.notifyAll();
+                }
+            }
+            
+            if(!threadBuffer.mThread.isAlive() && threadBuffer.mPending.isEmpty()) {
+                synchronized(threadBuffer) {
+                    if(threadBuffer.mFilled.isEmpty() && (LogHelper.isNull(threadBuffer.mActive) || threadBuffer.mActive.mCount == 0)) {
+                        mThreadBuffers.remove(threadBuffer);
+                    }
+                }
+            }
+        }
+        
+        mWrittenSequence.set(sequence == Long.MAX_VALUE ? mSequence.get() : sequence);
+    }
+    
+    /**
+     * Writes the <code>mSlices</code> with the gathering writes.
+     *
+     * @throws IOException
+     */
+    private void write() throws IOException {
+        if(mSlices.isEmpty()) {
+            return;
+        }
+        
+        final long bytes = mFileChannel.write(mSlices.toArray(new ByteBuffer[mSlices.size()]), mSlices.size());
+        if(LogHelper.isNotNull(mAppenderMetrics)) {
+            mAppenderMetrics.recordBytes(bytes);
+        }
+    }
+    
+    /**
+     * The chunks of one thread.
+     */
+    private static final class ThreadBuffer {
+        
+        /** mThread */
+        private final Thread mThread;
+        
+        /** mThreadName */
+        private final String mThreadName;
+        
+        /** mEncoder */
+        private final LogEventEncoder mEncoder = new LogEventEncoder();
+        
+        /** mActive - the chunk being filled. */
+        private Chunk mActive;
+        
+        /** mFilled - the filled chunks, not collected yet. */
+        private final ArrayDeque<Chunk> mFilled = new ArrayDeque<Chunk>();
+        
+        /** mFree - the written chunks to be reused. */
+        private final ArrayDeque<Chunk> mFree = new ArrayDeque<Chunk>();
+        
+        /** mChunks - the number of the chunks created. */
+        private int mChunks;
+        
+        /** mPending - the collected chunks, used by the writer thread only. */
+        private final ArrayDeque<Chunk> mPending = new ArrayDeque<Chunk>();
+        
+        /** mWritten - the written chunks, used by the writer thread only. */
+        private final ArrayDeque<Chunk> mWritten = new ArrayDeque<Chunk>();
+        
+        /**
+         * @param thread
+         */
+        private ThreadBuffer(final Thread thread) {
+            mThread = thread;
+            mThreadName = thread.getName();
+        }
+        
+        /**
+         * Returns the chunk to be filled, waiting for the writer, if all the chunks are in use.
+         * Must be called holding the monitor of this object.
+         *
+         * @param writer
+         * @return
+         */
+        private Chunk activeChunk(final StripedFileWriter writer) {
+            while(LogHelper.isNull(mActive)) {
+                if(!mFree.isEmpty()) {
+                    mActive = mFree.poll();
+                } else if(mChunks < MAX_CHUNKS || writer.mClosed || !writer.mWriterThread.isAlive()) {
+                    mChunks++;
+                    mActive = new Chunk(CHUNK_SIZE);
+                } else {
+                    LockSupport.unpark(writer.mWriterThread);
+                    try {
+                        wait(writer.mFlushIntervalMillis);
+                    } catch(InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        mChunks++;
+                        mActive = new Chunk(CHUNK_SIZE);
+                    }
+                }
+            }
+            
+            return mActive;
+        }
+    }
+    
+    /**
+     * A buffer of the encoded events with their sequences and end offsets.
+     */
+    private static final class Chunk {
+        
+        /** mBuffer */
+        private final ByteBuffer mBuffer;
+        
+        /** mSequences */
+        private long[] mSequences = new long[256];
+        
+        /** mEnds */
+        private int[] mEnds = new int[256];
+        
+        /** mCount */
+        private int mCount;
+        
+        /** mReadIndex - the next event to be written. */
+        private int mReadIndex;
+        
+        /**
+         * @param capacity
+         */
+        private Chunk(final int capacity) {
+            mBuffer = ByteBuffer.allocate(capacity);
+        }
+        
+        /**
+         * Records the event just encoded.
+         *
+         * @param sequence
+         */
+        private void add(final long sequence) {
+            if(mCount == mSequences.length) {
+                final long[] sequences = new long[mCount * 2];
+                System.arraycopy(mSequences, 0, sequences, 0, mCount);
+                mSequences = sequences;
+                final int[] ends = new int[mCount * 2];
+                System.arraycopy(mEnds, 0, ends, 0, mCount);
+                mEnds = ends;
+            }
+            
+            mSequences[mCount] = sequence;
+            mEnds[mCount] = mBuffer.position();
+            mCount++;
+        }
+        
+        /**
+         * @return
+         */
+        private long headSequence() {
+            return mSequences[mReadIndex];
+        }
+        
+        /**
+         * @return
+         */
+        private int headStart() {
+            return (mReadIndex == 0 ? 0 : mEnds[mReadIndex - 1]);
+        }
+        
+        /**
+         * @return
+         */
+        private Chunk reset() {
+            mBuffer.clear();
+            mCount = 0;
+            mReadIndex = 0;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import org.apache.log4j.Layout;
+import org.apache.log4j.RollingFileAppender;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+
+/**
+ * The log4j <code>RollingFileAppender</code>, which writes the UTF-8 bytes of the events
+ * through the <code>Utf8StreamWriter</code> instead of the <code>OutputStreamWriter</code>.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 11:34:22 PM
+ * @since 1.0.0
+ */
+public class Utf8RollingFileAppender extends RollingFileAppender {
+    
+    /**
+     * Default Constructor.
+     */
+    public Utf8RollingFileAppender() {
+    }
+    
+    /**
+     * @param layout
+     * @param fileName
+     * @param append
+     * @throws IOException
+     */
+    public Utf8RollingFileAppender(final Layout layout, final String fileName, final boolean append) throws IOException {
+        super(layout, fileName, append);
+    }
+    
+    /**
+     * @param layout
+     * @param fileName
+     * @throws IOException
+     */
+    public Utf8RollingFileAppender(final Layout layout, final String fileName) throws IOException {
+        super(layout, fileName);
+    }
+    
+    /**
+     * Returns the <code>Utf8StreamWriter</code>, unless another encoding than the UTF-8 is set.
+     *
+     * @param outputStream
+     * @return
+     */
+    @Override
+    protected OutputStreamWriter createWriter(final OutputStream outputStream) {
+        return (Utf8StreamWriter.isSupported(getEncoding()) ? new Utf8StreamWriter(outputStream) : super.createWriter(outputStream));
+    }
+}
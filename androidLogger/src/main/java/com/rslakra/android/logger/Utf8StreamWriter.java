@@ -0,0 +1,272 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+
+/**
+ * An <code>OutputStreamWriter</code>, which encodes the characters directly into a reusable byte
+ * buffer, bypassing the <code>StreamEncoder</code> of the JDK.
+ * <p>
+ * The <code>OutputStreamWriter</code> copies every string into a char array (allocating a new
+ * one for the strings longer than 1024 chars) and runs it through a <code>CharsetEncoder</code>.
+ * This writer reads the string once: the ASCII characters, nearly all of the logs, are copied in
+ * a tight loop and the rest is encoded to UTF-8 by hand, including the surrogate pairs split
+ * across the writes. The unpaired surrogates are written as '?'.
+ * <p>
+ * Like the <code>OutputStreamWriter</code>, this class is not thread-safe, the log4j appenders
+ * serialize the writes.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 11:21:34 PM
+ * @since 1.0.0
+ */
+public final class Utf8StreamWriter extends OutputStreamWriter {
+    
+    /** UTF_8 */
+    public static final String UTF_8 = "UTF-8";
+    
+    /** BUFFER_SIZE */
+    public static final int BUFFER_SIZE = 8 * 1024;
+    
+    /** mOutputStream */
+    private final OutputStream mOutputStream;
+    
+    /** mBuffer */
+    private final byte[] mBuffer = new byte[BUFFER_SIZE];
+    
+    /** mPosition */
+    private int mPosition;
+    
+    /** mHighSurrogate - the high surrogate of the last write, waiting for its low surrogate. */
+    private char mHighSurrogate;
+    
+    /**
+     * @param outputStream
+     */
+    public Utf8StreamWriter(final OutputStream outputStream) {
+        super(outputStream, Charset.forName(UTF_8));
+        mOutputStream = outputStream;
+    }
+    
+    /**
+     * Returns true, if the given <code>encoding</code> is handled by this writer, the null
+     * (the platform's default, which is UTF-8 on Android) or the UTF-8.
+     *
+     * @param encoding
+     * @return
+     */
+    public static boolean isSupported(final String encoding) {
+        return (LogHelper.isNull(encoding) || UTF_8.equalsIgnoreCase(encoding) || "UTF8".equalsIgnoreCase(encoding));
+    }
+    
+    /**
+     * Returns the number of the bytes the given <code>chars</code> are encoded into by this
+     * writer, the unpaired surrogates counted as '?'.
+     *
+     * @param chars
+     * @return
+     */
+    public static int encodedLength(final CharSequence chars) {
+        final int length = chars.length();
+        int encodedLength = length;
+        for(int i = 0; i < length; i++) {
+            final char ch = chars.charAt(i);
+            if(ch < 0x80) {
+                continue;
+            } else if(ch < 0x800) {
+                encodedLength++;
+            } else if(Character.isHighSurrogate(ch) && i + 1 < length && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                encodedLength += 2;
+                i++;
+            } else if(!Character.isSurrogate(ch)) {
+                encodedLength += 2;
+            }
+        }
+        
+        return encodedLength;
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public String getEncoding() {
+        return UTF_8;
+    }
+    
+    /**
+     * @param ch
+     * @throws IOException
+     */
+    @Override
+    public void write(final int ch) throws IOException {
+        putChar((char) ch);
+    }
+    
+    /**
+     * @param chars
+     * @param offset
+     * @param length
+     * @throws IOException
+     */
+    @Override
+    public void write(final char[] chars, final int offset, final int length) throws IOException {
+        final int end = offset + length;
+        for(int i = offset; i < end; i++) {
+            putChar(chars[i]);
+        }
+    }
+    
+    /**
+     * Writes the given part of the <code>string</code>, copying its ASCII runs in a tight loop.
+     *
+     * @param string
+     * @param offset
+     * @param length
+     * @throws IOException
+     */
+    @Override
+    public void write(final String string, final int offset, final int length) throws IOException {
+        final int end = offset + length;
+        int index = offset;
+        while(index < end) {
+            if(mHighSurrogate == 0) {
+                final byte[] buffer = mBuffer;
+                int position = mPosition;
+                final int asciiEnd = Math.min(end, index + (buffer.length - position));
+                while(index < asciiEnd) {
+                    final char ch = string.charAt(index);
+                    if(ch >= 0x80) {
+                        break;
+                    }
+                    buffer[position++] = (byte) ch;
+                    index++;
+                }
+                mPosition = position;
+                if(index == end) {
+                    break;
+                } else if(mPosition == mBuffer.length) {
+                    flushBuffer();
+                    continue;
+                }
+            }
+            
+            putChar(string.charAt(index++));
+        }
+    }
+    
+    /**
+     * Puts the UTF-8 bytes of the given <code>ch</code>.
+     *
+     * @param ch
+     * @throws IOException
+     */
+    private void putChar(final char ch) throws IOException {
+        if(mBuffer.length - mPosition < 4) {
+            flushBuffer();
+        }
+        
+        if(mHighSurrogate != 0) {
+            final char highSurrogate = mHighSurrogate;
+            mHighSurrogate = 0;
+            if(Character.isLowSurrogate(ch)) {
+                final int codePoint = Character.toCodePoint(highSurrogate, ch);
+                mBuffer[mPosition++] = (byte) (0xF0 | (codePoint >> 18));
+                mBuffer[mPosition++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                mBuffer[mPosition++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                mBuffer[mPosition++] = (byte) (0x80 | (codePoint & 0x3F));
+                return;
+            }
+            mBuffer[mPosition++] = '?';
+        }
+        
+        if(ch < 0x80) {
+            mBuffer[mPosition++] = (byte) ch;
+        } else if(ch < 0x800) {
+            mBuffer[mPosition++] = (byte) (0xC0 | (ch >> 6));
+            mBuffer[mPosition++] = (byte) (0x80 | (ch & 0x3F));
+        } else if(Character.isHighSurrogate(ch)) {
+            mHighSurrogate = ch;
+        } else if(Character.isLowSurrogate(ch)) {
+            mBuffer[mPosition++] = '?';
+        } else {
+            mBuffer[mPosition++] = (byte) (0xE0 | (ch >> 12));
+            mBuffer[mPosition++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+            mBuffer[mPosition++] = (byte) (0x80 | (ch & 0x3F));
+        }
+    }
+    
+    /**
+     * Writes the buffered bytes into the stream.
+     *
+     * @throws IOException
+     */
+    private void flushBuffer() throws IOException {
+        if(mPosition > 0) {
+            mOutputStream.write(mBuffer, 0, mPosition);
+            mPosition = 0;
+        }
+    }
+    
+    /**
+     * Writes the buffered bytes and flushes the stream. A pending high surrogate is kept for the
+     * next write.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        mOutputStream.flush();
+    }
+    
+    /**
+     * Writes the buffered bytes, an unpaired high surrogate as '?', and closes the stream.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if(mHighSurrogate != 0) {
+                mHighSurrogate = 0;
+                putChar('?');
+            }
+            flushBuffer();
+        } finally {
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/******************************************************************************
+ * Copyright (C) Devamatre Inc. 2009-2018. All rights reserved.
+ *
+ * This code is licensed to Devamatre under one or more contributor license
+ * agreements. The reproduction, transmission or use of this code, in source
+ * and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright
+ * 	  notice, this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright
+ *    notice, this list of conditions and the following disclaimer in the
+ *    documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE AUTHOR AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE AUTHOR OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS
+ * OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT
+ * LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY
+ * OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ *
+ * Devamatre reserves the right to modify the technical specifications and or
+ * features without any prior notice.
+ *****************************************************************************/
+package com.rslakra.android.logger;
+
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Layout;
+import org.apache.log4j.spi.ErrorCode;
+import org.apache.log4j.spi.LoggingEvent;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * The crash-safe appender, which writes the formatted events as the checksummed records into a
+ * memory-mapped segment file. The written records are in the page cache of the kernel as soon as
+ * they are copied into the mapping, so they survive the process being killed without paying for
+ * a syscall per event like the <code>immediateFlush</code> does.
+ * <p>
+ * Each record is the length (int), the CRC-32C (int) of the payload and the UTF-8 payload. The
+ * length is written last, so a record is only valid once it's complete. The empty events are not
+ * written, so a zero length is always the unwritten space after the last record. When the segment is
+ * opened, the records are validated from the start and the torn tail after the last valid record
+ * is zeroed, before appending to it. When the segment is full, it's truncated to its records and
+ * rolled over like the <code>RollingFileAppender</code> does (<code>fileName.1</code>, ...).
+ * <p>
+ * The records are not forced to the storage device, the <code>sync()</code> should be called,
+ * if they must survive a power loss as well.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-20 01:26:44 AM
+ * @since 1.0.0
+ */
+public class WalAppender extends AppenderSkeleton {
+    
+    /** UTF_8 */
+    private static final Charset UTF_8 = Charset.forName(Utf8StreamWriter.UTF_8);
+    
+    /** HEADER_SIZE - the length and the checksum of a record. */
+    public static final int HEADER_SIZE = 8;
+    
+    /** mFileName */
+    private final String mFileName;
+    
+    /** mSegmentSize */
+    private final int mSegmentSize;
+    
+    /** mMaxBackupFiles */
+    private final int mMaxBackupFiles;
+    
+    /** mBuffer */
+    private MappedByteBuffer mBuffer;
+    
+    /** mPosition - the end of the last record. */
+    private int mPosition;
+    
+    /** mRecoveredEvents */
+    private int mRecoveredEvents;
+    
+    /** mTruncatedBytes */
+    private int mTruncatedBytes;
+    
+    /**
+     * Opens the segment of the given <code>fileName</code> and recovers its records.
+     *
+     * @param layout
+     * @param fileName
+     * @param segmentSize
+     * @param maxBackupFiles
+     * @throws IOException
+     */
+    public WalAppender(final Layout layout, final String fileName, final int segmentSize, final int maxBackupFiles) throws IOException {
+        if(LogHelper.isNullOrEmpty(fileName)) {
+            throw new IllegalArgumentException("fileName is either NULL or EMPTY!");
+        }
+        if(segmentSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("Invalid Value! segmentSize:" + segmentSize);
+        }
+        if(maxBackupFiles < 0) {
+            throw new IllegalArgumentException("Invalid Value! maxBackupFiles:" + maxBackupFiles);
+        }
+        
+        setLayout(layout);
+        mFileName = fileName;
+        mSegmentSize = segmentSize;
+        mMaxBackupFiles = maxBackupFiles;
+        openSegment();
+        mRecoveredEvents = recover();
+    }
+    
+    /**
+     * Returns the <code>mFileName</code> value.
+     *
+     * @return
+     */
+    public final String getFileName() {
+        return mFileName;
+    }
+    
+    /**
+     * Returns the number of the valid records found in the segment, when it was opened.
+     *
+     * @return
+     */
+    public final int getRecoveredEvents() {
+        return mRecoveredEvents;
+    }
+    
+    /**
+     * Returns the number of the bytes of the torn tail zeroed, when the segment was opened.
+     *
+     * @return
+     */
+    public final int getTruncatedBytes() {
+        return mTruncatedBytes;
+    }
+    
+    /**
+     * Maps the segment file, which is extended to the <code>mSegmentSize</code>, if it's smaller.
+     *
+     * @throws IOException
+     */
+    private void openSegment() throws IOException {
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(mFileName, "rw");
+        try {
+            final long length = Math.min(Math.max(randomAccessFile.length(), mSegmentSize), Integer.MAX_VALUE);
+            mBuffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+            mPosition = 0;
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+    
+    /**
+     * Validates the records from the start of the segment and zeroes the torn tail after the last
+     * valid record.
+     *
+     * @return the number of the valid records.
+     */
+    private int recover() {
+        final int capacity = mBuffer.capacity();
+        int records = 0;
+        while(capacity - mPosition >= HEADER_SIZE) {
+            final int length = mBuffer.getInt(mPosition);
+            if(length <= 0 || length > capacity - mPosition - HEADER_SIZE) {
+                break;
+            }
+            if(Crc32c.checksum(mBuffer, mPosition + HEADER_SIZE, length) != mBuffer.getInt(mPosition + 4)) {
+                break;
+            }
+            mPosition += HEADER_SIZE + length;
+            records++;
+        }
+        
+        int tailEnd = capacity;
+        while(tailEnd > mPosition && mBuffer.get(tailEnd - 1) == 0) {
+            tailEnd--;
+        }
+        mTruncatedBytes = tailEnd - mPosition;
+        for(int i = mPosition; i < tailEnd; i++) {
+            mBuffer.put(i, (byte) 0);
+        }
+        
+        return records;
+    }
+    
+    /**
+     * Writes the given <code>logEvent</code> as a record. The segment is rolled over, if the
+     * record doesn't fit into it.
+     *
+     * @param logEvent
+     */
+    @Override
+    protected void append(final LoggingEvent logEvent) {
+        if(LogHelper.isNull(mBuffer)) {
+            return;
+        }
+        
+        final byte[] payload = encode(logEvent);
+        if(payload.length == 0) {
+            return;
+        }
+        if(HEADER_SIZE + payload.length > mSegmentSize) {
+            errorHandler.error("The event is larger than the segment of:" + getName(), null, ErrorCode.WRITE_FAILURE);
+            return;
+        }
+        if(HEADER_SIZE + payload.length > mBuffer.capacity() - mPosition) {
+            try {
+                rollOver();
+            } catch(IOException ex) {
+                mBuffer = null;
+                errorHandler.error("Unable to roll over:" + mFileName, ex, ErrorCode.FILE_OPEN_FAILURE);
+                return;
+            }
+        }
+        
+        mBuffer.position(mPosition + HEADER_SIZE);
+        mBuffer.put(payload);
+        mBuffer.putInt(mPosition + 4, Crc32c.checksum(payload, 0, payload.length));
+        mBuffer.putInt(mPosition, payload.length);
+        mPosition += HEADER_SIZE + payload.length;
+    }
+    
+    /**
+     * Returns the UTF-8 bytes of the formatted <code>logEvent</code>, including its throwable, if
+     * the layout ignores it.
+     *
+     * @param logEvent
+     * @return
+     */
+    private byte[] encode(final LoggingEvent logEvent) {
+        final String formatted = layout.format(logEvent);
+        final String[] throwableStrRep = (layout.ignoresThrowable() ? logEvent.getThrowableStrRep() : null);
+        if(LogHelper.isNull(throwableStrRep)) {
+            return formatted.getBytes(UTF_8);
+        }
+        
+        final StringBuilder logBuilder = new StringBuilder(formatted);
+        for(String line : throwableStrRep) {
+            logBuilder.append(line).append(Layout.LINE_SEP);
+        }
+        
+        return logBuilder.toString().getBytes(UTF_8);
+    }
+    
+    /**
+     * Truncates the current segment to its records, renames it to the <code>fileName.1</code>
+     * (shifting the older ones) and opens a new segment.
+     *
+     * @throws IOException
+     */
+    private void rollOver() throws IOException {
+        seal();
+        if(mMaxBackupFiles > 0) {
+            final File oldest = new File(mFileName + "." + mMaxBackupFiles);
+            if(oldest.exists() && !oldest.delete()) {
+                throw new IOException("Unable to delete:" + oldest);
+            }
+            for(int i = mMaxBackupFiles - 1; i >= 1; i--) {
+                final File backup = new File(mFileName + "." + i);
+                if(backup.exists() && !backup.renameTo(new File(mFileName + "." + (i + 1)))) {
+                    throw new IOException("Unable to rename:" + backup);
+                }
+            }
+            if(!new File(mFileName).renameTo(new File(mFileName + ".1"))) {
+                throw new IOException("Unable to rename:" + mFileName);
+            }
+        } else if(!new File(mFileName).delete()) {
+            throw new IOException("Unable to delete:" + mFileName);
+        }
+        
+        openSegment();
+    }
+    
+    /**
+     * Truncates the segment file to its records. The mapping must not be used afterwards.
+     *
+     * @throws IOException
+     */
+    private void seal() throws IOException {
+        mBuffer = null;
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(mFileName, "rw");
+        try {
+            randomAccessFile.setLength(mPosition);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+    
+    /**
+     * Forces the written records to the storage device. It's not needed to survive the process
+     * being killed.
+     */
+    public final synchronized void sync() {
+        if(LogHelper.isNotNull(mBuffer)) {
+            mBuffer.force();
+        }
+    }
+    
+    /**
+     * Truncates the segment to its records.
+     */
+    @Override
+    public synchronized void close() {
+        if(closed) {
+            return;
+        }
+        
+        closed = true;
+        if(LogHelper.isNotNull(mBuffer)) {
+            try {
+                seal();
+            } catch(IOException ex) {
+                errorHandler.error("Unable to close:" + mFileName, ex, ErrorCode.CLOSE_FAILURE);
+            }
+        }
+    }
+    
+    /**
+     * @return
+     */
+    @Override
+    public boolean requiresLayout() {
+        return true;
+    }
+}
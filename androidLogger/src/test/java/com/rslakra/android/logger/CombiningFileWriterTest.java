@@ -0,0 +1,132 @@
+package com.rslakra.android.logger;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit tests of the <code>CombiningFileWriter</code>.
+ */
+public class CombiningFileWriterTest {
+    
+    private final String LOG_TAG = "CombiningFileWriterTest";
+    
+    /**
+     * Counts the lines of the given file.
+     *
+     * @param logFile
+     * @return
+     * @throws Exception
+     */
+    private static int countLines(final File logFile) throws Exception {
+        int lines = 0;
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(logFile), "UTF-8"));
+        try {
+            while(reader.readLine() != null) {
+                lines++;
+            }
+        } finally {
+            reader.close();
+        }
+        
+        return lines;
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void writesEventsBeforeAppendReturns() throws Exception {
+        final File logsFolder = new File(System.getProperty("java.io.tmpdir"), LOG_TAG + System.nanoTime());
+        final File logFile = new File(logsFolder, "combining.log");
+        final CombiningFileWriter combiningFileWriter = new CombiningFileWriter(logFile, LogHelper.MAX_FILE_SIZE * 8, 1, new LogMetrics());
+        try {
+            final int threads = 4;
+            final int events = 5000;
+            final Thread[] writers = new Thread[threads];
+            for(int t = 0; t < threads; t++) {
+                final int thread = t;
+                writers[t] = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        for(int i = 0; i < events; i++) {
+                            combiningFileWriter.append(LogType.INFO, LOG_TAG, "event:" + thread + ":" + i, null);
+                        }
+                    }
+                });
+                writers[t].start();
+            }
+            for(Thread writer : writers) {
+                writer.join();
+            }
+            
+            final char[] large = new char[CombiningFileWriter.SLOT_SIZE * 2];
+            Arrays.fill(large, 'x');
+            combiningFileWriter.append(LogType.ERROR, LOG_TAG, new String(large), null);
+            
+            /* no flush, the events must be in the file already. */
+            final int[] nextEvents = new int[threads];
+            int largeEvents = 0;
+            int otherLines = 0;
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(logFile), "UTF-8"));
+            try {
+                String line;
+                while((line = reader.readLine()) != null) {
+                    final int index = line.indexOf("event:");
+                    if(index > 0) {
+                        final String[] tokens = line.substring(index).split(":");
+                        final int thread = Integer.parseInt(tokens[1]);
+                        assertEquals(nextEvents[thread], Integer.parseInt(tokens[2]));
+                        nextEvents[thread]++;
+                    } else if(line.endsWith("xxxx")) {
+                        assertTrue(line.contains("ERROR"));
+                        largeEvents++;
+                    } else {
+                        otherLines++;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+            
+            for(int t = 0; t < threads; t++) {
+                assertEquals(events, nextEvents[t]);
+            }
+            assertEquals(1, largeEvents);
+            assertEquals(0, otherLines);
+        } finally {
+            combiningFileWriter.close();
+            LogHelper.deleteRecursively(logsFolder, true);
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void rollsOverWhenFileIsFull() throws Exception {
+        final File logsFolder = new File(System.getProperty("java.io.tmpdir"), LOG_TAG + System.nanoTime());
+        final File logFile = new File(logsFolder, "combining.log");
+        final CombiningFileWriter combiningFileWriter = new CombiningFileWriter(logFile, 4 * 1024, 2, null);
+        try {
+            for(int i = 0; i < 200; i++) {
+                combiningFileWriter.append(LogType.INFO, LOG_TAG, "event:" + i, null);
+            }
+            
+            assertTrue(new File(logFile.getPath() + ".1").exists());
+            assertTrue(new File(logFile.getPath() + ".2").exists());
+            assertTrue(!new File(logFile.getPath() + ".3").exists());
+            assertTrue(countLines(logFile) < 200);
+        } finally {
+            combiningFileWriter.close();
+            LogHelper.deleteRecursively(logsFolder, true);
+        }
+    }
+}
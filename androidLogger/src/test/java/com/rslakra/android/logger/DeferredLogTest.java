@@ -0,0 +1,45 @@
+package com.rslakra.android.logger;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit tests of the <code>DeferredLog</code>.
+ */
+public class DeferredLogTest {
+    
+    private final String LOG_TAG = "DeferredLogTest";
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void replaysInOrderAndCountsDropped() throws Exception {
+        final LogMetrics logMetrics = new LogMetrics();
+        final DeferredLog deferredLog = new DeferredLog(3, logMetrics.getQueueMetrics(DeferredLog.QUEUE_NAME), new LogEventPool(2));
+        for(int i = 0; i < 5; i++) {
+            assertTrue(deferredLog.offer(LogType.INFO, LOG_TAG, "Message %d", new Object[]{i}, null));
+        }
+        
+        final List<String> replayed = new ArrayList<String>();
+        deferredLog.replay(new DeferredLog.Replayer() {
+            @Override
+            public void replay(final LogEvent pendingEvent) {
+                replayed.add(pendingEvent.getMessage());
+            }
+        });
+        
+        assertEquals(3, replayed.size());
+        assertEquals("Message 0", replayed.get(0));
+        assertEquals("Message 2", replayed.get(2));
+        assertEquals(2, logMetrics.getQueueMetrics(DeferredLog.QUEUE_NAME).getDropped());
+        assertTrue(deferredLog.await(0));
+        assertFalse(deferredLog.offer(LogType.INFO, LOG_TAG, "After replay", null, null));
+    }
+}
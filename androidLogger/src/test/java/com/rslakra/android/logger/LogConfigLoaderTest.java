@@ -0,0 +1,123 @@
+package com.rslakra.android.logger;
+
+import org.apache.log4j.Level;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Local unit tests of the <code>LogConfigLoader</code>.
+ */
+public class LogConfigLoaderTest {
+    
+    private final String LOG_TAG = "LogConfigLoaderTest";
+    
+    private static final String PROPERTIES = "log4j.rootLogger = INFO, console, RFA\n"
+        + "log4j.logger.com.rslakra.net = DEBUG\n"
+        + "log4j.appender.console = org.apache.log4j.ConsoleAppender\n"
+        + "log4j.appender.RFA = org.apache.log4j.RollingFileAppender\n"
+        + "log4j.appender.RFA.File = android.log\n"
+        + "log4j.appender.RFA.MaxFileSize = 512KB\n"
+        + "log4j.appender.RFA.MaxBackupIndex = 3\n"
+        + "log4j.appender.RFA.layout.ConversionPattern = %p %m%n\n";
+    
+    private static final String XML = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE log4j:configuration SYSTEM \"log4j.dtd\">\n"
+        + "<log4j:configuration xmlns:log4j=\"http://jakarta.apache.org/log4j/\">\n"
+        + "  <appender name=\"RFA\" class=\"org.apache.log4j.DailyRollingFileAppender\">\n"
+        + "    <param name=\"File\" value=\"android.log\" />\n"
+        + "    <param name=\"DatePattern\" value=\"'.'yyyy-MM-dd\" />\n"
+        + "    <layout class=\"org.apache.log4j.PatternLayout\"><param name=\"ConversionPattern\" value=\"%p %m%n\" /></layout>\n"
+        + "  </appender>\n"
+        + "  <logger name=\"com.rslakra.net\"><level value=\"WARN\" /></logger>\n"
+        + "  <root><priority value=\"DEBUG\" /><appender-ref ref=\"RFA\" /></root>\n"
+        + "</log4j:configuration>\n";
+    
+    /**
+     * @param string
+     * @return
+     */
+    private byte[] toBytes(final String string) {
+        return string.getBytes(Charset.forName("UTF-8"));
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void parsesProperties() throws Exception {
+        final Properties properties = new Properties();
+        properties.load(new ByteArrayInputStream(toBytes(PROPERTIES)));
+        final LogConfig logConfig = LogConfigLoader.parseProperties(properties);
+        
+        assertEquals(Level.INFO, logConfig.getRootLevel());
+        assertEquals(Level.DEBUG, logConfig.getLoggerLevels().get("com.rslakra.net"));
+        assertEquals(2, logConfig.getAppenders().size());
+        assertEquals(LogConfig.AppenderType.CONSOLE, logConfig.getAppenders().get(0).getAppenderType());
+        final LogConfig.AppenderConfig fileAppender = logConfig.getFileAppender();
+        assertEquals(LogConfig.AppenderType.ROLLING_FILE, fileAppender.getAppenderType());
+        assertEquals(512 * 1024L, fileAppender.getMaxFileSize());
+        assertEquals(3, fileAppender.getMaxBackupFiles());
+        assertEquals("%p %m%n", fileAppender.getLogPattern());
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void parsesXml() throws Exception {
+        final LogConfig logConfig = LogConfigLoader.parseXml(new ByteArrayInputStream(toBytes(XML)));
+        
+        assertEquals(Level.DEBUG, logConfig.getRootLevel());
+        assertEquals(Level.WARN, logConfig.getLoggerLevels().get("com.rslakra.net"));
+        assertEquals(LogConfig.AppenderType.DAILY_ROLLING_FILE, logConfig.getFileAppender().getAppenderType());
+        assertEquals("'.'yyyy-MM-dd", logConfig.getFileAppender().getDatePattern());
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void rejectsUndefinedAppender() throws Exception {
+        final Properties properties = new Properties();
+        properties.setProperty("log4j.rootLogger", "INFO, missing");
+        try {
+            LogConfigLoader.parseProperties(properties);
+            fail("The undefined appender should be rejected!");
+        } catch(IllegalArgumentException ex) {
+            assertTrue(ex.getMessage().contains("missing"));
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void readsCachedConfig() throws Exception {
+        final File cacheFolder = new File(System.getProperty("java.io.tmpdir"), LOG_TAG + System.nanoTime());
+        try {
+            final byte[] configBytes = toBytes(XML);
+            final LogConfig parsed = LogConfigLoader.load(configBytes, true, cacheFolder);
+            final File cacheFile = new File(cacheFolder, LogConfigLoader.CACHE_FILE_PREFIX + LogConfigLoader.hashKey(configBytes) + LogConfigLoader.CACHE_FILE_SUFFIX);
+            assertTrue(cacheFile.exists());
+            
+            /* the cached config is used, even though the bytes are not parseable as properties. */
+            final LogConfig cached = LogConfigLoader.load(configBytes, false, cacheFolder);
+            assertEquals(parsed.toString(), cached.toString());
+            
+            /* a changed config replaces the stale cache. */
+            LogConfigLoader.load(toBytes(PROPERTIES), false, cacheFolder);
+            assertFalse(cacheFile.exists());
+        } finally {
+            LogHelper.deleteRecursively(cacheFolder, true);
+        }
+    }
+}
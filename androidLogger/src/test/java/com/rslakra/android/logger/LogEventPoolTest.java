@@ -0,0 +1,68 @@
+package com.rslakra.android.logger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Local unit tests of the <code>LogEventPool</code> and the <code>LogEvent</code>.
+ */
+public class LogEventPoolTest {
+    
+    private final String LOG_TAG = "LogEventPoolTest";
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void reusesAndResetsEvents() throws Exception {
+        final LogEventPool logEventPool = new LogEventPool(1);
+        final LogEvent logEvent = logEventPool.acquire().set(LogType.WARN, LOG_TAG, "%s took %d ms", new Object[]{"load", 17}, null);
+        assertEquals("load took 17 ms", logEvent.getMessage());
+        assertEquals(2, logEvent.getArgumentCount());
+        assertEquals(Thread.currentThread().getId(), logEvent.getThreadId());
+        assertEquals(1, logEventPool.getOutstandingCount());
+        
+        logEventPool.release(logEvent);
+        assertNull(logEvent.getLogTag());
+        assertEquals(0, logEvent.getArgumentCount());
+        assertEquals(0, logEventPool.getOutstandingCount());
+        assertSame(logEvent, logEventPool.acquire());
+        
+        /* the pool is empty, the second event is created and not kept, once released. */
+        final LogEvent other = logEventPool.acquire();
+        assertEquals(2, logEventPool.getCreatedCount());
+        logEventPool.release(other);
+        assertEquals(1, logEventPool.getSize());
+        try {
+            logEventPool.release(other);
+            fail("The released event should not be released again!");
+        } catch(IllegalStateException ex) {
+            // expected
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void reportsEventsNeverReleased() throws Exception {
+        final LogEventPool logEventPool = new LogEventPool(4);
+        logEventPool.setLeakDetectionEnabled(true);
+        logEventPool.release(logEventPool.acquire().set(LogType.INFO, LOG_TAG, "released", null, null));
+        logEventPool.acquire().set(LogType.INFO, LOG_TAG, "leaked", null, null);
+        
+        final long deadline = System.currentTimeMillis() + 10000;
+        while(logEventPool.getLeakedCount() == 0 && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+            logEventPool.reportLeaks();
+        }
+        
+        assertEquals(1, logEventPool.getLeakedCount());
+        assertEquals(0, logEventPool.getOutstandingCount());
+    }
+}
@@ -0,0 +1,240 @@
+package com.rslakra.android.logger;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PatternLayout;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Local unit tests of the <code>LogExporter</code>.
+ */
+public class LogExporterTest {
+    
+    private final String LOG_TAG = "LogExporterTest";
+    
+    /** LOG_PATTERN */
+    private static final String LOG_PATTERN = "[%d{yyyy-MM-dd HH:mm:ss.S}] %m%n";
+    
+    /** BASE_TIME */
+    private static final long BASE_TIME = 1792400000000L;
+    
+    /** mTempFolders - the temporary folders of the test, deleted after it. */
+    private final List<File> mTempFolders = new ArrayList<File>();
+    
+    /**
+     * Deletes the temporary folders of the test.
+     */
+    @After
+    public void deleteTempFolders() {
+        for(File tempFolder : mTempFolders) {
+            LogHelper.deleteRecursively(tempFolder, true);
+        }
+    }
+    
+    /**
+     * Returns a new temporary folder, which is deleted after the test.
+     *
+     * @return
+     */
+    private File newTempFolder() {
+        final File tempFolder = new File(System.getProperty("java.io.tmpdir"), LOG_TAG + System.nanoTime());
+        mTempFolders.add(tempFolder);
+        return tempFolder;
+    }
+    
+    /**
+     * @param offsetMillis
+     * @param message
+     * @return
+     */
+    private static String line(final long offsetMillis, final String message) {
+        return "[" + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.S").format(new Date(BASE_TIME + offsetMillis)) + "] " + message + "\n";
+    }
+    
+    /**
+     * @param outputStream
+     * @param text
+     * @throws Exception
+     */
+    private static void write(final OutputStream outputStream, final String text) throws Exception {
+        try {
+            outputStream.write(text.getBytes("UTF-8"));
+        } finally {
+            outputStream.close();
+        }
+    }
+    
+    /**
+     * @param inputStream
+     * @return
+     * @throws Exception
+     */
+    private static byte[] readFully(final InputStream inputStream) throws Exception {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1024];
+        int length;
+        while((length = inputStream.read(buffer)) > 0) {
+            outputStream.write(buffer, 0, length);
+        }
+        return outputStream.toByteArray();
+    }
+    
+    /**
+     * Parses the ustar entries of the given <code>tarGz</code> archive.
+     *
+     * @param tarGz
+     * @return
+     * @throws Exception
+     */
+    private static Map<String, String> readTarGz(final byte[] tarGz) throws Exception {
+        final Map<String, String> entries = new TreeMap<String, String>();
+        final DataInputStream tarStream = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(tarGz)));
+        final byte[] header = new byte[512];
+        while(true) {
+            tarStream.readFully(header);
+            if(header[0] == 0) {
+                break;
+            }
+            long checksum = 0;
+            for(int i = 0; i < header.length; i++) {
+                checksum += (i >= 148 && i < 156 ? ' ' : header[i] & 0xFF);
+            }
+            assertEquals(checksum, Long.parseLong(new String(header, 148, 6, "US-ASCII"), 8));
+            assertEquals("ustar", new String(header, 257, 5, "US-ASCII"));
+            final String name = new String(header, 0, 100, "UTF-8").trim();
+            final int size = Integer.parseInt(new String(header, 124, 11, "US-ASCII"), 8);
+            final byte[] content = new byte[size];
+            tarStream.readFully(content);
+            tarStream.readFully(new byte[(512 - size % 512) % 512]);
+            entries.put(name, new String(content, "UTF-8"));
+        }
+        tarStream.close();
+        
+        return entries;
+    }
+    
+    /**
+     * Creates the logs folder with an active file (with a partial last line), a rolled gzip
+     * segment, a <code>WalAppender</code> segment and a crash dump.
+     *
+     * @return
+     * @throws Exception
+     */
+    private File newLogsFolder() throws Exception {
+        final File logsFolder = newTempFolder();
+        logsFolder.mkdirs();
+        write(new FileOutputStream(new File(logsFolder, "android.log")), line(30, "active 1") + "java.lang.Exception: boom\n\tat Foo.bar(Foo.java:1)\n" + line(60, "active 2") + "[partial");
+        write(new GZIPOutputStream(new FileOutputStream(new File(logsFolder, "android.log.1.gz"))), line(0, "rolled 1") + line(20, "rolled 2"));
+        final File crashFile = new File(logsFolder, "app.crash");
+        write(new FileOutputStream(crashFile), "native crash");
+        crashFile.setLastModified(BASE_TIME - 60000);
+        
+        final WalAppender walAppender = new WalAppender(new PatternLayout(LOG_PATTERN), new File(logsFolder, "android.log.wal").getAbsolutePath(), 4096, 1);
+        walAppender.doAppend(new LoggingEvent(Logger.class.getName(), Logger.getLogger(LOG_TAG), BASE_TIME + 40, Level.INFO, "wal 1", null));
+        walAppender.close();
+        return logsFolder;
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void exportsZip() throws Exception {
+        final File logsFolder = newLogsFolder();
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertEquals(4, new LogExporter(logsFolder, LOG_PATTERN).export(outputStream, LogExporter.Format.ZIP));
+        
+        final Map<String, byte[]> entries = new TreeMap<String, byte[]>();
+        final ZipInputStream zipStream = new ZipInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+        ZipEntry zipEntry;
+        while((zipEntry = zipStream.getNextEntry()) != null) {
+            entries.put(zipEntry.getName(), readFully(zipStream));
+        }
+        zipStream.close();
+        
+        assertEquals("[android.log, android.log.1.gz, android.log.wal.txt, app.crash]", entries.keySet().toString());
+        assertEquals(line(30, "active 1") + "java.lang.Exception: boom\n\tat Foo.bar(Foo.java:1)\n" + line(60, "active 2"), new String(entries.get("android.log"), "UTF-8"));
+        assertArrayEquals(LogHelper.readBytesFully(new File(logsFolder, "android.log.1.gz").getAbsolutePath()), entries.get("android.log.1.gz"));
+        assertEquals(line(40, "wal 1"), new String(entries.get("android.log.wal.txt"), "UTF-8"));
+        assertEquals("native crash", new String(entries.get("app.crash"), "UTF-8"));
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void exportsTarGzInTimeWindow() throws Exception {
+        final File logsFolder = newLogsFolder();
+        final LogExporter logExporter = new LogExporter(logsFolder, LOG_PATTERN);
+        logExporter.setTimeWindow(BASE_TIME + 20, BASE_TIME + 60);
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertEquals(3, logExporter.export(outputStream, LogExporter.Format.TAR_GZ));
+        
+        final Map<String, String> entries = readTarGz(outputStream.toByteArray());
+        assertEquals("[android.log, android.log.1, android.log.wal.txt]", entries.keySet().toString());
+        assertEquals(line(30, "active 1") + "java.lang.Exception: boom\n\tat Foo.bar(Foo.java:1)\n", entries.get("android.log"));
+        assertEquals(line(20, "rolled 2"), entries.get("android.log.1"));
+        assertEquals(line(40, "wal 1"), entries.get("android.log.wal.txt"));
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void exportsLiveWalSegment() throws Exception {
+        final File logsFolder = newTempFolder();
+        logsFolder.mkdirs();
+        final WalAppender walAppender = new WalAppender(new PatternLayout("%m%n"), new File(logsFolder, "android.log.wal").getAbsolutePath(), 1024 * 1024, 1);
+        walAppender.doAppend(new LoggingEvent(Logger.class.getName(), Logger.getLogger(LOG_TAG), Level.INFO, "wal 0", null));
+        final AtomicBoolean logging = new AtomicBoolean(true);
+        final Thread logThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for(int i = 1; logging.get() && i < 50000; i++) {
+                    walAppender.doAppend(new LoggingEvent(Logger.class.getName(), Logger.getLogger(LOG_TAG), Level.INFO, "wal " + i, null));
+                    Thread.yield();
+                }
+            }
+        });
+        logThread.start();
+        try {
+            // the records appended meanwhile are left out of both the passes.
+            for(int i = 0; i < 5; i++) {
+                final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                assertEquals(1, new LogExporter(logsFolder, LOG_PATTERN).export(outputStream, LogExporter.Format.TAR_GZ));
+                final String[] lines = readTarGz(outputStream.toByteArray()).get("android.log.wal.txt").split("\n");
+                for(int j = 0; j < lines.length; j++) {
+                    assertEquals("wal " + j, lines[j]);
+                }
+            }
+        } finally {
+            logging.set(false);
+            logThread.join();
+            walAppender.close();
+        }
+    }
+}
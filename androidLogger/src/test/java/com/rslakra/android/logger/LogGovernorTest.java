@@ -0,0 +1,146 @@
+package com.rslakra.android.logger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit tests of the <code>LogGovernor</code>.
+ */
+public class LogGovernorTest {
+    
+    private final String LOG_TAG = "LogGovernorTest";
+    
+    /** SECOND_NANOS */
+    private static final long SECOND_NANOS = 1000000000L;
+    
+    private final LogMetrics mLogMetrics = new LogMetrics();
+    
+    private final LogGovernor mLogGovernor = new LogGovernor(mLogMetrics);
+    
+    private long mNowNanos;
+    
+    @Before
+    public void setUp() {
+        mLogMetrics.setEnabled(true);
+        mLogGovernor.setMaxEventsPerSecond(100);
+        mLogGovernor.setCalmSamples(2);
+        mLogGovernor.sample(mLogMetrics.snapshot(), mNowNanos, LogType.DEBUG);
+    }
+    
+    /**
+     * Logs the given number of <code>events</code> through the governor and samples a second later.
+     *
+     * @param events
+     */
+    private void logAndSample(final int events) {
+        for(int i = 0; i < events; i++) {
+            final LogType logType = (i % 2 == 0 ? LogType.DEBUG : LogType.INFO);
+            if(mLogGovernor.isAdmitted(logType)) {
+                mLogMetrics.recordEvent(logType, LOG_TAG, 0);
+            }
+        }
+        mNowNanos += SECOND_NANOS;
+        mLogGovernor.sample(mLogMetrics.snapshot(), mNowNanos, LogType.DEBUG);
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void admitsAllUnderBudget() throws Exception {
+        logAndSample(50);
+        logAndSample(99);
+        assertFalse(mLogGovernor.isShedding());
+        assertEquals(LogType.VERBOSE, mLogGovernor.getLogType());
+        assertEquals(0, mLogGovernor.getShedEvents(LogType.DEBUG));
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void raisesOneStepPerSampleUpToWarn() throws Exception {
+        logAndSample(200);
+        assertEquals(LogType.INFO, mLogGovernor.getLogType());
+        assertFalse(mLogGovernor.isAdmitted(LogType.DEBUG));
+        assertTrue(mLogGovernor.isAdmitted(LogType.INFO));
+        
+        // the shed events still count as the load
+        logAndSample(200);
+        assertEquals(LogType.WARN, mLogGovernor.getLogType());
+        logAndSample(200);
+        assertEquals(LogType.WARN, mLogGovernor.getLogType());
+        assertTrue(mLogGovernor.isAdmitted(LogType.WARN));
+        assertTrue(mLogGovernor.isAdmitted(LogType.ERROR));
+        assertTrue(mLogGovernor.isAdmitted(LogType.ASSERT));
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void restoresAfterCalmSamplesWithSummary() throws Exception {
+        logAndSample(200);
+        logAndSample(200);
+        assertEquals(LogType.WARN, mLogGovernor.getLogType());
+        
+        // within the hysteresis band, nothing changes
+        logAndSample(60);
+        logAndSample(60);
+        logAndSample(60);
+        assertEquals(LogType.WARN, mLogGovernor.getLogType());
+        
+        // calm, but not long enough
+        logAndSample(10);
+        assertEquals(LogType.WARN, mLogGovernor.getLogType());
+        logAndSample(10);
+        assertEquals(LogType.INFO, mLogGovernor.getLogType());
+        
+        logAndSample(10);
+        logAndSample(10);
+        assertFalse(mLogGovernor.isShedding());
+        assertEquals(LogType.VERBOSE, mLogGovernor.getLogType());
+        
+        final long shedDebug = mLogGovernor.getShedEvents(LogType.DEBUG);
+        final long shedInfo = mLogGovernor.getShedEvents(LogType.INFO);
+        assertEquals(100 + 30 * 3 + 5 * 4, shedDebug);
+        assertEquals(30 * 3 + 5 * 2, shedInfo);
+        final String summary = mLogGovernor.getLastSummary();
+        assertNotNull(summary);
+        assertTrue(summary, summary.contains("shed " + (shedDebug + shedInfo) + " events"));
+        assertTrue(summary, summary.contains("INFO=" + shedInfo));
+        assertTrue(summary, summary.contains("DEBUG=" + shedDebug));
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void doesNotShedBelowConfiguredLevel() throws Exception {
+        mLogGovernor.sample(mLogMetrics.snapshot(), mNowNanos, LogType.WARN);
+        for(int i = 0; i < 200; i++) {
+            mLogMetrics.recordEvent(LogType.WARN, LOG_TAG, 0);
+        }
+        mNowNanos += SECOND_NANOS;
+        mLogGovernor.sample(mLogMetrics.snapshot(), mNowNanos, LogType.WARN);
+        assertFalse(mLogGovernor.isShedding());
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void raisesOnQueueDepth() throws Exception {
+        mLogGovernor.setMaxQueueDepth(10);
+        mLogMetrics.getQueueMetrics("sink.file").setDepth(20);
+        logAndSample(0);
+        assertEquals(LogType.INFO, mLogGovernor.getLogType());
+        mLogGovernor.stop();
+        assertFalse(mLogGovernor.isShedding());
+    }
+}
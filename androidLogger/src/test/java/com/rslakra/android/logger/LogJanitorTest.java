@@ -0,0 +1,188 @@
+package com.rslakra.android.logger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit tests of the <code>LogJanitor</code>.
+ */
+public class LogJanitorTest {
+    
+    private final String LOG_TAG = "LogJanitorTest";
+    
+    /** NOW */
+    private static final long NOW = 1792400000000L;
+    
+    /** mTempFolders - the temporary folders of the test, deleted after it. */
+    private final List<File> mTempFolders = new ArrayList<File>();
+    
+    /**
+     * Deletes the temporary folders of the test.
+     */
+    @After
+    public void deleteTempFolders() {
+        for(File tempFolder : mTempFolders) {
+            LogHelper.deleteRecursively(tempFolder, true);
+        }
+    }
+    
+    /**
+     * Returns a new temporary folder, which is deleted after the test.
+     *
+     * @return
+     */
+    private File newTempFolder() {
+        final File tempFolder = new File(System.getProperty("java.io.tmpdir"), LOG_TAG + System.nanoTime());
+        mTempFolders.add(tempFolder);
+        return tempFolder;
+    }
+    
+    /**
+     * @param file
+     * @param length
+     * @param lastModified
+     * @throws Exception
+     */
+    private static void write(final File file, final int length, final long lastModified) throws Exception {
+        file.getParentFile().mkdirs();
+        final byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) 'x');
+        final OutputStream outputStream = new FileOutputStream(file, true);
+        try {
+            outputStream.write(bytes);
+        } finally {
+            outputStream.close();
+        }
+        file.setLastModified(lastModified);
+    }
+    
+    /**
+     * Creates an active file, two rolled backups, a crash dump and a spooled upload, 450 bytes.
+     *
+     * @return
+     * @throws Exception
+     */
+    private File newLogsFolder() throws Exception {
+        final File logsFolder = newTempFolder();
+        write(new File(logsFolder, "android.log"), 100, NOW - 5000);
+        write(new File(logsFolder, "android.log.1"), 100, NOW - 1000);
+        write(new File(logsFolder, "android.log.2"), 100, NOW - 2000);
+        write(new File(logsFolder, "app.crash"), 100, NOW - 3000);
+        write(new File(new File(logsFolder, LogUploader.SPOOL_FOLDER), "1.batch"), 50, NOW - 4000);
+        return logsFolder;
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void evictsOldestFinishedFilesOverBudget() throws Exception {
+        final File logsFolder = newLogsFolder();
+        final LogJanitor logJanitor = new LogJanitor(logsFolder);
+        logJanitor.setMaxTotalBytes(260);
+        assertEquals(2, logJanitor.clean(NOW, Long.MAX_VALUE));
+        assertEquals(250, logJanitor.getTotalBytes());
+        assertFalse(new File(logsFolder, "app.crash").exists());
+        assertFalse(new File(logsFolder, "android.log.2").exists());
+        assertTrue(new File(logsFolder, "android.log.1").exists());
+        assertTrue(new File(logsFolder, "android.log").exists());
+        
+        // nothing but the active file and the spool is left to evict.
+        logJanitor.setMaxTotalBytes(1);
+        assertEquals(1, logJanitor.clean(NOW, Long.MAX_VALUE));
+        assertEquals(150, logJanitor.getTotalBytes());
+        assertTrue(new File(logsFolder, "android.log").exists());
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void evictsByAgeAndFreeSpace() throws Exception {
+        final LogJanitor ageJanitor = new LogJanitor(newLogsFolder());
+        ageJanitor.setMaxAgeMillis(1500);
+        assertEquals(2, ageJanitor.clean(NOW, Long.MAX_VALUE));
+        assertEquals(0, ageJanitor.clean(NOW, Long.MAX_VALUE));
+        
+        final File logsFolder = newLogsFolder();
+        final LogJanitor spaceJanitor = new LogJanitor(logsFolder);
+        spaceJanitor.setMinFreeBytes(150);
+        spaceJanitor.setDeleteBatchSize(1);
+        assertEquals(2, spaceJanitor.clean(NOW, 0));
+        assertEquals(Arrays.asList("android.log", "android.log.1", LogUploader.SPOOL_FOLDER), Arrays.asList(sorted(logsFolder.list())));
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void tracksUsageIncrementally() throws Exception {
+        final File logsFolder = newLogsFolder();
+        final LogJanitor logJanitor = new LogJanitor(logsFolder);
+        assertEquals(0, logJanitor.clean(NOW, Long.MAX_VALUE));
+        assertEquals(450, logJanitor.getTotalBytes());
+        
+        // the active file grows without changing the folder.
+        final long folderModified = logsFolder.lastModified();
+        write(new File(logsFolder, "android.log"), 20, NOW);
+        logsFolder.setLastModified(folderModified);
+        logJanitor.clean(NOW, Long.MAX_VALUE);
+        assertEquals(470, logJanitor.getTotalBytes());
+        
+        // a new backup and a deleted dump change the folder.
+        write(new File(logsFolder, "android.log.3"), 30, NOW - 6000);
+        assertTrue(new File(logsFolder, "app.crash").delete());
+        logsFolder.setLastModified(folderModified + 1000);
+        logJanitor.setMaxTotalBytes(380);
+        assertEquals(1, logJanitor.clean(NOW, Long.MAX_VALUE));
+        assertFalse(new File(logsFolder, "android.log.3").exists());
+        assertEquals(370, logJanitor.getTotalBytes());
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void evictsSealedSegmentsBySequence() throws Exception {
+        final File logsFolder = newTempFolder();
+        final File segmentFile = new File(logsFolder, "android-main-42.log");
+        final SegmentManifest segmentManifest = new SegmentManifest(new File(logsFolder, "android.log" + SegmentManifest.MANIFEST_SUFFIX));
+        for(int i = 0; i < 3; i++) {
+            write(segmentFile, 100, NOW);
+            segmentManifest.seal(segmentFile, Integer.MAX_VALUE);
+        }
+        // the clocks of the processes are skewed, the oldest segment looks the newest.
+        new File(logsFolder, "android-main-42.log.1").setLastModified(NOW - 1000);
+        new File(logsFolder, "android-main-42.log.2").setLastModified(NOW - 3000);
+        new File(logsFolder, "android-main-42.log.3").setLastModified(NOW - 2000);
+        write(new File(logsFolder, "app.crash"), 100, NOW - 4000);
+        
+        final LogJanitor logJanitor = new LogJanitor(logsFolder);
+        logJanitor.setMaxTotalBytes(250 + segmentManifest.getFile().length());
+        assertEquals(2, logJanitor.clean(NOW, Long.MAX_VALUE));
+        assertFalse(new File(logsFolder, "app.crash").exists());
+        assertFalse(new File(logsFolder, "android-main-42.log.1").exists());
+        assertTrue(new File(logsFolder, "android-main-42.log.2").exists());
+        assertTrue(new File(logsFolder, "android-main-42.log.3").exists());
+    }
+    
+    /**
+     * @param names
+     * @return
+     */
+    private static String[] sorted(final String[] names) {
+        Arrays.sort(names);
+        return names;
+    }
+}
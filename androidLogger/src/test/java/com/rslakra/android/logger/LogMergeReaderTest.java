@@ -0,0 +1,173 @@
+package com.rslakra.android.logger;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PatternLayout;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit tests of the <code>LogMergeReader</code>.
+ */
+public class LogMergeReaderTest {
+    
+    private final String LOG_TAG = "LogMergeReaderTest";
+    
+    /** LOG_PATTERN */
+    private static final String LOG_PATTERN = "[%d{yyyy-MM-dd HH:mm:ss.S}] [%X{seq}] %m%n";
+    
+    /** BASE_TIME */
+    private static final long BASE_TIME = 1792400000000L;
+    
+    /** mLogsFolder - the temporary folder of the test, deleted after it. */
+    private final File mLogsFolder = new File(System.getProperty("java.io.tmpdir"), LOG_TAG + System.nanoTime());
+    
+    /**
+     * Deletes the temporary folder of the test.
+     */
+    @After
+    public void deleteLogsFolder() {
+        LogHelper.deleteRecursively(mLogsFolder, true);
+    }
+    
+    /**
+     * Returns the line of the given event, as the <code>LOG_PATTERN</code> formats it.
+     *
+     * @param offsetMillis
+     * @param sequence
+     * @param message
+     * @return
+     */
+    private static String line(final long offsetMillis, final long sequence, final String message) {
+        return "[" + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.S").format(new Date(BASE_TIME + offsetMillis)) + "] [" + sequence + "] " + message + "\n";
+    }
+    
+    /**
+     * @param outputStream
+     * @param lines
+     * @throws Exception
+     */
+    private static void write(final OutputStream outputStream, final String... lines) throws Exception {
+        final Writer writer = new OutputStreamWriter(outputStream, "UTF-8");
+        try {
+            for(String line : lines) {
+                writer.write(line);
+            }
+        } finally {
+            writer.close();
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void mergesSegmentsChronologically() throws Exception {
+        mLogsFolder.mkdirs();
+        
+        write(new FileOutputStream(new File(mLogsFolder, "android-main-1.log")), line(10, 1, "main 1"), line(30, 3, "main 2"), "java.lang.Exception: boom\n", "\tat Foo.bar(Foo.java:1)\n", line(50, 9, "main 3"));
+        write(new FileOutputStream(new File(mLogsFolder, "android-remote-2.log")), line(30, 2, "remote 1"), line(40, 1, "remote 2"));
+        write(new GZIPOutputStream(new FileOutputStream(new File(mLogsFolder, "android-main-1.log.1.gz"))), line(0, 1, "rolled 1"), line(20, 2, "rolled 2"));
+        write(new FileOutputStream(new File(mLogsFolder, "android.log.manifest")), "nextSequence=2\n");
+        
+        final WalAppender walAppender = new WalAppender(new PatternLayout(LOG_PATTERN), new File(mLogsFolder, "android.log.wal").getAbsolutePath(), 4096, 1);
+        final LoggingEvent logEvent = new LoggingEvent(Logger.class.getName(), Logger.getLogger(LOG_TAG), BASE_TIME + 45, Level.INFO, "wal 1", null);
+        logEvent.setProperty(QueuedAppender.SEQUENCE_KEY, "7");
+        walAppender.doAppend(logEvent);
+        walAppender.close();
+        
+        assertEquals(4, LogMergeReader.getSegmentFiles(mLogsFolder).size());
+        final List<String> messages = new ArrayList<String>();
+        final LogMergeReader logMergeReader = LogMergeReader.open(mLogsFolder, LOG_PATTERN);
+        try {
+            while(logMergeReader.hasNext()) {
+                final LogMergeReader.LogEntry logEntry = logMergeReader.next();
+                final String text = logEntry.getText();
+                messages.add(text.substring(text.lastIndexOf("] ", text.indexOf('\n') < 0 ? text.length() : text.indexOf('\n')) + 2));
+            }
+        } finally {
+            logMergeReader.close();
+        }
+        
+        assertEquals(Arrays.asList("rolled 1", "main 1", "rolled 2", "remote 1", "main 2\njava.lang.Exception: boom\n\tat Foo.bar(Foo.java:1)", "remote 2", "wal 1", "main 3"), messages);
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void parsesTimestampAndSequence() throws Exception {
+        mLogsFolder.mkdirs();
+        write(new FileOutputStream(new File(mLogsFolder, "android.log")), "header without a timestamp\n", line(5, 42, "first"));
+        
+        final LogMergeReader logMergeReader = LogMergeReader.open(mLogsFolder, LOG_PATTERN);
+        try {
+            final LogMergeReader.LogEntry header = logMergeReader.next();
+            assertEquals(Long.MIN_VALUE, header.getTimestamp());
+            assertEquals(LogMergeReader.NO_SEQUENCE, header.getSequence());
+            final LogMergeReader.LogEntry first = logMergeReader.next();
+            assertEquals(BASE_TIME + 5, first.getTimestamp());
+            assertEquals(42, first.getSequence());
+            assertEquals(new File(mLogsFolder, "android.log"), first.getSegmentFile());
+            assertFalse(logMergeReader.hasNext());
+        } finally {
+            logMergeReader.close();
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void stopsAtDamagedRecordLength() throws Exception {
+        mLogsFolder.mkdirs();
+        final File walFile = new File(mLogsFolder, "android.log.wal");
+        final WalAppender walAppender = new WalAppender(new PatternLayout(LOG_PATTERN), walFile.getAbsolutePath(), 4096, 1);
+        walAppender.doAppend(new LoggingEvent(Logger.class.getName(), Logger.getLogger(LOG_TAG), BASE_TIME, Level.INFO, "wal 1", null));
+        walAppender.close();
+        
+        // a damaged header after the record claims almost 2 GB
+        final DataOutputStream dataStream = new DataOutputStream(new FileOutputStream(walFile, true));
+        try {
+            dataStream.writeInt(Integer.MAX_VALUE - 16);
+            dataStream.writeInt(0);
+            dataStream.write(new byte[64]);
+        } finally {
+            dataStream.close();
+        }
+        final GZIPOutputStream gzipStream = new GZIPOutputStream(new FileOutputStream(new File(mLogsFolder, "android.log.wal.1.gz")));
+        try {
+            gzipStream.write(Files.readAllBytes(walFile.toPath()));
+        } finally {
+            gzipStream.close();
+        }
+        
+        final LogMergeReader logMergeReader = LogMergeReader.open(mLogsFolder, LOG_PATTERN);
+        try {
+            assertTrue(logMergeReader.next().getText().endsWith("wal 1"));
+            assertTrue(logMergeReader.next().getText().endsWith("wal 1"));
+            assertFalse(logMergeReader.hasNext());
+        } finally {
+            logMergeReader.close();
+        }
+    }
+}
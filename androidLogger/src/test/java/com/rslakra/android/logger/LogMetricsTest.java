@@ -0,0 +1,93 @@
+package com.rslakra.android.logger;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PatternLayout;
+import org.apache.log4j.WriterAppender;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit tests of the <code>LogMetrics</code> and the <code>LogHistogram</code>.
+ */
+public class LogMetricsTest {
+    
+    private final String LOG_TAG = "LogMetricsTest";
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void histogramBucketsCoverValues() throws Exception {
+        for(long value = 0; value < 1000000; value += 7) {
+            final int index = LogHistogram.bucketIndex(value);
+            assertTrue(LogHistogram.lowestValue(index) <= value);
+            assertTrue(LogHistogram.highestValue(index) >= value);
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void histogramPercentiles() throws Exception {
+        final LogHistogram logHistogram = new LogHistogram();
+        for(int i = 1; i <= 1000; i++) {
+            logHistogram.record(i * 1000L);
+        }
+        
+        final LogHistogram.Snapshot snapshot = logHistogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1000000L, snapshot.getMaxValue());
+        final long p50 = snapshot.getValueAtPercentile(50.0d);
+        assertTrue("p50:" + p50, p50 >= 500000L && p50 <= 500000L * 107 / 100);
+        final long p99 = snapshot.getValueAtPercentile(99.0d);
+        assertTrue("p99:" + p99, p99 >= 990000L && p99 <= 1000000L);
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void countsEventsPerTypeAndTag() throws Exception {
+        final LogMetrics logMetrics = new LogMetrics();
+        for(int i = 0; i < 10; i++) {
+            logMetrics.recordEvent(LogType.INFO, LOG_TAG, 100);
+        }
+        logMetrics.recordEvent(LogType.ERROR, "OtherTag", 100);
+        logMetrics.getAppenderMetrics("file").recordBytes(64);
+        logMetrics.getQueueMetrics("async").setDepth(5);
+        logMetrics.getQueueMetrics("async").recordDropped();
+        
+        final LogMetrics.Snapshot snapshot = logMetrics.snapshot();
+        assertEquals(10, snapshot.getEvents(LogType.INFO));
+        assertEquals(1, snapshot.getEvents(LogType.ERROR));
+        assertEquals(10, snapshot.getEvents(LOG_TAG));
+        assertEquals(11, snapshot.getCallerTimes().getCount());
+        assertEquals(64, snapshot.getAppenders().get("file").getBytes());
+        assertEquals(5, snapshot.getQueues().get("async").getDepth());
+        assertEquals(1, snapshot.getQueues().get("async").getDropped());
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void countsBytesOfStackTraces() throws Exception {
+        final LogMetrics logMetrics = new LogMetrics();
+        logMetrics.setEnabled(true);
+        final StringWriter stringWriter = new StringWriter();
+        final MeteredAppender meteredAppender = new MeteredAppender(new WriterAppender(new PatternLayout("%m%n"), stringWriter), "writer", logMetrics);
+        final Logger logger = Logger.getLogger(LOG_TAG);
+        meteredAppender.doAppend(new LoggingEvent(Logger.class.getName(), logger, Level.ERROR, "Failed", new IllegalStateException("broken")));
+        meteredAppender.close();
+        
+        assertTrue(stringWriter.toString(), stringWriter.toString().contains("IllegalStateException: broken"));
+        assertEquals(stringWriter.toString().length(), logMetrics.snapshot().getAppenders().get("writer").getBytes());
+    }
+}
@@ -0,0 +1,227 @@
+package com.rslakra.android.logger;
+
+import org.apache.log4j.Appender;
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Layout;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Local unit tests of the <code>LogPipeline</code> and the <code>PipelineAppender</code>.
+ */
+public class LogPipelineTest {
+    
+    private final String LOG_TAG = "LogPipelineTest";
+    
+    /**
+     * @param message
+     * @return
+     */
+    private LoggingEvent newLoggingEvent(final String message) {
+        return new LoggingEvent(Logger.class.getName(), Logger.getLogger(LOG_TAG), Level.INFO, message, null);
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void swapKeepsReusedAppendersOpen() throws Exception {
+        final CountingAppender reused = new CountingAppender();
+        final CountingAppender replaced = new CountingAppender();
+        final PipelineAppender pipelineAppender = new PipelineAppender(LOG_TAG);
+        pipelineAppender.publish(new LogPipeline(Level.INFO, Arrays.<Appender>asList(reused, replaced), "old"));
+        pipelineAppender.doAppend(newLoggingEvent("first"));
+        
+        pipelineAppender.publish(new LogPipeline(Level.DEBUG, Arrays.<Appender>asList(reused), "new"));
+        pipelineAppender.doAppend(newLoggingEvent("second"));
+        
+        assertEquals(2, reused.mAppended);
+        assertEquals(1, replaced.mAppended);
+        assertFalse(reused.isClosed());
+        assertTrue(replaced.isClosed());
+        assertEquals(Level.DEBUG, pipelineAppender.getLogPipeline().getLogLevel());
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void inFlightEventFinishesOnOldPipeline() throws Exception {
+        final CountDownLatch appending = new CountDownLatch(1);
+        final CountDownLatch swapped = new CountDownLatch(1);
+        final CountingAppender blocking = new CountingAppender() {
+            @Override
+            protected void append(final LoggingEvent logEvent) {
+                super.append(logEvent);
+                appending.countDown();
+                try {
+                    swapped.await();
+                } catch(InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        final CountingAppender successor = new CountingAppender();
+        final PipelineAppender pipelineAppender = new PipelineAppender(LOG_TAG);
+        pipelineAppender.publish(new LogPipeline(Level.INFO, Arrays.<Appender>asList(blocking), "old"));
+        
+        final Thread logThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                pipelineAppender.doAppend(newLoggingEvent("in flight"));
+            }
+        });
+        logThread.start();
+        appending.await();
+        
+        pipelineAppender.publish(new LogPipeline(Level.INFO, Arrays.<Appender>asList(successor), "new"));
+        pipelineAppender.doAppend(newLoggingEvent("after swap"));
+        assertFalse(blocking.isClosed());
+        
+        swapped.countDown();
+        logThread.join();
+        assertEquals(1, blocking.mAppended);
+        assertEquals(1, successor.mAppended);
+        assertTrue(blocking.isClosed());
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void handsOffFileAfterOldPipelineCloses() throws Exception {
+        final CountDownLatch appending = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+        final CountingAppender blocking = new CountingAppender() {
+            @Override
+            protected void append(final LoggingEvent logEvent) {
+                super.append(logEvent);
+                appending.countDown();
+                try {
+                    release.await();
+                } catch(InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                events.add("old " + logEvent.getRenderedMessage());
+            }
+        };
+        final PipelineAppender pipelineAppender = new PipelineAppender(LOG_TAG);
+        final LogPipeline oldPipeline = new LogPipeline(Level.INFO, Arrays.<Appender>asList(blocking), "old");
+        pipelineAppender.publish(oldPipeline);
+        final Thread inFlightThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                pipelineAppender.doAppend(newLoggingEvent("in flight"));
+            }
+        });
+        inFlightThread.start();
+        appending.await();
+        
+        // the new pipeline is built and published, while the old one is still appending.
+        final CountingAppender successor = new CountingAppender() {
+            @Override
+            protected void append(final LoggingEvent logEvent) {
+                super.append(logEvent);
+                events.add("new " + logEvent.getRenderedMessage());
+            }
+        };
+        final HandoffAppender handoffAppender = new HandoffAppender(oldPipeline, null, false, new HandoffAppender.Opener() {
+            @Override
+            public Appender open(final Layout layout) {
+                assertTrue(blocking.isClosed());
+                return successor;
+            }
+        });
+        pipelineAppender.publish(new LogPipeline(Level.INFO, Arrays.<Appender>asList(handoffAppender), "new"));
+        pipelineAppender.doAppend(newLoggingEvent("held"));
+        assertFalse(handoffAppender.isOpened());
+        assertFalse(blocking.isClosed());
+        
+        // the old appender is closed, before the file is opened.
+        release.countDown();
+        inFlightThread.join();
+        assertTrue(blocking.isClosed());
+        assertTrue(handoffAppender.isOpened());
+        pipelineAppender.doAppend(newLoggingEvent("after"));
+        assertEquals(Arrays.asList("old in flight", "new held", "new after"), events);
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void failedBuildKeepsOldPipeline() throws Exception {
+        final File logsFolder = new File(System.getProperty("java.io.tmpdir"), LOG_TAG + System.nanoTime());
+        assertTrue(logsFolder.mkdirs());
+        try {
+            final Log4JConfigurator log4JConfigurator = new Log4JConfigurator();
+            log4JConfigurator.setLogsFolder(logsFolder.getAbsolutePath());
+            log4JConfigurator.setFileName("app.log");
+            log4JConfigurator.setLogPattern("%m%n");
+            log4JConfigurator.setUseConsoleAppender(false);
+            log4JConfigurator.addFileAppender();
+            final LogPipeline logPipeline = log4JConfigurator.getLogPipeline();
+            
+            // the logs folder can't be created under a file.
+            final File blocker = new File(logsFolder, "blocker");
+            assertTrue(blocker.createNewFile());
+            log4JConfigurator.setLogsFolder(new File(blocker, "logs").getAbsolutePath());
+            try {
+                log4JConfigurator.addFileAppender();
+                fail("The file appender should not be created!");
+            } catch(RuntimeException ex) {
+                // expected.
+            }
+            assertSame(logPipeline, log4JConfigurator.getLogPipeline());
+            assertFalse(logPipeline.isRetired());
+            
+            log4JConfigurator.setUseFileAppender(false);
+            log4JConfigurator.addFileAppender();
+        } finally {
+            LogHelper.deleteRecursively(logsFolder, true);
+        }
+    }
+    
+    /**
+     * Counts the appended events.
+     */
+    private static class CountingAppender extends AppenderSkeleton {
+        
+        private volatile int mAppended;
+        
+        @Override
+        protected void append(final LoggingEvent logEvent) {
+            mAppended++;
+        }
+        
+        @Override
+        public void close() {
+            closed = true;
+        }
+        
+        public boolean isClosed() {
+            return closed;
+        }
+        
+        @Override
+        public boolean requiresLayout() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.rslakra.android.logger;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Local unit tests of the <code>LogRecord</code>.
+ */
+public class LogRecordTest {
+    
+    private final String LOG_TAG = "LogRecordTest";
+    
+    /**
+     * The backend, which records the logged messages.
+     */
+    static final class RecordingBackend implements LogBackend {
+        
+        /** mMessages */
+        final List<String> mMessages = new ArrayList<String>();
+        
+        @Override
+        public LogType getLogType() {
+            return LogType.DEBUG;
+        }
+        
+        @Override
+        public void setLogType(final LogType logType) {
+        }
+        
+        @Override
+        public boolean isLogEnabledFor(final String logTag, final LogType logType) {
+            return (logType.ordinal() <= LogType.DEBUG.ordinal());
+        }
+        
+        @Override
+        public void log(final LogType logType, final String logTag, final String logMessage, final Throwable throwable) {
+            mMessages.add(logType + " " + logTag + " " + logMessage);
+        }
+        
+        @Override
+        public String getLogFilePath() {
+            return null;
+        }
+        
+        @Override
+        public boolean flush(final long timeoutMillis) {
+            return true;
+        }
+        
+        @Override
+        public void close() {
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void logsFieldsAsSingleRecord() throws Exception {
+        final RecordingBackend recordingBackend = new RecordingBackend();
+        LogHelper.setLogBackend(recordingBackend);
+        try {
+            final Map<String, String> headers = new LinkedHashMap<String, String>();
+            headers.put("Accept", "text/html");
+            headers.put("User-Agent", "Mozilla \"5.0\"");
+            LogHelper.newRecord(LogType.DEBUG, LOG_TAG, "WebRequest").field("url", "https://host/path?q=1").field("method", "GET").field("status", 200).field("cached", false).field("headers", headers).field("queryNames", Arrays.asList("q")).field("query", "").field("body", (CharSequence) null).log();
+            assertEquals(Collections.singletonList("DEBUG " + LOG_TAG + " WebRequest url=\"https://host/path?q=1\" method=GET status=200 cached=false headers=\"{Accept=text/html, User-Agent=Mozilla \\\"5.0\\\"}\" queryNames=\"[q]\" query=\"\" body=null"), recordingBackend.mMessages);
+            
+            // the record of the disabled event ignores the fields.
+            final LogRecord disabled = LogHelper.newRecord(LogType.VERBOSE, LOG_TAG, "Ignored");
+            assertFalse(disabled.isEnabled());
+            disabled.field("url", "https://host").log();
+            assertEquals(1, recordingBackend.mMessages.size());
+        } finally {
+            LogHelper.setLogBackend(null);
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void logsOnlyAllowedFields() throws Exception {
+        final RecordingBackend recordingBackend = new RecordingBackend();
+        LogHelper.setLogBackend(recordingBackend);
+        LogHelper.setFieldAllowlist(new HashSet<String>(Arrays.asList("url", "method")));
+        try {
+            final Object secret = new Object() {
+                @Override
+                public String toString() {
+                    throw new AssertionError("The skipped field should not be rendered!");
+                }
+            };
+            LogHelper.newRecord(LogType.INFO, LOG_TAG, "Request").field("url", "https://host").field("token", secret).field("method", "POST").log();
+            assertEquals("INFO " + LOG_TAG + " Request url=https://host method=POST", recordingBackend.mMessages.get(0));
+        } finally {
+            LogHelper.setFieldAllowlist(null);
+            LogHelper.setLogBackend(null);
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void logsNestedRecordsSeparately() throws Exception {
+        final RecordingBackend recordingBackend = new RecordingBackend();
+        LogHelper.setLogBackend(recordingBackend);
+        try {
+            final Object nested = new Object() {
+                @Override
+                public String toString() {
+                    LogHelper.newRecord(LogType.DEBUG, LOG_TAG, "Inner").field("depth", 2).log();
+                    return "value";
+                }
+            };
+            LogHelper.newRecord(LogType.DEBUG, LOG_TAG, "Outer").field("nested", nested).field("depth", 1).log();
+            assertEquals(Arrays.asList("DEBUG " + LOG_TAG + " Inner depth=2", "DEBUG " + LOG_TAG + " Outer nested=value depth=1"), recordingBackend.mMessages);
+        } finally {
+            LogHelper.setLogBackend(null);
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void replacesAbandonedRecord() throws Exception {
+        final RecordingBackend recordingBackend = new RecordingBackend();
+        LogHelper.setLogBackend(recordingBackend);
+        try {
+            final Object broken = new Object() {
+                @Override
+                public String toString() {
+                    throw new IllegalStateException("broken");
+                }
+            };
+            final LogRecord abandoned = LogHelper.newRecord(LogType.DEBUG, LOG_TAG, "Abandoned");
+            try {
+                abandoned.field("broken", broken).log();
+                fail("The field value should throw!");
+            } catch(IllegalStateException ex) {
+                // expected.
+            }
+            
+            // the next record replaces the abandoned one and is reused after that.
+            final LogRecord logRecord = LogHelper.newRecord(LogType.DEBUG, LOG_TAG, "First");
+            assertNotSame(abandoned, logRecord);
+            logRecord.field("depth", 1).log();
+            final LogRecord reused = LogHelper.newRecord(LogType.DEBUG, LOG_TAG, "Second");
+            assertSame(logRecord, reused);
+            reused.log();
+            assertEquals(Arrays.asList("DEBUG " + LOG_TAG + " First depth=1", "DEBUG " + LOG_TAG + " Second"), recordingBackend.mMessages);
+        } finally {
+            LogHelper.setLogBackend(null);
+        }
+    }
+}
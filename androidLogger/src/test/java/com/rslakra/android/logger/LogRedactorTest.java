@@ -0,0 +1,139 @@
+package com.rslakra.android.logger;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit tests of the <code>LogRedactor</code>.
+ */
+public class LogRedactorTest {
+    
+    private final String LOG_TAG = "LogRedactorTest";
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void masksValuesOfSensitiveKeys() throws Exception {
+        final LogRedactor logRedactor = new LogRedactor();
+        final String clean = "Loaded 42 items from https://example.com/api/v1/items in 17 ms, tokenizer on";
+        assertSame(clean, logRedactor.redact(clean));
+        
+        assertEquals("GET /items?access_token=***&page=2", logRedactor.redact("GET /items?access_token=abc.def&page=2"));
+        assertEquals("headers:{Accept=text/html, Authorization=Bearer ***, Cookie=***}", logRedactor.redact("headers:{Accept=text/html, Authorization=Bearer eyJhbGciOi.xyz, Cookie=sid=42}"));
+        assertEquals("Authorization: Basic ***", logRedactor.redact("Authorization: Basic dXNlcjpwYXNz"));
+        assertEquals("{\"user\":\"bob\", \"PASSWORD\" : \"***\"}", logRedactor.redact("{\"user\":\"bob\", \"PASSWORD\" : \"p a\\\"ss\"}"));
+        assertEquals("client_secret=*** and api-key:*** done", logRedactor.redact("client_secret=s3cr3t and api-key:k3y done"));
+        
+        // the masked messages are not masked again.
+        final String masked = logRedactor.redact("token=abc password=def");
+        assertEquals("token=*** password=***", masked);
+        assertEquals(masked, logRedactor.redact(masked));
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void masksTokensOfSensitivePrefixes() throws Exception {
+        final LogRedactor logRedactor = new LogRedactor();
+        logRedactor.setSensitiveKeys(Collections.singletonList("pin"));
+        logRedactor.setSensitivePrefixes(Arrays.asList("eyJ", "sk_live_"));
+        assertEquals("jwt eyJ*** key sk_live_*** pin=*** spin", logRedactor.redact("jwt eyJhbGciOi.e30.sig key sk_live_123 pin=1234 spin"));
+        assertTrue(logRedactor.isSensitiveKey("X-PIN"));
+        assertFalse(logRedactor.isSensitiveKey("Authorization"));
+        
+        logRedactor.setSensitiveKeys(null);
+        logRedactor.setSensitivePrefixes(null);
+        assertFalse(logRedactor.isEnabled());
+        assertEquals("token=abc", logRedactor.redact("token=abc"));
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void masksFieldsOfRecordsByKey() throws Exception {
+        final StringBuilder logMessages = new StringBuilder();
+        LogHelper.setLogBackend(new NativeBackend(new LogFileWriter() {
+            @Override
+            public void append(final LogType logType, final String logTag, final String logMessage, final Throwable throwable) {
+                logMessages.append(logMessage);
+            }
+            
+            @Override
+            public boolean flush(final long timeoutMillis) {
+                return true;
+            }
+            
+            @Override
+            public File getLogFile() {
+                return null;
+            }
+            
+            @Override
+            public void close() {
+            }
+        }, false, LogType.DEBUG));
+        try {
+            final Object token = new Object() {
+                @Override
+                public String toString() {
+                    throw new AssertionError("The sensitive field should not be rendered!");
+                }
+            };
+            final Map<String, Object> headers = new LinkedHashMap<String, Object>();
+            headers.put("Accept", "text/html");
+            headers.put("X-Auth-Token", token);
+            LogHelper.newRecord(LogType.DEBUG, LOG_TAG, "WebRequest token=abc").field("url", "https://host/?q=1").field("headers", headers).field("refreshToken", token).log();
+            assertEquals("WebRequest token=*** url=\"https://host/?q=1\" headers=\"{Accept=text/html, X-Auth-Token=***}\" refreshToken=***", logMessages.toString());
+        } finally {
+            LogHelper.setLogBackend(null);
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void masksTokensInValuesOfRecords() throws Exception {
+        final LogRecordTest.RecordingBackend recordingBackend = new LogRecordTest.RecordingBackend();
+        LogHelper.setLogBackend(recordingBackend);
+        try {
+            final Map<String, Object> headers = new LinkedHashMap<String, Object>();
+            headers.put("Referer", "https://h/?token=SECRET3");
+            LogHelper.newRecord(LogType.DEBUG, LOG_TAG, "WebRequest").field("url", "https://h/p?access_token=SECRET1").field("query", (Object) "token=SECRET2").field("headers", headers).field("queryNames", Collections.singletonList("api_key=SECRET4")).log();
+            assertEquals(Collections.singletonList("DEBUG " + LOG_TAG + " WebRequest url=\"https://h/p?access_token=***\" query=\"token=***\" headers=\"{Referer=https://h/?token=***}\" queryNames=\"[api_key=***]\""), recordingBackend.mMessages);
+        } finally {
+            LogHelper.setLogBackend(null);
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void masksMessagesOfStackTraces() throws Exception {
+        final StackTraceDeduper stackTraceDeduper = new StackTraceDeduper();
+        for(int i = 0; i < 2; i++) {
+            final Throwable throwable = new IllegalStateException("Request failed, password=s3cr3t", new IOException("Authorization: Bearer eyJhbGciOi.e30.sig"));
+            final String stackTrace = stackTraceDeduper.render(throwable);
+            assertTrue(stackTrace, stackTrace.startsWith("java.lang.IllegalStateException: Request failed, password=***\n"));
+            assertFalse(stackTrace, stackTrace.contains("s3cr3t"));
+            // the repeated trace is only referenced.
+            assertEquals(stackTrace, (i == 0), stackTrace.contains("Caused by: java.io.IOException: Authorization: Bearer ***\n"));
+            assertFalse(stackTrace, stackTrace.contains("eyJhbGciOi"));
+        }
+    }
+}
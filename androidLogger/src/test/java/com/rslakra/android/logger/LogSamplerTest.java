@@ -0,0 +1,128 @@
+package com.rslakra.android.logger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit tests of the <code>LogSampler</code>.
+ */
+public class LogSamplerTest {
+    
+    private final String LOG_TAG = "LogSamplerTest";
+    
+    private final LogSampler mLogSampler = new LogSampler();
+    
+    @After
+    public void tearDown() {
+        LogSampler.setCorrelationKey(null);
+        mLogSampler.clearSamplingRates();
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void keepsAllWithoutRules() throws Exception {
+        assertFalse(mLogSampler.isEnabled());
+        for(int i = 0; i < 1000; i++) {
+            assertTrue(mLogSampler.isSampled(LOG_TAG, LogType.DEBUG));
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void dropsAllWithZeroRate() throws Exception {
+        mLogSampler.setReportInterval(0);
+        mLogSampler.setSamplingRate(LOG_TAG, LogType.DEBUG, 0.0d);
+        for(int i = 0; i < 1000; i++) {
+            assertFalse(mLogSampler.isSampled(LOG_TAG, LogType.DEBUG));
+            assertTrue(mLogSampler.isSampled(LOG_TAG, LogType.ERROR));
+            assertTrue(mLogSampler.isSampled("OtherTag", LogType.DEBUG));
+        }
+        assertEquals(1000, mLogSampler.getSampledOutCount());
+        mLogSampler.report();
+        assertEquals(0, mLogSampler.getSampledOutCount());
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void keepsApproximateRate() throws Exception {
+        mLogSampler.setReportInterval(0);
+        mLogSampler.setSamplingRate(LogSampler.ALL_TAGS, LogType.VERBOSE, 0.1d);
+        int kept = 0;
+        for(int i = 0; i < 100000; i++) {
+            if(mLogSampler.isSampled(LOG_TAG, LogType.VERBOSE)) {
+                kept++;
+            }
+        }
+        assertTrue("kept:" + kept, kept > 9000 && kept < 11000);
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void correlationKeyKeepsOrDropsTogether() throws Exception {
+        mLogSampler.setReportInterval(0);
+        mLogSampler.setSamplingRate(LOG_TAG, LogType.DEBUG, 0.5d);
+        for(int request = 0; request < 100; request++) {
+            LogSampler.setCorrelationKey("request-" + request);
+            final boolean sampled = mLogSampler.isSampled(LOG_TAG, LogType.DEBUG);
+            for(int i = 0; i < 10; i++) {
+                assertEquals(sampled, mLogSampler.isSampled(LOG_TAG, LogType.DEBUG));
+            }
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void reportIsNeverSampledOut() throws Exception {
+        final LogRecordTest.RecordingBackend recordingBackend = new LogRecordTest.RecordingBackend();
+        LogHelper.setLogBackend(recordingBackend);
+        LogHelper.setSamplingRate(LogSampler.ALL_TAGS, LogType.INFO, 0.0d);
+        try {
+            mLogSampler.setReportInterval(0);
+            mLogSampler.setSamplingRate(LOG_TAG, LogType.DEBUG, 0.0d);
+            assertFalse(mLogSampler.isSampled(LOG_TAG, LogType.DEBUG));
+            final String report = mLogSampler.report();
+            assertEquals(Collections.singletonList("INFO LogSampler " + report), recordingBackend.mMessages);
+        } finally {
+            LogHelper.getLogSampler().clearSamplingRates();
+            LogHelper.setLogBackend(null);
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void reportsFromTimer() throws Exception {
+        mLogSampler.setReportInterval(50);
+        mLogSampler.setSamplingRate(LOG_TAG, LogType.DEBUG, 0.0d);
+        for(int i = 0; i < 10; i++) {
+            assertFalse(mLogSampler.isSampled(LOG_TAG, LogType.DEBUG));
+        }
+        
+        final long deadline = System.currentTimeMillis() + 5000;
+        while(mLogSampler.getSampledOutCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, mLogSampler.getSampledOutCount());
+        
+        // the timer stops with the last rule.
+        mLogSampler.clearSamplingRates();
+        assertEquals(1.0d, mLogSampler.getSamplingRate(LOG_TAG, LogType.DEBUG), 0.0d);
+    }
+}
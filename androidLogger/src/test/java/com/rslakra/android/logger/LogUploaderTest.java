@@ -0,0 +1,280 @@
+package com.rslakra.android.logger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Local unit tests of the <code>LogUploader</code>.
+ */
+public class LogUploaderTest {
+    
+    private final String LOG_TAG = "LogUploaderTest";
+    
+    /** mTempFolders - the temporary folders of the test, deleted after it. */
+    private final List<File> mTempFolders = new ArrayList<File>();
+    
+    /**
+     * Deletes the temporary folders of the test.
+     */
+    @After
+    public void deleteTempFolders() {
+        for(File tempFolder : mTempFolders) {
+            LogHelper.deleteRecursively(tempFolder, true);
+        }
+    }
+    
+    /**
+     * Returns a new temporary folder, which is deleted after the test.
+     *
+     * @return
+     */
+    private File newTempFolder() {
+        final File tempFolder = new File(System.getProperty("java.io.tmpdir"), LOG_TAG + System.nanoTime());
+        mTempFolders.add(tempFolder);
+        return tempFolder;
+    }
+    
+    /**
+     * The in-process HTTP endpoint, which records the batches posted to it.
+     */
+    private static final class HttpStandIn implements Runnable {
+        
+        /** mServerSocket */
+        private final ServerSocket mServerSocket;
+        
+        /** mBatchIds */
+        private final List<String> mBatchIds = Collections.synchronizedList(new ArrayList<String>());
+        
+        /** mBodies - the uncompressed bodies. */
+        private final List<String> mBodies = Collections.synchronizedList(new ArrayList<String>());
+        
+        /** mResponseCode */
+        private volatile int mResponseCode = 200;
+        
+        /**
+         * @throws IOException
+         */
+        private HttpStandIn() throws IOException {
+            mServerSocket = new ServerSocket(0);
+            final Thread thread = new Thread(this, "HttpStandIn");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        
+        /**
+         * @return
+         * @throws Exception
+         */
+        private URL getUrl() throws Exception {
+            return new URL("http://127.0.0.1:" + mServerSocket.getLocalPort() + "/logs");
+        }
+        
+        /**
+         * Serves the requests until closed.
+         */
+        @Override
+        public void run() {
+            try {
+                while(true) {
+                    final Socket socket = mServerSocket.accept();
+                    try {
+                        serve(socket);
+                    } finally {
+                        socket.close();
+                    }
+                }
+            } catch(Exception ex) {
+                // closed
+            }
+        }
+        
+        /**
+         * @param socket
+         * @throws Exception
+         */
+        private void serve(final Socket socket) throws Exception {
+            final DataInputStream inputStream = new DataInputStream(socket.getInputStream());
+            int contentLength = 0;
+            String batchId = null;
+            String line;
+            while(!(line = readLine(inputStream)).isEmpty()) {
+                final String header = line.toLowerCase(Locale.US);
+                if(header.startsWith("content-length:")) {
+                    contentLength = Integer.parseInt(line.substring(line.indexOf(':') + 1).trim());
+                } else if(header.startsWith(LogUploader.BATCH_HEADER.toLowerCase(Locale.US) + ":")) {
+                    batchId = line.substring(line.indexOf(':') + 1).trim();
+                }
+            }
+            final byte[] body = new byte[contentLength];
+            inputStream.readFully(body);
+            
+            final int responseCode = mResponseCode;
+            if(responseCode == 200) {
+                mBatchIds.add(batchId);
+                mBodies.add(new String(readFully(new GZIPInputStream(new ByteArrayInputStream(body))), "UTF-8"));
+            }
+            final OutputStream outputStream = socket.getOutputStream();
+            outputStream.write(("HTTP/1.1 " + responseCode + " Status\r\nContent-Length: 0\r\nConnection: close\r\n\r\n").getBytes("US-ASCII"));
+            outputStream.flush();
+        }
+        
+        /**
+         * @param inputStream
+         * @return
+         * @throws IOException
+         */
+        private static String readLine(final InputStream inputStream) throws IOException {
+            final StringBuilder lineBuilder = new StringBuilder();
+            int value;
+            while((value = inputStream.read()) >= 0 && value != '\n') {
+                if(value != '\r') {
+                    lineBuilder.append((char) value);
+                }
+            }
+            return lineBuilder.toString();
+        }
+        
+        /**
+         * @throws IOException
+         */
+        private void close() throws IOException {
+            mServerSocket.close();
+        }
+    }
+    
+    /**
+     * @param inputStream
+     * @return
+     * @throws IOException
+     */
+    private static byte[] readFully(final InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1024];
+        int length;
+        while((length = inputStream.read(buffer)) > 0) {
+            outputStream.write(buffer, 0, length);
+        }
+        return outputStream.toByteArray();
+    }
+    
+    /**
+     * @param file
+     * @param text
+     * @throws Exception
+     */
+    private static void write(final File file, final String text) throws Exception {
+        final OutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(text.getBytes("UTF-8"));
+        } finally {
+            outputStream.close();
+        }
+    }
+    
+    /**
+     * @return
+     */
+    private File newLogsFolder() {
+        final File logsFolder = newTempFolder();
+        logsFolder.mkdirs();
+        return logsFolder;
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void uploadsOnlyNewDataOfFinishedSegments() throws Exception {
+        final HttpStandIn httpStandIn = new HttpStandIn();
+        try {
+            final File logsFolder = newLogsFolder();
+            write(new File(logsFolder, "android.log"), "active\n");
+            write(new File(logsFolder, "android.log.1"), "rolled one\n");
+            
+            final LogUploader logUploader = new LogUploader(logsFolder, httpStandIn.getUrl());
+            assertEquals(1, logUploader.upload());
+            assertEquals("--- segment:android.log.1 offset:0 length:11\nrolled one\n", httpStandIn.mBodies.get(0));
+            assertEquals(0, logUploader.upload());
+            
+            // rolls over, the renamed segment isn't sent again.
+            assertTrue(new File(logsFolder, "android.log.1").renameTo(new File(logsFolder, "android.log.2")));
+            write(new File(logsFolder, "android.log.1"), "rolled two\n");
+            logUploader.setMaxBatchBytes(6);
+            assertEquals(2, logUploader.upload());
+            assertEquals("--- segment:android.log.1 offset:0 length:6\nrolled", httpStandIn.mBodies.get(1));
+            assertEquals("--- segment:android.log.1 offset:6 length:5\n two\n", httpStandIn.mBodies.get(2));
+            assertEquals(3, httpStandIn.mBodies.size());
+            assertEquals("[1, 2, 3]", httpStandIn.mBatchIds.toString());
+        } finally {
+            httpStandIn.close();
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void resendsSpooledBatchAfterRestart() throws Exception {
+        final HttpStandIn httpStandIn = new HttpStandIn();
+        try {
+            final File logsFolder = newLogsFolder();
+            write(new File(logsFolder, "android.log.1"), "rolled one\n");
+            httpStandIn.mResponseCode = 503;
+            try {
+                new LogUploader(logsFolder, httpStandIn.getUrl()).upload();
+                fail("The upload should fail!");
+            } catch(IOException ex) {
+                // expected
+            }
+            assertTrue(new File(new File(logsFolder, LogUploader.SPOOL_FOLDER), "1.batch").exists());
+            
+            // the new data is batched only after the spooled batch is accepted.
+            write(new File(logsFolder, "android.log.2"), "rolled two\n");
+            httpStandIn.mResponseCode = 200;
+            assertEquals(2, new LogUploader(logsFolder, httpStandIn.getUrl()).upload());
+            assertEquals("[1, 2]", httpStandIn.mBatchIds.toString());
+            assertEquals("--- segment:android.log.1 offset:0 length:11\nrolled one\n", httpStandIn.mBodies.get(0));
+            assertEquals("--- segment:android.log.2 offset:0 length:11\nrolled two\n", httpStandIn.mBodies.get(1));
+        } finally {
+            httpStandIn.close();
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void backsOffExponentially() throws Exception {
+        final LogUploader logUploader = new LogUploader(newLogsFolder(), new URL("http://127.0.0.1:1/logs"));
+        logUploader.setBackoff(100, 400);
+        final long[] maxDelays = {100, 200, 400, 400};
+        for(long maxDelay : maxDelays) {
+            final long delay = logUploader.nextDelayMillis(false);
+            assertTrue("delay:" + delay, delay > maxDelay / 2 && delay <= maxDelay);
+        }
+        logUploader.nextDelayMillis(true);
+        final long delay = logUploader.nextDelayMillis(false);
+        assertTrue("delay:" + delay, delay > 50 && delay <= 100);
+    }
+}
@@ -0,0 +1,139 @@
+package com.rslakra.android.logger;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PatternLayout;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit tests of the <code>MultiProcessFileAppender</code> and the
+ * <code>SegmentManifest</code>.
+ */
+public class MultiProcessFileAppenderTest {
+    
+    private final String LOG_TAG = "MultiProcessFileAppenderTest";
+    
+    /** mLogsFolder - the temporary folder of the test, deleted after it. */
+    private final File mLogsFolder = new File(System.getProperty("java.io.tmpdir"), LOG_TAG + System.nanoTime());
+    
+    /**
+     * Deletes the temporary folder of the test.
+     */
+    @After
+    public void deleteLogsFolder() {
+        LogHelper.deleteRecursively(mLogsFolder, true);
+    }
+    
+    /**
+     * @param message
+     * @return
+     */
+    private LoggingEvent newEvent(final String message) {
+        return new LoggingEvent(Logger.class.getName(), Logger.getLogger(LOG_TAG), Level.INFO, message, null);
+    }
+    
+    /**
+     * @param appender
+     * @param maxFileSize
+     * @param maxBackupFiles
+     * @return
+     */
+    private static MultiProcessFileAppender configure(final MultiProcessFileAppender appender, final long maxFileSize, final int maxBackupFiles) {
+        appender.setMaximumFileSize(maxFileSize);
+        appender.setMaxBackupIndex(maxBackupFiles);
+        return appender;
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void namesSegmentsByProcessAndPid() throws Exception {
+        final String logFilePath = File.separator + "logs" + File.separator + "android.log";
+        assertEquals(File.separator + "logs" + File.separator + "android-main-12.log", MultiProcessFileAppender.getSegmentFilePath(logFilePath, "com.example", 12));
+        assertEquals(File.separator + "logs" + File.separator + "android-remote-34.log", MultiProcessFileAppender.getSegmentFilePath(logFilePath, "com.example:remote", 34));
+        assertEquals(File.separator + "logs" + File.separator + "android-a_b-5", MultiProcessFileAppender.getSegmentFilePath(File.separator + "logs" + File.separator + "android", "com.example:a/b", 5));
+        assertFalse(MultiProcessFileAppender.getProcessName().isEmpty());
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void processesRollThroughSharedManifest() throws Exception {
+        assertTrue(mLogsFolder.mkdirs());
+        final String logFilePath = new File(mLogsFolder, "android.log").getAbsolutePath();
+        
+        final MultiProcessFileAppender mainAppender = configure(new MultiProcessFileAppender(new PatternLayout("%m%n"), logFilePath, "com.example", 100), 100, 3);
+        final MultiProcessFileAppender remoteAppender = configure(new MultiProcessFileAppender(new PatternLayout("%m%n"), logFilePath, "com.example:remote", 200), 100, 3);
+        assertEquals(mainAppender.getManifestFile(), remoteAppender.getManifestFile());
+        
+        // each event is 50 bytes, so every other event rolls the segment over
+        final char[] chars = new char[46];
+        Arrays.fill(chars, 'x');
+        final String message = new String(chars);
+        for(int i = 0; i < 6; i++) {
+            mainAppender.doAppend(newEvent("m" + i + ":" + message));
+            remoteAppender.doAppend(newEvent("r" + i + ":" + message));
+        }
+        mainAppender.close();
+        remoteAppender.close();
+        
+        final SegmentManifest segmentManifest = new SegmentManifest(mainAppender.getManifestFile());
+        final List<String> sealed = new ArrayList<String>();
+        for(File segmentFile : segmentManifest.getSegments()) {
+            assertTrue(segmentFile.exists());
+            sealed.add(segmentFile.getName());
+        }
+        assertEquals(Arrays.asList("android-remote-200.log.4", "android-main-100.log.5", "android-remote-200.log.6"), sealed);
+        
+        final List<String> files = new ArrayList<String>(Arrays.asList(mLogsFolder.list()));
+        Collections.sort(files);
+        assertEquals(Arrays.asList("android-main-100.log", "android-main-100.log.5", "android-remote-200.log", "android-remote-200.log.4", "android-remote-200.log.6", "android.log.manifest"), files);
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void sealsOrphanedSegmentsOfDeadProcesses() throws Exception {
+        assertTrue(mLogsFolder.mkdirs());
+        final String logFilePath = new File(mLogsFolder, "android.log").getAbsolutePath();
+        
+        // the killed processes, one of them never logged; the process 1 is still running
+        final Writer writer = new FileWriter(MultiProcessFileAppender.getSegmentFilePath(logFilePath, "com.example:remote", 999999999));
+        try {
+            writer.write("orphaned\n");
+        } finally {
+            writer.close();
+        }
+        assertTrue(new File(MultiProcessFileAppender.getSegmentFilePath(logFilePath, "com.example:remote", 999999998)).createNewFile());
+        assertTrue(new File(MultiProcessFileAppender.getSegmentFilePath(logFilePath, "com.example", 1)).createNewFile());
+        
+        final MultiProcessFileAppender mainAppender = configure(new MultiProcessFileAppender(new PatternLayout("%m%n"), logFilePath, "com.example", 100), 100, 3);
+        mainAppender.close();
+        
+        final List<File> segmentFiles = new SegmentManifest(mainAppender.getManifestFile()).getSegments();
+        assertEquals(1, segmentFiles.size());
+        assertEquals("android-remote-999999999.log.1", segmentFiles.get(0).getName());
+        assertEquals(9, segmentFiles.get(0).length());
+        
+        final List<String> files = new ArrayList<String>(Arrays.asList(mLogsFolder.list()));
+        Collections.sort(files);
+        assertEquals(Arrays.asList("android-main-1.log", "android-main-100.log", "android-remote-999999999.log.1", "android.log.manifest"), files);
+    }
+}
@@ -0,0 +1,110 @@
+package com.rslakra.android.logger;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Local unit tests of the <code>NativeBackend</code> and the backend switching of the
+ * <code>LogHelper</code>.
+ */
+public class NativeBackendTest {
+    
+    private final String LOG_TAG = "NativeBackendTest";
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void checksDefaultAndTagLevels() throws Exception {
+        final NativeBackend nativeBackend = new NativeBackend(null, false, LogType.INFO);
+        assertTrue(nativeBackend.isLogEnabledFor(LOG_TAG, LogType.ERROR));
+        assertTrue(nativeBackend.isLogEnabledFor(LOG_TAG, LogType.INFO));
+        assertFalse(nativeBackend.isLogEnabledFor(LOG_TAG, LogType.DEBUG));
+        assertFalse(nativeBackend.isLogEnabledFor(null, LogType.DEBUG));
+        
+        nativeBackend.setLogType(LOG_TAG, LogType.VERBOSE);
+        assertTrue(nativeBackend.isLogEnabledFor(LOG_TAG, LogType.DEBUG));
+        assertFalse(nativeBackend.isLogEnabledFor("Other", LogType.DEBUG));
+        
+        nativeBackend.setLogType(LOG_TAG, null);
+        assertFalse(nativeBackend.isLogEnabledFor(LOG_TAG, LogType.DEBUG));
+        assertNull(nativeBackend.getLogFilePath());
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void logsThroughNativeBackend() throws Exception {
+        final File logsFolder = new File(System.getProperty("java.io.tmpdir"), LOG_TAG + System.nanoTime());
+        try {
+            LogHelper.nativeConfigure(logsFolder.getAbsolutePath(), LogHelper.LOG_FILE_NAME, LogType.INFO, 1, LogHelper.MAX_FILE_SIZE, false);
+            assertTrue(LogHelper.getLogBackend() instanceof NativeBackend);
+            assertFalse(LogHelper.isLog4JLogsEnabled());
+            assertEquals(LogType.INFO, LogHelper.getLogType());
+            
+            LogHelper.i(LOG_TAG, "native info");
+            LogHelper.d(LOG_TAG, "native debug");
+            final File logFile = new File(LogHelper.getLogFilePath());
+            final String logs = new String(LogHelper.readBytesFully(logFile.getAbsolutePath()), "UTF-8");
+            assertTrue(logs.contains("INFO [" + Thread.currentThread().getName() + "] [" + LOG_TAG + "] - native info"));
+            assertFalse(logs.contains("native debug"));
+        } finally {
+            LogHelper.setLogBackend(null);
+            LogHelper.deleteRecursively(logsFolder, true);
+        }
+        assertNull(LogHelper.getLogBackend());
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void readsLogsOfFileBackend() throws Exception {
+        final File logsFolder = new File(System.getProperty("java.io.tmpdir"), LOG_TAG + System.nanoTime());
+        try {
+            LogHelper.stripedConfigure(logsFolder.getAbsolutePath(), LogHelper.LOG_FILE_NAME, LogType.INFO);
+            LogHelper.i(LOG_TAG, "striped 1");
+            LogHelper.i(LOG_TAG, "striped 2");
+            assertTrue(LogHelper.flushLogs(5000));
+            
+            final List<String> texts = new ArrayList<String>();
+            final LogMergeReader logMergeReader = LogHelper.newLogMergeReader();
+            try {
+                while(logMergeReader.hasNext()) {
+                    final LogMergeReader.LogEntry logEntry = logMergeReader.next();
+                    assertTrue(logEntry.getTimestamp() != Long.MIN_VALUE);
+                    texts.add(logEntry.getText().trim());
+                }
+            } finally {
+                logMergeReader.close();
+            }
+            assertEquals(2, texts.size());
+            assertTrue(texts.get(0).endsWith("[" + LOG_TAG + "] - striped 1"));
+            assertTrue(texts.get(1).endsWith("[" + LOG_TAG + "] - striped 2"));
+            
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            assertEquals(1, LogHelper.exportLogs(outputStream, LogExporter.Format.ZIP, Long.MIN_VALUE, Long.MAX_VALUE));
+        } finally {
+            LogHelper.setLogBackend(null);
+            LogHelper.deleteRecursively(logsFolder, true);
+        }
+        
+        try {
+            LogHelper.newLogMergeReader();
+            fail("The closed backend should not have a logs folder!");
+        } catch(IllegalStateException ex) {
+            // expected.
+        }
+    }
+}
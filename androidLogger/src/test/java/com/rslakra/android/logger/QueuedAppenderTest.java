@@ -0,0 +1,532 @@
+package com.rslakra.android.logger;
+
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PatternLayout;
+import org.apache.log4j.WriterAppender;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit tests of the <code>QueuedAppender</code>.
+ */
+public class QueuedAppenderTest {
+    
+    private final String LOG_TAG = "QueuedAppenderTest";
+    
+    /**
+     * @param message
+     * @return
+     */
+    private LoggingEvent newLoggingEvent(final String message) {
+        return newLoggingEvent(Level.INFO, message, null);
+    }
+    
+    /**
+     * @param level
+     * @param message
+     * @param throwable
+     * @return
+     */
+    private LoggingEvent newLoggingEvent(final Level level, final String message, final Throwable throwable) {
+        return new LoggingEvent(Logger.class.getName(), Logger.getLogger(LOG_TAG), level, message, throwable);
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void slowSinkDoesNotStallFastSink() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingAppender slow = new RecordingAppender(release);
+        final RecordingAppender fast = new RecordingAppender(null);
+        final LogMetrics logMetrics = new LogMetrics();
+        final QueuedAppender slowSink = new QueuedAppender(slow, "slow", 4, QueuedAppender.DropPolicy.DROP_NEWEST, false, logMetrics);
+        final QueuedAppender fastSink = new QueuedAppender(fast, "fast", 64, QueuedAppender.DropPolicy.DROP_NEWEST, false, logMetrics);
+        try {
+            for(int i = 0; i < 20; i++) {
+                final LoggingEvent logEvent = newLoggingEvent("message " + i);
+                slowSink.doAppend(logEvent);
+                fastSink.doAppend(logEvent);
+            }
+            
+            assertTrue(fastSink.flush(5000));
+            assertEquals(20, fast.getMessages().size());
+            assertFalse(slowSink.flush(50));
+            
+            release.countDown();
+            assertTrue(slowSink.flush(5000));
+            final LogMetrics.QueueSnapshot slowQueue = logMetrics.snapshot().getQueues().get(QueuedAppender.QUEUE_PREFIX + "slow");
+            assertEquals(20, slow.getMessages().size() + slowQueue.getDropped());
+            assertTrue(slowQueue.getDropped() > 0);
+            assertEquals(0, slowQueue.getDepth());
+            assertEquals(slow.getMessages().size(), slowQueue.getLags().getCount());
+            assertEquals(0, logMetrics.snapshot().getQueues().get(QueuedAppender.QUEUE_PREFIX + "fast").getDropped());
+        } finally {
+            release.countDown();
+            slowSink.close();
+            fastSink.close();
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void dropOldestKeepsNewestEvents() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingAppender blocking = new RecordingAppender(release);
+        final QueuedAppender queuedAppender = new QueuedAppender(blocking, LOG_TAG, 2, QueuedAppender.DropPolicy.DROP_OLDEST, false, null);
+        try {
+            queuedAppender.doAppend(newLoggingEvent("first"));
+            blocking.awaitAppending();
+            for(int i = 0; i < 5; i++) {
+                queuedAppender.doAppend(newLoggingEvent("queued " + i));
+            }
+            
+            release.countDown();
+            assertTrue(queuedAppender.flush(5000));
+            assertEquals(3, queuedAppender.getQueueMetrics().getDropped());
+            assertEquals("[first, queued 3, queued 4]", blocking.getMessages().toString());
+        } finally {
+            release.countDown();
+            queuedAppender.close();
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void closeDrainsQueuedEvents() throws Exception {
+        final RecordingAppender recording = new RecordingAppender(null);
+        final QueuedAppender queuedAppender = new QueuedAppender(recording, LOG_TAG, 16, QueuedAppender.DropPolicy.BLOCK, true, null);
+        for(int i = 0; i < 10; i++) {
+            queuedAppender.doAppend(newLoggingEvent("message " + i));
+        }
+        queuedAppender.close();
+        
+        assertEquals(10, recording.getMessages().size());
+        assertTrue(recording.isClosed());
+        assertEquals(Thread.currentThread().getName(), recording.mThreadName);
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void errorsAreNeverDropped() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingAppender blocking = new RecordingAppender(release);
+        final QueuedAppender queuedAppender = new QueuedAppender(blocking, LOG_TAG, 1, QueuedAppender.DropPolicy.DROP_NEWEST, false, null);
+        try {
+            queuedAppender.doAppend(newLoggingEvent("first"));
+            blocking.awaitAppending();
+            queuedAppender.doAppend(newLoggingEvent(Level.DEBUG, "debug", null));
+            queuedAppender.doAppend(newLoggingEvent(Level.ERROR, "error 1", null));
+            queuedAppender.doAppend(newLoggingEvent(Level.ERROR, "error 2", null));
+            queuedAppender.doAppend(newLoggingEvent(Level.FATAL, "wtf", null));
+            queuedAppender.doAppend(newLoggingEvent(Level.INFO, "info", null));
+            
+            release.countDown();
+            assertTrue(queuedAppender.flush(5000));
+            assertEquals("[first, error 1, error 2, wtf]", blocking.getMessages().toString());
+            assertEquals(1, queuedAppender.getQueueMetrics().getDropped(LogType.DEBUG));
+            assertEquals(1, queuedAppender.getQueueMetrics().getDropped(LogType.INFO));
+            assertEquals(0, queuedAppender.getQueueMetrics().getDropped(LogType.ERROR));
+            assertEquals(0, queuedAppender.getQueueMetrics().getDropped(LogType.ASSERT));
+        } finally {
+            release.countDown();
+            queuedAppender.close();
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void errorsOvertakeQueuedDebugEvents() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingAppender blocking = new RecordingAppender(release);
+        final QueuedAppender queuedAppender = new QueuedAppender(blocking, LOG_TAG, 16, QueuedAppender.DropPolicy.DROP_NEWEST, false, null);
+        try {
+            queuedAppender.doAppend(newLoggingEvent("first"));
+            blocking.awaitAppending();
+            for(int i = 0; i < 3; i++) {
+                queuedAppender.doAppend(newLoggingEvent(Level.DEBUG, "debug " + i, null));
+            }
+            queuedAppender.doAppend(newLoggingEvent(Level.WARN, "warn", null));
+            queuedAppender.doAppend(newLoggingEvent(Level.ERROR, "error", null));
+            
+            release.countDown();
+            assertTrue(queuedAppender.flush(5000));
+            assertEquals("[first, error, warn, debug 0, debug 1, debug 2]", blocking.getMessages().toString());
+            
+            /* the sequence numbers restore the logged order. */
+            final List<Long> sequences = blocking.getSequences();
+            assertEquals(Long.valueOf(sequences.get(0) + 5), sequences.get(1));
+            assertEquals(Long.valueOf(sequences.get(0) + 4), sequences.get(2));
+            assertEquals(Long.valueOf(sequences.get(0) + 1), sequences.get(3));
+            assertEquals(Long.valueOf(sequences.get(0) + 3), sequences.get(5));
+        } finally {
+            release.countDown();
+            queuedAppender.close();
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void dropLowestEvictsLowerLevelsFirst() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingAppender blocking = new RecordingAppender(release);
+        final QueuedAppender queuedAppender = new QueuedAppender(blocking, LOG_TAG, 2, QueuedAppender.DropPolicy.DROP_LOWEST, false, null);
+        try {
+            queuedAppender.doAppend(newLoggingEvent("first"));
+            blocking.awaitAppending();
+            queuedAppender.doAppend(newLoggingEvent(Level.INFO, "info 1", null));
+            queuedAppender.doAppend(newLoggingEvent(Level.TRACE, "verbose", null));
+            queuedAppender.doAppend(newLoggingEvent(Level.DEBUG, "debug 1", null));
+            queuedAppender.doAppend(newLoggingEvent(Level.DEBUG, "debug 2", null));
+            queuedAppender.doAppend(newLoggingEvent(Level.INFO, "info 2", null));
+            
+            release.countDown();
+            assertTrue(queuedAppender.flush(5000));
+            assertEquals("[first, info 1, info 2]", blocking.getMessages().toString());
+            assertEquals(1, queuedAppender.getQueueMetrics().getDropped(LogType.VERBOSE));
+            assertEquals(2, queuedAppender.getQueueMetrics().getDropped(LogType.DEBUG));
+        } finally {
+            release.countDown();
+            queuedAppender.close();
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void dropLowestEvictsLowerLanes() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingAppender blocking = new RecordingAppender(release);
+        final QueuedAppender queuedAppender = new QueuedAppender(blocking, LOG_TAG, 1, QueuedAppender.DropPolicy.DROP_LOWEST, false, null);
+        try {
+            queuedAppender.doAppend(newLoggingEvent("first"));
+            blocking.awaitAppending();
+            queuedAppender.doAppend(newLoggingEvent(Level.DEBUG, "debug", null));
+            queuedAppender.doAppend(newLoggingEvent(Level.WARN, "warn 1", null));
+            queuedAppender.doAppend(newLoggingEvent(Level.WARN, "warn 2", null));
+            queuedAppender.doAppend(newLoggingEvent(Level.WARN, "warn 3", null));
+            
+            release.countDown();
+            assertTrue(queuedAppender.flush(5000));
+            assertEquals("[first, warn 1, warn 2]", blocking.getMessages().toString());
+            assertEquals(1, queuedAppender.getQueueMetrics().getDropped(LogType.DEBUG));
+            assertEquals(1, queuedAppender.getQueueMetrics().getDropped(LogType.WARN));
+        } finally {
+            release.countDown();
+            queuedAppender.close();
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void keptOverflowIsBounded() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingAppender blocking = new RecordingAppender(release);
+        final QueuedAppender queuedAppender = new QueuedAppender(blocking, LOG_TAG, 1, QueuedAppender.DropPolicy.DROP_NEWEST, false, null);
+        queuedAppender.setBlockTimeoutMillis(10);
+        try {
+            queuedAppender.doAppend(newLoggingEvent("first"));
+            blocking.awaitAppending();
+            for(int i = 0; i < 4; i++) {
+                queuedAppender.doAppend(newLoggingEvent(Level.ERROR, "error " + i, null));
+            }
+            
+            release.countDown();
+            assertTrue(queuedAppender.flush(5000));
+            assertEquals("[first, error 0, error 1]", blocking.getMessages().toString());
+            assertEquals(2, queuedAppender.getQueueMetrics().getDropped(LogType.ERROR));
+        } finally {
+            release.countDown();
+            queuedAppender.close();
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void closeAppendsKeptEventsOfStuckSink() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingAppender blocking = new RecordingAppender(release);
+        final QueuedAppender queuedAppender = new QueuedAppender(blocking, LOG_TAG, 4, QueuedAppender.DropPolicy.DROP_NEWEST, false, null);
+        queuedAppender.doAppend(newLoggingEvent("first"));
+        blocking.awaitAppending();
+        queuedAppender.doAppend(newLoggingEvent(Level.DEBUG, "debug", null));
+        queuedAppender.doAppend(newLoggingEvent(Level.ERROR, "error", null));
+        
+        // the drain thread doesn't finish in time, it's interrupted by the close
+        final Thread closeThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                queuedAppender.close();
+            }
+        });
+        closeThread.start();
+        while(blocking.getMessages().isEmpty()) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+        closeThread.join();
+        
+        assertEquals("[first, error]", blocking.getMessages().toString());
+        assertEquals(1, queuedAppender.getQueueMetrics().getDropped(LogType.DEBUG));
+        assertTrue(blocking.isClosed());
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void spilledEventsAreReplayedInOrder() throws Exception {
+        final File logsFolder = new File(System.getProperty("java.io.tmpdir"), LOG_TAG + System.nanoTime());
+        assertTrue(logsFolder.mkdirs());
+        final File spillFile = new File(logsFolder, LOG_TAG + Log4JConfigurator.SPILL_FILE_SUFFIX);
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingAppender blocking = new RecordingAppender(release);
+        final QueuedAppender queuedAppender = new QueuedAppender(blocking, LOG_TAG, 2, QueuedAppender.DropPolicy.SPILL, false, null);
+        queuedAppender.setSpillFile(spillFile, 64 * 1024);
+        try {
+            queuedAppender.doAppend(newLoggingEvent("message 0"));
+            blocking.awaitAppending();
+            for(int i = 1; i < 10; i++) {
+                queuedAppender.doAppend(newLoggingEvent(Level.INFO, "message " + i, (i == 5 ? new IllegalStateException("spilled") : null)));
+            }
+            assertEquals(7, queuedAppender.getQueueMetrics().getSpilled());
+            
+            release.countDown();
+            assertTrue(queuedAppender.flush(5000));
+            final List<String> expected = new ArrayList<String>();
+            for(int i = 0; i < 10; i++) {
+                expected.add("message " + i);
+            }
+            assertEquals(expected, blocking.getMessages());
+            assertEquals(0, queuedAppender.getQueueMetrics().getDropped());
+            assertEquals("java.lang.IllegalStateException: spilled", blocking.mThrowableStrRep[0]);
+        } finally {
+            release.countDown();
+            queuedAppender.close();
+        }
+        assertFalse(spillFile.exists());
+        logsFolder.delete();
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void spillFileWrapsAroundWhileDraining() throws Exception {
+        final File logsFolder = new File(System.getProperty("java.io.tmpdir"), LOG_TAG + System.nanoTime());
+        assertTrue(logsFolder.mkdirs());
+        final File file = new File(logsFolder, LOG_TAG + Log4JConfigurator.SPILL_FILE_SUFFIX);
+        final SpillFile spillFile = new SpillFile(file, 1024);
+        int written = 0;
+        while(spillFile.write(new QueuedAppender.QueuedEvent(newLoggingEvent("message " + written), System.nanoTime()))) {
+            written++;
+        }
+        assertTrue(written > 2);
+        
+        // the drain thread catches up partly, the next events are spilled into the start
+        int read = 0;
+        for(; read < written / 2; read++) {
+            assertEquals("message " + read, spillFile.read().mLogEvent.getRenderedMessage());
+        }
+        int rewritten = written;
+        while(spillFile.write(new QueuedAppender.QueuedEvent(newLoggingEvent("message " + rewritten), System.nanoTime()))) {
+            rewritten++;
+        }
+        assertTrue(rewritten > written);
+        
+        for(; read < rewritten; read++) {
+            assertEquals("message " + read, spillFile.read().mLogEvent.getRenderedMessage());
+        }
+        assertNull(spillFile.read());
+        assertTrue(spillFile.write(new QueuedAppender.QueuedEvent(newLoggingEvent("message " + read), System.nanoTime())));
+        assertEquals("message " + read, spillFile.read().mLogEvent.getRenderedMessage());
+        spillFile.close();
+        assertFalse(file.exists());
+        logsFolder.delete();
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void blockWaitsNoLongerThanTimeout() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingAppender blocking = new RecordingAppender(release);
+        final QueuedAppender queuedAppender = new QueuedAppender(blocking, LOG_TAG, 1, QueuedAppender.DropPolicy.BLOCK, false, null);
+        queuedAppender.setBlockTimeoutMillis(50);
+        try {
+            queuedAppender.doAppend(newLoggingEvent("first"));
+            blocking.awaitAppending();
+            queuedAppender.doAppend(newLoggingEvent("queued"));
+            
+            final long startTime = System.nanoTime();
+            queuedAppender.doAppend(newLoggingEvent("blocked"));
+            final long blockedMillis = (System.nanoTime() - startTime) / 1000000L;
+            assertTrue("blockedMillis:" + blockedMillis, blockedMillis >= 40 && blockedMillis < 1000);
+            assertEquals(1, queuedAppender.getQueueMetrics().getDropped(LogType.INFO));
+        } finally {
+            release.countDown();
+            queuedAppender.close();
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void defaultPatternPrintsSequence() throws Exception {
+        final StringWriter writer = new StringWriter();
+        final QueuedAppender queuedAppender = new QueuedAppender(new WriterAppender(new PatternLayout(LogHelper.LOG_PATTERN), writer), "default", 16, QueuedAppender.DropPolicy.DROP_NEWEST, true, null);
+        final LoggingEvent logEvent = newLoggingEvent("message");
+        try {
+            queuedAppender.doAppend(logEvent);
+            assertTrue(queuedAppender.flush(5000L));
+        } finally {
+            queuedAppender.close();
+        }
+        
+        final long sequence = Long.parseLong((String) logEvent.getProperty(QueuedAppender.SEQUENCE_KEY));
+        assertEquals(sequence, new LogLineParser(LogHelper.LOG_PATTERN).parseSequence(writer.toString()));
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void meteredSinkKeepsLocationInfoOfLayout() throws Exception {
+        final File logsFolder = new File(System.getProperty("java.io.tmpdir"), LOG_TAG + System.nanoTime());
+        try {
+            final Log4JConfigurator log4JConfigurator = new Log4JConfigurator();
+            log4JConfigurator.setLogsFolder(logsFolder.getAbsolutePath());
+            log4JConfigurator.setFileName("app.log");
+            log4JConfigurator.setUseConsoleAppender(false);
+            log4JConfigurator.setLogMetrics(new LogMetrics());
+            log4JConfigurator.setSinkQueueCapacity(16);
+            
+            log4JConfigurator.setLogPattern("%m%n");
+            assertFalse(isLocationInfo(log4JConfigurator.newPipeline()));
+            log4JConfigurator.setLogPattern("%L %m%n");
+            assertTrue(isLocationInfo(log4JConfigurator.newPipeline()));
+        } finally {
+            LogHelper.deleteRecursively(logsFolder, true);
+        }
+    }
+    
+    /**
+     * Returns the location information of the only queued appender of the given
+     * <code>logPipeline</code> and closes it.
+     *
+     * @param logPipeline
+     * @return
+     */
+    private boolean isLocationInfo(final LogPipeline logPipeline) {
+        assertEquals(1, logPipeline.getAppenders().size());
+        final QueuedAppender queuedAppender = (QueuedAppender) logPipeline.getAppenders().get(0);
+        try {
+            assertTrue(queuedAppender.getAppender() instanceof MeteredAppender);
+            return queuedAppender.isLocationInfo();
+        } finally {
+            queuedAppender.close();
+        }
+    }
+    
+    /**
+     * Records the appended messages, optionally waiting on the <code>mRelease</code> latch.
+     */
+    private static class RecordingAppender extends AppenderSkeleton {
+        
+        private final CountDownLatch mRelease;
+        
+        private final CountDownLatch mAppending = new CountDownLatch(1);
+        
+        private final List<String> mMessages = new ArrayList<String>();
+        
+        private final List<Long> mSequences = new ArrayList<Long>();
+        
+        private volatile String mThreadName;
+        
+        private volatile String[] mThrowableStrRep;
+        
+        private RecordingAppender(final CountDownLatch release) {
+            mRelease = release;
+        }
+        
+        @Override
+        protected void append(final LoggingEvent logEvent) {
+            mAppending.countDown();
+            if(mRelease != null) {
+                try {
+                    mRelease.await();
+                } catch(InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            mThreadName = logEvent.getThreadName();
+            if(logEvent.getThrowableStrRep() != null) {
+                mThrowableStrRep = logEvent.getThrowableStrRep();
+            }
+            synchronized(mMessages) {
+                mMessages.add(logEvent.getRenderedMessage());
+                mSequences.add(Long.valueOf((String) logEvent.getProperty(QueuedAppender.SEQUENCE_KEY)));
+            }
+        }
+        
+        public void awaitAppending() throws InterruptedException {
+            mAppending.await();
+        }
+        
+        public List<Long> getSequences() {
+            synchronized(mMessages) {
+                return new ArrayList<Long>(mSequences);
+            }
+        }
+        
+        public List<String> getMessages() {
+            synchronized(mMessages) {
+                return new ArrayList<String>(mMessages);
+            }
+        }
+        
+        @Override
+        public void close() {
+            closed = true;
+        }
+        
+        public boolean isClosed() {
+            return closed;
+        }
+        
+        @Override
+        public boolean requiresLayout() {
+            return false;
+        }
+    }
+}
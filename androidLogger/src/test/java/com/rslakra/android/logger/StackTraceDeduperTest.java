@@ -0,0 +1,93 @@
+package com.rslakra.android.logger;
+
+import org.apache.log4j.Hierarchy;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+import org.apache.log4j.spi.RootLogger;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit tests of the <code>StackTraceDeduper</code>.
+ */
+public class StackTraceDeduperTest {
+    
+    private final String LOG_TAG = "StackTraceDeduperTest";
+    
+    /**
+     * Returns the exceptions thrown at the same place.
+     *
+     * @param count
+     * @return
+     */
+    private static List<Throwable> newExceptions(final int count) {
+        final List<Throwable> exceptions = new ArrayList<Throwable>();
+        for(int i = 0; i < count; i++) {
+            exceptions.add(new IllegalStateException("boom " + i, new IllegalArgumentException("cause")));
+        }
+        return exceptions;
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void referencesRepeatedTraces() throws Exception {
+        final StackTraceDeduper stackTraceDeduper = new StackTraceDeduper();
+        final List<Throwable> exceptions = newExceptions(3);
+        
+        final String[] first = stackTraceDeduper.doRender(exceptions.get(0));
+        assertEquals("java.lang.IllegalStateException: boom 0", first[0]);
+        assertTrue(first[1].startsWith("\tat " + getClass().getName() + ".newExceptions"));
+        assertEquals("\ttrace#1", first[first.length - 1]);
+        
+        assertArrayEquals(new String[]{"java.lang.IllegalStateException: boom 1", "\ttrace#1 (seen 2 times)"}, stackTraceDeduper.doRender(exceptions.get(1)));
+        assertEquals("java.lang.IllegalStateException: boom 2\n\ttrace#1 (seen 3 times)", stackTraceDeduper.render(exceptions.get(2)));
+        
+        // the same throwable isn't counted again, a different trace gets its own id.
+        assertEquals("java.lang.IllegalStateException: boom 2\n\ttrace#1 (seen 3 times)", stackTraceDeduper.render(exceptions.get(2)));
+        final String[] other = stackTraceDeduper.doRender(new IllegalStateException("boom 0", new IllegalArgumentException("cause")));
+        assertEquals("\ttrace#2", other[other.length - 1]);
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void rendersTraceAgainAfterReprintInterval() throws Exception {
+        final StackTraceDeduper stackTraceDeduper = new StackTraceDeduper(1);
+        stackTraceDeduper.setReprintMillis(5000);
+        final List<Throwable> exceptions = newExceptions(3);
+        assertTrue(stackTraceDeduper.doRender(exceptions.get(0), 0).length > 2);
+        assertEquals(2, stackTraceDeduper.doRender(exceptions.get(1), 4999).length);
+        final String[] reprinted = stackTraceDeduper.doRender(exceptions.get(2), 5000);
+        assertEquals("\ttrace#1 (seen 3 times)", reprinted[reprinted.length - 1]);
+        
+        // the least recently seen trace is forgotten over the capacity.
+        stackTraceDeduper.doRender(new IllegalStateException("other"), 5000);
+        final String[] forgotten = stackTraceDeduper.doRender(newExceptions(1).get(0), 5000);
+        assertEquals("\ttrace#3", forgotten[forgotten.length - 1]);
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void rendersLoggingEventsOfRepository() throws Exception {
+        final Hierarchy hierarchy = new Hierarchy(new RootLogger(Level.DEBUG));
+        hierarchy.setThrowableRenderer(new StackTraceDeduper());
+        final Logger logger = hierarchy.getLogger(LOG_TAG);
+        final List<Throwable> exceptions = newExceptions(2);
+        final LoggingEvent first = new LoggingEvent(Logger.class.getName(), logger, Level.ERROR, "failed", exceptions.get(0));
+        final LoggingEvent second = new LoggingEvent(Logger.class.getName(), logger, Level.ERROR, "failed", exceptions.get(1));
+        assertTrue(first.getThrowableStrRep().length > 2);
+        assertArrayEquals(new String[]{"java.lang.IllegalStateException: boom 1", "\ttrace#1 (seen 2 times)"}, second.getThrowableStrRep());
+    }
+}
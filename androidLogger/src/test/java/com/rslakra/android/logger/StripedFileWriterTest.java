@@ -0,0 +1,103 @@
+package com.rslakra.android.logger;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit tests of the <code>StripedFileWriter</code> and the <code>LogEventEncoder</code>.
+ */
+public class StripedFileWriterTest {
+    
+    private final String LOG_TAG = "StripedFileWriterTest";
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void writesAllEventsInThreadOrder() throws Exception {
+        final File logsFolder = new File(System.getProperty("java.io.tmpdir"), LOG_TAG + System.nanoTime());
+        final File logFile = new File(logsFolder, "striped.log");
+        final StripedFileWriter stripedFileWriter = new StripedFileWriter(logFile, LogHelper.MAX_FILE_SIZE * 8, 1, 10, new LogMetrics());
+        try {
+            final int threads = 4;
+            final int events = 5000;
+            final Thread[] writers = new Thread[threads];
+            for(int t = 0; t < threads; t++) {
+                final int thread = t;
+                writers[t] = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        for(int i = 0; i < events; i++) {
+                            stripedFileWriter.append(LogType.INFO, LOG_TAG, "event:" + thread + ":" + i, null);
+                        }
+                    }
+                });
+                writers[t].start();
+            }
+            for(Thread writer : writers) {
+                writer.join();
+            }
+            
+            final char[] large = new char[StripedFileWriter.CHUNK_SIZE * 2];
+            Arrays.fill(large, 'x');
+            stripedFileWriter.append(LogType.ERROR, LOG_TAG, new String(large), null);
+            assertTrue(stripedFileWriter.flush(5000));
+            stripedFileWriter.close();
+            
+            final int[] nextEvents = new int[threads];
+            int largeEvents = 0;
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(logFile), "UTF-8"));
+            try {
+                String line;
+                while((line = reader.readLine()) != null) {
+                    final int index = line.indexOf("event:");
+                    if(index > 0) {
+                        final String[] tokens = line.substring(index).split(":");
+                        final int thread = Integer.parseInt(tokens[1]);
+                        assertEquals(nextEvents[thread], Integer.parseInt(tokens[2]));
+                        nextEvents[thread]++;
+                    } else if(line.endsWith("xxxx")) {
+                        assertTrue(line.contains("ERROR"));
+                        largeEvents++;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+            
+            for(int t = 0; t < threads; t++) {
+                assertEquals(events, nextEvents[t]);
+            }
+            assertEquals(1, largeEvents);
+        } finally {
+            stripedFileWriter.close();
+            LogHelper.deleteRecursively(logsFolder, true);
+        }
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void encodesUtf8() throws Exception {
+        final String value = "ascii \u00e9\u20ac \ud83d\ude00 end";
+        final byte[] bytes = new byte[64];
+        final int length = LogEventEncoder.putUtf8(bytes, 0, bytes.length, value);
+        assertEquals(value, new String(bytes, 0, length, Charset.forName("UTF-8")));
+        assertEquals(-1, LogEventEncoder.putUtf8(bytes, 0, 4, value));
+        
+        final ByteBuffer buffer = ByteBuffer.allocate(16);
+        assertTrue(!new LogEventEncoder().encode(buffer, 0, LogType.INFO, "main", LOG_TAG, value, null));
+        assertEquals(0, buffer.position());
+    }
+}
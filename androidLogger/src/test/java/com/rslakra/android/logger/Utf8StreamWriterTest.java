@@ -0,0 +1,87 @@
+package com.rslakra.android.logger;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PatternLayout;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit tests of the <code>Utf8StreamWriter</code> and the UTF-8 file appenders.
+ */
+public class Utf8StreamWriterTest {
+    
+    private final String LOG_TAG = "Utf8StreamWriterTest";
+    
+    /** UTF_8 */
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void encodesLikeTheJdk() throws Exception {
+        final char[] ascii = new char[Utf8StreamWriter.BUFFER_SIZE - 1];
+        Arrays.fill(ascii, 'a');
+        final String value = new String(ascii) + "\u00e9\u20ac\ud83d\ude00 caf\u00e9 " + new String(ascii) + "\u0416";
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final Utf8StreamWriter writer = new Utf8StreamWriter(outputStream);
+        writer.write(value);
+        writer.write(value.toCharArray(), 0, 10);
+        writer.write('\u00fc');
+        writer.flush();
+        
+        assertArrayEquals((value + value.substring(0, 10) + "\u00fc").getBytes(UTF_8), outputStream.toByteArray());
+        assertEquals(outputStream.size(), Utf8StreamWriter.encodedLength(value + value.substring(0, 10) + "\u00fc"));
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void handlesSplitAndUnpairedSurrogates() throws Exception {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final Utf8StreamWriter writer = new Utf8StreamWriter(outputStream);
+        writer.write("smile \ud83d");
+        writer.flush();
+        writer.write("\ude00!");
+        writer.write("\ude00 and \ud83d");
+        writer.close();
+        
+        assertEquals("smile \ud83d\ude00!? and ?", new String(outputStream.toByteArray(), UTF_8));
+        assertEquals(outputStream.size(), Utf8StreamWriter.encodedLength("smile \ud83d\ude00!\ude00 and \ud83d"));
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void rollingFileAppenderWritesUtf8() throws Exception {
+        final File logsFolder = new File(System.getProperty("java.io.tmpdir"), LOG_TAG + System.nanoTime());
+        final File logFile = new File(logsFolder, "utf8.log");
+        LogHelper.makeFolders(logsFolder);
+        final Utf8RollingFileAppender fileAppender = new Utf8RollingFileAppender(new PatternLayout("%m%n"), logFile.getAbsolutePath());
+        try {
+            final Logger logger = Logger.getLogger(LOG_TAG);
+            fileAppender.doAppend(new LoggingEvent(Logger.class.getName(), logger, Level.INFO, "caf\u00e9 \ud83d\ude00", null));
+            fileAppender.doAppend(new LoggingEvent(Logger.class.getName(), logger, Level.INFO, "plain", null));
+            fileAppender.close();
+            
+            final String logs = new String(LogHelper.readBytesFully(logFile.getAbsolutePath()), UTF_8);
+            assertTrue(logs.startsWith("caf\u00e9 \ud83d\ude00"));
+            assertTrue(logs.contains("plain"));
+        } finally {
+            fileAppender.close();
+            LogHelper.deleteRecursively(logsFolder, true);
+        }
+    }
+}
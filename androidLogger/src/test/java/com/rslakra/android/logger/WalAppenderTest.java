@@ -0,0 +1,231 @@
+package com.rslakra.android.logger;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PatternLayout;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit tests of the <code>WalAppender</code> and the <code>Crc32c</code>.
+ */
+public class WalAppenderTest {
+    
+    private final String LOG_TAG = "WalAppenderTest";
+    
+    /** UTF_8 */
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    
+    /** SEGMENT_SIZE */
+    private static final int SEGMENT_SIZE = 4096;
+    
+    /** mLogsFolder - the temporary folder of the test, deleted after it. */
+    private final File mLogsFolder = new File(System.getProperty("java.io.tmpdir"), LOG_TAG + System.nanoTime());
+    
+    /**
+     * Deletes the temporary folder of the test.
+     */
+    @After
+    public void deleteLogsFolder() {
+        LogHelper.deleteRecursively(mLogsFolder, true);
+    }
+    
+    /**
+     * @param message
+     * @return
+     */
+    private LoggingEvent newEvent(final String message) {
+        return new LoggingEvent(Logger.class.getName(), Logger.getLogger(LOG_TAG), Level.INFO, message, null);
+    }
+    
+    /**
+     * Returns the messages of the valid records of the given segment <code>file</code>.
+     *
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    private static List<String> readRecords(final File file) throws IOException {
+        final List<String> messages = new ArrayList<String>();
+        final DataInputStream inputStream = new DataInputStream(new FileInputStream(file));
+        try {
+            while(inputStream.available() >= WalAppender.HEADER_SIZE) {
+                final int length = inputStream.readInt();
+                final int checksum = inputStream.readInt();
+                if(length <= 0) {
+                    break;
+                }
+                final byte[] payload = new byte[length];
+                inputStream.readFully(payload);
+                assertEquals(checksum, Crc32c.checksum(payload, 0, length));
+                messages.add(new String(payload, UTF_8).trim());
+            }
+        } finally {
+            inputStream.close();
+        }
+        
+        return messages;
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void checksumMatchesCastagnoli() throws Exception {
+        final byte[] bytes = "123456789".getBytes(UTF_8);
+        assertEquals(0xE3069283, Crc32c.checksum(bytes, 0, bytes.length));
+        assertEquals(0, Crc32c.checksum(bytes, 0, 0));
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void recoversRecordsAndTruncatesTornTail() throws Exception {
+        assertTrue(mLogsFolder.mkdirs());
+        final File walFile = new File(mLogsFolder, "app.log.wal");
+        
+        // the process is killed, the appender is never closed
+        final WalAppender walAppender = new WalAppender(new PatternLayout("%m%n"), walFile.getAbsolutePath(), SEGMENT_SIZE, 1);
+        assertEquals(0, walAppender.getRecoveredEvents());
+        for(int i = 0; i < 3; i++) {
+            walAppender.doAppend(newEvent("event " + i));
+        }
+        assertEquals(SEGMENT_SIZE, walFile.length());
+        assertEquals(Arrays.asList("event 0", "event 1", "event 2"), readRecords(walFile));
+        
+        // a torn record after the last one: the length is written, the payload is not complete
+        final long tornPosition = (WalAppender.HEADER_SIZE + "event 0\n".length()) * 3;
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(walFile, "rw");
+        try {
+            randomAccessFile.seek(tornPosition);
+            randomAccessFile.writeInt(20);
+            randomAccessFile.writeInt(12345);
+            randomAccessFile.write("event".getBytes(UTF_8));
+        } finally {
+            randomAccessFile.close();
+        }
+        
+        final WalAppender recovered = new WalAppender(new PatternLayout("%m%n"), walFile.getAbsolutePath(), SEGMENT_SIZE, 1);
+        assertEquals(3, recovered.getRecoveredEvents());
+        assertEquals(WalAppender.HEADER_SIZE + 5, recovered.getTruncatedBytes());
+        recovered.doAppend(newEvent("event 3"));
+        recovered.close();
+        
+        assertEquals(tornPosition + WalAppender.HEADER_SIZE + "event 3\n".length(), walFile.length());
+        assertEquals(Arrays.asList("event 0", "event 1", "event 2", "event 3"), readRecords(walFile));
+        
+        final WalAppender reopened = new WalAppender(new PatternLayout("%m%n"), walFile.getAbsolutePath(), SEGMENT_SIZE, 1);
+        assertEquals(4, reopened.getRecoveredEvents());
+        assertEquals(0, reopened.getTruncatedBytes());
+        reopened.close();
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void skipsEmptyEvents() throws Exception {
+        assertTrue(mLogsFolder.mkdirs());
+        final File walFile = new File(mLogsFolder, "app.log.wal");
+        
+        final WalAppender walAppender = new WalAppender(new PatternLayout("%m"), walFile.getAbsolutePath(), SEGMENT_SIZE, 1);
+        for(String message : Arrays.asList("a", "", "b", "c")) {
+            walAppender.doAppend(newEvent(message));
+        }
+        
+        // the empty event doesn't end the records of the reopened segment
+        final WalAppender reopened = new WalAppender(new PatternLayout("%m"), walFile.getAbsolutePath(), SEGMENT_SIZE, 1);
+        assertEquals(3, reopened.getRecoveredEvents());
+        assertEquals(0, reopened.getTruncatedBytes());
+        reopened.close();
+        assertEquals(Arrays.asList("a", "b", "c"), readRecords(walFile));
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void rollsOverFullSegments() throws Exception {
+        assertTrue(mLogsFolder.mkdirs());
+        final File walFile = new File(mLogsFolder, "app.log.wal");
+        final char[] chars = new char[1000];
+        Arrays.fill(chars, 'x');
+        final String message = new String(chars);
+        
+        final WalAppender walAppender = new WalAppender(new PatternLayout("%m%n"), walFile.getAbsolutePath(), SEGMENT_SIZE, 1);
+        for(int i = 0; i < 12; i++) {
+            walAppender.doAppend(newEvent(i + message));
+        }
+        walAppender.close();
+        
+        // 4 records fit into a segment, the oldest segment is deleted
+        assertFalse(new File(walFile.getAbsolutePath() + ".2").exists());
+        final List<String> backup = readRecords(new File(walFile.getAbsolutePath() + ".1"));
+        assertEquals(4, backup.size());
+        assertTrue(backup.get(0).startsWith("4x"));
+        final List<String> current = readRecords(walFile);
+        assertEquals(4, current.size());
+        assertTrue(current.get(3).startsWith("11x"));
+    }
+    
+    /**
+     * @throws Exception
+     */
+    @Test
+    public void reconfiguresWhileLogging() throws Exception {
+        assertTrue(mLogsFolder.mkdirs());
+        final Log4JConfigurator log4JConfigurator = new Log4JConfigurator();
+        log4JConfigurator.setLogsFolder(mLogsFolder.getAbsolutePath());
+        log4JConfigurator.setFileName("app.log");
+        log4JConfigurator.setLogPattern("%m%n");
+        log4JConfigurator.setLogLevel(Level.INFO);
+        log4JConfigurator.setUseConsoleAppender(false);
+        log4JConfigurator.setUseWalAppender(true);
+        log4JConfigurator.setMaxFileSize(1024 * 1024);
+        log4JConfigurator.setMaxBackupFiles(1);
+        log4JConfigurator.addFileAppender();
+        
+        final int events = 2000;
+        final Thread logThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                final Logger logger = Logger.getLogger(LOG_TAG);
+                for(int i = 0; i < events; i++) {
+                    logger.info("event " + i);
+                }
+            }
+        });
+        logThread.start();
+        
+        // each reload changes the appenders, which reopens the same segment
+        for(int i = 0; logThread.isAlive(); i++) {
+            log4JConfigurator.setMaxBackupFiles(1 + i % 2);
+            log4JConfigurator.addFileAppender();
+        }
+        logThread.join();
+        log4JConfigurator.setUseFileAppender(false);
+        log4JConfigurator.addFileAppender();
+        
+        final List<String> expected = new ArrayList<String>();
+        for(int i = 0; i < events; i++) {
+            expected.add("event " + i);
+        }
+        assertEquals(expected, readRecords(new File(mLogsFolder, "app.log" + Log4JConfigurator.WAL_FILE_SUFFIX)));
+    }
+}
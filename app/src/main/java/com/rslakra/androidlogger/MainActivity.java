@@ -8,6 +8,7 @@ import android.view.MenuItem;
 import android.widget.TextView;
 
 import com.rslakra.android.logger.LogHelper;
+import com.rslakra.android.logger.LogMergeReader;
 import com.rslakra.android.logger.LogType;
 
 /**
@@ -41,7 +42,7 @@ public class MainActivity extends Activity {
         // Configure Android Logger
         final String logFolderPath = LogHelper.pathString(LogHelper.getAppRootFolder(getApplicationContext()), "logs");
 //        LogHelper.log4JConfigure(logFolderPath, LogType.INFO);
-        LogHelper.log4JConfigure(logFolderPath, "AndroidLogger.log", LogType.INFO);
+        LogHelper.log4JConfigureAsync(logFolderPath, "AndroidLogger.log", LogType.INFO);
 //        LogHelper.log4JConfigure(logFolderPath, getApplicationContext(), LogHelper.ANDROID_LOG4J_PROPERTIES);
         
         //test file logger
@@ -70,18 +71,36 @@ public class MainActivity extends Activity {
     }
     
     /**
-     * Shows the logged logs inside the text view.
+     * Shows the logged logs inside the text view. The logs are read off the UI thread, once the
+     * logger is configured.
      */
     private void showLoggedLogs() {
-        final StringBuilder logBuilder = new StringBuilder();
-        byte[] logFileBytes = LogHelper.readBytesFully(LogHelper.getLogFilePath());
-        if(logFileBytes != null) {
-            logBuilder.append(new String(logFileBytes));
-        } else {
-            logBuilder.append("No data loaded!");
-        }
-        
-        mLogTextView.append(logBuilder.toString());
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                LogHelper.awaitConfigured(5000);
+                LogHelper.flushLogs(1000);
+                final StringBuilder logBuilder = new StringBuilder();
+                final LogMergeReader logMergeReader = LogHelper.newLogMergeReader();
+                try {
+                    while(logMergeReader.hasNext()) {
+                        logBuilder.append(logMergeReader.next().getText()).append(LogHelper.getLineSeparator());
+                    }
+                } finally {
+                    logMergeReader.close();
+                }
+                if(logBuilder.length() == 0) {
+                    logBuilder.append("No data loaded!");
+                }
+                
+                runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        mLogTextView.append(logBuilder.toString());
+                    }
+                });
+            }
+        }).start();
     }
     
     /**
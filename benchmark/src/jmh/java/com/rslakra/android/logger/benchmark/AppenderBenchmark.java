@@ -0,0 +1,86 @@
+package com.rslakra.android.logger.benchmark;
+
+import com.rslakra.android.logger.AndroidAppender;
+import com.rslakra.android.logger.LogHelper;
+import com.rslakra.android.logger.Utf8RollingFileAppender;
+
+import org.apache.log4j.PatternLayout;
+import org.apache.log4j.RollingFileAppender;
+import org.apache.log4j.spi.LoggingEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the appenders alone, the <code>AndroidAppender</code> and the
+ * <code>RollingFileAppender</code> with the immediate flush on and off, encoding either through
+ * the JDK <code>OutputStreamWriter</code> ("stream") or the <code>Utf8StreamWriter</code>
+ * ("direct").
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 01:44:52 PM
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AppenderBenchmark {
+    
+    @Param({"true", "false"})
+    public boolean immediateFlush;
+    
+    @Param({"direct", "stream"})
+    public String encoder;
+    
+    private File mLogsFolder;
+    
+    private AndroidAppender mAndroidAppender;
+    
+    private RollingFileAppender mFileAppender;
+    
+    private LoggingEvent mLoggingEvent;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        mLogsFolder = BenchmarkSupport.newLogsFolder();
+        mLoggingEvent = BenchmarkSupport.newLoggingEvent();
+        mAndroidAppender = new AndroidAppender(new PatternLayout(LogHelper.LOG_PATTERN));
+        final String logFilePath = new File(mLogsFolder, LogHelper.LOG_FILE_NAME).getAbsolutePath();
+        if("direct".equals(encoder)) {
+            mFileAppender = new Utf8RollingFileAppender(new PatternLayout(LogHelper.LOG_PATTERN), logFilePath);
+        } else {
+            mFileAppender = new RollingFileAppender(new PatternLayout(LogHelper.LOG_PATTERN), logFilePath);
+        }
+        mFileAppender.setMaximumFileSize(LogHelper.MAX_FILE_SIZE);
+        mFileAppender.setMaxBackupIndex(LogHelper.MAX_BACKUP_FILES);
+        mFileAppender.setImmediateFlush(immediateFlush);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mFileAppender.close();
+        BenchmarkSupport.deleteLogsFolder(mLogsFolder);
+    }
+    
+    @Benchmark
+    public void androidAppender() {
+        mAndroidAppender.doAppend(mLoggingEvent);
+    }
+    
+    @Benchmark
+    public void rollingFileAppender() {
+        mFileAppender.doAppend(mLoggingEvent);
+    }
+}
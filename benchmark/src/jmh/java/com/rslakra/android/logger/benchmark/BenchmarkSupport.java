@@ -0,0 +1,125 @@
+package com.rslakra.android.logger.benchmark;
+
+import com.rslakra.android.logger.LogHelper;
+import com.rslakra.android.logger.LogType;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The shared setup of the benchmarks.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 01:12:08 PM
+ * @since 1.0.0
+ */
+public final class BenchmarkSupport {
+    
+    /** LOG_TAG */
+    public static final String LOG_TAG = "Benchmark";
+    
+    /** MESSAGE - a typical log line. */
+    public static final String MESSAGE = "Loaded 42 items from https://example.com/api/v1/items in 17 ms";
+    
+    /** FORMAT */
+    public static final String FORMAT = "Loaded %d items from %s in %d ms";
+    
+    /** URL */
+    public static final String URL = "https://example.com/api/v1/items";
+    
+    private BenchmarkSupport() {
+        throw new UnsupportedOperationException("Object creation is not allowed for this class!");
+    }
+    
+    /**
+     * Creates a new empty logs folder under the temp folder.
+     *
+     * @return
+     * @throws IOException
+     */
+    public static File newLogsFolder() throws IOException {
+        final File logsFolder = File.createTempFile("androidLogger", "-logs");
+        if(!logsFolder.delete() || !logsFolder.mkdirs()) {
+            throw new IOException("Unable to create folder:" + logsFolder);
+        }
+        
+        return logsFolder;
+    }
+    
+    /**
+     * Configures the log4j logging into the given <code>logsFolder</code>.
+     *
+     * @param logsFolder
+     * @param logType
+     */
+    public static void log4JConfigure(final File logsFolder, final LogType logType) {
+        LogHelper.log4JConfigure(logsFolder.getAbsolutePath(), LogHelper.LOG_FILE_NAME, logType);
+    }
+    
+    /**
+     * Configures the striped file logging into the given <code>logsFolder</code>.
+     *
+     * @param logsFolder
+     * @param logType
+     */
+    public static void stripedConfigure(final File logsFolder, final LogType logType) {
+        LogHelper.stripedConfigure(logsFolder.getAbsolutePath(), LogHelper.LOG_FILE_NAME, logType);
+    }
+    
+    /**
+     * Configures the combining file logging into the given <code>logsFolder</code>.
+     *
+     * @param logsFolder
+     * @param logType
+     */
+    public static void combiningConfigure(final File logsFolder, final LogType logType) {
+        LogHelper.combiningConfigure(logsFolder.getAbsolutePath(), LogHelper.LOG_FILE_NAME, logType);
+    }
+    
+    /**
+     * Configures the built-in native backend logging into the given <code>logsFolder</code>,
+     * without the logcat sink.
+     *
+     * @param logsFolder
+     * @param logType
+     */
+    public static void nativeConfigure(final File logsFolder, final LogType logType) {
+        LogHelper.nativeConfigure(logsFolder.getAbsolutePath(), LogHelper.LOG_FILE_NAME, logType, LogHelper.MAX_BACKUP_FILES, LogHelper.MAX_FILE_SIZE, false);
+    }
+    
+    /**
+     * Switches back to the logcat only logging with the given <code>logType</code>.
+     *
+     * @param logType
+     */
+    public static void logcatConfigure(final LogType logType) {
+        LogHelper.setLogBackend(null);
+        LogHelper.setLog4JLogsEnabled(false);
+        LogHelper.setLogType(logType);
+    }
+    
+    /**
+     * Returns a new INFO event of the <code>LOG_TAG</code> logger.
+     *
+     * @return
+     */
+    public static LoggingEvent newLoggingEvent() {
+        final Logger logger = Logger.getLogger(LOG_TAG);
+        return new LoggingEvent(Logger.class.getName(), logger, Level.INFO, MESSAGE, null);
+    }
+    
+    /**
+     * Deletes the given <code>logsFolder</code>.
+     *
+     * @param logsFolder
+     */
+    public static void deleteLogsFolder(final File logsFolder) {
+        LogHelper.deleteRecursively(logsFolder, true);
+    }
+}
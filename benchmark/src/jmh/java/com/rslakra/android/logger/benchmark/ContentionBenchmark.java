@@ -0,0 +1,76 @@
+package com.rslakra.android.logger.benchmark;
+
+import com.rslakra.android.logger.LogHelper;
+import com.rslakra.android.logger.LogType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the <code>LogHelper.i</code> calls into the log4j, the striped or the combining file
+ * logging from 1, 4 and 16 threads. The reported ops/s is the total of all the threads.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 01:58:37 PM
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ContentionBenchmark {
+    
+    @Param({"log4j", "striped", "combining"})
+    public String mode;
+    
+    private File mLogsFolder;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        mLogsFolder = BenchmarkSupport.newLogsFolder();
+        if("striped".equals(mode)) {
+            BenchmarkSupport.stripedConfigure(mLogsFolder, LogType.INFO);
+        } else if("combining".equals(mode)) {
+            BenchmarkSupport.combiningConfigure(mLogsFolder, LogType.INFO);
+        } else {
+            BenchmarkSupport.log4JConfigure(mLogsFolder, LogType.INFO);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        LogHelper.flushLogs(10000);
+        BenchmarkSupport.deleteLogsFolder(mLogsFolder);
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public void threads01() {
+        LogHelper.i(BenchmarkSupport.LOG_TAG, BenchmarkSupport.MESSAGE);
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public void threads04() {
+        LogHelper.i(BenchmarkSupport.LOG_TAG, BenchmarkSupport.MESSAGE);
+    }
+    
+    @Benchmark
+    @Threads(16)
+    public void threads16() {
+        LogHelper.i(BenchmarkSupport.LOG_TAG, BenchmarkSupport.MESSAGE);
+    }
+}
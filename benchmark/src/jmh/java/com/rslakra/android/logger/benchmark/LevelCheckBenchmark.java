@@ -0,0 +1,82 @@
+package com.rslakra.android.logger.benchmark;
+
+import com.rslakra.android.logger.LogHelper;
+import com.rslakra.android.logger.LogType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the disabled log statements, which should be close to nothing.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 01:20:44 PM
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LevelCheckBenchmark {
+    
+    /** mode - the logcat only, the log4j or the native backend logging. */
+    @Param({"logcat", "log4j", "native"})
+    public String mode;
+    
+    private File mLogsFolder;
+    
+    private int mCount = 42;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        if("log4j".equals(mode)) {
+            mLogsFolder = BenchmarkSupport.newLogsFolder();
+            BenchmarkSupport.log4JConfigure(mLogsFolder, LogType.INFO);
+        } else if("native".equals(mode)) {
+            mLogsFolder = BenchmarkSupport.newLogsFolder();
+            BenchmarkSupport.nativeConfigure(mLogsFolder, LogType.INFO);
+        } else {
+            BenchmarkSupport.logcatConfigure(LogType.INFO);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if(mLogsFolder != null) {
+            BenchmarkSupport.logcatConfigure(LogType.INFO);
+            BenchmarkSupport.deleteLogsFolder(mLogsFolder);
+        }
+    }
+    
+    @Benchmark
+    public boolean isLogEnabledFor() {
+        return LogHelper.isLogEnabledFor(LogType.DEBUG);
+    }
+    
+    @Benchmark
+    public boolean isLogEnabledForTag() {
+        return LogHelper.isLogEnabledFor(BenchmarkSupport.LOG_TAG, LogType.DEBUG);
+    }
+    
+    @Benchmark
+    public void disabledPlain() {
+        LogHelper.d(BenchmarkSupport.LOG_TAG, BenchmarkSupport.MESSAGE);
+    }
+    
+    @Benchmark
+    public void disabledFormatted() {
+        LogHelper.d(BenchmarkSupport.LOG_TAG, BenchmarkSupport.FORMAT, mCount, BenchmarkSupport.URL, 17);
+    }
+}
@@ -0,0 +1,80 @@
+package com.rslakra.android.logger.benchmark;
+
+import com.rslakra.android.logger.LogHelper;
+import com.rslakra.android.logger.LogRedactor;
+import com.rslakra.android.logger.LogType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the <code>LogRedactor</code> alone and the native write path with the redaction on
+ * and off, for a typical line ("clean") and a request line with the credentials ("secrets").
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-20 08:47:10 AM
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RedactionBenchmark {
+    
+    /** SECRETS - a request line with the credentials. */
+    private static final String SECRETS = "WebRequest url=\"https://example.com/api/v1/items?access_token=abc.def\" method=GET headers=\"{Accept=application/json, Authorization=Bearer eyJhbGciOi.e30.sig, Cookie=sid=42}\"";
+    
+    @Param({"clean", "secrets"})
+    public String message;
+    
+    @Param({"true", "false"})
+    public boolean redaction;
+    
+    private File mLogsFolder;
+    
+    private String mMessage;
+    
+    private LogRedactor mLogRedactor;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        mMessage = ("secrets".equals(message) ? SECRETS : BenchmarkSupport.MESSAGE);
+        mLogRedactor = new LogRedactor();
+        if(!redaction) {
+            mLogRedactor.setSensitiveKeys(Collections.<String>emptyList());
+        }
+        LogHelper.getLogRedactor().setSensitiveKeys(mLogRedactor.getSensitiveKeys());
+        mLogsFolder = BenchmarkSupport.newLogsFolder();
+        BenchmarkSupport.nativeConfigure(mLogsFolder, LogType.INFO);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        LogHelper.getLogRedactor().setSensitiveKeys(LogRedactor.DEFAULT_SENSITIVE_KEYS);
+        BenchmarkSupport.logcatConfigure(LogType.INFO);
+        BenchmarkSupport.deleteLogsFolder(mLogsFolder);
+    }
+    
+    @Benchmark
+    public String redact() {
+        return mLogRedactor.redact(mMessage);
+    }
+    
+    @Benchmark
+    public void nativeInfo() {
+        LogHelper.i(BenchmarkSupport.LOG_TAG, mMessage);
+    }
+}
@@ -0,0 +1,9 @@
+package android.annotation;
+
+/**
+ * A compile-only stand-in of the Android class for running the logger on a plain JVM.
+ */
+public @interface TargetApi {
+    
+    int value();
+}
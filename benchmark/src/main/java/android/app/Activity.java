@@ -0,0 +1,12 @@
+package android.app;
+
+import android.content.Context;
+
+/**
+ * A compile-only stand-in of the Android class for running the logger on a plain JVM.
+ */
+public class Activity extends Context {
+    
+    public void setRequestedOrientation(int requestedOrientation) {
+    }
+}
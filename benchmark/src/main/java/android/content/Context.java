@@ -0,0 +1,36 @@
+package android.content;
+
+import android.content.res.AssetManager;
+import android.content.res.Resources;
+
+import java.io.File;
+
+/**
+ * A compile-only stand-in of the Android class for running the logger on a plain JVM.
+ */
+public abstract class Context {
+    
+    public File getFilesDir() {
+        return new File(System.getProperty("java.io.tmpdir"), "files");
+    }
+    
+    public File getCacheDir() {
+        return new File(System.getProperty("java.io.tmpdir"), "cache");
+    }
+    
+    public AssetManager getAssets() {
+        return new AssetManager();
+    }
+    
+    public Resources getResources() {
+        return new Resources();
+    }
+    
+    public String getPackageName() {
+        return "com.rslakra.android.logger.benchmark";
+    }
+    
+    public Context getApplicationContext() {
+        return this;
+    }
+}
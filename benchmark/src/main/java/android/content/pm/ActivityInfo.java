@@ -0,0 +1,11 @@
+package android.content.pm;
+
+/**
+ * A compile-only stand-in of the Android class for running the logger on a plain JVM.
+ */
+public class ActivityInfo {
+    
+    public static final int SCREEN_ORIENTATION_UNSPECIFIED = -1;
+    public static final int SCREEN_ORIENTATION_PORTRAIT = 1;
+    public static final int SCREEN_ORIENTATION_REVERSE_LANDSCAPE = 8;
+}
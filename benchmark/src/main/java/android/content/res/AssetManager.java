@@ -0,0 +1,21 @@
+package android.content.res;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A compile-only stand-in of the Android class for running the logger on a plain JVM. The assets
+ * are loaded from the classpath.
+ */
+public class AssetManager {
+    
+    public InputStream open(String fileName) throws IOException {
+        final InputStream inputStream = AssetManager.class.getClassLoader().getResourceAsStream(fileName);
+        if(inputStream == null) {
+            throw new FileNotFoundException(fileName);
+        }
+        
+        return inputStream;
+    }
+}
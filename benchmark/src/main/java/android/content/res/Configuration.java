@@ -0,0 +1,12 @@
+package android.content.res;
+
+/**
+ * A compile-only stand-in of the Android class for running the logger on a plain JVM.
+ */
+public class Configuration {
+    
+    public static final int ORIENTATION_PORTRAIT = 1;
+    public static final int ORIENTATION_LANDSCAPE = 2;
+    
+    public int orientation = ORIENTATION_PORTRAIT;
+}
@@ -0,0 +1,21 @@
+package android.content.res;
+
+import java.io.InputStream;
+
+/**
+ * A compile-only stand-in of the Android class for running the logger on a plain JVM.
+ */
+public class Resources {
+    
+    public Configuration getConfiguration() {
+        return new Configuration();
+    }
+    
+    public InputStream openRawResource(int id) {
+        return null;
+    }
+    
+    public int getIdentifier(String name, String defType, String defPackage) {
+        return 0;
+    }
+}
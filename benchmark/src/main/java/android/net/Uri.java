@@ -0,0 +1,58 @@
+package android.net;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A compile-only stand-in of the Android class for running the logger on a plain JVM.
+ */
+public class Uri {
+    
+    private final URI mUri;
+    
+    private Uri(final URI uri) {
+        mUri = uri;
+    }
+    
+    public static Uri parse(String uriString) {
+        return new Uri(URI.create(uriString));
+    }
+    
+    public String getScheme() {
+        return mUri.getScheme();
+    }
+    
+    public String getHost() {
+        return mUri.getHost();
+    }
+    
+    public String getPath() {
+        return mUri.getPath();
+    }
+    
+    public String getQuery() {
+        return mUri.getQuery();
+    }
+    
+    public Set<String> getQueryParameterNames() {
+        final String query = mUri.getQuery();
+        if(query == null) {
+            return Collections.emptySet();
+        }
+        
+        final Set<String> names = new LinkedHashSet<String>();
+        for(String parameter : query.split("&")) {
+            final int index = parameter.indexOf('=');
+            names.add(index < 0 ? parameter : parameter.substring(0, index));
+        }
+        
+        return Collections.unmodifiableSet(names);
+    }
+    
+    @Override
+    public String toString() {
+        return mUri.toString();
+    }
+}
@@ -0,0 +1,17 @@
+package android.os;
+
+/**
+ * A compile-only stand-in of the Android class for running the logger on a plain JVM.
+ */
+public class Build {
+    
+    public static class VERSION {
+        
+        public static final int SDK_INT = 19;
+    }
+    
+    public static class VERSION_CODES {
+        
+        public static final int GINGERBREAD_MR1 = 10;
+    }
+}
@@ -0,0 +1,24 @@
+package android.os;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * A compile-only stand-in of the Android class for running the logger on a plain JVM. The pid is
+ * taken from the runtime name (<code>pid@host</code>), so the JVMs sharing a logs folder get
+ * their own segments.
+ */
+public class Process {
+    
+    public static int myPid() {
+        final String runtimeName = ManagementFactory.getRuntimeMXBean().getName();
+        try {
+            return Integer.parseInt(runtimeName.substring(0, runtimeName.indexOf('@')));
+        } catch(RuntimeException ex) {
+            return 1;
+        }
+    }
+    
+    public static int myTid() {
+        return (int) Thread.currentThread().getId();
+    }
+}
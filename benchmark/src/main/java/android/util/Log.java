@@ -0,0 +1,115 @@
+package android.util;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * A logcat stand-in for running the logger on a plain JVM. Nothing is printed, the length of the
+ * logged messages is accumulated instead, so that the JIT can't eliminate the calls.
+ */
+public final class Log {
+    
+    public static final int VERBOSE = 2;
+    public static final int DEBUG = 3;
+    public static final int INFO = 4;
+    public static final int WARN = 5;
+    public static final int ERROR = 6;
+    public static final int ASSERT = 7;
+    
+    /** sLoggedChars */
+    private static volatile long sLoggedChars;
+    
+    private Log() {
+    }
+    
+    /**
+     * Returns the number of characters logged so far.
+     *
+     * @return
+     */
+    public static long getLoggedChars() {
+        return sLoggedChars;
+    }
+    
+    private static int log(final String tag, final String msg, final Throwable tr) {
+        final int length = (tag == null ? 0 : tag.length()) + (msg == null ? 0 : msg.length()) + (tr == null ? 0 : 1);
+        sLoggedChars += length;
+        return length;
+    }
+    
+    public static int v(String tag, String msg) {
+        return log(tag, msg, null);
+    }
+    
+    public static int v(String tag, String msg, Throwable tr) {
+        return log(tag, msg, tr);
+    }
+    
+    public static int d(String tag, String msg) {
+        return log(tag, msg, null);
+    }
+    
+    public static int d(String tag, String msg, Throwable tr) {
+        return log(tag, msg, tr);
+    }
+    
+    public static int i(String tag, String msg) {
+        return log(tag, msg, null);
+    }
+    
+    public static int i(String tag, String msg, Throwable tr) {
+        return log(tag, msg, tr);
+    }
+    
+    public static int w(String tag, String msg) {
+        return log(tag, msg, null);
+    }
+    
+    public static int w(String tag, String msg, Throwable tr) {
+        return log(tag, msg, tr);
+    }
+    
+    public static int w(String tag, Throwable tr) {
+        return log(tag, null, tr);
+    }
+    
+    public static int e(String tag, String msg) {
+        return log(tag, msg, null);
+    }
+    
+    public static int e(String tag, String msg, Throwable tr) {
+        return log(tag, msg, tr);
+    }
+    
+    public static int wtf(String tag, String msg) {
+        return log(tag, msg, null);
+    }
+    
+    public static int wtf(String tag, String msg, Throwable tr) {
+        return log(tag, msg, tr);
+    }
+    
+    public static int wtf(String tag, Throwable tr) {
+        return log(tag, null, tr);
+    }
+    
+    public static int println(int priority, String tag, String msg) {
+        return log(tag, msg, null);
+    }
+    
+    public static boolean isLoggable(String tag, int level) {
+        return true;
+    }
+    
+    public static String getStackTraceString(Throwable tr) {
+        if(tr == null) {
+            return "";
+        }
+        
+        final StringWriter stringWriter = new StringWriter();
+        final PrintWriter printWriter = new PrintWriter(stringWriter);
+        tr.printStackTrace(printWriter);
+        printWriter.flush();
+        return stringWriter.toString();
+    }
+}
@@ -0,0 +1,17 @@
+package android.webkit;
+
+import android.net.Uri;
+
+import java.util.Map;
+
+/**
+ * A compile-only stand-in of the Android class for running the logger on a plain JVM.
+ */
+public interface WebResourceRequest {
+    
+    Uri getUrl();
+    
+    String getMethod();
+    
+    Map<String, String> getRequestHeaders();
+}
@@ -0,0 +1,18 @@
+package android.widget;
+
+import android.content.Context;
+
+/**
+ * A compile-only stand-in of the Android class for running the logger on a plain JVM.
+ */
+public class Toast {
+    
+    public static final int LENGTH_SHORT = 0;
+    
+    public static Toast makeText(Context context, CharSequence text, int duration) {
+        return new Toast();
+    }
+    
+    public void show() {
+    }
+}
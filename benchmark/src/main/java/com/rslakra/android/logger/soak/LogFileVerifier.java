@@ -0,0 +1,163 @@
+package com.rslakra.android.logger.soak;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Verifies the log files written by the <code>SoakTest</code>. Every event carries a
+ * <code>[soak:phase:thread:sequence]</code> marker, so the lost, the duplicated and the reordered
+ * events of each thread can be counted by reading the active file and the rolled backups from the
+ * oldest to the newest.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 02:52:03 PM
+ * @since 1.0.0
+ */
+public final class LogFileVerifier {
+    
+    /** MARKER */
+    public static final String MARKER = "[soak:";
+    
+    /** mSeen - indexed by [phase][thread]. */
+    private final BitSet[][] mSeen;
+    
+    /** mLastSequences - indexed by [phase][thread]. */
+    private final long[][] mLastSequences;
+    
+    private long mDuplicates;
+    private long mReordered;
+    private long mFileBytes;
+    private long mMalformed;
+    
+    /**
+     * @param phaseThreads the number of threads of each phase.
+     */
+    public LogFileVerifier(final int[] phaseThreads) {
+        mSeen = new BitSet[phaseThreads.length][];
+        mLastSequences = new long[phaseThreads.length][];
+        for(int phase = 0; phase < phaseThreads.length; phase++) {
+            mSeen[phase] = new BitSet[phaseThreads[phase]];
+            mLastSequences[phase] = new long[phaseThreads[phase]];
+            for(int thread = 0; thread < phaseThreads[phase]; thread++) {
+                mSeen[phase][thread] = new BitSet();
+                mLastSequences[phase][thread] = -1;
+            }
+        }
+    }
+    
+    /**
+     * Returns the log files of the given <code>fileName</code> under the <code>logsFolder</code>
+     * ordered from the oldest backup to the active file.
+     *
+     * @param logsFolder
+     * @param fileName
+     * @param maxBackupFiles
+     * @return
+     */
+    public static List<File> logFiles(final File logsFolder, final String fileName, final int maxBackupFiles) {
+        final List<File> logFiles = new ArrayList<File>();
+        for(int index = maxBackupFiles; index > 0; index--) {
+            final File backupFile = new File(logsFolder, fileName + "." + index);
+            if(backupFile.isFile()) {
+                logFiles.add(backupFile);
+            }
+        }
+        final File logFile = new File(logsFolder, fileName);
+        if(logFile.isFile()) {
+            logFiles.add(logFile);
+        }
+        
+        return logFiles;
+    }
+    
+    /**
+     * Reads the given <code>logFile</code> and records its markers.
+     *
+     * @param logFile
+     * @throws IOException
+     */
+    public void verify(final File logFile) throws IOException {
+        mFileBytes += logFile.length();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(logFile), "UTF-8"));
+        try {
+            String line;
+            while((line = reader.readLine()) != null) {
+                final int start = line.indexOf(MARKER);
+                if(start >= 0) {
+                    record(line, start + MARKER.length());
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+    
+    private void record(final String line, final int start) {
+        final int end = line.indexOf(']', start);
+        if(end < 0) {
+            mMalformed++;
+            return;
+        }
+        
+        final String[] parts = line.substring(start, end).split(":");
+        if(parts.length != 3) {
+            mMalformed++;
+            return;
+        }
+        
+        final int phase = Integer.parseInt(parts[0]);
+        final int thread = Integer.parseInt(parts[1]);
+        final int sequence = Integer.parseInt(parts[2]);
+        if(phase >= mSeen.length || thread >= mSeen[phase].length) {
+            mMalformed++;
+            return;
+        }
+        
+        if(mSeen[phase][thread].get(sequence)) {
+            mDuplicates++;
+        } else {
+            mSeen[phase][thread].set(sequence);
+        }
+        if(sequence < mLastSequences[phase][thread]) {
+            mReordered++;
+        }
+        mLastSequences[phase][thread] = sequence;
+    }
+    
+    /**
+     * Returns the number of lost events of the given <code>phase</code> and <code>thread</code>,
+     * which wrote <code>expected</code> events.
+     *
+     * @param phase
+     * @param thread
+     * @param expected
+     * @return
+     */
+    public long getLost(final int phase, final int thread, final long expected) {
+        return expected - mSeen[phase][thread].cardinality();
+    }
+    
+    public long getDuplicates() {
+        return mDuplicates;
+    }
+    
+    public long getReordered() {
+        return mReordered;
+    }
+    
+    public long getFileBytes() {
+        return mFileBytes;
+    }
+    
+    public long getMalformed() {
+        return mMalformed;
+    }
+}
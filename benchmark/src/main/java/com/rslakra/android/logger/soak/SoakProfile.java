@@ -0,0 +1,187 @@
+package com.rslakra.android.logger.soak;
+
+import com.rslakra.android.logger.LogHelper;
+import com.rslakra.android.logger.LogType;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * The traffic profile replayed by the <code>SoakTest</code>, loaded from a properties file
+ * recorded from the production logs.
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 02:35:26 PM
+ * @since 1.0.0
+ */
+public final class SoakProfile {
+    
+    /** DEFAULT_PROFILE - the profile bundled on the classpath. */
+    public static final String DEFAULT_PROFILE = "soak/default.properties";
+    
+    private int[] mThreads;
+    private long mDurationSeconds;
+    private long mEventsPerSecond;
+    private LogType[] mLevels;
+    private int[] mLevelWeights;
+    private int[] mMessageSizes;
+    private int[] mMessageSizeWeights;
+    private double mThrowableRate;
+    private String[] mTags;
+    private LogType mLogLevel;
+    private long mMaxFileSize;
+    private int mMaxBackupFiles;
+    private boolean mImmediateFlush;
+    
+    private SoakProfile() {
+    }
+    
+    /**
+     * Loads the profile from the given <code>profilePath</code> file or the bundled default
+     * profile, if the <code>profilePath</code> is either null or empty.
+     *
+     * @param profilePath
+     * @return
+     * @throws IOException
+     */
+    public static SoakProfile load(final String profilePath) throws IOException {
+        final InputStream inputStream;
+        if(LogHelper.isNullOrEmpty(profilePath)) {
+            inputStream = SoakProfile.class.getClassLoader().getResourceAsStream(DEFAULT_PROFILE);
+            if(inputStream == null) {
+                throw new IOException("Missing profile:" + DEFAULT_PROFILE);
+            }
+        } else {
+            inputStream = new FileInputStream(profilePath);
+        }
+        
+        final Properties properties = LogHelper.loadProperties(inputStream, true);
+        final SoakProfile soakProfile = new SoakProfile();
+        soakProfile.mThreads = toInts(properties.getProperty("threads", "1, 4, 16").split(","));
+        soakProfile.mDurationSeconds = Long.parseLong(properties.getProperty("durationSeconds", "30").trim());
+        soakProfile.mEventsPerSecond = Long.parseLong(properties.getProperty("eventsPerSecond", "0").trim());
+        
+        final String[] levels = properties.getProperty("levels", "INFO:1").split(",");
+        soakProfile.mLevels = new LogType[levels.length];
+        soakProfile.mLevelWeights = new int[levels.length];
+        for(int i = 0; i < levels.length; i++) {
+            final String[] pair = levels[i].split(":");
+            soakProfile.mLevels[i] = LogType.toLogType(pair[0].trim());
+            soakProfile.mLevelWeights[i] = Integer.parseInt(pair[1].trim());
+        }
+        
+        final String[] messageSizes = properties.getProperty("messageSizes", "100:1").split(",");
+        soakProfile.mMessageSizes = new int[messageSizes.length];
+        soakProfile.mMessageSizeWeights = new int[messageSizes.length];
+        for(int i = 0; i < messageSizes.length; i++) {
+            final String[] pair = messageSizes[i].split(":");
+            soakProfile.mMessageSizes[i] = Integer.parseInt(pair[0].trim());
+            soakProfile.mMessageSizeWeights[i] = Integer.parseInt(pair[1].trim());
+        }
+        
+        soakProfile.mThrowableRate = Double.parseDouble(properties.getProperty("throwableRate", "0").trim());
+        final String[] tags = properties.getProperty("tags", "SoakTest").split(",");
+        for(int i = 0; i < tags.length; i++) {
+            tags[i] = tags[i].trim();
+        }
+        soakProfile.mTags = tags;
+        soakProfile.mLogLevel = LogType.toLogType(properties.getProperty("logLevel", "VERBOSE").trim());
+        soakProfile.mMaxFileSize = Long.parseLong(properties.getProperty("maxFileSize", "64").trim()) * LogHelper.MB_SIZE;
+        soakProfile.mMaxBackupFiles = Integer.parseInt(properties.getProperty("maxBackupFiles", "16").trim());
+        soakProfile.mImmediateFlush = Boolean.parseBoolean(properties.getProperty("immediateFlush", "true").trim());
+        return soakProfile;
+    }
+    
+    private static int[] toInts(final String[] values) {
+        final int[] ints = new int[values.length];
+        for(int i = 0; i < values.length; i++) {
+            ints[i] = Integer.parseInt(values[i].trim());
+        }
+        
+        return ints;
+    }
+    
+    /**
+     * Returns the item of the given <code>weights</code>, which the <code>random</code> value in
+     * the range [0, sum(weights)) falls into.
+     *
+     * @param weights
+     * @param random
+     * @return
+     */
+    static int pick(final int[] weights, int random) {
+        for(int i = 0; i < weights.length; i++) {
+            random -= weights[i];
+            if(random < 0) {
+                return i;
+            }
+        }
+        
+        return weights.length - 1;
+    }
+    
+    static int sum(final int[] weights) {
+        int sum = 0;
+        for(int weight : weights) {
+            sum += weight;
+        }
+        
+        return sum;
+    }
+    
+    public int[] getThreads() {
+        return mThreads;
+    }
+    
+    public long getDurationSeconds() {
+        return mDurationSeconds;
+    }
+    
+    public long getEventsPerSecond() {
+        return mEventsPerSecond;
+    }
+    
+    public LogType[] getLevels() {
+        return mLevels;
+    }
+    
+    public int[] getLevelWeights() {
+        return mLevelWeights;
+    }
+    
+    public int[] getMessageSizes() {
+        return mMessageSizes;
+    }
+    
+    public int[] getMessageSizeWeights() {
+        return mMessageSizeWeights;
+    }
+    
+    public double getThrowableRate() {
+        return mThrowableRate;
+    }
+    
+    public String[] getTags() {
+        return mTags;
+    }
+    
+    public LogType getLogLevel() {
+        return mLogLevel;
+    }
+    
+    public long getMaxFileSize() {
+        return mMaxFileSize;
+    }
+    
+    public int getMaxBackupFiles() {
+        return mMaxBackupFiles;
+    }
+    
+    public boolean isImmediateFlush() {
+        return mImmediateFlush;
+    }
+}
@@ -0,0 +1,210 @@
+package com.rslakra.android.logger.soak;
+
+import com.rslakra.android.logger.LogHelper;
+import com.rslakra.android.logger.LogHistogram;
+import com.rslakra.android.logger.LogType;
+
+import org.apache.log4j.LogManager;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A headless soak test, which replays a recorded traffic profile against the logger configured by
+ * the <code>Log4JConfigurator</code> and reports the caller latency percentiles, the sustained
+ * throughput, the bytes written into the files and the lost or reordered events.
+ * <p>
+ * Usage: <code>SoakTest [profile.properties] [logsFolder]</code>
+ *
+ * @author Rohtash Lakra (rohtash.lakra@devamatre.com)
+ * @author Rohtash Singh Lakra (rohtash.singh@gmail.com)
+ * @version 1.0.0
+ * @created 2026-10-19 03:08:41 PM
+ * @since 1.0.0
+ */
+public final class SoakTest {
+    
+    /** LOG_FILE_NAME */
+    private static final String LOG_FILE_NAME = "soak.log";
+    
+    private final SoakProfile mSoakProfile;
+    private final File mLogsFolder;
+    
+    /** mWritten - the events written by each [phase][thread]. */
+    private final long[][] mWritten;
+    
+    public SoakTest(final SoakProfile soakProfile, final File logsFolder) {
+        mSoakProfile = soakProfile;
+        mLogsFolder = logsFolder;
+        mWritten = new long[soakProfile.getThreads().length][];
+    }
+    
+    public static void main(final String[] args) throws Exception {
+        final SoakProfile soakProfile = SoakProfile.load(args.length > 0 ? args[0] : null);
+        final File logsFolder = (args.length > 1 ? new File(args[1]) : new File(System.getProperty("java.io.tmpdir"), "androidLogger-soak"));
+        LogHelper.deleteRecursively(logsFolder, true);
+        LogHelper.makeFolders(logsFolder);
+        
+        final SoakTest soakTest = new SoakTest(soakProfile, logsFolder);
+        soakTest.configure();
+        final int[] threads = soakProfile.getThreads();
+        for(int phase = 0; phase < threads.length; phase++) {
+            soakTest.runPhase(phase, threads[phase]);
+        }
+        
+        // flush and close all the appenders before reading the files.
+        LogManager.shutdown();
+        System.exit(soakTest.verify() ? 0 : 1);
+    }
+    
+    private void configure() {
+        LogHelper.getLog4JConfigurator().setImmediateFlush(mSoakProfile.isImmediateFlush());
+        LogHelper.log4JConfigure(mLogsFolder.getAbsolutePath(), LOG_FILE_NAME, mSoakProfile.getLogLevel(), LogHelper.LOG_PATTERN, mSoakProfile.getMaxBackupFiles(), mSoakProfile.getMaxFileSize());
+    }
+    
+    private void runPhase(final int phase, final int threadCount) throws InterruptedException {
+        final LogHistogram[] latencies = new LogHistogram[threadCount];
+        final Thread[] threads = new Thread[threadCount];
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        mWritten[phase] = new long[threadCount];
+        for(int thread = 0; thread < threadCount; thread++) {
+            latencies[thread] = new LogHistogram();
+            threads[thread] = new Thread(new Replayer(phase, thread, latencies[thread], startLatch), "soak-" + phase + "-" + thread);
+            threads[thread].start();
+        }
+        
+        final long startTime = System.nanoTime();
+        startLatch.countDown();
+        for(Thread thread : threads) {
+            thread.join();
+        }
+        final long elapsedNanos = System.nanoTime() - startTime;
+        
+        final LogHistogram phaseLatencies = new LogHistogram();
+        long events = 0;
+        for(int thread = 0; thread < threadCount; thread++) {
+            phaseLatencies.add(latencies[thread]);
+            events += mWritten[phase][thread];
+        }
+        
+        final LogHistogram.Snapshot snapshot = phaseLatencies.snapshot();
+        System.out.println(String.format("phase=%d threads=%d events=%d throughput=%.0f events/s latency(ns) p50=%d p99=%d p99.9=%d max=%d", phase, threadCount, events, events * 1e9 / elapsedNanos, snapshot.getValueAtPercentile(50.0d), snapshot.getValueAtPercentile(99.0d), snapshot.getValueAtPercentile(99.9d), snapshot.getMaxValue()));
+    }
+    
+    private boolean verify() throws Exception {
+        final LogFileVerifier verifier = new LogFileVerifier(mSoakProfile.getThreads());
+        for(File logFile : LogFileVerifier.logFiles(mLogsFolder, LOG_FILE_NAME, mSoakProfile.getMaxBackupFiles())) {
+            verifier.verify(logFile);
+        }
+        
+        long lost = 0;
+        for(int phase = 0; phase < mWritten.length; phase++) {
+            for(int thread = 0; thread < mWritten[phase].length; thread++) {
+                lost += verifier.getLost(phase, thread, mWritten[phase][thread]);
+            }
+        }
+        
+        System.out.println(String.format("fileBytes=%d lost=%d duplicates=%d reordered=%d malformed=%d", verifier.getFileBytes(), lost, verifier.getDuplicates(), verifier.getReordered(), verifier.getMalformed()));
+        return (lost == 0 && verifier.getDuplicates() == 0 && verifier.getReordered() == 0);
+    }
+    
+    /**
+     * Replays the profile on one thread.
+     */
+    private final class Replayer implements Runnable {
+        
+        private final int mPhase;
+        private final int mThread;
+        private final LogHistogram mLatencies;
+        private final CountDownLatch mStartLatch;
+        
+        private Replayer(final int phase, final int thread, final LogHistogram latencies, final CountDownLatch startLatch) {
+            mPhase = phase;
+            mThread = thread;
+            mLatencies = latencies;
+            mStartLatch = startLatch;
+        }
+        
+        @Override
+        public void run() {
+            final SoakProfile soakProfile = mSoakProfile;
+            final String[] fillers = new String[soakProfile.getMessageSizes().length];
+            for(int i = 0; i < fillers.length; i++) {
+                final StringBuilder filler = new StringBuilder();
+                while(filler.length() < soakProfile.getMessageSizes()[i]) {
+                    filler.append("lorem ipsum dolor sit amet ");
+                }
+                fillers[i] = filler.substring(0, soakProfile.getMessageSizes()[i]);
+            }
+            
+            final Throwable throwable = new IllegalStateException("soak failure");
+            final int levelTotal = SoakProfile.sum(soakProfile.getLevelWeights());
+            final int sizeTotal = SoakProfile.sum(soakProfile.getMessageSizeWeights());
+            final String tag = soakProfile.getTags()[mThread % soakProfile.getTags().length];
+            final long intervalNanos = (soakProfile.getEventsPerSecond() > 0 ? TimeUnit.SECONDS.toNanos(1) / soakProfile.getEventsPerSecond() : 0);
+            long random = 0x9E3779B97F4A7C15L ^ (mPhase * 31 + mThread);
+            
+            try {
+                mStartLatch.await();
+            } catch(InterruptedException ex) {
+                return;
+            }
+            
+            final long startTime = System.nanoTime();
+            final long endTime = startTime + TimeUnit.SECONDS.toNanos(soakProfile.getDurationSeconds());
+            long sequence = 0;
+            long intendedTime = startTime;
+            while(true) {
+                if(intervalNanos > 0) {
+                    intendedTime = startTime + sequence * intervalNanos;
+                    while(System.nanoTime() < intendedTime) {
+                        Thread.yield();
+                    }
+                }
+                if(intendedTime >= endTime || (intervalNanos == 0 && System.nanoTime() >= endTime)) {
+                    break;
+                }
+                
+                random ^= random << 13;
+                random ^= random >>> 7;
+                random ^= random << 17;
+                final LogType logType = soakProfile.getLevels()[SoakProfile.pick(soakProfile.getLevelWeights(), (int) ((random >>> 33) % levelTotal))];
+                final String filler = fillers[SoakProfile.pick(soakProfile.getMessageSizeWeights(), (int) ((random >>> 17) % sizeTotal))];
+                final boolean withThrowable = ((random & 0xFFFF) < soakProfile.getThrowableRate() * 0x10000) && (logType == LogType.ERROR || logType == LogType.WARN);
+                final String message = LogFileVerifier.MARKER + mPhase + ":" + mThread + ":" + sequence + "] " + filler;
+                
+                final long callStart = (intervalNanos > 0 ? intendedTime : System.nanoTime());
+                log(logType, tag, message, (withThrowable ? throwable : null));
+                mLatencies.record(System.nanoTime() - callStart);
+                sequence++;
+            }
+            
+            mWritten[mPhase][mThread] = sequence;
+        }
+        
+        private void log(final LogType logType, final String tag, final String message, final Throwable throwable) {
+            switch(logType) {
+                case ERROR:
+                    LogHelper.e(tag, message, throwable);
+                    break;
+                case WARN:
+                    if(throwable == null) {
+                        LogHelper.w(tag, message);
+                    } else {
+                        LogHelper.w(tag, message + " " + throwable);
+                    }
+                    break;
+                case INFO:
+                    LogHelper.i(tag, message);
+                    break;
+                case DEBUG:
+                    LogHelper.d(tag, message);
+                    break;
+                default:
+                    LogHelper.v(tag, message);
+                    break;
+            }
+        }
+    }
+}